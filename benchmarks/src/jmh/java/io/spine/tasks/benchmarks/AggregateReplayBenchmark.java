@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import com.google.common.io.MoreFiles;
+import io.spine.base.Environment;
+import io.spine.server.BoundedContext;
+import io.spine.server.ServerEnvironment;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.server.transport.memory.InMemoryTransportFactory;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.storage.SegmentStorageFactory;
+import io.spine.tasks.server.task.TaskAggregate;
+import io.spine.tasks.server.task.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+
+/**
+ * Measures loading a {@code TaskAggregate} with histories of different sizes.
+ *
+ * <p>The aggregate is loaded through {@code TaskRepository}, which reads the history from
+ * the storage and replays it. The snapshots are disabled, so that the full history is replayed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AggregateReplayBenchmark {
+
+    private static final int NO_SNAPSHOTS = Integer.MAX_VALUE;
+
+    @Param({"1", "10", "100", "1000"})
+    private int historySize;
+
+    @Param({"memory", "segments"})
+    private String storage;
+
+    private final TaskId taskId = TaskIds.generate();
+    private Path directory;
+    private BoundedContext context;
+    private TaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ServerEnvironment
+                .when(Environment.instance()
+                                 .type())
+                .use(storageFactory())
+                .use(InMemoryTransportFactory.newInstance());
+        repository = new TaskRepository(NO_SNAPSHOTS);
+        context = BoundedContext
+                .singleTenant("ReplayBenchmark")
+                .add(repository)
+                .build();
+        for (int i = 0; i < historySize; i++) {
+            context.commandBus()
+                   .post(Requests.createTask(taskId, "Revision #" + i), noOpObserver());
+        }
+    }
+
+    private StorageFactory storageFactory() throws IOException {
+        if ("segments".equals(storage)) {
+            directory = Files.createTempDirectory("replay-benchmark");
+            return SegmentStorageFactory
+                    .newBuilder()
+                    .setDirectory(directory)
+                    .setCacheSize(0)
+                    .build();
+        }
+        return InMemoryStorageFactory.newInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        if (directory != null) {
+            MoreFiles.deleteRecursively(directory, ALLOW_INSECURE);
+        }
+    }
+
+    @Benchmark
+    public Optional<TaskAggregate> loadAggregate() {
+        return repository.find(taskId);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.benchmarks;
+
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Environment;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.BoundedContext;
+import io.spine.server.CommandService;
+import io.spine.server.ServerEnvironment;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.server.transport.memory.InMemoryTransportFactory;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.command.IdempotentCommandService;
+import io.spine.tasks.server.command.RecentCommands;
+import io.spine.tasks.server.task.TaskRepository;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+
+/**
+ * Measures posting a {@code CreateTask} command which the client repeats several times, as it
+ * does when it does not receive the acknowledgement in time.
+ *
+ * <p>With the deduplication, the repeats are answered by {@link IdempotentCommandService}
+ * with the acknowledgement of the original command. Without it, each repeat is handled by
+ * {@code TaskAggregate}, which loads the aggregate again.
+ *
+ * <p>The {@link Loads#handled handled} counter reports the rate of the commands which reached
+ * the context, i.e. the aggregate loads. The benchmark is meant to be run in a single thread,
+ * so that the counter is exact.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandDeduplicationBenchmark {
+
+    private static final int RECENT_COMMANDS = 100_000;
+    private static final int SNAPSHOT_TRIGGER = 100;
+
+    @Param({"true", "false"})
+    private boolean deduplication;
+
+    @Param({"1", "4"})
+    private int attempts;
+
+    private BoundedContext context;
+    private CountingService contextService;
+    private CommandServiceImplBase commandService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ServerEnvironment
+                .when(Environment.instance()
+                                 .type())
+                .use(InMemoryStorageFactory.newInstance())
+                .use(InMemoryTransportFactory.newInstance());
+        context = BoundedContext
+                .singleTenant("DeduplicationBenchmark")
+                .add(new TaskRepository(SNAPSHOT_TRIGGER))
+                .build();
+        CommandService service = CommandService
+                .newBuilder()
+                .add(context)
+                .build();
+        contextService = new CountingService(service);
+        commandService = deduplication
+                         ? new IdempotentCommandService(
+                                 contextService,
+                                 new RecentCommands(RECENT_COMMANDS, Duration.ofMinutes(5)))
+                         : contextService;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public Ack createTask(Loads loads) {
+        Command command = Requests.createTask(TaskIds.generate(), "Benchmark the retries");
+        long before = contextService.handled();
+        Ack ack = null;
+        for (int i = 0; i < attempts; i++) {
+            MemoizingObserver<Ack> observer = memoizingObserver();
+            commandService.post(command, observer);
+            ack = observer.firstResponse();
+        }
+        loads.handled += contextService.handled() - before;
+        return ack;
+    }
+
+    /**
+     * The number of the commands handled by the context, reported along with the results of
+     * the benchmark.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Loads {
+
+        public long handled;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            handled = 0;
+        }
+    }
+
+    /**
+     * A command service which counts the commands passed to the context.
+     */
+    private static final class CountingService extends CommandServiceImplBase {
+
+        private final CommandService delegate;
+        private final LongAdder handled = new LongAdder();
+
+        private CountingService(CommandService delegate) {
+            super();
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void post(Command request, StreamObserver<Ack> responseObserver) {
+            handled.increment();
+            delegate.post(request, responseObserver);
+        }
+
+        private long handled() {
+            return handled.sum();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.CommandService;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.TasksContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+
+/**
+ * Measures the dispatching of {@code CreateTask} commands through the {@code CommandService}
+ * of the {@code Tasks} context.
+ *
+ * <p>Each command creates a new task, so the measured path includes the command validation,
+ * the routing, the handling by {@code TaskAggregate} and storing the produced event.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CommandDispatchBenchmark {
+
+    private CommandService commandService;
+
+    @Setup
+    public void setUp() {
+        commandService = TasksContext.commandService();
+    }
+
+    @Benchmark
+    public Ack createTask() {
+        Command command = Requests.createTask(TaskIds.generate(), "Benchmark the dispatch");
+        MemoizingObserver<Ack> observer = memoizingObserver();
+        commandService.post(command, observer);
+        return observer.firstResponse();
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.CommandServiceGrpc;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceBlockingStub;
+import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceBlockingStub;
+import io.spine.core.Ack;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.ServerConfig;
+import io.spine.tasks.server.TasksServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the gRPC server of the {@code Tasks} context with concurrent clients under different
+ * {@linkplain ServerConfig server configurations}.
+ *
+ * <p>Each trial starts a {@link TasksServer} on a free local port and sends the commands and
+ * the queries to it through a real channel, so that the Netty event loops, the application
+ * executor and the flow control all take part in the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class GrpcServerLoadBenchmark {
+
+    private static final String HOST = "127.0.0.1";
+
+    @Param({"default", "work-stealing"})
+    private String executor;
+
+    @Param({"false", "true"})
+    private boolean directQueries;
+
+    @Param({"65535", "1048576"})
+    private int flowControlWindow;
+
+    private TasksServer server;
+    private ManagedChannel channel;
+    private CommandServiceBlockingStub commands;
+    private QueryServiceBlockingStub queries;
+    private TaskId existingTask;
+
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("tasks.server.host", HOST);
+        properties.setProperty("tasks.server.port", "0");
+        properties.setProperty("tasks.server.executor", executor);
+        properties.setProperty("tasks.server.direct-queries", String.valueOf(directQueries));
+        properties.setProperty("tasks.server.flow-control-window",
+                               String.valueOf(flowControlWindow));
+        server = TasksServer.create(ServerConfig.from(properties));
+        server.start();
+        channel = ManagedChannelBuilder
+                .forAddress(HOST, server.port())
+                .usePlaintext()
+                .build();
+        commands = CommandServiceGrpc.newBlockingStub(channel);
+        queries = QueryServiceGrpc.newBlockingStub(channel);
+        existingTask = TaskIds.generate();
+        commands.post(Requests.createTask(existingTask, "Load me"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws InterruptedException {
+        channel.shutdown()
+               .awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Ack createTask() {
+        return commands.post(Requests.createTask(TaskIds.generate(), "Load test"));
+    }
+
+    @Benchmark
+    public QueryResponse readTask() {
+        return queries.read(Requests.taskById(existingTask));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.TasksContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Measures how the handling of {@code CreateTask} commands scales with the number of
+ * the command lanes of the {@code Tasks} context.
+ *
+ * <p>A single producer posts a batch of commands to distinct tasks and waits for all of them
+ * to be acknowledged. With zero lanes, the commands are handled on the producer thread, as
+ * they were before the lanes. Otherwise, they are handled by the lanes in parallel.
+ *
+ * <p>The number of lanes is read by {@link TasksContext} when the class is initialized, so
+ * each value runs in a separate fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LaneDispatchBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    @Param({"0", "1", "2", "4", "8"})
+    private int lanes;
+
+    private CommandServiceImplBase commandService;
+    private ImmutableList<Command> commands;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty("tasks.command.lanes", String.valueOf(lanes));
+        commandService = TasksContext.lanedCommandService();
+    }
+
+    @Setup(Level.Invocation)
+    public void prepareCommands() {
+        commands = IntStream.range(0, BATCH)
+                            .mapToObj(i -> Requests.createTask(TaskIds.generate(), "Lane " + i))
+                            .collect(toImmutableList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void createTasks() throws InterruptedException {
+        CountDownLatch acknowledged = new CountDownLatch(BATCH);
+        StreamObserver<Ack> observer = new StreamObserver<Ack>() {
+            @Override
+            public void onNext(Ack value) {
+                acknowledged.countDown();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                acknowledged.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                // The acknowledgement is already counted.
+            }
+        };
+        for (Command command : commands) {
+            commandService.post(command, observer);
+        }
+        acknowledged.await();
+    }
+}
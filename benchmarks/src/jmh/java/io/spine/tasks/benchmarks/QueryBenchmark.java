@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.CommandService;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.TasksContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+
+/**
+ * Measures reading {@code Task}s through the {@code QueryService} of the {@code Tasks} context.
+ *
+ * <p>The context is filled with the given number of tasks before the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryBenchmark {
+
+    @Param({"1000", "10000"})
+    private int taskCount;
+
+    private final List<TaskId> ids = new ArrayList<>();
+    private QueryServiceImplBase queryService;
+    private Query allTasks;
+
+    @Setup
+    public void setUp() {
+        CommandService commandService = TasksContext.commandService();
+        queryService = TasksContext.queryService();
+        for (int i = 0; i < taskCount; i++) {
+            TaskId id = TaskIds.generate();
+            commandService.post(Requests.createTask(id, "Query me #" + i), noOpObserver());
+            ids.add(id);
+        }
+        allTasks = Requests.allTasks();
+    }
+
+    @Benchmark
+    public QueryResponse readById() {
+        TaskId id = ids.get(ThreadLocalRandom.current()
+                                             .nextInt(ids.size()));
+        return read(Requests.taskById(id));
+    }
+
+    @Benchmark
+    public QueryResponse readAll() {
+        return read(allTasks);
+    }
+
+    private QueryResponse read(Query query) {
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+        queryService.read(query, observer);
+        return observer.firstResponse();
+    }
+}
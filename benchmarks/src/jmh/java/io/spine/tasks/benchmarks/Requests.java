@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.OrderBy;
+import io.spine.client.Query;
+import io.spine.client.Topic;
+import io.spine.core.Command;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.command.CreateTask;
+
+import static io.spine.base.Identifier.newUuid;
+import static io.spine.client.Filters.eq;
+import static io.spine.client.Filters.ge;
+
+/**
+ * A factory of the requests sent to the {@code Tasks} context in benchmarks.
+ */
+final class Requests {
+
+    private static final String TITLE = "title";
+
+    private static final ActorRequestFactory factory = ActorRequestFactory
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue(newUuid())
+                            .vBuild())
+            .build();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private Requests() {
+    }
+
+    /**
+     * Creates a {@code CreateTask} command for the task with the given ID.
+     */
+    static Command createTask(TaskId id, String title) {
+        CreateTask message = CreateTask
+                .newBuilder()
+                .setId(id)
+                .setTitle(title)
+                .vBuild();
+        return factory.command()
+                      .create(message);
+    }
+
+    /**
+     * Creates a query for the {@code Task} with the given ID.
+     */
+    static Query taskById(TaskId id) {
+        return factory.query()
+                      .byIds(Task.class, ImmutableSet.of(id));
+    }
+
+    /**
+     * Creates a query for all the {@code Task}s.
+     */
+    static Query allTasks() {
+        return factory.query()
+                      .all(Task.class);
+    }
+
+    /**
+     * Creates a query for the {@code Task}s with the given title.
+     */
+    static Query tasksTitled(String title) {
+        return factory.query()
+                      .select(Task.class)
+                      .where(eq(TITLE, title))
+                      .build();
+    }
+
+    /**
+     * Creates a query for the given number of the {@code Task}s, starting from the given title
+     * in the alphabetical order of the titles.
+     */
+    static Query tasksStartingFrom(String title, int limit) {
+        return factory.query()
+                      .select(Task.class)
+                      .where(ge(TITLE, title))
+                      .orderBy(TITLE, OrderBy.Direction.ASCENDING)
+                      .limit(limit)
+                      .build();
+    }
+
+    /**
+     * Creates a topic of the updates of all the {@code Task}s.
+     */
+    static Topic allTasksTopic() {
+        return factory.topic()
+                      .allOf(Task.class);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.CommandServiceGrpc;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceBlockingStub;
+import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceBlockingStub;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.ServerConfig;
+import io.spine.tasks.server.TasksServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of the gRPC server of the {@code Tasks} context with and without
+ * the warm-up of the context.
+ *
+ * <p>The {@code Tasks} context is built once per JVM, so each measurement is taken in a fresh
+ * fork and is the first and only one in it. {@link #startup} measures the time to build
+ * the context and start the server. {@link #firstRequest} starts the server beforehand and
+ * measures the first {@code CreateTask} command and the first {@code Task} query sent to it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    private static final String HOST = "127.0.0.1";
+
+    @Benchmark
+    public TasksServer startup(StartupMode mode) throws IOException {
+        return mode.startServer();
+    }
+
+    @Benchmark
+    public QueryResponse firstRequest(StartedServer server) {
+        TaskId id = TaskIds.generate();
+        server.commands.post(Requests.createTask(id, "First task"));
+        return server.queries.read(Requests.taskById(id));
+    }
+
+    /**
+     * Turns the warm-up of the context on or off and owns the started server.
+     */
+    @State(Scope.Benchmark)
+    public static class StartupMode {
+
+        @Param({"false", "true"})
+        private boolean warmUp;
+
+        private TasksServer server;
+
+        @Setup(Level.Trial)
+        public void configure() {
+            System.setProperty("tasks.startup.warm-up", String.valueOf(warmUp));
+        }
+
+        @TearDown(Level.Trial)
+        public void stopServer() throws InterruptedException {
+            if (server != null) {
+                server.shutdown(5, TimeUnit.SECONDS);
+            }
+        }
+
+        private TasksServer startServer() throws IOException {
+            Properties properties = new Properties();
+            properties.setProperty("tasks.server.host", HOST);
+            properties.setProperty("tasks.server.port", "0");
+            server = TasksServer.create(ServerConfig.from(properties));
+            server.start();
+            return server;
+        }
+    }
+
+    /**
+     * A server started and connected to before the measurement.
+     */
+    @State(Scope.Benchmark)
+    public static class StartedServer {
+
+        private ManagedChannel channel;
+        private CommandServiceBlockingStub commands;
+        private QueryServiceBlockingStub queries;
+
+        @Setup(Level.Trial)
+        public void connect(StartupMode mode) throws IOException {
+            TasksServer server = mode.startServer();
+            channel = ManagedChannelBuilder
+                    .forAddress(HOST, server.port())
+                    .usePlaintext()
+                    .build();
+            commands = CommandServiceGrpc.newBlockingStub(channel);
+            queries = QueryServiceGrpc.newBlockingStub(channel);
+        }
+
+        @TearDown(Level.Trial)
+        public void disconnect() throws InterruptedException {
+            channel.shutdown()
+                   .awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.ActorContext;
+import io.spine.core.Event;
+import io.spine.core.UserId;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.event.EventFactory;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.server.storage.SegmentStorageFactory;
+import io.spine.tasks.server.task.TaskAggregate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+
+/**
+ * Compares writing and reading the {@code TaskCreated} events in the segment storage with and
+ * without the compression.
+ *
+ * <p>The storage does not sync the writes to the disk and does not cache the histories, so
+ * that the cost of encoding the records is not hidden by the I/O or the cache.
+ *
+ * <p>The titles of the tasks are taken from a small set, as they are in a typical workload.
+ * Each write creates a new event, which costs the same with and without the compression.
+ * The number of bytes per event is reported by {@code StorageCompressionTest} of
+ * the {@code server} module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StorageCompressionBenchmark {
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("CompressionBenchmark");
+    private static final int READ_BATCH = 100;
+    private static final int STORED_TASKS = 10_000;
+    private static final ImmutableList<String> TITLES = ImmutableList.of(
+            "Buy milk", "Call mom", "Review the pull request", "Water the plants"
+    );
+
+    @Param({"false", "true"})
+    private boolean compression;
+
+    private final ActorContext actor = ActorContext
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue("compression-benchmark"))
+            .setTimestamp(Time.currentTime())
+            .build();
+    private Path directory;
+    private SegmentStorageFactory factory;
+    private AggregateStorage<TaskId> storage;
+    private ImmutableList<TaskId> storedTasks;
+    private int written;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("compression-benchmark");
+        factory = SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(directory)
+                .setSyncOnCommit(false)
+                .setCacheSize(0)
+                .setCompression(compression)
+                .build();
+        storage = factory.createAggregateStorage(CONTEXT, TaskAggregate.class);
+        ImmutableList.Builder<TaskId> stored = ImmutableList.builder();
+        for (int i = 0; i < STORED_TASKS; i++) {
+            stored.add(writeTask());
+        }
+        storedTasks = stored.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        storage.close();
+        factory.close();
+        MoreFiles.deleteRecursively(directory, ALLOW_INSECURE);
+    }
+
+    @Benchmark
+    public TaskId write() {
+        return writeTask();
+    }
+
+    @Benchmark
+    public Optional<AggregateHistory> read() {
+        TaskId id = storedTasks.get(ThreadLocalRandom.current()
+                                                     .nextInt(storedTasks.size()));
+        return storage.read(new AggregateReadRequest<>(id, READ_BATCH));
+    }
+
+    private TaskId writeTask() {
+        TaskId id = TaskIds.generate();
+        TaskCreated message = TaskCreated
+                .newBuilder()
+                .setId(id)
+                .setTitle(TITLES.get(written++ % TITLES.size()))
+                .vBuild();
+        Event event = EventFactory.forImport(actor, Identifier.pack(id))
+                                  .createEvent(message, null);
+        storage.write(id, AggregateHistory.newBuilder()
+                                          .addEvent(event)
+                                          .build());
+        return id;
+    }
+}
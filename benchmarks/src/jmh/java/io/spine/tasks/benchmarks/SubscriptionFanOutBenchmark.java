@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.grpc.stub.StreamObserver;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.client.Topic;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.CommandService;
+import io.spine.server.SubscriptionService;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.TasksContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures the latency between posting a {@code CreateTask} command and delivering
+ * the resulting {@code Task} update to all the subscribers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubscriptionFanOutBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int subscribers;
+
+    private final List<Subscription> subscriptions = new ArrayList<>();
+    private volatile CountDownLatch delivered = new CountDownLatch(0);
+    private CommandService commandService;
+    private SubscriptionService subscriptionService;
+
+    @Setup
+    public void setUp() {
+        commandService = TasksContext.commandService();
+        subscriptionService = TasksContext.subscriptionService();
+        Topic topic = Requests.allTasksTopic();
+        for (int i = 0; i < subscribers; i++) {
+            MemoizingObserver<Subscription> observer = memoizingObserver();
+            subscriptionService.subscribe(topic, observer);
+            Subscription subscription = observer.firstResponse();
+            subscriptionService.activate(subscription, new Subscriber());
+            subscriptions.add(subscription);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscriptions.forEach(s -> subscriptionService.cancel(s, noOpObserver()));
+    }
+
+    @Benchmark
+    public boolean deliverUpdate() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(subscribers);
+        delivered = latch;
+        commandService.post(Requests.createTask(TaskIds.generate(), "Fan me out"),
+                            noOpObserver());
+        return latch.await(10, SECONDS);
+    }
+
+    /**
+     * Counts down the current latch on each received update.
+     */
+    private final class Subscriber implements StreamObserver<SubscriptionUpdate> {
+
+        @Override
+        public void onNext(SubscriptionUpdate update) {
+            delivered.countDown();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            // Do nothing.
+        }
+    }
+}
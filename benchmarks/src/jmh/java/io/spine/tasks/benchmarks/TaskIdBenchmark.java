@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import com.google.protobuf.Message;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.event.TaskCreated;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy string form of {@code TaskId} to the binary form.
+ *
+ * <p>The serialized sizes of {@code Task}, {@code CreateTask} and {@code TaskCreated} with
+ * either form of the ID are printed when the benchmark is set up.
+ *
+ * <p>Protobuf messages memoize their hash codes, so the hash code is computed on a fresh copy
+ * of the ID, as it happens with the IDs parsed from the requests and the storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskIdBenchmark {
+
+    private static final String TITLE = "Compare the ID forms";
+
+    @Param({"legacy", "binary"})
+    private String idForm;
+
+    private TaskId id;
+    private TaskId equalId;
+    private Task task;
+    private CreateTask createTask;
+    private TaskCreated taskCreated;
+    private byte[] serializedTask;
+
+    @Setup
+    @SuppressWarnings("deprecation") // Creating the legacy form for comparison.
+    public void setUp() {
+        UUID uuid = UUID.randomUUID();
+        id = "legacy".equals(idForm)
+             ? TaskId.newBuilder()
+                     .setUuid(uuid.toString())
+                     .build()
+             : TaskIds.of(uuid);
+        equalId = id.toBuilder()
+                    .build();
+        task = Task.newBuilder()
+                   .setId(id)
+                   .setTitle(TITLE)
+                   .build();
+        createTask = CreateTask.newBuilder()
+                               .setId(id)
+                               .setTitle(TITLE)
+                               .build();
+        taskCreated = TaskCreated.newBuilder()
+                                 .setId(id)
+                                 .setTitle(TITLE)
+                                 .build();
+        serializedTask = task.toByteArray();
+        System.out.printf("%n`%s` ID serialized sizes: TaskId %d, Task %d, CreateTask %d, " +
+                                  "TaskCreated %d bytes.%n",
+                          idForm, id.getSerializedSize(), task.getSerializedSize(),
+                          createTask.getSerializedSize(), taskCreated.getSerializedSize());
+    }
+
+    @Benchmark
+    public int hashFreshId() {
+        return id.toBuilder()
+                 .build()
+                 .hashCode();
+    }
+
+    @Benchmark
+    public boolean equalIds() {
+        return id.equals(equalId);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() {
+        return serialize(task);
+    }
+
+    @Benchmark
+    public byte[] serializeCreateTask() {
+        return serialize(createTask);
+    }
+
+    @Benchmark
+    public byte[] serializeTaskCreated() {
+        return serialize(taskCreated);
+    }
+
+    @Benchmark
+    public Task parseTask() throws Exception {
+        return Task.parseFrom(serializedTask);
+    }
+
+    private static byte[] serialize(Message message) {
+        return message.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.benchmarks;
+
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.server.CommandService;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.TasksContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+
+/**
+ * Compares the {@code Task} queries by title resolved through the index of the titles to
+ * the same queries resolved by scanning all the tasks.
+ *
+ * <p>The index is switched by the {@code tasks.query.index} system property, which is set
+ * before the {@code Tasks} context is created. Each combination of the parameters runs in
+ * a separate JVM, so the setting does not leak between them.
+ *
+ * <p>Filling the context with a million tasks takes a while, so the setup is slow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TitleQueryBenchmark {
+
+    private static final String TITLE_FORMAT = "Task #%07d";
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000000"})
+    private int taskCount;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private QueryServiceImplBase queryService;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("tasks.query.index", String.valueOf(indexed));
+        CommandService commandService = TasksContext.commandService();
+        queryService = TasksContext.queryService();
+        for (int i = 0; i < taskCount; i++) {
+            commandService.post(Requests.createTask(TaskIds.generate(), title(i)),
+                                noOpObserver());
+        }
+    }
+
+    @Benchmark
+    public QueryResponse byTitle() {
+        return read(Requests.tasksTitled(randomTitle()));
+    }
+
+    @Benchmark
+    public QueryResponse pageFromTitle() {
+        return read(Requests.tasksStartingFrom(randomTitle(), PAGE_SIZE));
+    }
+
+    private String randomTitle() {
+        int index = ThreadLocalRandom.current()
+                                     .nextInt(taskCount);
+        return title(index);
+    }
+
+    private static String title(int index) {
+        return String.format(TITLE_FORMAT, index);
+    }
+
+    private QueryResponse read(Query query) {
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+        queryService.read(query, observer);
+        return observer.firstResponse();
+    }
+}
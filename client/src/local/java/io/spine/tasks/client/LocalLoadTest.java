@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.client;
+
+import io.spine.tasks.server.ServerConfig;
+import io.spine.tasks.server.TasksServer;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs the {@linkplain LoadGenerator load test} against a server started in the same process
+ * on a free port.
+ *
+ * <p>Accepts the same parameters as the load test, see {@link LoadConfig}. The address of
+ * the server is ignored.
+ *
+ * <p>The class is kept out of the main source set of the client, so that the client does not
+ * depend on the server.
+ */
+public final class LocalLoadTest {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private LocalLoadTest() {
+    }
+
+    /**
+     * Starts the server, loads it and shuts it down.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadConfig config = LoadConfig.parse(args);
+        TasksServer server = startServer();
+        try {
+            LoadGenerator.run(config, "127.0.0.1", server.port());
+        } finally {
+            server.shutdown(5, SECONDS);
+        }
+    }
+
+    private static TasksServer startServer() {
+        Properties properties = new Properties();
+        properties.setProperty("tasks.server.host", "127.0.0.1");
+        properties.setProperty("tasks.server.port", "0");
+        TasksServer server = TasksServer.create(ServerConfig.from(properties));
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw newIllegalStateException(e, "Unable to start the local server.");
+        }
+        return server;
+    }
+}
@@ -25,24 +25,33 @@
  */
 package io.spine.tasks.client;
 
-import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.flogger.FluentLogger;
-import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
-import io.spine.client.Client;
-import io.spine.client.Subscription;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.CallOptions;
+import io.spine.client.CommandFactory;
+import io.spine.client.Query;
 import io.spine.core.UserId;
 import io.spine.tasks.Task;
 import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.batch.CommandBatch;
+import io.spine.tasks.batch.CommandBatchAck;
+import io.spine.tasks.batch.CommandBatchRpc;
 import io.spine.tasks.command.CreateTask;
 import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.paging.TaskPage;
+import io.spine.tasks.paging.TaskPageRequest;
+import io.spine.tasks.paging.TaskQueryRpc;
 
-import java.util.concurrent.CountDownLatch;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 
+import static io.grpc.stub.ClientCalls.blockingServerStreamingCall;
+import static io.grpc.stub.ClientCalls.blockingUnaryCall;
 import static io.spine.base.Identifier.newUuid;
-import static io.spine.util.Exceptions.newIllegalStateException;
 
 /**
  * A template of a standalone Java client for Spine-powered server.
@@ -52,8 +61,13 @@ import static io.spine.util.Exceptions.newIllegalStateException;
  * <ul>
  *      <li>establishes a connection to the gRPC server;
  *      <li>sends a command to create a task through {@code CommandService};
- *      <li>verifies that the task is created by asking for all tasks via {@code QueryService}.
+ *      <li>verifies that the task is created by asking for all tasks via {@code QueryService};
+ *      <li>imports several tasks at once by posting a batch of commands;
+ *      <li>reads all the tasks page by page and as a stream.
  * </ul>
+ *
+ * <p>If started with the {@code --load} argument, {@linkplain LoadGenerator loads} the server
+ * instead. See {@link LoadConfig} for the parameters of the load test.
  */
 public class ClientApp {
 
@@ -69,6 +83,16 @@ public class ClientApp {
      */
     private static final int PORT = 8484;
 
+    /**
+     * The number of tasks read in a single page.
+     */
+    private static final int PAGE_SIZE = 50;
+
+    /**
+     * The argument which turns on the load test mode.
+     */
+    private static final String LOAD_ARGUMENT = "--load";
+
     /**
      * Prevents this class from instantiation.
      */
@@ -80,57 +104,146 @@ public class ClientApp {
      *
      * <p>Uses the hard-coded {@linkplain #HOST host} and {@linkplain #PORT port} for simplicity.
      */
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        if (Arrays.asList(args)
+                  .contains(LOAD_ARGUMENT)) {
+            LoadGenerator.run(LoadConfig.parse(args));
+            return;
+        }
 
         // Connect to the server and init the client instance.
         info("Connecting to the server at %s:%d.", HOST, PORT);
 
-        ManagedChannel channel = ManagedChannelBuilder.forAddress(HOST, PORT)
-                                                      .usePlaintext()
-                                                      .build();
-        Client client = Client.usingChannel(channel)
-                              .build();
         UserId user = whoIsCalling();
+        TasksClient client = TasksClient.newBuilder()
+                                        .setAddress(HOST, PORT)
+                                        .setActor(user)
+                                        .build();
 
         /*
          * Generate a new task ID.
          *
-         * For the Protobuf messages consisting of a single field named {@code uuid}
-         * the framework automatically creates the {@code generate()} method.
-         *
-         * This factory method uses a randomly generated UUID value to create a new instance
-         * of the Protobuf message.
+         * The ID stores a randomly generated UUID value in the compact binary form,
+         * as two 64-bit numbers.
          */
-        TaskId taskId = TaskId.generate();
-        CreateTask createTask = newCreateTaskCommand(taskId, "Reset wall clock");
+        TaskId taskId = TaskIds.generate();
 
         /*
-         * Send a command to the server and observe the events produced by this command.
+         * Send a command to the server and obtain the future of the event produced by
+         * this command.
+         *
+         * The client is subscribed to the `TaskCreated` events once, when it is built, so
+         * the command does not need a subscription of its own.
          */
-        CountDownLatch taskCreated = new CountDownLatch(1);
-        ImmutableSet<Subscription> subscriptions =
-                client.onBehalfOf(user)
-                      .command(createTask)
-                      .observe(TaskCreated.class, event -> taskCreated.countDown())
-                      .onStreamingError(ClientApp::throwProcessingError)
-                      .post();
+        ListenableFuture<TaskCreated> taskCreated = client.createTask(taskId, "Reset wall clock");
 
         /*
          * Events, reflecting the changes caused by a command, travel from the write-side
          * to the read-side asynchronously.
          * Therefore some time should pass for the read-side to reflect the changes made.
          */
-        taskCreated.await();
-
-        // Cancel the event subscriptions.
-        subscriptions.forEach(client.subscriptions()::cancel);
+        taskCreated.get();
 
         info("Reading the task...");
-        ImmutableList<Task> tasks = client.onBehalfOf(user)
-                                          .select(Task.class)
-                                          .byId(taskId)
-                                          .run();
-        info("A response received: %s", tasks);
+        Optional<Task> task = client.readTask(taskId)
+                                    .get();
+        info("A response received: %s", task);
+
+        /*
+         * Import several tasks in a single request instead of sending a request per task.
+         */
+        info("Importing tasks in a batch...");
+        CommandBatchAck acks = importTasks(client,
+                                           "Water the plants", "Feed the cat", "Pay the rent");
+        info("The batch is acknowledged: %s", acks);
+
+        /*
+         * Read all the tasks in portions, so that neither the server nor the client has to hold
+         * all of them in memory at once.
+         */
+        info("Reading all the tasks page by page...");
+        int paged = countTasksByPages(client);
+        info("%d tasks read page by page.", paged);
+
+        info("Streaming all the tasks...");
+        int streamed = countTasksInStream(client);
+        info("%d tasks streamed.", streamed);
+
+        client.close();
+    }
+
+    /**
+     * Reads all the tasks page by page.
+     *
+     * <p>Each page ends with a cursor, which is passed in the request for the next page.
+     *
+     * @return the number of the read tasks
+     */
+    private static int countTasksByPages(TasksClient client) {
+        TaskPageRequest request = allTasksRequest(client);
+        int count = 0;
+        TaskPage page;
+        do {
+            page = blockingUnaryCall(client.channel(), TaskQueryRpc.READ_PAGE,
+                                     CallOptions.DEFAULT, request);
+            count += page.getTaskCount();
+            request = request.toBuilder()
+                             .setCursor(page.getNextCursor())
+                             .build();
+        } while (!page.getNextCursor()
+                      .isEmpty());
+        return count;
+    }
+
+    /**
+     * Reads all the tasks as a stream.
+     *
+     * <p>The server sends the tasks as fast as the client iterates over them.
+     *
+     * @return the number of the read tasks
+     */
+    private static int countTasksInStream(TasksClient client) {
+        Iterator<Task> tasks = blockingServerStreamingCall(client.channel(), TaskQueryRpc.STREAM,
+                                                           CallOptions.DEFAULT,
+                                                           allTasksRequest(client));
+        int count = 0;
+        while (tasks.hasNext()) {
+            tasks.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static TaskPageRequest allTasksRequest(TasksClient client) {
+        Query allTasks = client.requests()
+                               .query()
+                               .all(Task.class);
+        return TaskPageRequest
+                .newBuilder()
+                .setQuery(allTasks)
+                .setPageSize(PAGE_SIZE)
+                .build();
+    }
+
+    /**
+     * Posts the commands to create the tasks with the given titles in a single batch.
+     *
+     * @param client
+     *         the client to post the commands with
+     * @param titles
+     *         the titles of the tasks to create
+     * @return the acknowledgements of the commands
+     */
+    private static CommandBatchAck importTasks(TasksClient client, String... titles) {
+        CommandFactory commands = client.requests()
+                                        .command();
+        CommandBatch.Builder batch = CommandBatch.newBuilder();
+        for (String title : titles) {
+            CreateTask createTask = newCreateTaskCommand(TaskIds.generate(), title);
+            batch.addCommand(commands.create(createTask));
+        }
+        return blockingUnaryCall(client.channel(), CommandBatchRpc.POST, CallOptions.DEFAULT,
+                                 batch.build());
     }
 
     /**
@@ -166,12 +279,6 @@ public class ClientApp {
         return actorId;
     }
 
-    private static void throwProcessingError(Throwable throwable) {
-        throw newIllegalStateException(
-                throwable, "An error while processing the command result."
-        );
-    }
-
     private static void info(String msg) {
         log.at(Level.INFO)
            .log(msg);
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.client;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The parameters of a {@linkplain LoadGenerator load test}.
+ *
+ * <p>The parameters are parsed from the command line arguments in the {@code --name=value}
+ * form. The supported parameters are:
+ * <ul>
+ *     <li>{@code --host} and {@code --port} — the address of the server,
+ *         {@code 127.0.0.1:8484} by default;
+ *     <li>{@code --rate} — the target number of operations per second, {@code 1000} by
+ *         default;
+ *     <li>{@code --concurrency} — the maximum number of operations in flight, {@code 256} by
+ *         default;
+ *     <li>{@code --duration} — the duration of the test in seconds, {@code 30} by default;
+ *     <li>{@code --warmup} — the duration of the warm-up in seconds, whose results are not
+ *         reported, {@code 5} by default;
+ *     <li>{@code --channels} — the number of the gRPC channels to the server, {@code 4} by
+ *         default;
+ *     <li>{@code --read-ratio} — the share of the queries among the operations, from
+ *         {@code 0} to {@code 1}, {@code 0.2} by default.
+ * </ul>
+ */
+final class LoadConfig {
+
+    private static final ImmutableMap<String, String> DEFAULTS =
+            ImmutableMap.<String, String>builder()
+                        .put("host", "127.0.0.1")
+                        .put("port", "8484")
+                        .put("rate", "1000")
+                        .put("concurrency", "256")
+                        .put("duration", "30")
+                        .put("warmup", "5")
+                        .put("channels", "4")
+                        .put("read-ratio", "0.2")
+                        .build();
+
+    private final ImmutableMap<String, String> values;
+
+    private LoadConfig(ImmutableMap<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses the parameters from the command line arguments.
+     *
+     * <p>The arguments which do not start with {@code --} are ignored.
+     *
+     * @throws IllegalArgumentException
+     *         if a parameter is unknown or has an invalid value
+     */
+    static LoadConfig parse(String... args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            if (!arg.startsWith("--") || "--load".equals(arg)) {
+                continue;
+            }
+            String option = arg.substring(2);
+            int separator = option.indexOf('=');
+            String name = separator < 0 ? option : option.substring(0, separator);
+            String value = separator < 0 ? "true" : option.substring(separator + 1);
+            checkArgument(DEFAULTS.containsKey(name), "Unknown load test option `%s`.", name);
+            values.put(name, value);
+        }
+        LoadConfig config = new LoadConfig(ImmutableMap.copyOf(values));
+        config.validate();
+        return config;
+    }
+
+    private void validate() {
+        checkArgument(rate() > 0, "The rate must be positive.");
+        checkArgument(concurrency() > 0, "The concurrency must be positive.");
+        checkArgument(channels() > 0, "The number of channels must be positive.");
+        checkArgument(!duration().isNegative() && !duration().isZero(),
+                      "The duration must be positive.");
+        checkArgument(!warmup().isNegative(), "The warm-up must not be negative.");
+        checkArgument(readRatio() >= 0 && readRatio() <= 1,
+                      "The read ratio must be within [0, 1].");
+    }
+
+    String host() {
+        return values.get("host");
+    }
+
+    int port() {
+        return Integer.parseInt(values.get("port"));
+    }
+
+    /**
+     * Obtains the target number of operations per second.
+     */
+    double rate() {
+        return Double.parseDouble(values.get("rate"));
+    }
+
+    int concurrency() {
+        return Integer.parseInt(values.get("concurrency"));
+    }
+
+    Duration duration() {
+        return Duration.ofSeconds(Long.parseLong(values.get("duration")));
+    }
+
+    Duration warmup() {
+        return Duration.ofSeconds(Long.parseLong(values.get("warmup")));
+    }
+
+    int channels() {
+        return Integer.parseInt(values.get("channels"));
+    }
+
+    double readRatio() {
+        return Double.parseDouble(values.get("read-ratio"));
+    }
+
+    @Override
+    public String toString() {
+        return "LoadConfig" + values;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.client;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import io.spine.core.Ack;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.metrics.LatencyHistogram;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.spine.base.Identifier.newUuid;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Loads the server with a mix of commands and queries at a constant rate and reports
+ * the observed latencies.
+ *
+ * <p>The generator runs an open loop. The operations are scheduled at fixed intervals derived
+ * from the target rate, regardless of how fast the server answers. If the server falls behind,
+ * the number of operations in flight grows up to the configured concurrency, after which the
+ * generator waits for a free slot. Each latency is measured from the time the operation was
+ * scheduled to start rather than from the time it was actually sent, so that the waiting is
+ * not hidden from the results. Otherwise, a stalled server would also stall the generator and
+ * the slow responses would be sampled only once, which is known as coordinated omission.
+ *
+ * <p>A write is a {@code CreateTask} command. Its latency lasts until the {@code TaskCreated}
+ * event is delivered to the generator. A read is a query of a recently created {@code Task} by
+ * its ID. The operations are made through a {@link LoadTarget}, which is a {@link TasksClient}
+ * connected to the server.
+ *
+ * <p>The operations of the warm-up are not reported. The operations whose results do not
+ * arrive within {@linkplain #DRAIN_TIMEOUT a timeout} after the end of the test are counted
+ * as timed out.
+ */
+final class LoadGenerator {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    /**
+     * The time given to the operations in flight to complete after the end of the test.
+     */
+    private static final long DRAIN_TIMEOUT = SECONDS.toNanos(10);
+
+    /**
+     * The number of the recently created tasks which may be read.
+     */
+    private static final int RECENT_TASKS = 4096;
+
+    private final LoadConfig config;
+    private final LoadTarget target;
+    private final Semaphore slots;
+    private final AtomicReferenceArray<TaskId> recentTasks =
+            new AtomicReferenceArray<>(RECENT_TASKS);
+    private final AtomicLong createdTasks = new AtomicLong();
+
+    /**
+     * Creates a new generator.
+     *
+     * @param config
+     *         the parameters of the test
+     * @param target
+     *         the operations which load the server
+     */
+    LoadGenerator(LoadConfig config, LoadTarget target) {
+        this.config = config;
+        this.target = target;
+        this.slots = new Semaphore(config.concurrency());
+    }
+
+    /**
+     * Runs the load test against the server at the configured address and logs the report.
+     */
+    static void run(LoadConfig config) throws InterruptedException {
+        run(config, config.host(), config.port());
+    }
+
+    /**
+     * Runs the load test against the server at the given address and logs the report.
+     */
+    static void run(LoadConfig config, String host, int port) throws InterruptedException {
+        log.at(Level.INFO)
+           .log("Starting the load test against %s:%d: %s.", host, port, config);
+        try (TasksClient client = TasksClient.newBuilder()
+                                             .setAddress(host, port)
+                                             .setChannels(config.channels())
+                                             .setActor(loadTester())
+                                             .build()) {
+            new LoadGenerator(config, client).run();
+        }
+    }
+
+    /**
+     * Runs the test and logs the report.
+     *
+     * @return the results of the measurement phase
+     */
+    @CanIgnoreReturnValue
+    Results run() throws InterruptedException {
+        Results warmup = new Results("warm-up");
+        Results measured = new Results("measurement");
+        generate(warmup, measured);
+        drain(warmup, measured);
+        warmup.report();
+        measured.report();
+        return measured;
+    }
+
+    /**
+     * Starts the operations at the target rate until the end of the test.
+     */
+    private void generate(Results warmup, Results measured) throws InterruptedException {
+        long start = System.nanoTime();
+        long measurementStart = start + config.warmup()
+                                              .toNanos();
+        long end = measurementStart + config.duration()
+                                            .toNanos();
+        double interval = SECONDS.toNanos(1) / config.rate();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * interval);
+            if (intended >= end) {
+                break;
+            }
+            boolean warmingUp = intended < measurementStart;
+            Results results = warmingUp ? warmup : measured;
+            if (!warmingUp && measured.started == 0) {
+                measured.started = intended;
+            }
+            awaitTime(intended);
+            slots.acquire();
+            @Nullable TaskId toRead = random.nextDouble() < config.readRatio()
+                                      ? recentTask(random)
+                                      : null;
+            if (toRead != null) {
+                read(toRead, intended, results);
+            } else {
+                write(intended, results);
+            }
+        }
+        measured.finished = System.nanoTime();
+    }
+
+    private static void awaitTime(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    /**
+     * Waits for the operations in flight to complete and counts the rest as timed out.
+     */
+    private void drain(Results... phases) throws InterruptedException {
+        if (slots.tryAcquire(config.concurrency(), DRAIN_TIMEOUT, NANOSECONDS)) {
+            slots.release(config.concurrency());
+        }
+        for (Results results : phases) {
+            results.timeouts.add(results.outstanding.sum());
+        }
+    }
+
+    private void write(long intended, Results results) {
+        TaskId id = TaskIds.generate();
+        ListenableFuture<TaskCreated> created = target.expectCreated(id);
+        results.commands.increment();
+        results.outstanding.increment();
+        long sent = System.nanoTime();
+        Futures.addCallback(created, new FutureCallback<TaskCreated>() {
+            @Override
+            public void onSuccess(TaskCreated event) {
+                long now = System.nanoTime();
+                results.commandToEvent.record(now - intended);
+                results.uncorrectedCommandToEvent.record(now - sent);
+                remember(id);
+                complete(results);
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                results.errors.increment();
+                complete(results);
+            }
+        }, directExecutor());
+        CreateTask createTask = CreateTask
+                .newBuilder()
+                .setId(id)
+                .setTitle("Load test task")
+                .vBuild();
+        Futures.addCallback(target.post(createTask), new FutureCallback<Ack>() {
+            @Override
+            public void onSuccess(Ack ack) {
+                results.commandAck.recordSince(intended);
+                if (ack.getStatus()
+                       .hasError()) {
+                    created.cancel(false);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                created.cancel(false);
+            }
+        }, directExecutor());
+    }
+
+    private void complete(Results results) {
+        results.outstanding.decrement();
+        slots.release();
+    }
+
+    private void remember(TaskId id) {
+        long index = createdTasks.getAndIncrement();
+        recentTasks.set((int) (index % RECENT_TASKS), id);
+    }
+
+    private @Nullable TaskId recentTask(ThreadLocalRandom random) {
+        long created = createdTasks.get();
+        if (created == 0) {
+            return null;
+        }
+        int bound = (int) Math.min(created, RECENT_TASKS);
+        return recentTasks.get(random.nextInt(bound));
+    }
+
+    private void read(TaskId id, long intended, Results results) {
+        results.queries.increment();
+        Futures.addCallback(target.readTask(id), new FutureCallback<Optional<Task>>() {
+            @Override
+            public void onSuccess(Optional<Task> task) {
+                results.query.recordSince(intended);
+                slots.release();
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                results.errors.increment();
+                slots.release();
+            }
+        }, directExecutor());
+    }
+
+    private static UserId loadTester() {
+        return UserId
+                .newBuilder()
+                .setValue("load-tester-" + newUuid())
+                .vBuild();
+    }
+
+    /**
+     * The latencies and counters of one phase of the test.
+     */
+    static final class Results {
+
+        private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+        private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99.9", "p99.99"};
+
+        private final String phase;
+        private final LatencyHistogram commandToEvent = new LatencyHistogram();
+        private final LatencyHistogram uncorrectedCommandToEvent = new LatencyHistogram();
+        private final LatencyHistogram commandAck = new LatencyHistogram();
+        private final LatencyHistogram query = new LatencyHistogram();
+        private final LongAdder commands = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder outstanding = new LongAdder();
+        private long started;
+        private long finished;
+
+        private Results(String phase) {
+            this.phase = phase;
+        }
+
+        /**
+         * Obtains the latencies from the scheduled start of a command to its event.
+         */
+        LatencyHistogram commandToEvent() {
+            return commandToEvent;
+        }
+
+        /**
+         * Obtains the latencies from the actual sending of a command to its event.
+         */
+        LatencyHistogram uncorrectedCommandToEvent() {
+            return uncorrectedCommandToEvent;
+        }
+
+        /**
+         * Obtains the number of the posted commands.
+         */
+        long commands() {
+            return commands.sum();
+        }
+
+        private void report() {
+            StringBuilder report = new StringBuilder();
+            report.append(format("Results of the %s: %d commands, %d queries, %d errors, "
+                                         + "%d timeouts", phase, commands.sum(), queries.sum(),
+                                 errors.sum(), timeouts.sum()));
+            if (finished > started && started > 0) {
+                double seconds = (finished - started) / (double) SECONDS.toNanos(1);
+                double rate = (commands.sum() + queries.sum()) / seconds;
+                report.append(format(", %.1f operations per second", rate));
+            }
+            report.append(format(".%n%-28s", "latency, ms"));
+            for (String name : PERCENTILE_NAMES) {
+                report.append(format("%10s", name));
+            }
+            report.append(format("%10s%10s", "max", "count"));
+            appendRow(report, "command to event", commandToEvent);
+            appendRow(report, "command to event (sent)", uncorrectedCommandToEvent);
+            appendRow(report, "command acknowledgement", commandAck);
+            appendRow(report, "query", query);
+            log.at(Level.INFO)
+               .log("%s", report);
+        }
+
+        private static void appendRow(StringBuilder report,
+                                      String name,
+                                      LatencyHistogram histogram) {
+            LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+            report.append(format("%n%-28s", name));
+            for (double percentile : PERCENTILES) {
+                report.append(format("%10.3f", millis(snapshot.valueAt(percentile))));
+            }
+            report.append(format("%10.3f%10d", millis(snapshot.max()), snapshot.count()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) MILLISECONDS.toNanos(1);
+        }
+    }
+}
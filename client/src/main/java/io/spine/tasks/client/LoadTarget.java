@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.spine.base.CommandMessage;
+import io.spine.core.Ack;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.event.TaskCreated;
+
+import java.util.Optional;
+
+/**
+ * The operations through which a {@linkplain LoadGenerator load test} loads the server.
+ *
+ * <p>None of the operations should wait for the server. The generator measures
+ * the latencies by the completion of the returned futures.
+ */
+interface LoadTarget {
+
+    /**
+     * Obtains the future of the {@code TaskCreated} event of the task with the given ID.
+     */
+    ListenableFuture<TaskCreated> expectCreated(TaskId task);
+
+    /**
+     * Posts the command.
+     *
+     * @return the future of the acknowledgement of the command
+     */
+    ListenableFuture<Ack> post(CommandMessage message);
+
+    /**
+     * Reads the task with the given ID.
+     *
+     * @return the future of the task, which is empty if there is no such task
+     */
+    ListenableFuture<Optional<Task>> readTask(TaskId task);
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.client;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Channel;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import io.spine.base.CommandMessage;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Client;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.Subscription;
+import io.spine.client.grpc.CommandServiceGrpc;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceFutureStub;
+import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceFutureStub;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.UserId;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.event.TaskCreated;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A client of the {@code Tasks} context built for a high rate of requests.
+ *
+ * <p>The client spreads the requests over a pool of gRPC channels in a round-robin fashion,
+ * so that they are not limited by the number of concurrent streams of a single HTTP/2
+ * connection.
+ *
+ * <p>None of the methods block. A command is posted as soon as it is created, without waiting
+ * for the previous ones to be acknowledged, and the caller is given a future of its outcome.
+ *
+ * <p>The {@code TaskCreated} events are received through a single subscription made when
+ * the client is built. The events are matched to the futures {@linkplain #expectCreated(TaskId)
+ * awaiting} them by the task ID. Therefore, creating a task does not require subscribing to
+ * its events and cancelling the subscription afterwards. If the subscription fails, the futures
+ * awaiting the events are failed, since the events can no longer arrive.
+ *
+ * <p>The client must be {@linkplain #close() closed} when no longer needed.
+ */
+public final class TasksClient implements AutoCloseable, LoadTarget {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final ImmutableList<ManagedChannel> channels;
+    private final ImmutableList<CommandServiceFutureStub> commandServices;
+    private final ImmutableList<QueryServiceFutureStub> queryServices;
+    private final AtomicInteger nextChannel = new AtomicInteger();
+    private final ActorRequestFactory requests;
+    private final Client client;
+    private final Subscription taskCreated;
+    private final Map<TaskId, SettableFuture<TaskCreated>> awaitingCreation =
+            new ConcurrentHashMap<>();
+    private volatile @Nullable Throwable subscriptionError;
+    private volatile boolean closed;
+
+    private TasksClient(Builder builder) {
+        ImmutableList.Builder<ManagedChannel> channels = ImmutableList.builder();
+        ImmutableList.Builder<CommandServiceFutureStub> commandServices = ImmutableList.builder();
+        ImmutableList.Builder<QueryServiceFutureStub> queryServices = ImmutableList.builder();
+        for (int i = 0; i < builder.channels; i++) {
+            ManagedChannel channel = ManagedChannelBuilder.forAddress(builder.host, builder.port)
+                                                          .usePlaintext()
+                                                          .build();
+            channels.add(channel);
+            commandServices.add(CommandServiceGrpc.newFutureStub(channel));
+            queryServices.add(QueryServiceGrpc.newFutureStub(channel));
+        }
+        this.channels = channels.build();
+        this.commandServices = commandServices.build();
+        this.queryServices = queryServices.build();
+        this.requests = ActorRequestFactory
+                .newBuilder()
+                .setActor(builder.actor)
+                .build();
+        this.client = Client.usingChannel(this.channels.get(0))
+                            .build();
+        this.taskCreated = client.onBehalfOf(builder.actor)
+                                 .subscribeToEvent(TaskCreated.class)
+                                 .observe(this::onCreated)
+                                 .onStreamingError(this::onStreamingError)
+                                 .post();
+    }
+
+    /**
+     * Creates a new instance of {@code Builder} for {@code TasksClient} instances.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Obtains the factory of the requests made on behalf of the actor of this client.
+     */
+    public ActorRequestFactory requests() {
+        return requests;
+    }
+
+    /**
+     * Obtains the next channel of the pool to call the services other than
+     * {@code CommandService} and {@code QueryService}.
+     */
+    public Channel channel() {
+        return channels.get(nextChannelIndex());
+    }
+
+    private int nextChannelIndex() {
+        return Math.floorMod(nextChannel.getAndIncrement(), channels.size());
+    }
+
+    /**
+     * Posts the command without waiting for the previously posted ones.
+     *
+     * @return the future of the acknowledgement of the command
+     */
+    @Override
+    public ListenableFuture<Ack> post(CommandMessage message) {
+        checkNotNull(message);
+        checkState(!closed, "The client is closed.");
+        Command command = requests.command()
+                                  .create(message);
+        return commandServices.get(nextChannelIndex())
+                              .post(command);
+    }
+
+    /**
+     * Obtains the future of the {@code TaskCreated} event of the task with the given ID.
+     *
+     * <p>The future should be obtained before posting the command which creates the task,
+     * as the events emitted earlier are not retained.
+     *
+     * <p>The future is failed if the client is closed or the subscription to the events fails
+     * before the event arrives. The caller may cancel the future, e.g. on a timeout, to stop
+     * awaiting the event.
+     *
+     * <p>The future of a task with a legacy ID is completed by the event of the task, which
+     * carries the {@linkplain TaskIds#normalize(TaskId) normalized} ID.
+     */
+    @Override
+    public ListenableFuture<TaskCreated> expectCreated(TaskId task) {
+        return awaitCreation(task);
+    }
+
+    private SettableFuture<TaskCreated> awaitCreation(TaskId task) {
+        checkNotNull(task);
+        checkState(!closed, "The client is closed.");
+        TaskId key = TaskIds.normalize(task);
+        SettableFuture<TaskCreated> result = SettableFuture.create();
+        SettableFuture<TaskCreated> previous = awaitingCreation.putIfAbsent(key, result);
+        if (previous != null) {
+            return previous;
+        }
+        result.addListener(() -> awaitingCreation.remove(key, result), directExecutor());
+        Throwable error = subscriptionError;
+        if (error != null) {
+            result.setException(error);
+        }
+        return result;
+    }
+
+    /**
+     * Posts the command to create a task.
+     *
+     * @return the future of the {@code TaskCreated} event, which is failed if the command is
+     *         not acknowledged
+     */
+    public ListenableFuture<TaskCreated> createTask(TaskId task, String title) {
+        checkNotNull(title);
+        SettableFuture<TaskCreated> created = awaitCreation(task);
+        CreateTask command = CreateTask
+                .newBuilder()
+                .setId(task)
+                .setTitle(title)
+                .vBuild();
+        Futures.addCallback(post(command), new FutureCallback<Ack>() {
+            @Override
+            public void onSuccess(Ack ack) {
+                if (ack.getStatus()
+                       .hasError()) {
+                    created.setException(newIllegalStateException(
+                            "The command to create the task `%s` failed: %s.",
+                            task, ack.getStatus()
+                                     .getError()
+                                     .getMessage()));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                created.setException(t);
+            }
+        }, directExecutor());
+        return created;
+    }
+
+    private void onCreated(TaskCreated event) {
+        TaskId task = TaskIds.normalize(event.getId());
+        SettableFuture<TaskCreated> created = awaitingCreation.get(task);
+        if (created != null) {
+            created.set(event);
+        }
+    }
+
+    /**
+     * Reads the task with the given ID.
+     *
+     * @return the future of the task, which is empty if there is no such task
+     */
+    @Override
+    public ListenableFuture<Optional<Task>> readTask(TaskId task) {
+        checkNotNull(task);
+        checkState(!closed, "The client is closed.");
+        Query query = requests.query()
+                              .byIds(Task.class, ImmutableSet.of(task));
+        ListenableFuture<QueryResponse> response = queryServices.get(nextChannelIndex())
+                                                                .read(query);
+        return Futures.transform(response, TasksClient::firstTask, directExecutor());
+    }
+
+    private static Optional<Task> firstTask(QueryResponse response) {
+        return response.getMessageList()
+                       .stream()
+                       .map(EntityStateWithVersion::getState)
+                       .map(state -> AnyPacker.unpack(state, Task.class))
+                       .findFirst();
+    }
+
+    /**
+     * Fails the futures of the awaited events, as the events can no longer arrive.
+     */
+    private void onStreamingError(Throwable throwable) {
+        log.at(Level.WARNING)
+           .withCause(throwable)
+           .log("The subscription to `TaskCreated` events failed.");
+        subscriptionError = throwable;
+        awaitingCreation.values()
+                        .forEach(created -> created.setException(throwable));
+    }
+
+    /**
+     * Cancels the subscription, fails the futures of the awaited events and shuts down
+     * the channels.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (subscriptionError == null) {
+            cancelSubscription();
+        }
+        client.close();
+        IllegalStateException closedError = newIllegalStateException("The client is closed.");
+        awaitingCreation.values()
+                        .forEach(created -> created.setException(closedError));
+        for (ManagedChannel channel : channels) {
+            channel.shutdown();
+        }
+        try {
+            for (ManagedChannel channel : channels) {
+                channel.awaitTermination(5, SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+
+    private void cancelSubscription() {
+        try {
+            client.subscriptions()
+                  .cancel(taskCreated);
+        } catch (StatusRuntimeException e) {
+            log.at(Level.WARNING)
+               .withCause(e)
+               .log("Unable to cancel the subscription to `TaskCreated` events.");
+        }
+    }
+
+    /**
+     * A builder for the {@code TasksClient} instances.
+     */
+    public static final class Builder {
+
+        private String host = "127.0.0.1";
+        private int port = 8484;
+        private int channels = 1;
+        private UserId actor;
+
+        /**
+         * Prevents direct instantiation.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the address of the server, {@code 127.0.0.1:8484} by default.
+         */
+        public Builder setAddress(String host, int port) {
+            checkArgument(port > 0, "The port must be positive.");
+            this.host = checkNotNull(host);
+            this.port = port;
+            return this;
+        }
+
+        /**
+         * Sets the number of the channels to the server, one by default.
+         */
+        public Builder setChannels(int channels) {
+            checkArgument(channels > 0, "The number of channels must be positive.");
+            this.channels = channels;
+            return this;
+        }
+
+        /**
+         * Sets the user on whose behalf the requests are made.
+         */
+        public Builder setActor(UserId actor) {
+            this.actor = checkNotNull(actor);
+            return this;
+        }
+
+        /**
+         * Creates a new instance of {@code TasksClient} and subscribes it to
+         * the {@code TaskCreated} events.
+         */
+        public TasksClient build() {
+            checkNotNull(actor, "The actor must be set.");
+            return new TasksClient(this);
+        }
+    }
+}
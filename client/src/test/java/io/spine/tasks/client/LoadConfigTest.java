@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`LoadConfig` should")
+class LoadConfigTest {
+
+    @Test
+    @DisplayName("use the default values")
+    void defaults() {
+        LoadConfig config = LoadConfig.parse();
+
+        assertThat(config.host()).isEqualTo("127.0.0.1");
+        assertThat(config.port()).isEqualTo(8484);
+        assertThat(config.rate()).isEqualTo(1000.0);
+        assertThat(config.concurrency()).isEqualTo(256);
+        assertThat(config.duration()).isEqualTo(Duration.ofSeconds(30));
+        assertThat(config.warmup()).isEqualTo(Duration.ofSeconds(5));
+        assertThat(config.channels()).isEqualTo(4);
+        assertThat(config.readRatio()).isEqualTo(0.2);
+    }
+
+    @Test
+    @DisplayName("parse the options and skip the other arguments")
+    void parse() {
+        LoadConfig config = LoadConfig.parse("--load", "--host=example.org", "--port=9090",
+                                             "--rate=2500.5", "--concurrency=512",
+                                             "--duration=60", "--warmup=0", "--channels=8",
+                                             "--read-ratio=0.3", "verbose");
+
+        assertThat(config.host()).isEqualTo("example.org");
+        assertThat(config.port()).isEqualTo(9090);
+        assertThat(config.rate()).isEqualTo(2500.5);
+        assertThat(config.concurrency()).isEqualTo(512);
+        assertThat(config.duration()).isEqualTo(Duration.ofSeconds(60));
+        assertThat(config.warmup()).isEqualTo(Duration.ZERO);
+        assertThat(config.channels()).isEqualTo(8);
+        assertThat(config.readRatio()).isEqualTo(0.3);
+    }
+
+    @Test
+    @DisplayName("reject an unknown option")
+    void unknown() {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse("--local"));
+    }
+
+    @Test
+    @DisplayName("reject the invalid values")
+    void invalid() {
+        assertRejected("--rate=0");
+        assertRejected("--concurrency=0");
+        assertRejected("--channels=0");
+        assertRejected("--duration=0");
+        assertRejected("--warmup=-1");
+        assertRejected("--read-ratio=1.5");
+    }
+
+    private static void assertRejected(String arg) {
+        assertThrows(IllegalArgumentException.class, () -> LoadConfig.parse(arg));
+    }
+}
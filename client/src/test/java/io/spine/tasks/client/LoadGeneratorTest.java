@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.client;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.Empty;
+import io.spine.base.CommandMessage;
+import io.spine.core.Ack;
+import io.spine.core.Status;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.metrics.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@DisplayName("`LoadGenerator` should")
+class LoadGeneratorTest {
+
+    private static final long STALL = MILLISECONDS.toNanos(300);
+
+    @Test
+    @DisplayName("keep the schedule and measure the latency from it when the sender stalls")
+    void correctCoordinatedOmission() throws InterruptedException {
+        LoadConfig config = LoadConfig.parse("--rate=100", "--duration=1", "--warmup=0",
+                                             "--read-ratio=0", "--concurrency=1000");
+        StallingTarget target = new StallingTarget();
+
+        LoadGenerator.Results results = new LoadGenerator(config, target).run();
+
+        assertThat(results.commands()).isEqualTo(100);
+        long sending = target.sent.get(target.sent.size() - 1) - target.sent.get(0);
+        assertThat(sending).isLessThan(SECONDS.toNanos(1) + STALL / 2);
+
+        LatencyHistogram.Snapshot corrected = results.commandToEvent()
+                                                     .snapshot();
+        LatencyHistogram.Snapshot uncorrected = results.uncorrectedCommandToEvent()
+                                                       .snapshot();
+        assertThat(corrected.count()).isEqualTo(100);
+        assertThat(corrected.valueAt(90)).isAtLeast(STALL / 2);
+        assertThat(uncorrected.valueAt(90)).isLessThan(STALL / 2);
+    }
+
+    /**
+     * A target which blocks the sender of the first command and creates the tasks right away.
+     *
+     * <p>Records the times the commands are sent.
+     */
+    private static final class StallingTarget implements LoadTarget {
+
+        private final Map<TaskId, SettableFuture<TaskCreated>> awaiting =
+                new ConcurrentHashMap<>();
+        private final List<Long> sent = new ArrayList<>();
+
+        @Override
+        public ListenableFuture<TaskCreated> expectCreated(TaskId task) {
+            SettableFuture<TaskCreated> result = SettableFuture.create();
+            awaiting.put(task, result);
+            return result;
+        }
+
+        @Override
+        public ListenableFuture<Ack> post(CommandMessage message) {
+            sent.add(System.nanoTime());
+            if (sent.size() == 1) {
+                stall();
+            }
+            CreateTask command = (CreateTask) message;
+            TaskCreated event = TaskCreated
+                    .newBuilder()
+                    .setId(command.getId())
+                    .setTitle(command.getTitle())
+                    .build();
+            awaiting.remove(command.getId())
+                    .set(event);
+            Ack ack = Ack
+                    .newBuilder()
+                    .setStatus(Status.newBuilder()
+                                     .setOk(Empty.getDefaultInstance()))
+                    .build();
+            return Futures.immediateFuture(ack);
+        }
+
+        @Override
+        public ListenableFuture<Optional<Task>> readTask(TaskId task) {
+            return Futures.immediateFuture(Optional.empty());
+        }
+
+        private static void stall() {
+            try {
+                NANOSECONDS.sleep(STALL);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+}
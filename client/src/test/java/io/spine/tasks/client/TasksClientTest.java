@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.client;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.spine.core.UserId;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.server.ServerConfig;
+import io.spine.tasks.server.TasksServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`TasksClient` should")
+class TasksClientTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private TasksServer server;
+    private TasksClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("tasks.server.host", "127.0.0.1");
+        properties.setProperty("tasks.server.port", "0");
+        server = TasksServer.create(ServerConfig.from(properties));
+        server.start();
+        client = TasksClient.newBuilder()
+                            .setAddress("127.0.0.1", server.port())
+                            .setActor(UserId.newBuilder()
+                                            .setValue("TasksClientTest")
+                                            .build())
+                            .build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        client.close();
+        server.shutdown(1, SECONDS);
+    }
+
+    @Test
+    @DisplayName("complete the future of each created task with its own event")
+    void routeById() throws Exception {
+        TaskId first = TaskIds.generate();
+        TaskId second = TaskIds.generate();
+
+        ListenableFuture<TaskCreated> firstCreated = client.createTask(first, "Buy milk");
+        ListenableFuture<TaskCreated> secondCreated = client.createTask(second, "Walk the dog");
+
+        TaskCreated secondEvent = secondCreated.get(TIMEOUT_SECONDS, SECONDS);
+        TaskCreated firstEvent = firstCreated.get(TIMEOUT_SECONDS, SECONDS);
+        assertThat(firstEvent.getId()).isEqualTo(first);
+        assertThat(firstEvent.getTitle()).isEqualTo("Buy milk");
+        assertThat(secondEvent.getId()).isEqualTo(second);
+        assertThat(secondEvent.getTitle()).isEqualTo("Walk the dog");
+    }
+
+    @Test
+    @DisplayName("complete the future of a task with a legacy ID")
+    void legacyId() throws Exception {
+        String uuid = UUID.randomUUID()
+                          .toString();
+        @SuppressWarnings("deprecation") // Posting a legacy ID.
+        TaskId legacy = TaskId.newBuilder()
+                              .setUuid(uuid)
+                              .build();
+
+        TaskCreated event = client.createTask(legacy, "Buy milk")
+                                  .get(TIMEOUT_SECONDS, SECONDS);
+
+        assertThat(event.getId()).isEqualTo(TaskIds.parse(uuid));
+    }
+
+    @Test
+    @DisplayName("fail the future of a task if the command is not acknowledged")
+    void failedAck() throws InterruptedException {
+        server.shutdown(0, MILLISECONDS);
+
+        ListenableFuture<TaskCreated> created = client.createTask(TaskIds.generate(), "Buy milk");
+
+        assertFails(created);
+    }
+
+    @Test
+    @DisplayName("fail the awaiting futures if the subscription to the events fails")
+    void subscriptionError() throws InterruptedException {
+        ListenableFuture<TaskCreated> created = client.expectCreated(TaskIds.generate());
+
+        server.shutdown(0, MILLISECONDS);
+
+        assertFails(created);
+    }
+
+    @Test
+    @DisplayName("fail the awaiting futures when closed")
+    void close() {
+        ListenableFuture<TaskCreated> created = client.expectCreated(TaskIds.generate());
+
+        client.close();
+
+        ExecutionException exception = assertFails(created);
+        assertThat(exception).hasCauseThat()
+                             .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static ExecutionException assertFails(ListenableFuture<TaskCreated> created) {
+        return assertThrows(ExecutionException.class,
+                            () -> created.get(TIMEOUT_SECONDS, SECONDS));
+    }
+}
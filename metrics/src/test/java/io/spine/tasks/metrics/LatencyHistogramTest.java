@@ -0,0 +1,91 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@DisplayName("`LatencyHistogram` should")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("report zero percentiles when empty")
+    void empty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(0);
+        assertThat(snapshot.valueAt(99)).isEqualTo(0);
+        assertThat(snapshot.mean()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("count the small values exactly")
+    void smallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.valueAt(50)).isEqualTo(5);
+        assertThat(snapshot.valueAt(100)).isEqualTo(10);
+        assertThat(snapshot.sum()).isEqualTo(55);
+    }
+
+    @Test
+    @DisplayName("report the percentiles of the large values within the relative error")
+    void largeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1_000; millis++) {
+            histogram.record(MILLISECONDS.toNanos(millis));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertThat(snapshot.count()).isEqualTo(1_000);
+        assertThat(snapshot.max()).isEqualTo(MILLISECONDS.toNanos(1_000));
+        assertWithinError(snapshot.valueAt(50), MILLISECONDS.toNanos(500));
+        assertWithinError(snapshot.valueAt(90), MILLISECONDS.toNanos(900));
+        assertWithinError(snapshot.valueAt(99), MILLISECONDS.toNanos(990));
+    }
+
+    @Test
+    @DisplayName("record negative values as zero")
+    void negative() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+
+        assertThat(histogram.snapshot()
+                            .max()).isEqualTo(0);
+    }
+
+    private static void assertWithinError(long actual, long expected) {
+        assertThat((double) actual).isWithin(expected * 0.035)
+                                   .of(expected);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks;
+
+import io.spine.string.Stringifier;
+
+import java.util.Comparator;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Utilities for working with {@link TaskId}s.
+ *
+ * <p>A {@code TaskId} stores a UUID in the binary form, as two {@code fixed64} fields. The IDs
+ * created before this form was introduced hold the UUID as a string. Such legacy IDs are
+ * {@linkplain #normalize(TaskId) converted} to the binary form without a loss, so the same task
+ * keeps the same ID.
+ */
+public final class TaskIds {
+
+    private static final Comparator<TaskId> BY_VALUE = (first, second) -> {
+        TaskId left = normalize(first);
+        TaskId right = normalize(second);
+        int byMsb = Long.compareUnsigned(left.getMsb(), right.getMsb());
+        return byMsb != 0
+               ? byMsb
+               : Long.compareUnsigned(left.getLsb(), right.getLsb());
+    };
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private TaskIds() {
+    }
+
+    /**
+     * Creates a new ID from a randomly generated UUID.
+     */
+    public static TaskId generate() {
+        return of(UUID.randomUUID());
+    }
+
+    /**
+     * Creates an ID from the given UUID.
+     */
+    public static TaskId of(UUID uuid) {
+        checkNotNull(uuid);
+        return TaskId
+                .newBuilder()
+                .setMsb(uuid.getMostSignificantBits())
+                .setLsb(uuid.getLeastSignificantBits())
+                .build();
+    }
+
+    /**
+     * Parses an ID from the canonical string representation of a UUID.
+     *
+     * @throws IllegalArgumentException
+     *         if the value is not a valid UUID
+     */
+    public static TaskId parse(String uuid) {
+        checkNotNull(uuid);
+        return of(UUID.fromString(uuid));
+    }
+
+    /**
+     * Converts the ID to the binary form.
+     *
+     * @return the ID itself if it is already in the binary form, or a new ID with the same UUID
+     *         otherwise
+     */
+    @SuppressWarnings("deprecation") // Converting the legacy form.
+    public static TaskId normalize(TaskId id) {
+        checkNotNull(id);
+        if (!isLegacy(id)) {
+            return id;
+        }
+        return parse(id.getUuid());
+    }
+
+    /**
+     * Tells whether the ID stores a UUID as a string.
+     */
+    @SuppressWarnings("deprecation") // Detecting the legacy form.
+    public static boolean isLegacy(TaskId id) {
+        checkNotNull(id);
+        return !id.getUuid()
+                  .isEmpty();
+    }
+
+    /**
+     * Obtains the UUID stored in the ID, in either form.
+     */
+    public static UUID toUuid(TaskId id) {
+        TaskId binary = normalize(id);
+        return new UUID(binary.getMsb(), binary.getLsb());
+    }
+
+    /**
+     * Obtains a comparator which orders the IDs as unsigned 128-bit numbers.
+     *
+     * <p>The IDs are compared in the binary form, so a legacy ID is equal to its binary
+     * counterpart.
+     */
+    public static Comparator<TaskId> comparator() {
+        return BY_VALUE;
+    }
+
+    /**
+     * Obtains a {@code Stringifier} which represents the IDs as canonical UUID strings.
+     *
+     * <p>Register the stringifier in the {@code StringifierRegistry} to keep the string form of
+     * the IDs, such as the keys of the stored records, the same as for the legacy IDs.
+     */
+    public static Stringifier<TaskId> stringifier() {
+        return new UuidStringifier();
+    }
+
+    /**
+     * Converts the IDs to and from canonical UUID strings.
+     */
+    private static final class UuidStringifier extends Stringifier<TaskId> {
+
+        @Override
+        protected String toString(TaskId id) {
+            return toUuid(id).toString();
+        }
+
+        @Override
+        protected TaskId fromString(String uuid) {
+            return parse(uuid);
+        }
+    }
+}
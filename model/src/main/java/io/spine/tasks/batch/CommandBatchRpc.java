@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.batch;
+
+import io.grpc.MethodDescriptor;
+
+import static io.grpc.MethodDescriptor.MethodType.UNARY;
+import static io.grpc.MethodDescriptor.generateFullMethodName;
+import static io.grpc.protobuf.ProtoUtils.marshaller;
+
+/**
+ * The gRPC contract of the service which accepts {@link CommandBatch}es.
+ *
+ * <p>The service is shared by the server, which implements it, and the clients, which call it.
+ */
+public final class CommandBatchRpc {
+
+    /**
+     * The name of the gRPC service.
+     */
+    public static final String SERVICE_NAME = "spine.tasks.CommandBatchService";
+
+    /**
+     * Posts all the commands of a batch and responds with their acknowledgements.
+     */
+    public static final MethodDescriptor<CommandBatch, CommandBatchAck> POST =
+            MethodDescriptor.<CommandBatch, CommandBatchAck>newBuilder()
+                    .setType(UNARY)
+                    .setFullMethodName(generateFullMethodName(SERVICE_NAME, "Post"))
+                    .setRequestMarshaller(marshaller(CommandBatch.getDefaultInstance()))
+                    .setResponseMarshaller(marshaller(CommandBatchAck.getDefaultInstance()))
+                    .build();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private CommandBatchRpc() {
+    }
+}
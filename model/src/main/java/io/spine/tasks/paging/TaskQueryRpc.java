@@ -0,0 +1,78 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.paging;
+
+import io.grpc.MethodDescriptor;
+import io.spine.tasks.Task;
+
+import static io.grpc.MethodDescriptor.MethodType.SERVER_STREAMING;
+import static io.grpc.MethodDescriptor.MethodType.UNARY;
+import static io.grpc.MethodDescriptor.generateFullMethodName;
+import static io.grpc.protobuf.ProtoUtils.marshaller;
+
+/**
+ * The gRPC contract of the service which reads large numbers of {@link Task}s.
+ *
+ * <p>The service is shared by the server, which implements it, and the clients, which call it.
+ */
+public final class TaskQueryRpc {
+
+    /**
+     * The name of the gRPC service.
+     */
+    public static final String SERVICE_NAME = "spine.tasks.TaskQueryService";
+
+    /**
+     * Reads a single page of the tasks matching a query.
+     */
+    public static final MethodDescriptor<TaskPageRequest, TaskPage> READ_PAGE =
+            MethodDescriptor.<TaskPageRequest, TaskPage>newBuilder()
+                    .setType(UNARY)
+                    .setFullMethodName(generateFullMethodName(SERVICE_NAME, "ReadPage"))
+                    .setRequestMarshaller(marshaller(TaskPageRequest.getDefaultInstance()))
+                    .setResponseMarshaller(marshaller(TaskPage.getDefaultInstance()))
+                    .build();
+
+    /**
+     * Streams the tasks matching a query, starting from the cursor of the request.
+     *
+     * <p>The tasks are read in portions of the page size of the request as fast as the client
+     * consumes them.
+     */
+    public static final MethodDescriptor<TaskPageRequest, Task> STREAM =
+            MethodDescriptor.<TaskPageRequest, Task>newBuilder()
+                    .setType(SERVER_STREAMING)
+                    .setFullMethodName(generateFullMethodName(SERVICE_NAME, "Stream"))
+                    .setRequestMarshaller(marshaller(TaskPageRequest.getDefaultInstance()))
+                    .setResponseMarshaller(marshaller(Task.getDefaultInstance()))
+                    .build();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private TaskQueryRpc() {
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks;
+
+import io.spine.string.Stringifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`TaskIds` should")
+class TaskIdsTest {
+
+    private static final UUID uuid = UUID.fromString("fedcba98-7654-3210-0123-456789abcdef");
+
+    @Test
+    @DisplayName("convert a legacy ID to the binary form with the same UUID")
+    void normalizeLegacy() {
+        TaskId legacy = legacy(uuid.toString());
+        TaskId binary = TaskIds.of(uuid);
+
+        assertThat(TaskIds.isLegacy(legacy)).isTrue();
+        assertThat(TaskIds.isLegacy(binary)).isFalse();
+        assertThat(TaskIds.normalize(legacy)).isEqualTo(binary);
+        assertThat(TaskIds.normalize(binary)).isSameInstanceAs(binary);
+        assertThat(TaskIds.toUuid(legacy)).isEqualTo(uuid);
+        assertThat(TaskIds.toUuid(binary)).isEqualTo(uuid);
+    }
+
+    @Test
+    @DisplayName("reject a legacy ID which is not a UUID")
+    void rejectMalformed() {
+        TaskId malformed = legacy("not-a-uuid");
+
+        assertThrows(IllegalArgumentException.class, () -> TaskIds.normalize(malformed));
+    }
+
+    @Test
+    @DisplayName("represent an ID as a canonical UUID string")
+    void stringify() {
+        Stringifier<TaskId> stringifier = TaskIds.stringifier();
+        TaskId binary = TaskIds.of(uuid);
+
+        assertThat(stringifier.convert(binary)).isEqualTo(uuid.toString());
+        assertThat(stringifier.convert(legacy(uuid.toString()))).isEqualTo(uuid.toString());
+        assertThat(stringifier.reverse()
+                              .convert(uuid.toString())).isEqualTo(binary);
+    }
+
+    @Test
+    @DisplayName("compare the IDs as unsigned numbers regardless of their form")
+    void compare() {
+        TaskId small = TaskIds.of(new UUID(1, 0));
+        TaskId large = TaskIds.of(new UUID(-1, 0));
+
+        assertThat(TaskIds.comparator()
+                          .compare(small, large)).isLessThan(0);
+        assertThat(TaskIds.comparator()
+                          .compare(legacy(uuid.toString()), TaskIds.of(uuid))).isEqualTo(0);
+    }
+
+    @SuppressWarnings("deprecation") // Creating the legacy form.
+    private static TaskId legacy(String value) {
+        return TaskId
+                .newBuilder()
+                .setUuid(value)
+                .build();
+    }
+}
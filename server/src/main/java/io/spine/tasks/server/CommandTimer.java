@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.metrics.Metrics;
+
+/**
+ * A server interceptor which records the time of accepting the commands.
+ *
+ * <p>The time is measured from the start of a call to its closing, i.e. until the command
+ * is acknowledged, and is recorded to the {@link Metrics#COMMAND_ACCEPTANCE} histogram.
+ */
+final class CommandTimer implements ServerInterceptor {
+
+    private static final LatencyHistogram ACCEPTANCE_TIME =
+            Metrics.histogram(Metrics.COMMAND_ACCEPTANCE);
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q>
+    interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        return next.startCall(new TimedCall<>(call), headers);
+    }
+
+    /**
+     * Records the time of the call when it is closed.
+     */
+    private static final class TimedCall<Q, R> extends SimpleForwardingServerCall<Q, R> {
+
+        private final long start = System.nanoTime();
+
+        private TimedCall(ServerCall<Q, R> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+            ACCEPTANCE_TIME.recordSince(start);
+            super.close(status, trailers);
+        }
+    }
+}
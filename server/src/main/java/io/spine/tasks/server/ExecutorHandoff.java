@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server;
+
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+import java.util.concurrent.Executor;
+
+import static com.google.common.util.concurrent.MoreExecutors.newSequentialExecutor;
+
+/**
+ * A server interceptor which moves the processing of a call from the transport thread to
+ * the given executor.
+ *
+ * <p>Used when the gRPC server runs the calls directly on the Netty event loop threads.
+ * The services which may block are intercepted, so that the event loops stay free to serve
+ * the other calls.
+ *
+ * <p>The events of a single call are passed to the service in order, one at a time, as gRPC
+ * requires.
+ */
+final class ExecutorHandoff implements ServerInterceptor {
+
+    private final Executor executor;
+
+    ExecutorHandoff(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q>
+    interceptCall(ServerCall<Q, R> call, Metadata headers, ServerCallHandler<Q, R> next) {
+        ServerCall.Listener<Q> listener = next.startCall(call, headers);
+        return new HandedOffListener<>(listener, newSequentialExecutor(executor));
+    }
+
+    /**
+     * Passes the events of a call to the delegate listener on the call executor.
+     */
+    private static final class HandedOffListener<Q> extends SimpleForwardingServerCallListener<Q> {
+
+        private final Executor callExecutor;
+
+        private HandedOffListener(ServerCall.Listener<Q> delegate, Executor callExecutor) {
+            super(delegate);
+            this.callExecutor = callExecutor;
+        }
+
+        @Override
+        public void onMessage(Q message) {
+            callExecutor.execute(() -> super.onMessage(message));
+        }
+
+        @Override
+        public void onHalfClose() {
+            callExecutor.execute(super::onHalfClose);
+        }
+
+        @Override
+        public void onCancel() {
+            callExecutor.execute(super::onCancel);
+        }
+
+        @Override
+        public void onComplete() {
+            callExecutor.execute(super::onComplete);
+        }
+
+        @Override
+        public void onReady() {
+            callExecutor.execute(super::onReady);
+        }
+    }
+}
@@ -26,12 +26,11 @@
 package io.spine.tasks.server;
 
 import com.google.common.flogger.FluentLogger;
-import io.spine.server.CommandService;
-import io.spine.server.GrpcContainer;
-import io.spine.server.QueryService;
-import io.spine.server.SubscriptionService;
+import io.spine.tasks.server.metrics.MetricsEndpoint;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 /**
@@ -46,14 +45,9 @@ public final class ServerApp {
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
 
     /**
-     * A host to use for gRPC server.
+     * The time given to the running calls to complete when the application stops.
      */
-    private static final String HOST = "127.0.0.1";
-
-    /**
-     * A port to use for gRPC server.
-     */
-    private static final int PORT = 8484;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
 
     /**
      * This class must not be instantiated, as it's just a holder for {@code main} method.
@@ -64,25 +58,48 @@ public final class ServerApp {
     /**
      * Creates and starts a gRPC server and serves {@code Tasks} bounded context.
      *
-     * <p>Uses the hard-coded {@linkplain #HOST host} and {@linkplain #PORT port} for simplicity.
+     * <p>The server is tuned by the {@linkplain ServerConfig#load() configuration} taken from
+     * the file set by the {@value ServerConfig#CONFIG_FILE_PROPERTY} system property and from
+     * the system properties. By default, the server listens to {@code 127.0.0.1:8484}.
+     *
+     * <p>The metrics of the server are exported at {@code /metrics} on
+     * the {@linkplain ServerConfig#metricsPort() metrics port}, {@code 9464} by default.
+     *
+     * <p>With {@code -Dtasks.startup.warm-up=true}, the {@code Tasks} context is warmed up with
+     * synthetic commands and queries before the server starts, so that the first requests are
+     * served as fast as the following ones. The time since the start of the JVM is logged once
+     * the server is ready.
      *
      * @throws IOException
      *         if the gRPC server cannot be started
+     * @throws InterruptedException
+     *         if the application is interrupted while serving
      */
-    public static void main(String[] args) throws IOException {
-        CommandService commandService = TasksContext.commandService();
-        QueryService queryService = TasksContext.queryService();
-        SubscriptionService subscriptionService = TasksContext.subscriptionService();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ServerConfig config = ServerConfig.load();
+        TasksServer server = TasksServer.create(config);
+        server.start();
+        MetricsEndpoint metrics = MetricsEndpoint.start(config.host(), config.metricsPort());
+        Runtime.getRuntime()
+               .addShutdownHook(new Thread(() -> stop(server, metrics)));
+        long uptime = ManagementFactory.getRuntimeMXBean()
+                                       .getUptime();
+        log.at(Level.INFO).log("gRPC server started at %s:%d with %s in %d ms.",
+                               config.host(), server.port(), config, uptime);
+        log.at(Level.INFO).log("Metrics are served at http://%s:%d%s.",
+                               config.host(), metrics.port(), MetricsEndpoint.PATH);
 
-        GrpcContainer container = GrpcContainer
-                .atPort(PORT)
-                .addService(commandService)
-                .addService(queryService)
-                .addService(subscriptionService)
-                .build();
-        container.start();
-        log.at(Level.INFO).log("gRPC server started at %s:%d.", HOST, PORT);
+        server.awaitTermination();
+    }
 
-        container.awaitTermination();
+    private static void stop(TasksServer server, MetricsEndpoint metrics) {
+        try {
+            server.shutdown(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        } finally {
+            metrics.close();
+        }
     }
 }
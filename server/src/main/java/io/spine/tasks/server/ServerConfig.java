@@ -0,0 +1,300 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HostAndPort;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * The configuration of the gRPC server of the {@code Tasks} context.
+ *
+ * <p>The configuration is {@linkplain #load() loaded} from a properties file, whose path is set by
+ * the {@value #CONFIG_FILE_PROPERTY} system property. The system properties with the same names
+ * override the values from the file. The values which are not set fall back to the defaults.
+ *
+ * <p>The supported properties are:
+ * <ul>
+ *     <li>{@code tasks.server.host} — the address to bind to, {@code 127.0.0.1} by default;
+ *     <li>{@code tasks.server.port} — the port to listen to, {@code 8484} by default;
+ *     <li>{@code tasks.server.boss-threads} — the number of the Netty threads accepting
+ *         the connections, {@code 1} by default;
+ *     <li>{@code tasks.server.worker-threads} — the number of the Netty event loop threads
+ *         serving the connections; the Netty default is used if not set;
+ *     <li>{@code tasks.server.executor} — the executor of the application code, either
+ *         {@code default}, which is the unbounded gRPC thread pool, or {@code work-stealing},
+ *         which is a work-stealing pool with a bounded number of threads;
+ *     <li>{@code tasks.server.executor-threads} — the number of threads of the work-stealing
+ *         executor, the number of processors by default;
+ *     <li>{@code tasks.server.direct-queries} — if {@code true}, the queries are served right
+ *         on the event loop threads, while the other services use the executor;
+ *     <li>{@code tasks.server.max-concurrent-calls-per-connection} — the limit of the concurrent
+ *         calls in a single connection, unlimited by default;
+ *     <li>{@code tasks.server.max-inbound-message-size} — the maximum size of a request message
+ *         in bytes, 4 MiB by default;
+ *     <li>{@code tasks.server.flow-control-window} — the HTTP/2 flow control window in bytes,
+ *         1 MiB by default;
+ *     <li>{@code tasks.server.metrics-port} — the port of the HTTP endpoint exporting
+ *         the metrics, {@code 9464} by default; the endpoint is bound to the same host as
+ *         the gRPC server;
+ *     <li>{@code tasks.server.cluster} — the nodes of a sharded cluster as a comma-separated
+ *         list of {@code name=host:port} entries; the {@code Task}s are split between
+ *         the nodes, and each node handles the commands of its own tasks; not sharded
+ *         by default;
+ *     <li>{@code tasks.server.node} — the name of this node in the cluster.
+ * </ul>
+ */
+public final class ServerConfig {
+
+    /**
+     * The system property which sets the path to the configuration file.
+     */
+    public static final String CONFIG_FILE_PROPERTY = "tasks.server.config";
+
+    private static final String PREFIX = "tasks.server.";
+    private static final String HOST = "host";
+    private static final String PORT = "port";
+    private static final String BOSS_THREADS = "boss-threads";
+    private static final String WORKER_THREADS = "worker-threads";
+    private static final String EXECUTOR = "executor";
+    private static final String EXECUTOR_THREADS = "executor-threads";
+    private static final String DIRECT_QUERIES = "direct-queries";
+    private static final String MAX_CONCURRENT_CALLS = "max-concurrent-calls-per-connection";
+    private static final String MAX_INBOUND_MESSAGE_SIZE = "max-inbound-message-size";
+    private static final String FLOW_CONTROL_WINDOW = "flow-control-window";
+    private static final String METRICS_PORT = "metrics-port";
+    private static final String CLUSTER = "cluster";
+    private static final String NODE = "node";
+
+    private static final ImmutableMap<String, String> DEFAULTS =
+            ImmutableMap.<String, String>builder()
+                        .put(HOST, "127.0.0.1")
+                        .put(PORT, "8484")
+                        .put(BOSS_THREADS, "1")
+                        .put(WORKER_THREADS, "0")
+                        .put(EXECUTOR, "default")
+                        .put(EXECUTOR_THREADS, String.valueOf(Runtime.getRuntime()
+                                                                     .availableProcessors()))
+                        .put(DIRECT_QUERIES, "false")
+                        .put(MAX_CONCURRENT_CALLS, String.valueOf(Integer.MAX_VALUE))
+                        .put(MAX_INBOUND_MESSAGE_SIZE, String.valueOf(4 * 1024 * 1024))
+                        .put(FLOW_CONTROL_WINDOW, String.valueOf(1024 * 1024))
+                        .put(METRICS_PORT, "9464")
+                        .put(CLUSTER, "")
+                        .put(NODE, "")
+                        .build();
+
+    private final Properties properties;
+
+    private ServerConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Loads the configuration from the configuration file and the system properties.
+     */
+    public static ServerConfig load() {
+        Properties properties = new Properties();
+        String file = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (file != null) {
+            readFile(Paths.get(file), properties);
+        }
+        System.getProperties()
+              .stringPropertyNames()
+              .stream()
+              .filter(name -> name.startsWith(PREFIX))
+              .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return new ServerConfig(properties);
+    }
+
+    /**
+     * Creates the configuration from the given properties.
+     *
+     * <p>The names of the properties should have the {@code tasks.server.} prefix.
+     */
+    public static ServerConfig from(Properties properties) {
+        checkNotNull(properties);
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return new ServerConfig(copy);
+    }
+
+    private static void readFile(Path file, Properties properties) {
+        try (InputStream input = Files.newInputStream(file)) {
+            properties.load(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The kind of the executor running the application code of the gRPC services.
+     */
+    public enum ExecutorKind {
+
+        /**
+         * The default gRPC executor, which is an unbounded cached thread pool.
+         */
+        DEFAULT,
+
+        /**
+         * A work-stealing pool with a bounded number of threads.
+         */
+        WORK_STEALING
+    }
+
+    public String host() {
+        return value(HOST);
+    }
+
+    public int port() {
+        return intValue(PORT);
+    }
+
+    public int bossThreads() {
+        return intValue(BOSS_THREADS);
+    }
+
+    /**
+     * Obtains the number of the Netty worker threads, or zero to use the Netty default.
+     */
+    public int workerThreads() {
+        return intValue(WORKER_THREADS);
+    }
+
+    public ExecutorKind executor() {
+        String kind = value(EXECUTOR).replace('-', '_')
+                                     .toUpperCase();
+        return ExecutorKind.valueOf(kind);
+    }
+
+    public int executorThreads() {
+        return intValue(EXECUTOR_THREADS);
+    }
+
+    public boolean directQueries() {
+        return Boolean.parseBoolean(value(DIRECT_QUERIES));
+    }
+
+    public int maxConcurrentCallsPerConnection() {
+        return intValue(MAX_CONCURRENT_CALLS);
+    }
+
+    public int maxInboundMessageSize() {
+        return intValue(MAX_INBOUND_MESSAGE_SIZE);
+    }
+
+    public int flowControlWindow() {
+        return intValue(FLOW_CONTROL_WINDOW);
+    }
+
+    public int metricsPort() {
+        return intValue(METRICS_PORT);
+    }
+
+    /**
+     * Tells whether the server is a node of a sharded cluster.
+     */
+    public boolean sharded() {
+        return !value(CLUSTER).isEmpty();
+    }
+
+    /**
+     * Obtains the addresses of the gRPC servers of the cluster nodes by the names of the nodes.
+     *
+     * @throws IllegalStateException
+     *         if the server is not {@linkplain #sharded() sharded}
+     */
+    public ImmutableMap<String, InetSocketAddress> cluster() {
+        checkState(sharded(), "The server is not a part of a cluster.");
+        ImmutableMap.Builder<String, InetSocketAddress> result = ImmutableMap.builder();
+        for (String entry : Splitter.on(',')
+                                    .trimResults()
+                                    .omitEmptyStrings()
+                                    .split(value(CLUSTER))) {
+            List<String> parts = Splitter.on('=')
+                                         .trimResults()
+                                         .splitToList(entry);
+            checkArgument(parts.size() == 2,
+                          "The cluster node `%s` is not in the `name=host:port` form.", entry);
+            HostAndPort address = HostAndPort.fromString(parts.get(1));
+            result.put(parts.get(0),
+                       InetSocketAddress.createUnresolved(address.getHost(), address.getPort()));
+        }
+        return result.build();
+    }
+
+    /**
+     * Obtains the name of this node in the {@linkplain #cluster() cluster}.
+     */
+    public String node() {
+        return value(NODE);
+    }
+
+    private String value(String name) {
+        String value = properties.getProperty(PREFIX + name, DEFAULTS.get(name));
+        return value.trim();
+    }
+
+    private int intValue(String name) {
+        int result = Integer.parseInt(value(name));
+        checkArgument(result >= 0, "The property `%s%s` must not be negative.", PREFIX, name);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerConfig{" +
+                "host=" + host() +
+                ", port=" + port() +
+                ", bossThreads=" + bossThreads() +
+                ", workerThreads=" + workerThreads() +
+                ", executor=" + executor() +
+                ", executorThreads=" + executorThreads() +
+                ", directQueries=" + directQueries() +
+                ", maxConcurrentCallsPerConnection=" + maxConcurrentCallsPerConnection() +
+                ", maxInboundMessageSize=" + maxInboundMessageSize() +
+                ", flowControlWindow=" + flowControlWindow() +
+                ", metricsPort=" + metricsPort() +
+                ", cluster=" + value(CLUSTER) +
+                ", node=" + node() +
+                '}';
+    }
+}
@@ -26,32 +26,200 @@
 
 package io.spine.tasks.server;
 
+import com.google.common.base.Stopwatch;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.protobuf.Duration;
 import io.spine.base.Environment;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
 import io.spine.server.BoundedContext;
 import io.spine.server.CommandService;
 import io.spine.server.QueryService;
 import io.spine.server.ServerEnvironment;
 import io.spine.server.SubscriptionService;
+import io.spine.server.delivery.Delivery;
+import io.spine.server.delivery.DeliveryStrategy;
+import io.spine.server.delivery.UniformAcrossAllShards;
+import io.spine.server.storage.StorageFactory;
 import io.spine.server.storage.memory.InMemoryStorageFactory;
 import io.spine.server.transport.memory.InMemoryTransportFactory;
-import io.spine.tasks.server.task.TaskAggregate;
+import io.spine.string.StringifierRegistry;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.bulk.TaskExport;
+import io.spine.tasks.server.bulk.TaskImport;
+import io.spine.tasks.server.command.AdmittingCommandService;
+import io.spine.tasks.server.command.CommandBatchService;
+import io.spine.tasks.server.command.ConcurrencyLimit;
+import io.spine.tasks.server.command.IdempotentCommandService;
+import io.spine.tasks.server.command.LaneExecutor;
+import io.spine.tasks.server.command.LanedCommandService;
+import io.spine.tasks.server.command.RecentCommands;
+import io.spine.tasks.server.metrics.Metrics;
+import io.spine.tasks.server.query.IndexedQueryService;
+import io.spine.tasks.server.query.TaskQueryService;
+import io.spine.tasks.server.storage.ColumnIndex;
+import io.spine.tasks.server.storage.SegmentStorageFactory;
+import io.spine.tasks.server.task.TaskRepository;
+import io.spine.tasks.server.task.TaskTitleIndexer;
+import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * A factory of {@code Tasks} bounded context services.
  */
 public final class TasksContext {
 
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
     /**
      * The name of the context.
      */
     static final String NAME = "Tasks";
 
+    /**
+     * The system property which selects the storage of the context.
+     *
+     * <p>The supported values are {@code memory}, which is the default, and
+     * {@code segments}.
+     */
+    private static final String STORAGE_PROPERTY = "tasks.storage";
+
+    /**
+     * The system property which sets the directory of the segment storage.
+     */
+    private static final String STORAGE_DIR_PROPERTY = "tasks.storage.dir";
+
+    /**
+     * The system property which sets the number of cached aggregate histories in
+     * the segment storage.
+     */
+    private static final String STORAGE_CACHE_PROPERTY = "tasks.storage.cache.size";
+
+    /**
+     * The system property which tells whether the segment storage compresses the events.
+     *
+     * <p>The events are not compressed unless the property is set to {@code true}.
+     */
+    private static final String STORAGE_COMPRESSION_PROPERTY = "tasks.storage.compression";
+
+    /**
+     * The system property which sets the number of events after which a snapshot
+     * of a {@code Task} aggregate is stored.
+     */
+    private static final String SNAPSHOT_TRIGGER_PROPERTY = "tasks.snapshot.trigger";
+
+    /**
+     * The system property which tells whether the {@code Task} queries by title are resolved
+     * through the index of the titles.
+     *
+     * <p>The index is used unless the property is set to {@code false}.
+     */
+    private static final String QUERY_INDEX_PROPERTY = "tasks.query.index";
+
+    /**
+     * The system property which sets the number of the lanes handling the commands to
+     * the {@code Task}s in parallel.
+     *
+     * <p>Defaults to the number of processors. Zero turns the lanes off, so the commands are
+     * handled on the threads which post them.
+     */
+    private static final String LANES_PROPERTY = "tasks.command.lanes";
+
+    /**
+     * The system property which sets the maximum number of the commands waiting in a lane.
+     */
+    private static final String LANE_CAPACITY_PROPERTY = "tasks.command.lane.capacity";
+
+    /**
+     * The system property which sets the number of the {@linkplain RecentCommands recent
+     * commands} whose repeats are answered without handling them again.
+     *
+     * <p>Zero turns the deduplication of the commands off.
+     */
+    private static final String DEDUP_CAPACITY_PROPERTY = "tasks.command.dedup.capacity";
+
+    /**
+     * The system property which sets the time, in seconds, for which a command is remembered
+     * for the deduplication.
+     */
+    private static final String DEDUP_WINDOW_PROPERTY = "tasks.command.dedup.window";
+
+    /**
+     * The system property which sets the maximum number of the commands handled at the same
+     * time, up to which the {@linkplain ConcurrencyLimit adaptive limit} may grow.
+     *
+     * <p>Zero turns the admission control off.
+     */
+    private static final String LIMIT_PROPERTY = "tasks.command.limit";
+
+    /**
+     * The system property which sets the latency target of a command, in milliseconds.
+     *
+     * <p>The limit goes down while the commands take longer than the target.
+     */
+    private static final String LIMIT_LATENCY_PROPERTY = "tasks.command.limit.latency";
+
+    /**
+     * The system property which turns on the {@linkplain WarmUp warm-up} of the context
+     * before it is built.
+     *
+     * <p>The warm-up is off unless the property is set to {@code true}.
+     */
+    private static final String WARM_UP_PROPERTY = "tasks.startup.warm-up";
+
+    /**
+     * The system property which sets the number of the tasks created and read during
+     * the warm-up.
+     */
+    private static final String WARM_UP_ITERATIONS_PROPERTY = "tasks.startup.warm-up.iterations";
+
+    /**
+     * The name of the throwaway context used for the warm-up.
+     */
+    private static final String WARM_UP_NAME = "TasksWarmUp";
+
+    private static final String SEGMENT_STORAGE = "segments";
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+    private static final int DEFAULT_SNAPSHOT_TRIGGER = 100;
+    private static final int DEFAULT_LANE_CAPACITY = 1_024;
+    private static final int DEFAULT_WARM_UP_ITERATIONS = 2_000;
+    private static final int DEFAULT_DEDUP_CAPACITY = 100_000;
+    private static final int DEFAULT_DEDUP_WINDOW = 300;
+    private static final int DEFAULT_MAX_LIMIT = 1_024;
+    private static final int INITIAL_LIMIT = 64;
+    private static final int DEFAULT_LIMIT_LATENCY = 200;
+
+    private static final int lanes = Integer.getInteger(LANES_PROPERTY,
+                                                        Runtime.getRuntime()
+                                                               .availableProcessors());
+    private static final DeliveryStrategy laneStrategy =
+            UniformAcrossAllShards.forNumber(Math.max(lanes, 1));
+
+    private static final ColumnIndex<TaskId> titleIndex = titleIndex();
+
+    private static final TaskRepository taskRepository = newTaskRepository();
+
     private static final BoundedContext context = createContext();
 
-    private static final QueryService queryService = QueryService
+    private static final QueryService contextQueryService = QueryService
             .newBuilder()
             .add(context)
             .build();
+    private static final QueryServiceImplBase queryService = createQueryService();
     private static final CommandService commandService = CommandService
             .newBuilder()
             .add(context)
@@ -60,6 +228,17 @@ public final class TasksContext {
             .newBuilder()
             .add(context)
             .build();
+    private static final CommandServiceImplBase lanedCommandService =
+            createLanedCommandService();
+    private static final @Nullable RecentCommands recentCommands = createRecentCommands();
+    private static final CommandServiceImplBase idempotentCommandService =
+            idempotent(admitting(lanedCommandService));
+    private static final CommandBatchService commandBatchService =
+            new CommandBatchService(idempotentCommandService);
+    private static final TaskQueryService taskQueryService =
+            new TaskQueryService(contextQueryService, titleIndex);
+    private static final TaskExport taskExport = new TaskExport(taskRepository);
+    private static final TaskImport taskImport = new TaskImport(context);
 
     /**
      * Prevents the utility class instantiation.
@@ -69,30 +248,257 @@ public final class TasksContext {
 
     /**
      * Creates an instance of "Tasks" {@code BoundedContext} and configures the
-     * {@linkplain io.spine.server.ServerEnvironment server environment} with in-memory
-     * implementations of storage and transport.
+     * {@linkplain io.spine.server.ServerEnvironment server environment} with the selected
+     * storage and in-memory implementation of transport.
+     *
+     * <p>Registers the stringifier which represents the {@code TaskId}s as UUID strings, so that
+     * the binary IDs look the same as the legacy string IDs wherever they are converted
+     * to strings.
+     *
+     * <p>Registers the subscriber which keeps the index of the {@code Task} titles up to date.
+     *
+     * <p>Unless the {@linkplain #lanedCommandService() command lanes} are off, splits
+     * the delivery of the messages to the entities into as many shards as there are lanes, so
+     * that each lane is the only one delivering the messages of its shard.
+     *
+     * <p>If the {@value #WARM_UP_PROPERTY} property is set to {@code true}, {@linkplain #warmUp()
+     * warms up} the JVM before building the context.
      *
      * <p>In a real-life the server environment should be configured with the reference to
      * the truly persistent storage factory of choice.
      */
     private static BoundedContext createContext() {
+        StringifierRegistry.instance()
+                           .register(TaskIds.stringifier(), TaskId.class);
         Environment env = Environment.instance();
         ServerEnvironment
                 .when(env.type())
-                .use(InMemoryStorageFactory.newInstance())
+                .use(storageFactory())
                 .use(InMemoryTransportFactory.newInstance());
+        if (lanes > 0) {
+            ServerEnvironment.instance()
+                             .configureDelivery(Delivery.localWithShardsAndWindow(
+                                     lanes, Duration.getDefaultInstance()
+                             ));
+        }
 
+        if (Boolean.getBoolean(WARM_UP_PROPERTY)) {
+            warmUp();
+        }
+        return newContext(NAME, taskRepository, titleIndex);
+    }
+
+    private static BoundedContext newContext(String name,
+                                             TaskRepository repository,
+                                             ColumnIndex<TaskId> titleIndex) {
         BoundedContext context = BoundedContext
-                .singleTenant(NAME)
-                .add(TaskAggregate.class)
+                .singleTenant(name)
+                .add(repository)
+                .addEventDispatcher(new TaskTitleIndexer(titleIndex))
                 .build();
         return context;
     }
 
+    private static TaskRepository newTaskRepository() {
+        int snapshotTrigger = Integer.getInteger(SNAPSHOT_TRIGGER_PROPERTY,
+                                                 DEFAULT_SNAPSHOT_TRIGGER);
+        return new TaskRepository(snapshotTrigger);
+    }
+
+    /**
+     * Loads the {@code spine.tasks} types and runs the synthetic {@code Task} traffic through
+     * a throwaway context configured in the same way as the real one.
+     *
+     * <p>The throwaway context is closed before the real one is built, so that the two never
+     * compete for the delivery of the {@code Task} messages. With the {@code segments} storage,
+     * the files of the throwaway context are deleted afterwards.
+     *
+     * <p>The number of the created tasks is set by the {@value #WARM_UP_ITERATIONS_PROPERTY}
+     * property. The warm-up traffic is recorded to the metrics like any other.
+     */
+    private static void warmUp() {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        int types = WarmUp.preloadTypes();
+        int iterations = Integer.getInteger(WARM_UP_ITERATIONS_PROPERTY,
+                                            DEFAULT_WARM_UP_ITERATIONS);
+        deleteWarmUpStorage();
+        ColumnIndex<TaskId> index = ColumnIndex.inMemory(TaskIds.comparator());
+        BoundedContext context = newContext(WARM_UP_NAME, newTaskRepository(), index);
+        try {
+            new WarmUp(iterations).run(context, index);
+        } finally {
+            try {
+                context.close();
+            } catch (Exception e) {
+                log.at(Level.WARNING)
+                   .withCause(e)
+                   .log("Unable to close the warm-up context.");
+            }
+            deleteWarmUpStorage();
+        }
+        log.at(Level.INFO)
+           .log("Loaded %d types and warmed up with %d tasks in %d ms.",
+                types, iterations, stopwatch.elapsed(MILLISECONDS));
+    }
+
+    private static void deleteWarmUpStorage() {
+        if (!segmentStorage()) {
+            return;
+        }
+        Path directory = storageDirectory().resolve(WARM_UP_NAME);
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try {
+            MoreFiles.deleteRecursively(directory, RecursiveDeleteOption.ALLOW_INSECURE);
+        } catch (IOException e) {
+            log.at(Level.WARNING)
+               .withCause(e)
+               .log("Unable to delete the warm-up storage at `%s`.", directory);
+        }
+    }
+
+    /**
+     * Creates the storage factory selected by the {@value #STORAGE_PROPERTY} system property.
+     *
+     * <p>The {@code segments} storage writes the aggregate events to the local files in
+     * the directory set by the {@value #STORAGE_DIR_PROPERTY} property, which defaults to
+     * {@code .spine-tasks} in the user home directory. The number of the aggregate histories
+     * it caches is set by the {@value #STORAGE_CACHE_PROPERTY} property. The events are
+     * compressed if the {@value #STORAGE_COMPRESSION_PROPERTY} property is {@code true}.
+     *
+     * <p>Any other value selects the in-memory storage.
+     */
+    private static StorageFactory storageFactory() {
+        if (!segmentStorage()) {
+            return InMemoryStorageFactory.newInstance();
+        }
+        return SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(storageDirectory())
+                .setCacheSize(Integer.getInteger(STORAGE_CACHE_PROPERTY, DEFAULT_CACHE_SIZE))
+                .setCompression(Boolean.getBoolean(STORAGE_COMPRESSION_PROPERTY))
+                .build();
+    }
+
+    /**
+     * Opens the index of the {@code title} column of the {@code Task}s.
+     *
+     * <p>With the {@code segments} storage, the index is stored next to the aggregate events,
+     * so that it survives restarts together with them. Otherwise, the index is kept in memory.
+     */
+    private static ColumnIndex<TaskId> titleIndex() {
+        if (!segmentStorage()) {
+            return ColumnIndex.inMemory(TaskIds.comparator());
+        }
+        Path directory = storageDirectory().resolve(NAME)
+                                           .resolve("index")
+                                           .resolve("task-title");
+        return ColumnIndex.onDisk(directory, true, TaskIds.comparator());
+    }
+
+    private static boolean segmentStorage() {
+        String storage = System.getProperty(STORAGE_PROPERTY, "memory");
+        return SEGMENT_STORAGE.equals(storage);
+    }
+
+    private static Path storageDirectory() {
+        Path defaultDir = Paths.get(System.getProperty("user.home"), ".spine-tasks");
+        return Paths.get(System.getProperty(STORAGE_DIR_PROPERTY, defaultDir.toString()));
+    }
+
+    /**
+     * Creates the query service of the context.
+     *
+     * <p>The {@code Task} queries which filter or order the tasks by their titles are resolved
+     * through the {@linkplain #titleIndex() index}, unless the {@value #QUERY_INDEX_PROPERTY}
+     * property is set to {@code false}.
+     */
+    private static QueryServiceImplBase createQueryService() {
+        boolean indexed = Boolean.parseBoolean(System.getProperty(QUERY_INDEX_PROPERTY, "true"));
+        return indexed
+               ? new IndexedQueryService(contextQueryService, titleIndex)
+               : contextQueryService;
+    }
+
+    /**
+     * Creates the command service which handles the commands to different tasks in
+     * parallel lanes, unless the lanes are turned off by the {@value #LANES_PROPERTY} property.
+     *
+     * <p>The lane of a task is the delivery shard of the task, so the lanes do not compete
+     * for the shards.
+     */
+    private static CommandServiceImplBase createLanedCommandService() {
+        if (lanes == 0) {
+            return commandService;
+        }
+        int capacity = Integer.getInteger(LANE_CAPACITY_PROPERTY, DEFAULT_LANE_CAPACITY);
+        LaneExecutor executor = new LaneExecutor(lanes, capacity, "tasks-lane");
+        Metrics.gauge("tasks_command_lane_queued", executor::queued);
+        TypeUrl taskType = TypeUrl.of(Task.class);
+        return new LanedCommandService(commandService, executor,
+                                       id -> laneStrategy.indexFor(id, taskType)
+                                                         .getIndex());
+    }
+
+    /**
+     * Wraps the given service into an {@link AdmittingCommandService}, unless the admission
+     * control is turned off by the {@value #LIMIT_PROPERTY} property.
+     *
+     * <p>The latency target of the limit is set by the {@value #LIMIT_LATENCY_PROPERTY}
+     * property.
+     */
+    private static CommandServiceImplBase admitting(CommandServiceImplBase service) {
+        int maxLimit = Integer.getInteger(LIMIT_PROPERTY, DEFAULT_MAX_LIMIT);
+        if (maxLimit == 0) {
+            return service;
+        }
+        int latency = Integer.getInteger(LIMIT_LATENCY_PROPERTY, DEFAULT_LIMIT_LATENCY);
+        ConcurrencyLimit limit = new ConcurrencyLimit(Math.min(INITIAL_LIMIT, maxLimit), maxLimit,
+                                                      ofMillis(latency));
+        Metrics.gauge("tasks_command_limit", limit::limit);
+        Metrics.gauge("tasks_command_in_flight", limit::inFlight);
+        Metrics.gauge("tasks_command_rejected", limit::rejected);
+        return new AdmittingCommandService(service, limit);
+    }
+
+    /**
+     * Creates the registry of the recent commands, unless the deduplication is turned off by
+     * the {@value #DEDUP_CAPACITY_PROPERTY} property.
+     *
+     * <p>The commands are remembered for the number of seconds set by
+     * the {@value #DEDUP_WINDOW_PROPERTY} property.
+     */
+    private static @Nullable RecentCommands createRecentCommands() {
+        int capacity = Integer.getInteger(DEDUP_CAPACITY_PROPERTY, DEFAULT_DEDUP_CAPACITY);
+        if (capacity == 0) {
+            return null;
+        }
+        int window = Integer.getInteger(DEDUP_WINDOW_PROPERTY, DEFAULT_DEDUP_WINDOW);
+        RecentCommands commands = new RecentCommands(capacity, ofSeconds(window));
+        Metrics.gauge("tasks_command_repeats", commands::repeats);
+        Metrics.gauge("tasks_command_dedup_evicted", commands::evicted);
+        return commands;
+    }
+
+    /**
+     * Wraps the given service into an {@link IdempotentCommandService} sharing
+     * the {@linkplain #createRecentCommands() recent commands} with the other services of
+     * the context.
+     *
+     * <p>Returns the given service as is if the deduplication is turned off.
+     */
+    private static CommandServiceImplBase idempotent(CommandServiceImplBase service) {
+        if (recentCommands == null) {
+            return service;
+        }
+        return new IdempotentCommandService(service, recentCommands);
+    }
+
     /**
      * Obtains a {@code QueryService} with the {@code Tasks} context.
      */
-    public static QueryService queryService() {
+    public static QueryServiceImplBase queryService() {
         return queryService;
     }
 
@@ -103,10 +509,68 @@ public final class TasksContext {
         return commandService;
     }
 
+    /**
+     * Obtains a command service with the {@code Tasks} context, which handles the commands to
+     * different {@code Task}s in parallel.
+     *
+     * <p>The commands to the same task are handled one by one, in the order of their arrival.
+     *
+     * @see LanedCommandService
+     */
+    public static CommandServiceImplBase lanedCommandService() {
+        return lanedCommandService;
+    }
+
+    /**
+     * Obtains a command service with the {@code Tasks} context, which answers the repeats of
+     * the recent commands with the acknowledgements of the original ones.
+     *
+     * <p>The new commands are {@linkplain AdmittingCommandService admitted} within an adaptive
+     * limit and handled by the {@linkplain #lanedCommandService() laned} service. The commands
+     * above the limit are rejected with the {@code UNAVAILABLE} status.
+     *
+     * @see IdempotentCommandService
+     */
+    public static CommandServiceImplBase idempotentCommandService() {
+        return idempotentCommandService;
+    }
+
     /**
      * Obtains a {@code SubscriptionService} with the {@code Tasks} context.
      */
     public static SubscriptionService subscriptionService() {
         return subscriptionService;
     }
+
+    /**
+     * Obtains a {@code CommandBatchService} with the {@code Tasks} context.
+     *
+     * <p>The commands of a batch are posted through
+     * the {@linkplain #idempotentCommandService() idempotent} service, so they are admitted
+     * and handled in the lanes the same way as the commands posted one by one.
+     */
+    public static CommandBatchService commandBatchService() {
+        return commandBatchService;
+    }
+
+    /**
+     * Obtains a {@code TaskQueryService} with the {@code Tasks} context.
+     */
+    public static TaskQueryService taskQueryService() {
+        return taskQueryService;
+    }
+
+    /**
+     * Obtains a {@code TaskExport} of the {@code Task}s of the context.
+     */
+    public static TaskExport taskExport() {
+        return taskExport;
+    }
+
+    /**
+     * Obtains a {@code TaskImport} into the {@code Tasks} context.
+     */
+    public static TaskImport taskImport() {
+        return taskImport;
+    }
 }
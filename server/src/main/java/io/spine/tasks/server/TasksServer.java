@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.tasks.server.command.CommandBatchService;
+import io.spine.tasks.server.shard.HashRing;
+import io.spine.tasks.server.shard.LoopbackTransport;
+import io.spine.tasks.server.shard.ShardTransport;
+import io.spine.tasks.server.shard.ShardedCommandService;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A gRPC server exposing the services of the {@code Tasks} context.
+ *
+ * <p>The server is tuned by a {@link ServerConfig}, which sets the address, the Netty event
+ * loops, the executor of the application code and the limits of the incoming calls.
+ *
+ * <p>In the {@linkplain ServerConfig#directQueries() direct query} mode, the server runs
+ * the calls on the Netty event loop threads. The {@code QueryService} answers right on those
+ * threads, since it reads the data without blocking. The calls to all the other services are
+ * {@linkplain ExecutorHandoff handed off} to the application executor, so that they do not
+ * stall the event loops.
+ *
+ * <p>If the configuration defines a {@linkplain ServerConfig#sharded() cluster}, the server
+ * handles the commands to its own {@code Task}s and forwards the other commands to their
+ * owners through a {@link LoopbackTransport}. The queries and subscriptions are served from
+ * the tasks of this node only.
+ *
+ * <p>The time of accepting the commands is {@linkplain CommandTimer recorded} to
+ * the {@linkplain io.spine.tasks.server.metrics.Metrics metrics}.
+ */
+public final class TasksServer {
+
+    private final ServerConfig config;
+    private final EventLoopGroup bossGroup;
+    private final EventLoopGroup workerGroup;
+    private final @Nullable ExecutorService executor;
+    private final @Nullable ShardTransport transport;
+    private final Server server;
+
+    private TasksServer(ServerConfig config) {
+        this.config = config;
+        this.bossGroup = new NioEventLoopGroup(config.bossThreads());
+        this.workerGroup = new NioEventLoopGroup(config.workerThreads());
+        this.executor = createExecutor(config);
+        this.transport = config.sharded()
+                         ? new LoopbackTransport(config.cluster())
+                         : null;
+        this.server = buildServer();
+    }
+
+    /**
+     * Creates a new server with the given configuration.
+     *
+     * <p>The server is not started.
+     */
+    public static TasksServer create(ServerConfig config) {
+        checkNotNull(config);
+        return new TasksServer(config);
+    }
+
+    private static @Nullable ExecutorService createExecutor(ServerConfig config) {
+        switch (config.executor()) {
+            case WORK_STEALING:
+                return new ForkJoinPool(config.executorThreads(),
+                                        ForkJoinPool.defaultForkJoinWorkerThreadFactory,
+                                        null, true);
+            case DEFAULT:
+            default:
+                return config.directQueries()
+                       ? Executors.newCachedThreadPool()
+                       : null;
+        }
+    }
+
+    private Server buildServer() {
+        InetSocketAddress address = new InetSocketAddress(config.host(), config.port());
+        NettyServerBuilder builder = NettyServerBuilder
+                .forAddress(address)
+                .channelType(NioServerSocketChannel.class)
+                .bossEventLoopGroup(bossGroup)
+                .workerEventLoopGroup(workerGroup)
+                .maxConcurrentCallsPerConnection(config.maxConcurrentCallsPerConnection())
+                .maxInboundMessageSize(config.maxInboundMessageSize())
+                .flowControlWindow(config.flowControlWindow());
+        CommandTimer commandTimer = new CommandTimer();
+        CommandServiceImplBase commandService = commandService();
+        CommandBatchService commandBatchService = transport == null
+                                                  ? TasksContext.commandBatchService()
+                                                  : new CommandBatchService(commandService);
+        ImmutableList<ServerServiceDefinition> blockingServices = ImmutableList.of(
+                ServerInterceptors.intercept(commandService, commandTimer),
+                TasksContext.subscriptionService()
+                            .bindService(),
+                ServerInterceptors.intercept(commandBatchService, commandTimer),
+                TasksContext.taskQueryService()
+                            .bindService()
+        );
+        if (config.directQueries()) {
+            checkState(executor != null);
+            ExecutorHandoff handoff = new ExecutorHandoff(executor);
+            builder.directExecutor()
+                   .addService(TasksContext.queryService());
+            blockingServices.forEach(
+                    service -> builder.addService(ServerInterceptors.intercept(service, handoff))
+            );
+        } else {
+            if (executor != null) {
+                builder.executor(executor);
+            }
+            builder.addService(TasksContext.queryService());
+            blockingServices.forEach(builder::addService);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates the command service, which handles the commands to different tasks in
+     * {@linkplain TasksContext#lanedCommandService() parallel lanes} and routes the commands to
+     * their nodes if the server is sharded.
+     *
+     * <p>The repeats of the recent commands handled by this node are
+     * {@linkplain TasksContext#idempotentCommandService() answered} without handling them again.
+     */
+    private CommandServiceImplBase commandService() {
+        CommandServiceImplBase local = TasksContext.idempotentCommandService();
+        if (transport == null) {
+            return local;
+        }
+        HashRing ring = HashRing.of(config.cluster()
+                                          .keySet());
+        return new ShardedCommandService(config.node(), ring, local, transport);
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @throws IOException
+     *         if the server cannot bind to its address
+     */
+    public void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * Obtains the port the server listens to.
+     *
+     * <p>If the configured port is zero, returns the port picked by the system.
+     */
+    public int port() {
+        return server.getPort();
+    }
+
+    /**
+     * Obtains the configuration of this server.
+     */
+    public ServerConfig config() {
+        return config;
+    }
+
+    /**
+     * Waits for the server to terminate.
+     */
+    public void awaitTermination() throws InterruptedException {
+        server.awaitTermination();
+    }
+
+    /**
+     * Stops accepting new calls, waits for the running calls to complete within the given time
+     * and releases the threads of the server.
+     */
+    public void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        server.shutdown();
+        if (!server.awaitTermination(timeout, unit)) {
+            server.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+        if (transport != null) {
+            transport.close();
+        }
+        bossGroup.shutdownGracefully();
+        workerGroup.shutdownGracefully();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Internal;
+import com.google.protobuf.Message;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.UserId;
+import io.spine.server.BoundedContext;
+import io.spine.server.CommandService;
+import io.spine.server.QueryService;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.paging.TaskPageRequest;
+import io.spine.tasks.server.query.IndexedQueryService;
+import io.spine.tasks.server.query.TaskQueryService;
+import io.spine.tasks.server.storage.ColumnIndex;
+import io.spine.type.KnownTypes;
+import io.spine.type.TypeUrl;
+
+import static io.spine.client.Filters.eq;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * Prepares the JVM to serve the {@code Tasks} context before the server starts.
+ *
+ * <p>The descriptors of the {@code spine.tasks} types are produced at build time by the Spine
+ * model compiler and are registered in {@link KnownTypes}. The warm-up loads them and
+ * initializes the classes of the messages, so that the first requests do not pay for it.
+ *
+ * <p>Then the warm-up sends synthetic {@code CreateTask} commands and {@code Task} queries to
+ * a throwaway context, so that the paths of dispatching the commands, applying the events and
+ * reading the tasks are compiled by the JIT compiler. The throwaway context has its own
+ * storage and index of the titles, so the data of the real context is not touched.
+ */
+final class WarmUp {
+
+    private static final String TYPE_PACKAGE = "spine.tasks";
+    private static final String TITLE = "title";
+    private static final int PAGE_SIZE = 10;
+
+    private final ActorRequestFactory requests = ActorRequestFactory
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue("tasks-warm-up")
+                            .vBuild())
+            .build();
+    private final int iterations;
+
+    /**
+     * Creates a new warm-up.
+     *
+     * @param iterations
+     *         the number of the tasks created and read during the warm-up
+     */
+    WarmUp(int iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * Loads the descriptors and initializes the classes of all the {@code spine.tasks} types.
+     *
+     * @return the number of the loaded types
+     */
+    static int preloadTypes() {
+        KnownTypes knownTypes = KnownTypes.instance();
+        ImmutableSet<TypeUrl> types = knownTypes.allFromPackage(TYPE_PACKAGE);
+        ClassLoader classLoader = WarmUp.class.getClassLoader();
+        for (TypeUrl type : types) {
+            String className = knownTypes.classNameOf(type)
+                                         .value();
+            try {
+                Class<?> cls = Class.forName(className, true, classLoader);
+                if (Message.class.isAssignableFrom(cls)) {
+                    @SuppressWarnings("unchecked") // Checked above.
+                    Class<? extends Message> messageClass = (Class<? extends Message>) cls;
+                    Internal.getDefaultInstance(messageClass)
+                            .getDescriptorForType();
+                }
+            } catch (ClassNotFoundException e) {
+                throw newIllegalStateException(e, "Unable to load the class `%s`.", className);
+            }
+        }
+        return types.size();
+    }
+
+    /**
+     * Creates the tasks in the given context and reads them in all the ways the server does.
+     *
+     * @param context
+     *         the throwaway context with the {@code Task} repository
+     * @param titleIndex
+     *         the index of the titles kept up to date by the context
+     */
+    void run(BoundedContext context, ColumnIndex<TaskId> titleIndex) {
+        CommandService commands = CommandService
+                .newBuilder()
+                .add(context)
+                .build();
+        QueryService queries = QueryService
+                .newBuilder()
+                .add(context)
+                .build();
+        IndexedQueryService indexedQueries = new IndexedQueryService(queries, titleIndex);
+        TaskQueryService pages = new TaskQueryService(queries, titleIndex);
+        StreamObserver<Ack> acks = noOpObserver();
+        StreamObserver<QueryResponse> responses = noOpObserver();
+        for (int i = 0; i < iterations; i++) {
+            TaskId id = TaskIds.generate();
+            String title = "Warm-up #" + i;
+            commands.post(createTask(id, title), acks);
+            queries.read(taskById(id), responses);
+            indexedQueries.read(tasksTitled(title), responses);
+            pages.readPage(TaskPageRequest
+                                   .newBuilder()
+                                   .setQuery(tasksTitled(title))
+                                   .setPageSize(PAGE_SIZE)
+                                   .vBuild());
+        }
+    }
+
+    private Command createTask(TaskId id, String title) {
+        CreateTask message = CreateTask
+                .newBuilder()
+                .setId(id)
+                .setTitle(title)
+                .vBuild();
+        return requests.command()
+                       .create(message);
+    }
+
+    private Query taskById(TaskId id) {
+        return requests.query()
+                       .byIds(Task.class, ImmutableSet.of(id));
+    }
+
+    private Query tasksTitled(String title) {
+        return requests.query()
+                       .select(Task.class)
+                       .where(eq(TITLE, title))
+                       .build();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.bulk;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.flogger.FluentLogger;
+import io.spine.tasks.server.TasksContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A command-line tool which exports the {@code Task}s of the {@code Tasks} context to a file
+ * and imports them back.
+ *
+ * <p>Usage: {@code BulkTool export <file>} or {@code BulkTool import <file>}.
+ *
+ * <p>The tool works with the storage selected by the same system properties as
+ * the {@linkplain io.spine.tasks.server.ServerApp server}, e.g. {@code -Dtasks.storage=segments}
+ * and {@code -Dtasks.storage.dir}. The server using the same storage must be stopped while
+ * the tool runs.
+ */
+public final class BulkTool {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final String EXPORT = "export";
+    private static final String IMPORT = "import";
+
+    /**
+     * Prevents this class from instantiation.
+     */
+    private BulkTool() {
+    }
+
+    /**
+     * Exports or imports the tasks.
+     *
+     * @throws IOException
+     *         if the file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !(EXPORT.equals(args[0]) || IMPORT.equals(args[0]))) {
+            throw new IllegalArgumentException(
+                    "Usage: BulkTool export <file> | BulkTool import <file>"
+            );
+        }
+        Path file = Paths.get(args[1]);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        if (EXPORT.equals(args[0])) {
+            long count = TasksContext.taskExport()
+                                     .writeTo(file);
+            log.at(Level.INFO).log("Exported %d tasks to `%s` in %d ms.",
+                                   count, file, stopwatch.elapsed(MILLISECONDS));
+        } else {
+            long count = TasksContext.taskImport()
+                                     .readFrom(file);
+            log.at(Level.INFO).log("Imported %d tasks from `%s` in %d ms.",
+                                   count, file, stopwatch.elapsed(MILLISECONDS));
+        }
+    }
+}
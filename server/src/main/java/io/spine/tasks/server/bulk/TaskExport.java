@@ -0,0 +1,77 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.bulk;
+
+import io.spine.tasks.server.task.TaskAggregate;
+import io.spine.tasks.server.task.TaskRepository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Exports the states of all the {@code Task}s to a file.
+ *
+ * <p>The tasks are loaded from the repository one by one, while the storage of the repository
+ * is iterated, so the export takes the same memory for any number of tasks. The tasks are
+ * written in the order of the storage.
+ *
+ * <p>The tasks written to the file may be imported back with a {@link TaskImport}.
+ */
+public final class TaskExport {
+
+    private final TaskRepository repository;
+
+    /**
+     * Creates a new export of the tasks of the given repository.
+     */
+    public TaskExport(TaskRepository repository) {
+        this.repository = checkNotNull(repository);
+    }
+
+    /**
+     * Writes all the tasks to the given file, replacing an existing one.
+     *
+     * @return the number of the exported tasks
+     * @throws IOException
+     *         if the file cannot be written
+     */
+    public long writeTo(Path file) throws IOException {
+        checkNotNull(file);
+        Iterator<TaskAggregate> tasks = repository.iterator(task -> true);
+        long count = 0;
+        try (TaskFile.Writer writer = TaskFile.newWriter(file)) {
+            while (tasks.hasNext()) {
+                writer.write(tasks.next()
+                                  .state());
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.bulk;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import io.spine.tasks.Task;
+import io.spine.type.TypeUrl;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * A file of {@code Task} states.
+ *
+ * <p>The file starts with a header, which consists of a magic number and the type URL of
+ * the stored states. The header is followed by the states of the tasks, each of which is
+ * prefixed with its length as a varint, in the same way as
+ * {@link com.google.protobuf.MessageLite#writeDelimitedTo writeDelimitedTo()} does. Such files
+ * may be read by any Protobuf library.
+ *
+ * <p>The file is written and read through a file channel with a large buffer, and only one
+ * task is held in memory at a time.
+ */
+final class TaskFile {
+
+    /**
+     * The magic number which opens a file, {@code "TSK1"} in ASCII.
+     */
+    private static final int MAGIC = 0x54534B31;
+
+    /**
+     * The size of the buffers of the file streams, 1 MiB.
+     */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private static final String TYPE = TypeUrl.of(Task.class)
+                                              .value();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private TaskFile() {
+    }
+
+    /**
+     * Creates a new file at the given path, replacing an existing one, and opens it for
+     * writing.
+     */
+    static Writer newWriter(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, WRITE);
+        return new Writer(channel);
+    }
+
+    /**
+     * Opens an existing file for reading.
+     *
+     * @throws IOException
+     *         if the file cannot be opened or is not a file of {@code Task}s
+     */
+    static Reader newReader(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, READ);
+        try {
+            return new Reader(channel, file);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the {@code Task}s to a file.
+     */
+    static final class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final CodedOutputStream output;
+
+        private Writer(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.output = CodedOutputStream.newInstance(Channels.newOutputStream(channel),
+                                                        BUFFER_SIZE);
+            output.writeFixed32NoTag(MAGIC);
+            output.writeStringNoTag(TYPE);
+        }
+
+        /**
+         * Appends a task to the file.
+         */
+        void write(Task task) throws IOException {
+            output.writeUInt32NoTag(task.getSerializedSize());
+            task.writeTo(output);
+        }
+
+        /**
+         * Flushes the written tasks to the disk and closes the file.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                output.flush();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Reads the {@code Task}s from a file.
+     */
+    static final class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final CodedInputStream input;
+
+        private Reader(FileChannel channel, Path file) throws IOException {
+            this.channel = channel;
+            this.input = CodedInputStream.newInstance(Channels.newInputStream(channel),
+                                                      BUFFER_SIZE);
+            if (input.isAtEnd() || input.readFixed32() != MAGIC) {
+                throw new IOException(format("`%s` is not a file of tasks.", file));
+            }
+            String type = input.readString();
+            if (!TYPE.equals(type)) {
+                throw new IOException(format(
+                        "`%s` holds `%s` instead of `%s`.", file, type, TYPE
+                ));
+            }
+        }
+
+        /**
+         * Reads the next task.
+         *
+         * @return the next task or {@code null} if all the tasks are read
+         */
+        @Nullable Task next() throws IOException {
+            if (input.isAtEnd()) {
+                return null;
+            }
+            int length = input.readRawVarint32();
+            int limit = input.pushLimit(length);
+            Task task = Task.parseFrom(input);
+            input.popLimit(limit);
+            input.resetSizeCounter();
+            return task;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.bulk;
+
+import com.google.protobuf.Any;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.base.Time;
+import io.spine.core.Ack;
+import io.spine.core.ActorContext;
+import io.spine.core.Event;
+import io.spine.core.UserId;
+import io.spine.server.BoundedContext;
+import io.spine.server.aggregate.ImportBus;
+import io.spine.server.event.EventFactory;
+import io.spine.tasks.Task;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.server.storage.WriteBatch;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * Imports the {@code Task}s from a file written by a {@link TaskExport}.
+ *
+ * <p>Each task is turned into a {@code TaskCreated} event, which is imported right into
+ * the {@code Task} aggregate. The commands are not involved, so the tasks keep their IDs and
+ * titles as they are.
+ *
+ * <p>The events are posted to the {@link ImportBus} of the context in batches. The events of
+ * a batch are written to the storage as a single {@link WriteBatch}, so the segment storage
+ * flushes them to the disk once per batch rather than once per task. Only one batch of events
+ * is held in memory at a time.
+ *
+ * <p>The imported events are published like any other events, so the subscribers of
+ * the context, such as the index of the titles, see the imported tasks.
+ */
+public final class TaskImport {
+
+    /**
+     * The default number of the tasks imported in a single batch.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private final ImportBus importBus;
+    private final int batchSize;
+    private final ActorContext actor;
+
+    /**
+     * Creates a new import into the given context with the default size of a batch.
+     */
+    public TaskImport(BoundedContext context) {
+        this(context, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new import into the given context.
+     *
+     * @param context
+     *         the context with the {@code Task} aggregates
+     * @param batchSize
+     *         the number of the tasks imported in a single batch
+     */
+    public TaskImport(BoundedContext context, int batchSize) {
+        checkNotNull(context);
+        checkArgument(batchSize > 0, "The batch size must be positive.");
+        this.importBus = context.importBus();
+        this.batchSize = batchSize;
+        this.actor = ActorContext
+                .newBuilder()
+                .setActor(UserId.newBuilder()
+                                .setValue("tasks-import"))
+                .setTimestamp(Time.currentTime())
+                .build();
+    }
+
+    /**
+     * Imports all the tasks from the given file.
+     *
+     * @return the number of the imported tasks
+     * @throws IOException
+     *         if the file cannot be read or is not a file of tasks
+     * @throws IllegalStateException
+     *         if the context refuses to import a task
+     */
+    public long readFrom(Path file) throws IOException {
+        checkNotNull(file);
+        List<Event> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        try (TaskFile.Reader reader = TaskFile.newReader(file)) {
+            for (Task task = reader.next(); task != null; task = reader.next()) {
+                batch.add(toEvent(task));
+                count++;
+                if (batch.size() == batchSize) {
+                    post(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            post(batch);
+        }
+        return count;
+    }
+
+    private Event toEvent(Task task) {
+        Any producer = Identifier.pack(task.getId());
+        TaskCreated message = TaskCreated
+                .newBuilder()
+                .setId(task.getId())
+                .setTitle(task.getTitle())
+                .vBuild();
+        return EventFactory.forImport(actor, producer)
+                           .createEvent(message, null);
+    }
+
+    private void post(List<Event> events) {
+        AckObserver acks = new AckObserver();
+        WriteBatch.run(() -> {
+            importBus.post(events, acks);
+            return acks;
+        });
+        if (acks.error != null) {
+            throw newIllegalStateException("Unable to import a task: %s", acks.error);
+        }
+    }
+
+    /**
+     * Remembers the first error among the acknowledgements of the imported events.
+     */
+    private static final class AckObserver implements StreamObserver<Ack> {
+
+        private @Nullable String error;
+
+        @Override
+        public void onNext(Ack ack) {
+            if (error == null && ack.getStatus()
+                                    .hasError()) {
+                error = ack.getStatus()
+                           .getError()
+                           .getMessage();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (error == null) {
+                error = t.getMessage();
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            // Nothing to do.
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Error;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A command service which admits the commands to its delegate within
+ * a {@linkplain ConcurrencyLimit concurrency limit}.
+ *
+ * <p>A command above the limit is rejected right away with the {@code UNAVAILABLE} status,
+ * which tells the client that the command may be retried later. So, when the clients post
+ * the commands faster than the context handles them, the excess is shed at the entrance
+ * instead of piling up in the queues of the context.
+ *
+ * <p>Where a rejected command is acknowledged with an error instead, e.g. in
+ * a {@linkplain CommandBatchService batch}, the error is the {@linkplain #overloadError()
+ * overload error}.
+ *
+ * <p>The latency of a command is measured from its admission to its acknowledgement, so
+ * the time spent in the queues behind this service counts as well.
+ */
+public final class AdmittingCommandService extends CommandServiceImplBase {
+
+    private static final String OVERLOADED = "The `Tasks` context is overloaded.";
+    private static final String OVERLOAD_ERROR_TYPE = AdmittingCommandService.class.getName();
+
+    private final CommandServiceImplBase delegate;
+    private final ConcurrencyLimit limit;
+
+    /**
+     * Creates a new service.
+     *
+     * @param delegate
+     *         the service which handles the admitted commands
+     * @param limit
+     *         the limit of the commands handled at the same time
+     */
+    public AdmittingCommandService(CommandServiceImplBase delegate, ConcurrencyLimit limit) {
+        super();
+        this.delegate = checkNotNull(delegate);
+        this.limit = checkNotNull(limit);
+    }
+
+    /**
+     * Tells whether the given error signals that a command was rejected by an overloaded
+     * service.
+     */
+    public static boolean isOverload(Throwable error) {
+        if (!(error instanceof StatusRuntimeException)) {
+            return false;
+        }
+        Status status = ((StatusRuntimeException) error).getStatus();
+        return status.getCode() == Status.Code.UNAVAILABLE
+                && OVERLOADED.equals(status.getDescription());
+    }
+
+    /**
+     * Creates the error of the acknowledgement of a command rejected by an overloaded service.
+     */
+    public static Error overloadError() {
+        return Error.newBuilder()
+                    .setType(OVERLOAD_ERROR_TYPE)
+                    .setMessage(OVERLOADED)
+                    .build();
+    }
+
+    /**
+     * Tells whether the given acknowledgement tells that the command was rejected by
+     * an overloaded service.
+     */
+    public static boolean isOverload(Ack ack) {
+        return OVERLOAD_ERROR_TYPE.equals(ack.getStatus()
+                                             .getError()
+                                             .getType());
+    }
+
+    @Override
+    public void post(Command request, StreamObserver<Ack> responseObserver) {
+        Optional<ConcurrencyLimit.Permit> permit = limit.tryAcquire();
+        if (!permit.isPresent()) {
+            responseObserver.onError(Status.UNAVAILABLE
+                                             .withDescription(OVERLOADED)
+                                             .asRuntimeException());
+            return;
+        }
+        try {
+            delegate.post(request, new Releasing(permit.get(), responseObserver));
+        } catch (RuntimeException e) {
+            permit.get()
+                  .fail();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the permit of a command once the command is acknowledged.
+     */
+    private static final class Releasing implements StreamObserver<Ack> {
+
+        private final ConcurrencyLimit.Permit permit;
+        private final StreamObserver<Ack> observer;
+
+        private Releasing(ConcurrencyLimit.Permit permit, StreamObserver<Ack> observer) {
+            this.permit = permit;
+            this.observer = observer;
+        }
+
+        @Override
+        public void onNext(Ack value) {
+            permit.release();
+            observer.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            permit.fail();
+            observer.onError(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            observer.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Error;
+import io.spine.base.Identifier;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.Status;
+import io.spine.tasks.batch.CommandBatch;
+import io.spine.tasks.batch.CommandBatchAck;
+import io.spine.tasks.batch.CommandBatchRpc;
+import io.spine.tasks.server.storage.WriteBatch;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.nullToEmpty;
+import static io.grpc.stub.ServerCalls.asyncUnaryCall;
+
+/**
+ * A gRPC service which posts the commands of a {@link CommandBatch} to a bounded context.
+ *
+ * <p>The commands are posted one after another through the {@code CommandService} of
+ * the context, and an acknowledgement is collected for each of them. If the command service
+ * fails a command, e.g. rejects it as the context is overloaded, the command is acknowledged
+ * with an error, and the other commands of the batch are not affected. A command rejected
+ * by the {@linkplain AdmittingCommandService admission control} is acknowledged with
+ * the {@linkplain AdmittingCommandService#overloadError() overload error}.
+ *
+ * <p>The storage writes caused by the commands are committed as a single
+ * {@linkplain WriteBatch write batch}, if the storage supports it. A write batch only covers
+ * the writes made by the posting thread. So, if the commands are handled in
+ * the {@linkplain LanedCommandService lanes} or by the other nodes of
+ * a {@linkplain io.spine.tasks.server.shard sharded} cluster, their writes happen on other
+ * threads and are committed one by one.
+ *
+ * <p>The commands handled on other threads are acknowledged asynchronously. The batch is
+ * acknowledged when all the commands are.
+ *
+ * <p>Compared to posting the commands one by one, the batch saves the per-request overhead of
+ * the transport, such as a gRPC call or an HTTP request, and the per-write commit overhead of
+ * the storage.
+ */
+public final class CommandBatchService implements BindableService {
+
+    private final CommandServiceImplBase commandService;
+
+    /**
+     * Creates a new service posting the commands to the given {@code CommandService}.
+     */
+    public CommandBatchService(CommandServiceImplBase commandService) {
+        this.commandService = checkNotNull(commandService);
+    }
+
+    /**
+     * Posts all the commands of the batch.
+     *
+     * @return the acknowledgements of the commands, in the order of the commands in the batch
+     */
+    public CommandBatchAck post(CommandBatch batch) {
+        checkNotNull(batch);
+        List<Command> commands = batch.getCommandList();
+        ImmutableList<ListenableFuture<Ack>> acks = WriteBatch.run(() -> {
+            ImmutableList.Builder<ListenableFuture<Ack>> result = ImmutableList.builder();
+            for (Command command : commands) {
+                AckObserver observer = new AckObserver();
+                try {
+                    commandService.post(command, observer);
+                } catch (RuntimeException e) {
+                    observer.onError(e);
+                }
+                result.add(observer.ack());
+            }
+            return result.build();
+        });
+        CommandBatchAck.Builder result = CommandBatchAck.newBuilder();
+        for (int i = 0; i < commands.size(); i++) {
+            result.addAck(ackOf(commands.get(i), acks.get(i)));
+        }
+        return result.build();
+    }
+
+    /**
+     * Awaits the acknowledgement of the command, or acknowledges it with an error if
+     * the command service fails it.
+     */
+    private static Ack ackOf(Command command, ListenableFuture<Ack> ack) {
+        try {
+            return Futures.getUnchecked(ack);
+        } catch (UncheckedExecutionException e) {
+            return errorAck(command, e.getCause());
+        }
+    }
+
+    private static Ack errorAck(Command command, Throwable cause) {
+        Error error = AdmittingCommandService.isOverload(cause)
+                      ? AdmittingCommandService.overloadError()
+                      : Error.newBuilder()
+                             .setType(cause.getClass()
+                                           .getName())
+                             .setMessage(nullToEmpty(cause.getMessage()))
+                             .build();
+        return Ack
+                .newBuilder()
+                .setMessageId(Identifier.pack(command.getId()))
+                .setStatus(Status.newBuilder()
+                                 .setError(error))
+                .build();
+    }
+
+    private void post(CommandBatch batch, StreamObserver<CommandBatchAck> responseObserver) {
+        CommandBatchAck acks = post(batch);
+        responseObserver.onNext(acks);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition
+                .builder(CommandBatchRpc.SERVICE_NAME)
+                .addMethod(CommandBatchRpc.POST, asyncUnaryCall(this::post))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.Message;
+import io.spine.core.Command;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Finds the {@code Task}s the commands are sent to.
+ */
+public final class CommandTargets {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private CommandTargets() {
+    }
+
+    /**
+     * Obtains the ID of the {@code Task} the command is sent to, if any.
+     *
+     * <p>The target of a command is the first field of the command message, as the Spine
+     * convention requires. The ID is returned in the binary form.
+     *
+     * @return the ID of the target task, or an empty {@code Optional} if the first field of
+     *         the command message is not a {@code TaskId}
+     */
+    public static Optional<TaskId> taskOf(Command command) {
+        checkNotNull(command);
+        Message message = AnyPacker.unpack(command.getMessage());
+        List<FieldDescriptor> fields = message.getDescriptorForType()
+                                              .getFields();
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        Object target = message.getField(fields.get(0));
+        return target instanceof TaskId
+               ? Optional.of(TaskIds.normalize((TaskId) target))
+               : Optional.empty();
+    }
+}
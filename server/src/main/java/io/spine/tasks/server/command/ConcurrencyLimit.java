@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import com.google.common.base.Ticker;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A limit of the commands handled at the same time, which adapts to the latency of
+ * the commands.
+ *
+ * <p>The limit follows the additive increase, multiplicative decrease (AIMD) rule:
+ *
+ * <ul>
+ *     <li>A command which is acknowledged within the latency target raises the limit by
+ *         {@code 1 / limit}, so the limit grows by about one per round of commands. The limit
+ *         is raised only while it is used at least by half, so that it does not drift up when
+ *         the load is light.
+ *     <li>A command which takes longer than the target, or fails, cuts the limit by
+ *         {@value #BACKOFF_RATIO}. The commands which were admitted before the last cut do
+ *         not cut the limit again, since their latency was caused by the load which has
+ *         already been shed.
+ * </ul>
+ *
+ * <p>Under overload, the queues grow and the latency rises, so the limit goes down until
+ * the latency is back within the target. The commands above the limit are rejected at once
+ * instead of joining the queues.
+ *
+ * <p>The instances are safe for use from multiple threads.
+ */
+public final class ConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final int MIN_LIMIT = 1;
+
+    private final Ticker ticker;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final LongAdder rejected = new LongAdder();
+
+    private double limit;
+    private int inFlight;
+    private long lastDecrease;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param initialLimit
+     *         the limit to start with
+     * @param maxLimit
+     *         the maximum limit, which should not exceed the capacity of the queues behind
+     *         the limit
+     * @param latencyTarget
+     *         the maximum latency of a command under a healthy load
+     */
+    public ConcurrencyLimit(int initialLimit, int maxLimit, Duration latencyTarget) {
+        this(initialLimit, maxLimit, latencyTarget, Ticker.systemTicker());
+    }
+
+    ConcurrencyLimit(int initialLimit, int maxLimit, Duration latencyTarget, Ticker ticker) {
+        checkArgument(initialLimit >= MIN_LIMIT, "The initial limit must be positive.");
+        checkArgument(maxLimit >= initialLimit,
+                      "The maximum limit must not be less than the initial one.");
+        checkArgument(!latencyTarget.isNegative() && !latencyTarget.isZero(),
+                      "The latency target must be positive.");
+        this.ticker = checkNotNull(ticker);
+        this.limit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = latencyTarget.toNanos();
+        this.lastDecrease = ticker.read();
+    }
+
+    /**
+     * Admits a command if the limit allows it.
+     *
+     * @return the permit of the admitted command, which must be released when the command is
+     *         acknowledged, or empty if the command is rejected
+     */
+    synchronized Optional<Permit> tryAcquire() {
+        if (inFlight >= (int) limit) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        inFlight++;
+        return Optional.of(new Permit(ticker.read(), inFlight));
+    }
+
+    private synchronized void release(Permit permit, boolean failed) {
+        inFlight--;
+        long now = ticker.read();
+        boolean slow = now - permit.start > targetNanos;
+        if (failed || slow) {
+            if (permit.start > lastDecrease) {
+                limit = Math.max(MIN_LIMIT, limit * BACKOFF_RATIO);
+                lastDecrease = now;
+            }
+        } else if (permit.inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Obtains the current limit.
+     */
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Obtains the number of the commands being handled.
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Obtains the number of the rejected commands.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * The permission for a single command to be handled.
+     */
+    final class Permit {
+
+        private final long start;
+        private final int inFlight;
+        private boolean released;
+
+        private Permit(long start, int inFlight) {
+            this.start = start;
+            this.inFlight = inFlight;
+        }
+
+        /**
+         * Releases the permit of a command which has been acknowledged.
+         *
+         * <p>Does nothing if the permit is already released.
+         */
+        void release() {
+            release(false);
+        }
+
+        /**
+         * Releases the permit of a command which has failed.
+         *
+         * <p>Does nothing if the permit is already released.
+         */
+        void fail() {
+            release(true);
+        }
+
+        private void release(boolean failed) {
+            synchronized (ConcurrencyLimit.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                ConcurrencyLimit.this.release(this, failed);
+            }
+        }
+    }
+}
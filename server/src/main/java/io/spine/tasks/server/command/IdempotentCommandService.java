@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+/**
+ * A command service which answers the repeats of the recent commands without handling them
+ * again.
+ *
+ * <p>The clients repeat a command with the same ID when they do not receive its
+ * acknowledgement in time. The service remembers the {@linkplain RecentCommands recent
+ * commands} and responds to a repeat with the acknowledgement of the original command. If
+ * the original command is still being handled, the repeat waits for its acknowledgement. So,
+ * a storm of retries costs a single load of the target aggregate.
+ *
+ * <p>If the original command fails with an error, it is forgotten, and its next repeat is
+ * handled as a new command.
+ *
+ * <p>The commands without an ID are passed to the delegate as is.
+ */
+public final class IdempotentCommandService extends CommandServiceImplBase {
+
+    private final CommandServiceImplBase delegate;
+    private final RecentCommands recentCommands;
+
+    /**
+     * Creates a new service.
+     *
+     * @param delegate
+     *         the service which handles the new commands
+     * @param recentCommands
+     *         the recently posted commands, which may be shared with other services posting
+     *         the commands to the same context
+     */
+    public IdempotentCommandService(CommandServiceImplBase delegate,
+                                    RecentCommands recentCommands) {
+        super();
+        this.delegate = checkNotNull(delegate);
+        this.recentCommands = checkNotNull(recentCommands);
+    }
+
+    @Override
+    public void post(Command request, StreamObserver<Ack> responseObserver) {
+        String commandId = request.getId()
+                                  .getUuid();
+        if (commandId.isEmpty()) {
+            delegate.post(request, responseObserver);
+            return;
+        }
+        SettableFuture<Ack> ack = SettableFuture.create();
+        Optional<ListenableFuture<Ack>> original = recentCommands.register(commandId, ack);
+        if (original.isPresent()) {
+            Futures.addCallback(original.get(), new Replay(responseObserver), directExecutor());
+            return;
+        }
+        try {
+            delegate.post(request, new Recording(commandId, ack, responseObserver));
+        } catch (RuntimeException e) {
+            recentCommands.forget(commandId, ack);
+            ack.setException(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Passes the acknowledgement of the original command to the observer of a repeat.
+     */
+    private static final class Replay implements FutureCallback<Ack> {
+
+        private final StreamObserver<Ack> observer;
+
+        private Replay(StreamObserver<Ack> observer) {
+            this.observer = observer;
+        }
+
+        @Override
+        public void onSuccess(Ack ack) {
+            observer.onNext(ack);
+            observer.onCompleted();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            observer.onError(t);
+        }
+    }
+
+    /**
+     * Records the acknowledgement of a new command and passes it to the observer.
+     */
+    private final class Recording implements StreamObserver<Ack> {
+
+        private final String commandId;
+        private final SettableFuture<Ack> ack;
+        private final StreamObserver<Ack> observer;
+
+        private Recording(String commandId, SettableFuture<Ack> ack, StreamObserver<Ack> observer) {
+            this.commandId = commandId;
+            this.ack = ack;
+            this.observer = observer;
+        }
+
+        @Override
+        public void onNext(Ack value) {
+            ack.set(value);
+            observer.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            recentCommands.forget(commandId, ack);
+            ack.setException(t);
+            observer.onError(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            observer.onCompleted();
+        }
+    }
+}
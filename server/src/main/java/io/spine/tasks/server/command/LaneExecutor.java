@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.logging.Level;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A fixed set of single-threaded lanes, each running its tasks one by one in the order of
+ * their submission.
+ *
+ * <p>Each lane has a bounded queue. When the queue of a lane is full, the submitting thread
+ * waits for a free slot, so the producers are slowed down to the pace of the lanes instead of
+ * piling up the work in memory.
+ */
+public final class LaneExecutor implements AutoCloseable {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final ImmutableList<Lane> lanes;
+    private volatile boolean closed;
+
+    /**
+     * Creates and starts the lanes.
+     *
+     * @param lanes
+     *         the number of lanes
+     * @param capacity
+     *         the maximum number of tasks waiting in a single lane
+     * @param name
+     *         the prefix of the names of the lane threads
+     */
+    public LaneExecutor(int lanes, int capacity, String name) {
+        checkArgument(lanes > 0, "The number of lanes must be positive.");
+        checkArgument(capacity > 0, "The capacity of a lane must be positive.");
+        checkNotNull(name);
+        ImmutableList.Builder<Lane> result = ImmutableList.builder();
+        for (int i = 0; i < lanes; i++) {
+            Lane lane = new Lane(capacity, name + '-' + i);
+            lane.start();
+            result.add(lane);
+        }
+        this.lanes = result.build();
+    }
+
+    /**
+     * Submits the task to the given lane.
+     *
+     * <p>Waits while the queue of the lane is full.
+     *
+     * @throws InterruptedException
+     *         if the thread is interrupted while waiting
+     * @throws IllegalStateException
+     *         if the executor is closed
+     */
+    public void execute(int lane, Runnable task) throws InterruptedException {
+        checkElementIndex(lane, lanes.size());
+        checkNotNull(task);
+        checkState(!closed, "The lanes are closed.");
+        lanes.get(lane).queue.put(task);
+    }
+
+    /**
+     * Obtains the number of lanes.
+     */
+    public int size() {
+        return lanes.size();
+    }
+
+    /**
+     * Obtains the number of the tasks waiting in all the lanes.
+     */
+    public int queued() {
+        int result = 0;
+        for (Lane lane : lanes) {
+            result += lane.queue.size();
+        }
+        return result;
+    }
+
+    /**
+     * Stops the lanes after they run all the submitted tasks.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        lanes.forEach(Lane::finish);
+    }
+
+    /**
+     * A thread running the tasks of a single lane.
+     */
+    private static final class Lane extends Thread {
+
+        private static final Runnable END = () -> {};
+
+        private final BlockingQueue<Runnable> queue;
+
+        private Lane(int capacity, String name) {
+            super(name);
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task = queue.take();
+                while (task != END) {
+                    runSafely(task);
+                    task = queue.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+
+        private static void runSafely(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.at(Level.SEVERE)
+                   .withCause(e)
+                   .log("A task has failed in a lane.");
+            }
+        }
+
+        private void finish() {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        }
+    }
+}
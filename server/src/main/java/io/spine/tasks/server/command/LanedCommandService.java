@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.tasks.TaskId;
+
+import java.util.Optional;
+import java.util.function.ToIntFunction;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A command service which handles the commands to different {@code Task}s concurrently.
+ *
+ * <p>Each task is assigned to one of the {@linkplain LaneExecutor lanes}, and the commands to
+ * the task are posted to the delegate service on the thread of its lane. So, the commands to
+ * the same task are handled strictly in the order of their arrival, while the commands to
+ * the tasks of different lanes are handled in parallel.
+ *
+ * <p>The commands which are not sent to a task are posted right on the calling thread.
+ *
+ * <p>If the delegate throws while posting a command on a lane, the error is passed to
+ * the observer of the command, so that the caller does not wait for the acknowledgement
+ * forever.
+ */
+public final class LanedCommandService extends CommandServiceImplBase {
+
+    private final CommandServiceImplBase delegate;
+    private final LaneExecutor lanes;
+    private final ToIntFunction<TaskId> laneOf;
+
+    /**
+     * Creates a new service.
+     *
+     * @param delegate
+     *         the service which handles the commands
+     * @param lanes
+     *         the lanes to handle the commands in
+     * @param laneOf
+     *         the function which selects the lane of a task
+     */
+    public LanedCommandService(CommandServiceImplBase delegate,
+                               LaneExecutor lanes,
+                               ToIntFunction<TaskId> laneOf) {
+        super();
+        this.delegate = checkNotNull(delegate);
+        this.lanes = checkNotNull(lanes);
+        this.laneOf = checkNotNull(laneOf);
+    }
+
+    @Override
+    public void post(Command request, StreamObserver<Ack> responseObserver) {
+        Optional<TaskId> target = CommandTargets.taskOf(request);
+        if (!target.isPresent()) {
+            delegate.post(request, responseObserver);
+            return;
+        }
+        int lane = laneOf.applyAsInt(target.get());
+        try {
+            lanes.execute(lane, () -> postSafely(request, responseObserver));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+            responseObserver.onError(Status.CANCELLED
+                                             .withDescription("Interrupted while queueing.")
+                                             .asRuntimeException());
+        }
+    }
+
+    private void postSafely(Command request, StreamObserver<Ack> responseObserver) {
+        try {
+            delegate.post(request, responseObserver);
+        } catch (RuntimeException e) {
+            responseObserver.onError(Status.fromThrowable(e)
+                                           .asRuntimeException());
+        }
+    }
+}
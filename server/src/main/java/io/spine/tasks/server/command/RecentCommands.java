@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.spine.core.Ack;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The IDs of the recently posted commands along with their acknowledgements.
+ *
+ * <p>The acknowledgements of the commands posted within the time window are held in a bounded
+ * set. A command found there is a repeat for sure. The set is searched and updated in a single
+ * step, so two copies of a new command posted at the same time are not both handled as new.
+ *
+ * <p>If the set is full, the oldest commands are forgotten before their time window ends.
+ * Such commands are counted as {@linkplain #evicted() evicted} to tell that the set is too
+ * small.
+ */
+public final class RecentCommands {
+
+    private final Cache<String, SettableFuture<Ack>> acks;
+    private final LongAdder repeats = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param capacity
+     *         the maximum number of the remembered commands
+     * @param window
+     *         the time for which a command is remembered
+     */
+    public RecentCommands(int capacity, Duration window) {
+        this(capacity, window, Ticker.systemTicker());
+    }
+
+    RecentCommands(int capacity, Duration window, Ticker ticker) {
+        checkArgument(capacity > 0, "The capacity must be positive.");
+        checkArgument(!window.isNegative() && !window.isZero(), "The window must be positive.");
+        checkNotNull(ticker);
+        this.acks = CacheBuilder.newBuilder()
+                                .maximumSize(capacity)
+                                .expireAfterWrite(window.toNanos(), NANOSECONDS)
+                                .ticker(ticker)
+                                .removalListener(this::onRemoval)
+                                .build();
+    }
+
+    private void onRemoval(RemovalNotification<String, SettableFuture<Ack>> removal) {
+        if (removal.getCause() == RemovalCause.SIZE) {
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Registers the future acknowledgement of a command, unless the command is a repeat.
+     *
+     * @param commandId
+     *         the ID of the command
+     * @param ack
+     *         the future acknowledgement of the command
+     * @return the acknowledgement of the original command if the command is a repeat,
+     *         or empty if the command is new
+     */
+    Optional<ListenableFuture<Ack>> register(String commandId, SettableFuture<Ack> ack) {
+        SettableFuture<Ack> original = acks.asMap()
+                                           .putIfAbsent(commandId, ack);
+        if (original != null) {
+            repeats.increment();
+            return Optional.of(original);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Forgets the command, so that a repeat of the command is handled as a new one.
+     *
+     * <p>Does nothing if another acknowledgement is registered for the command.
+     */
+    void forget(String commandId, SettableFuture<Ack> ack) {
+        acks.asMap()
+            .remove(commandId, ack);
+    }
+
+    /**
+     * Obtains the number of the repeated commands answered with the acknowledgements of
+     * the original ones.
+     */
+    public long repeats() {
+        return repeats.sum();
+    }
+
+    /**
+     * Obtains the number of the commands forgotten before the end of their time window,
+     * because the set of the recent commands was full.
+     */
+    public long evicted() {
+        return evicted.sum();
+    }
+}
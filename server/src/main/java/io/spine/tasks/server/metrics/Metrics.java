@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.metrics;
+
+import com.google.common.collect.ImmutableSortedMap;
+import io.spine.tasks.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The registry of the metrics of the process.
+ *
+ * <p>The metrics are the {@linkplain LatencyHistogram latency histograms}, the counters and
+ * the gauges, each identified by a name in the Prometheus format, e.g.
+ * {@code tasks_query_seconds}. A metric is created on the first request for its name, and
+ * the same instance is returned afterwards. So, the instrumented code should keep the obtained
+ * metrics in constants rather than look them up on each use.
+ *
+ * <p>All the metrics are {@linkplain #render() rendered} in the Prometheus text format.
+ * The histograms are exported as summaries in seconds, with the 50th, 90th, 99th and 99.9th
+ * percentiles and the maximum.
+ */
+public final class Metrics {
+
+    /**
+     * The time taken to accept a command, from receiving it to acknowledging it.
+     */
+    public static final String COMMAND_ACCEPTANCE = "tasks_command_acceptance_seconds";
+
+    /**
+     * The time taken to durably write an aggregate event record.
+     */
+    public static final String STORAGE_WRITE = "tasks_storage_write_seconds";
+
+    /**
+     * The time taken to execute a query.
+     */
+    public static final String QUERY = "tasks_query_seconds";
+
+    /**
+     * The time taken to read a page of tasks.
+     */
+    public static final String QUERY_PAGE = "tasks_query_page_seconds";
+
+    /**
+     * The time from a subscription update being produced to it being written for
+     * the subscribers.
+     */
+    public static final String SUBSCRIPTION_LAG = "tasks_subscription_delivery_lag_seconds";
+
+    /**
+     * The time taken by a single write to the Firebase database.
+     */
+    public static final String FIREBASE_WRITE = "tasks_firebase_write_seconds";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private static final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private Metrics() {
+    }
+
+    /**
+     * Obtains the latency histogram with the given name.
+     */
+    public static LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(checkName(name), key -> new LatencyHistogram());
+    }
+
+    /**
+     * Obtains the counter with the given name.
+     */
+    public static LongAdder counter(String name) {
+        return counters.computeIfAbsent(checkName(name), key -> new LongAdder());
+    }
+
+    /**
+     * Registers a gauge which reports the value of the given supplier.
+     *
+     * <p>A gauge registered earlier under the same name is replaced.
+     */
+    public static void gauge(String name, DoubleSupplier value) {
+        checkNotNull(value);
+        gauges.put(checkName(name), value);
+    }
+
+    private static String checkName(String name) {
+        checkNotNull(name);
+        checkArgument(name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*"),
+                      "`%s` is not a valid metric name.", name);
+        return name;
+    }
+
+    /**
+     * Renders all the metrics in the Prometheus text format.
+     */
+    public static String render() {
+        StringBuilder result = new StringBuilder();
+        ImmutableSortedMap.copyOf(counters)
+                          .forEach((name, counter) -> {
+                              result.append("# TYPE ").append(name).append(" counter\n");
+                              result.append(name).append(' ').append(counter.sum()).append('\n');
+                          });
+        ImmutableSortedMap.copyOf(gauges)
+                          .forEach((name, gauge) -> {
+                              result.append("# TYPE ").append(name).append(" gauge\n");
+                              result.append(name)
+                                    .append(' ')
+                                    .append(number(gauge.getAsDouble()))
+                                    .append('\n');
+                          });
+        ImmutableSortedMap.copyOf(histograms)
+                          .forEach((name, histogram) -> renderSummary(name, histogram, result));
+        return result.toString();
+    }
+
+    private static void renderSummary(String name,
+                                      LatencyHistogram histogram,
+                                      StringBuilder result) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        result.append("# TYPE ").append(name).append(" summary\n");
+        for (double percentile : PERCENTILES) {
+            result.append(name)
+                  .append("{quantile=\"")
+                  .append(number(percentile / 100))
+                  .append("\"} ")
+                  .append(seconds(snapshot.valueAt(percentile)))
+                  .append('\n');
+        }
+        result.append(name).append("_max ").append(seconds(snapshot.max())).append('\n');
+        result.append(name).append("_sum ").append(seconds(snapshot.sum())).append('\n');
+        result.append(name).append("_count ").append(snapshot.count()).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return number((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static String number(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+}
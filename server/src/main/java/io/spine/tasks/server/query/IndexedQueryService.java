@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.core.Responses;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.metrics.Metrics;
+import io.spine.tasks.server.storage.ColumnIndex;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A query service which resolves the {@code Task} queries through the index of
+ * the {@code title} column.
+ *
+ * <p>When a query filters or orders the tasks by their titles, the service selects the IDs of
+ * the matching tasks from the index and reads only those tasks through the delegate service.
+ * All the other queries are passed to the delegate as is.
+ */
+public final class IndexedQueryService extends QueryServiceImplBase {
+
+    private static final LatencyHistogram QUERY_TIME = Metrics.histogram(Metrics.QUERY);
+
+    private final QueryServiceImplBase delegate;
+    private final ColumnIndex<TaskId> titleIndex;
+    private final TaskReader reader;
+
+    /**
+     * Creates a new service.
+     *
+     * @param delegate
+     *         the service which reads the tasks
+     * @param titleIndex
+     *         the index of the task titles
+     */
+    public IndexedQueryService(QueryServiceImplBase delegate, ColumnIndex<TaskId> titleIndex) {
+        super();
+        this.delegate = checkNotNull(delegate);
+        this.titleIndex = checkNotNull(titleIndex);
+        this.reader = new TaskReader(delegate);
+    }
+
+    @Override
+    public void read(Query query, StreamObserver<QueryResponse> responseObserver) {
+        long start = System.nanoTime();
+        Optional<TitleQueryPlan> plan = TitleQueryPlan.of(query);
+        if (plan.isPresent()) {
+            execute(query, plan.get(), responseObserver);
+        } else {
+            delegate.read(query, responseObserver);
+        }
+        QUERY_TIME.recordSince(start);
+    }
+
+    private void execute(Query query,
+                         TitleQueryPlan plan,
+                         StreamObserver<QueryResponse> responseObserver) {
+        ImmutableList<TaskId> ids =
+                titleIndex.select(plan.range(), plan.descending(), plan.limit());
+        if (ids.isEmpty()) {
+            responseObserver.onNext(QueryResponse.newBuilder()
+                                                 .setResponse(Responses.ok())
+                                                 .build());
+            responseObserver.onCompleted();
+            return;
+        }
+        try {
+            QueryResponse response = reader.read(query, ids, plan.ordered());
+            responseObserver.onNext(response);
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        }
+    }
+}
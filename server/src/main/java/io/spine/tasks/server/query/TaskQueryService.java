@@ -0,0 +1,280 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.BaseEncoding;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.paging.TaskCursor;
+import io.spine.tasks.paging.TaskPage;
+import io.spine.tasks.paging.TaskPageRequest;
+import io.spine.tasks.paging.TaskQueryRpc;
+import io.spine.tasks.server.metrics.Metrics;
+import io.spine.tasks.server.storage.ColumnIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.grpc.stub.ServerCalls.asyncServerStreamingCall;
+import static io.grpc.stub.ServerCalls.asyncUnaryCall;
+
+/**
+ * A gRPC service which reads the {@code Task}s page by page or as a stream.
+ *
+ * <p>The tasks are selected from the index of the titles in the order of the titles, so
+ * a page is read without loading all the matching tasks. A page ends with an opaque cursor,
+ * which points to the last task of the page. The next page starts right after that task, even
+ * if the tasks are created in between.
+ *
+ * <p>The stream reads the tasks page by page, as fast as the client consumes them. The next
+ * page is only read when the transport is ready to send more messages, so a slow client
+ * does not make the server buffer the whole result.
+ */
+public final class TaskQueryService implements BindableService {
+
+    /**
+     * The page size used if the request does not set one.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The maximum page size, which protects the server from the too large pages.
+     */
+    private static final int MAX_PAGE_SIZE = 1_000;
+
+    private static final LatencyHistogram PAGE_TIME = Metrics.histogram(Metrics.QUERY_PAGE);
+
+    private static final BaseEncoding CURSOR_ENCODING = BaseEncoding.base64Url()
+                                                                    .omitPadding();
+
+    private final ColumnIndex<TaskId> titleIndex;
+    private final TaskReader reader;
+
+    /**
+     * Creates a new service.
+     *
+     * @param delegate
+     *         the service which reads the tasks
+     * @param titleIndex
+     *         the index of the task titles
+     */
+    public TaskQueryService(QueryServiceImplBase delegate, ColumnIndex<TaskId> titleIndex) {
+        checkNotNull(delegate);
+        this.titleIndex = checkNotNull(titleIndex);
+        this.reader = new TaskReader(delegate);
+    }
+
+    /**
+     * Reads a page of the tasks matching the query of the request.
+     *
+     * @throws StatusRuntimeException
+     *         with the {@code INVALID_ARGUMENT} status if the query is not supported or
+     *         the cursor is malformed
+     */
+    public TaskPage readPage(TaskPageRequest request) {
+        checkNotNull(request);
+        long start = System.nanoTime();
+        try {
+            return selectPage(request);
+        } finally {
+            PAGE_TIME.recordSince(start);
+        }
+    }
+
+    private TaskPage selectPage(TaskPageRequest request) {
+        TitleQueryPlan plan = TitleQueryPlan
+                .forPaging(request.getQuery())
+                .orElseThrow(() -> invalidArgument(
+                        "Only the queries for all the tasks, or filtering and ordering the tasks"
+                                + " by their titles are read page by page."));
+        int pageSize = pageSize(request);
+        ImmutableList<TaskId> ids = select(plan, request.getCursor(), pageSize);
+        TaskPage.Builder page = TaskPage.newBuilder();
+        if (ids.isEmpty()) {
+            return page.build();
+        }
+        QueryResponse response = reader.read(request.getQuery(), ids, true);
+        for (EntityStateWithVersion entity : response.getMessageList()) {
+            page.addTask(AnyPacker.unpack(entity.getState(), Task.class));
+        }
+        if (ids.size() == pageSize) {
+            TaskId last = ids.get(ids.size() - 1);
+            page.setNextCursor(cursorAt(last));
+        }
+        return page.build();
+    }
+
+    private ImmutableList<TaskId> select(TitleQueryPlan plan, String cursor, int pageSize) {
+        if (cursor.isEmpty()) {
+            return titleIndex.select(plan.range(), plan.descending(), pageSize);
+        }
+        TaskCursor position = decode(cursor);
+        return titleIndex.selectAfter(plan.range(), plan.descending(),
+                                      position.getTitle(), position.getId(), pageSize);
+    }
+
+    private static int pageSize(TaskPageRequest request) {
+        int requested = request.getPageSize();
+        if (requested <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    private String cursorAt(TaskId last) {
+        String title = titleIndex.valueOf(last)
+                                 .orElse("");
+        TaskCursor cursor = TaskCursor
+                .newBuilder()
+                .setTitle(title)
+                .setId(last)
+                .build();
+        return CURSOR_ENCODING.encode(cursor.toByteArray());
+    }
+
+    private static TaskCursor decode(String cursor) {
+        try {
+            byte[] bytes = CURSOR_ENCODING.decode(cursor);
+            return TaskCursor.parseFrom(bytes);
+        } catch (IllegalArgumentException | InvalidProtocolBufferException e) {
+            throw invalidArgument("The cursor `" + cursor + "` is malformed.");
+        }
+    }
+
+    private static StatusRuntimeException invalidArgument(String description) {
+        return Status.INVALID_ARGUMENT
+                .withDescription(description)
+                .asRuntimeException();
+    }
+
+    private void readPage(TaskPageRequest request, StreamObserver<TaskPage> responseObserver) {
+        try {
+            TaskPage page = readPage(request);
+            responseObserver.onNext(page);
+            responseObserver.onCompleted();
+        } catch (StatusRuntimeException e) {
+            responseObserver.onError(e);
+        }
+    }
+
+    /**
+     * Streams the tasks matching the query of the request, as fast as the transport is ready
+     * to send them.
+     *
+     * @param request
+     *         the request with the query and the page size
+     * @param responseObserver
+     *         the observer of the server call
+     */
+    void stream(TaskPageRequest request, StreamObserver<Task> responseObserver) {
+        ServerCallStreamObserver<Task> call = (ServerCallStreamObserver<Task>) responseObserver;
+        TaskStream stream = new TaskStream(request, call);
+        call.setOnCancelHandler(stream::cancel);
+        call.setOnReadyHandler(stream::drain);
+        stream.drain();
+    }
+
+    @Override
+    public ServerServiceDefinition bindService() {
+        return ServerServiceDefinition
+                .builder(TaskQueryRpc.SERVICE_NAME)
+                .addMethod(TaskQueryRpc.READ_PAGE, asyncUnaryCall(this::readPage))
+                .addMethod(TaskQueryRpc.STREAM, asyncServerStreamingCall(this::stream))
+                .build();
+    }
+
+    /**
+     * A stream of the tasks to a single client.
+     *
+     * <p>Sends the tasks while the transport is ready and reads the next page only when
+     * the tasks of the previous one are all sent.
+     */
+    private final class TaskStream {
+
+        private final ServerCallStreamObserver<Task> call;
+        private final Deque<Task> buffer = new ArrayDeque<>();
+        private @Nullable TaskPageRequest next;
+        private boolean done;
+        private volatile boolean cancelled;
+
+        private TaskStream(TaskPageRequest request, ServerCallStreamObserver<Task> call) {
+            this.call = call;
+            this.next = request;
+        }
+
+        /**
+         * Sends the tasks until the transport is no longer ready or all the tasks are sent.
+         */
+        private synchronized void drain() {
+            try {
+                while (!done && !cancelled && call.isReady()) {
+                    Task task = buffer.poll();
+                    if (task != null) {
+                        call.onNext(task);
+                    } else if (next != null) {
+                        readNext(next);
+                    } else {
+                        done = true;
+                        call.onCompleted();
+                    }
+                }
+            } catch (StatusRuntimeException e) {
+                done = true;
+                call.onError(e);
+            }
+        }
+
+        private void readNext(TaskPageRequest request) {
+            TaskPage page = readPage(request);
+            buffer.addAll(page.getTaskList());
+            String cursor = page.getNextCursor();
+            next = cursor.isEmpty()
+                   ? null
+                   : request.toBuilder()
+                            .setCursor(cursor)
+                            .build();
+        }
+
+        private void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.FieldMask;
+import io.grpc.Status;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.protobuf.AnyPacker;
+import io.spine.protobuf.FieldMasks;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+
+/**
+ * Reads the {@code Task}s selected from the index of the titles through a query service.
+ */
+final class TaskReader {
+
+    private final QueryServiceImplBase delegate;
+
+    TaskReader(QueryServiceImplBase delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reads the tasks with the given IDs on behalf of the given query.
+     *
+     * <p>The tasks which are not found are skipped. The field mask of the query is applied to
+     * the read tasks.
+     *
+     * @param query
+     *         the original query
+     * @param ids
+     *         the IDs of the tasks selected by the index
+     * @param keepOrder
+     *         whether the tasks should be returned in the order of the IDs
+     * @return the response with the read tasks
+     * @throws io.grpc.StatusRuntimeException
+     *         if the delegate service fails to read the tasks
+     */
+    QueryResponse read(Query query, ImmutableList<TaskId> ids, boolean keepOrder) {
+        boolean reorder = keepOrder && ids.size() > 1;
+        Query byIds = TitleQueryPlan.byIds(query, ids, !reorder);
+        MemoizingObserver<QueryResponse> loaded = memoizingObserver();
+        delegate.read(byIds, loaded);
+        Throwable error = loaded.getError();
+        if (error != null) {
+            throw Status.fromThrowable(error)
+                        .asRuntimeException();
+        }
+        QueryResponse response = loaded.firstResponse();
+        FieldMask fieldMask = query.getFormat()
+                                   .getFieldMask();
+        return reorder
+               ? inOrder(response, ids, fieldMask)
+               : response;
+    }
+
+    /**
+     * Orders the tasks of the response in the order of the given IDs and applies the field mask
+     * to them.
+     */
+    private static QueryResponse
+    inOrder(QueryResponse response, ImmutableList<TaskId> ids, FieldMask fieldMask) {
+        Map<TaskId, EntityStateWithVersion> byId = new HashMap<>(response.getMessageCount());
+        for (EntityStateWithVersion entity : response.getMessageList()) {
+            Task task = AnyPacker.unpack(entity.getState(), Task.class);
+            byId.put(task.getId(), entity);
+        }
+        QueryResponse.Builder result = response.toBuilder()
+                                               .clearMessage();
+        boolean masked = fieldMask.getPathsCount() > 0;
+        for (TaskId id : ids) {
+            EntityStateWithVersion entity = byId.get(id);
+            if (entity == null) {
+                continue;
+            }
+            if (masked) {
+                Task task = AnyPacker.unpack(entity.getState(), Task.class);
+                entity = entity.toBuilder()
+                               .setState(AnyPacker.pack(FieldMasks.applyMask(fieldMask, task)))
+                               .build();
+            }
+            result.addMessage(entity);
+        }
+        return result.build();
+    }
+}
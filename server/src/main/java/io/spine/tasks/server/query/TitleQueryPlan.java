@@ -0,0 +1,252 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.protobuf.Any;
+import com.google.protobuf.StringValue;
+import io.spine.base.Identifier;
+import io.spine.client.CompositeFilter;
+import io.spine.client.Filter;
+import io.spine.client.IdFilter;
+import io.spine.client.OrderBy;
+import io.spine.client.Query;
+import io.spine.client.ResponseFormat;
+import io.spine.client.Target;
+import io.spine.client.TargetFilters;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.type.TypeUrl;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.spine.client.CompositeFilter.CompositeOperator.ALL;
+import static io.spine.client.OrderBy.Direction.DESCENDING;
+
+/**
+ * A plan of a {@code Task} query which is resolved through the index of the {@code title}
+ * column.
+ *
+ * <p>A query may be resolved through the index if it only filters the tasks by their titles,
+ * combining the conditions with {@code ALL}, or orders the tasks by their titles, or both.
+ * Any other query, e.g. the one filtering by ID, is executed as is.
+ *
+ * <p>The queries read page by page are always resolved through the index, in the order of
+ * the titles.
+ */
+final class TitleQueryPlan {
+
+    /**
+     * The name of the indexed column.
+     */
+    static final String TITLE = "title";
+
+    private static final String TASK_TYPE = TypeUrl.of(Task.class)
+                                                   .value();
+
+    /**
+     * The range which matches no values.
+     */
+    private static final Range<String> NOTHING = Range.closedOpen("", "");
+
+    private final Range<String> range;
+    private final boolean ordered;
+    private final boolean descending;
+    private final int limit;
+
+    private TitleQueryPlan(Range<String> range, boolean ordered, boolean descending, int limit) {
+        this.range = range;
+        this.ordered = ordered;
+        this.descending = descending;
+        this.limit = limit;
+    }
+
+    /**
+     * Creates the plan of the given query.
+     *
+     * @return the plan, or {@code Optional.empty()} if the query cannot be resolved through
+     *         the index
+     */
+    static Optional<TitleQueryPlan> of(Query query) {
+        return plan(query, false);
+    }
+
+    /**
+     * Creates the plan of the given query, which is read page by page.
+     *
+     * <p>Unlike {@link #of(Query)}, accepts the queries for all the tasks, since the pages of
+     * such queries are also selected from the index, in the order of the titles.
+     *
+     * @return the plan, or {@code Optional.empty()} if the query cannot be resolved through
+     *         the index
+     */
+    static Optional<TitleQueryPlan> forPaging(Query query) {
+        return plan(query, true);
+    }
+
+    private static Optional<TitleQueryPlan> plan(Query query, boolean wholeRange) {
+        Target target = query.getTarget();
+        if (!TASK_TYPE.equals(target.getType())) {
+            return Optional.empty();
+        }
+        ResponseFormat format = query.getFormat();
+        OrderBy orderBy = format.getOrderBy();
+        boolean ordered = !orderBy.getColumn()
+                                  .isEmpty();
+        if (ordered && !TITLE.equals(orderBy.getColumn())) {
+            return Optional.empty();
+        }
+        TargetFilters filters = target.getFilters();
+        if (filters.getIdFilter()
+                   .getIdCount() > 0) {
+            return Optional.empty();
+        }
+        List<CompositeFilter> conditions = filters.getFilterList();
+        if (conditions.isEmpty() && !ordered && !wholeRange) {
+            return Optional.empty();
+        }
+        Optional<Range<String>> range = titleRange(conditions);
+        boolean descending = orderBy.getDirection() == DESCENDING;
+        int limit = format.getLimit();
+        return range.map(titles -> new TitleQueryPlan(titles, ordered, descending, limit));
+    }
+
+    /**
+     * Combines the given filters into a single range of the titles.
+     *
+     * @return the range of the titles, or {@code Optional.empty()} if some of the filters
+     *         cannot be resolved through the index
+     */
+    private static Optional<Range<String>> titleRange(List<CompositeFilter> conditions) {
+        Range<String> result = Range.all();
+        for (CompositeFilter composite : conditions) {
+            if (composite.getOperator() != ALL && composite.getFilterCount() > 1) {
+                return Optional.empty();
+            }
+            for (Filter filter : composite.getFilterList()) {
+                Optional<Range<String>> range = rangeOf(filter);
+                if (!range.isPresent()) {
+                    return Optional.empty();
+                }
+                Range<String> filterRange = range.get();
+                result = result.isConnected(filterRange)
+                         ? result.intersection(filterRange)
+                         : NOTHING;
+            }
+        }
+        return Optional.of(result);
+    }
+
+    private static Optional<Range<String>> rangeOf(Filter filter) {
+        List<String> path = filter.getFieldPath()
+                                  .getFieldNameList();
+        Any value = filter.getValue();
+        if (!ImmutableList.of(TITLE).equals(path) || !value.is(StringValue.class)) {
+            return Optional.empty();
+        }
+        String title = AnyPacker.unpack(value, StringValue.class)
+                                .getValue();
+        switch (filter.getOperator()) {
+            case EQUAL:
+                return Optional.of(Range.singleton(title));
+            case GREATER_THAN:
+                return Optional.of(Range.greaterThan(title));
+            case GREATER_OR_EQUAL:
+                return Optional.of(Range.atLeast(title));
+            case LESS_THAN:
+                return Optional.of(Range.lessThan(title));
+            case LESS_OR_EQUAL:
+                return Optional.of(Range.atMost(title));
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Obtains the range of the titles of the matching tasks.
+     */
+    Range<String> range() {
+        return range;
+    }
+
+    /**
+     * Tells whether the query orders the tasks by their titles.
+     */
+    boolean ordered() {
+        return ordered;
+    }
+
+    /**
+     * Tells whether the tasks should be ordered by the descending titles.
+     */
+    boolean descending() {
+        return descending;
+    }
+
+    /**
+     * Obtains the maximum number of the tasks to return, or zero if the number is not limited.
+     */
+    int limit() {
+        return limit;
+    }
+
+    /**
+     * Creates a query which reads the tasks with the given IDs in place of the given query.
+     *
+     * <p>The new query keeps the actor context of the original one. It does not order or limit
+     * the tasks, as the IDs are already selected by the index.
+     *
+     * @param query
+     *         the original query
+     * @param ids
+     *         the IDs of the tasks selected by the index
+     * @param keepFieldMask
+     *         whether the field mask of the original query should be applied
+     */
+    static Query byIds(Query query, ImmutableList<TaskId> ids, boolean keepFieldMask) {
+        IdFilter.Builder idFilter = IdFilter.newBuilder();
+        ids.forEach(id -> idFilter.addId(Identifier.pack(id)));
+        Target target = query.getTarget()
+                             .toBuilder()
+                             .setFilters(TargetFilters.newBuilder()
+                                                      .setIdFilter(idFilter))
+                             .build();
+        ResponseFormat.Builder format = query.getFormat()
+                                             .toBuilder()
+                                             .clearOrderBy()
+                                             .clearLimit();
+        if (!keepFieldMask) {
+            format.clearFieldMask();
+        }
+        return query.toBuilder()
+                    .setTarget(target)
+                    .setFormat(format)
+                    .build();
+    }
+}
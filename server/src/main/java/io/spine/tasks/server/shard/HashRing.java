@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A consistent hash ring which assigns each {@code Task} to one of the nodes.
+ *
+ * <p>Each node is placed onto the ring at a number of virtual points, and a task belongs to
+ * the node of the first point following the hash of the task ID. The virtual points even out
+ * the shares of the nodes. When a node joins or leaves the ring, only the tasks of the points
+ * adjacent to its points change the owner, which is about {@code 1/N} of all the tasks.
+ *
+ * <p>The ring depends only on the names of the nodes, so all the nodes which know the same
+ * set of names route each task to the same owner.
+ */
+public final class HashRing {
+
+    /**
+     * The default number of the virtual points of a node.
+     */
+    private static final int DEFAULT_POINTS_PER_NODE = 128;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final ImmutableSet<String> nodes;
+    private final ImmutableSortedMap<Long, String> points;
+
+    private HashRing(ImmutableSet<String> nodes, ImmutableSortedMap<Long, String> points) {
+        this.nodes = nodes;
+        this.points = points;
+    }
+
+    /**
+     * Creates a ring of the given nodes with the default number of virtual points per node.
+     */
+    public static HashRing of(Iterable<String> nodes) {
+        return of(nodes, DEFAULT_POINTS_PER_NODE);
+    }
+
+    /**
+     * Creates a ring of the given nodes.
+     *
+     * @param nodes
+     *         the names of the nodes
+     * @param pointsPerNode
+     *         the number of the virtual points of each node
+     */
+    public static HashRing of(Iterable<String> nodes, int pointsPerNode) {
+        checkNotNull(nodes);
+        checkArgument(pointsPerNode > 0, "The number of points per node must be positive.");
+        ImmutableSet<String> names = ImmutableSet.copyOf(nodes);
+        checkArgument(!names.isEmpty(), "A hash ring needs at least one node.");
+        Map<Long, String> points = new TreeMap<>();
+        for (String node : names) {
+            for (int point = 0; point < pointsPerNode; point++) {
+                long hash = HASH.hashString(node + '#' + point, UTF_8)
+                                .asLong();
+                points.putIfAbsent(hash, node);
+            }
+        }
+        return new HashRing(names, ImmutableSortedMap.copyOf(points));
+    }
+
+    /**
+     * Obtains the node which owns the task with the given ID.
+     *
+     * <p>The legacy string IDs are owned by the same node as their binary forms.
+     */
+    public String ownerOf(TaskId id) {
+        checkNotNull(id);
+        UUID uuid = TaskIds.toUuid(id);
+        long hash = HASH.newHasher()
+                        .putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits())
+                        .hash()
+                        .asLong();
+        Map.Entry<Long, String> point = points.ceilingEntry(hash);
+        if (point == null) {
+            point = points.firstEntry();
+        }
+        return point.getValue();
+    }
+
+    /**
+     * Obtains the names of the nodes of the ring.
+     */
+    public ImmutableSet<String> nodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.NettyChannelBuilder;
+import io.spine.client.grpc.CommandServiceGrpc;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceFutureStub;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@link ShardTransport} which posts the commands to the {@code CommandService} of the nodes
+ * over plain-text gRPC connections.
+ *
+ * <p>The transport is a stand-in for running several nodes on one machine, where the nodes
+ * listen to the different loopback ports. It does not encrypt the traffic and does not
+ * discover the nodes, so a production setup should replace it with a transport which does.
+ *
+ * <p>A single channel is opened to each node on the first command sent to it. gRPC
+ * multiplexes the concurrent calls over the channel.
+ */
+public final class LoopbackTransport implements ShardTransport {
+
+    private final ImmutableMap<String, InetSocketAddress> addresses;
+    private final Map<String, ManagedChannel> channels = new ConcurrentHashMap<>();
+    private final Map<String, CommandServiceFutureStub> stubs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new transport.
+     *
+     * @param addresses
+     *         the addresses of the gRPC servers of the nodes by the names of the nodes
+     */
+    public LoopbackTransport(Map<String, InetSocketAddress> addresses) {
+        checkNotNull(addresses);
+        this.addresses = ImmutableMap.copyOf(addresses);
+    }
+
+    @Override
+    public ListenableFuture<Ack> post(String node, Command command) {
+        checkNotNull(command);
+        return stubs.computeIfAbsent(node, this::connect)
+                    .post(command);
+    }
+
+    private CommandServiceFutureStub connect(String node) {
+        InetSocketAddress address = addresses.get(node);
+        checkArgument(address != null, "The node `%s` is unknown.", node);
+        ManagedChannel channel = NettyChannelBuilder
+                .forAddress(address.getHostString(), address.getPort())
+                .usePlaintext()
+                .build();
+        channels.put(node, channel);
+        return CommandServiceGrpc.newFutureStub(channel);
+    }
+
+    @Override
+    public void close() {
+        channels.values()
+                .forEach(ManagedChannel::shutdown);
+        channels.clear();
+        stubs.clear();
+    }
+}
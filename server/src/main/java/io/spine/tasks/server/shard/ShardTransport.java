@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+
+/**
+ * A transport which delivers the commands to the nodes owning their target aggregates.
+ *
+ * <p>The transport is the only part of a sharded setup which knows how the nodes are
+ * reached, so it may be replaced without touching the routing.
+ *
+ * @see LoopbackTransport
+ */
+public interface ShardTransport extends AutoCloseable {
+
+    /**
+     * Posts the command to the given node.
+     *
+     * @param node
+     *         the name of the node
+     * @param command
+     *         the command to post
+     * @return the acknowledgement of the command by the node
+     */
+    ListenableFuture<Ack> post(String node, Command command);
+
+    /**
+     * Releases the connections to the nodes.
+     */
+    @Override
+    void close();
+}
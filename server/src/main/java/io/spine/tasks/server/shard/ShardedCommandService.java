@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.tasks.server.command.CommandTargets;
+import io.spine.tasks.server.metrics.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+/**
+ * A command service which handles the commands to the {@code Task}s owned by this node and
+ * forwards all the other commands to their owners.
+ *
+ * <p>The owner of a task is found by the {@link HashRing}. The commands which are not
+ * {@linkplain CommandTargets#taskOf(Command) sent to a task} are handled locally.
+ *
+ * <p>All the nodes of a cluster must share the same ring. Otherwise, a command may be
+ * forwarded back and forth between the nodes which disagree on its owner.
+ */
+public final class ShardedCommandService extends CommandServiceImplBase {
+
+    private static final LongAdder FORWARDED = Metrics.counter("tasks_commands_forwarded");
+
+    private final String node;
+    private final HashRing ring;
+    private final CommandServiceImplBase local;
+    private final ShardTransport transport;
+
+    /**
+     * Creates a new service.
+     *
+     * @param node
+     *         the name of this node
+     * @param ring
+     *         the ring of the nodes of the cluster
+     * @param local
+     *         the service which handles the commands of this node
+     * @param transport
+     *         the transport which delivers the commands to the other nodes
+     */
+    public ShardedCommandService(String node,
+                                 HashRing ring,
+                                 CommandServiceImplBase local,
+                                 ShardTransport transport) {
+        super();
+        this.node = checkNotNull(node);
+        this.ring = checkNotNull(ring);
+        this.local = checkNotNull(local);
+        this.transport = checkNotNull(transport);
+        checkArgument(ring.nodes()
+                          .contains(node),
+                      "The node `%s` is not a part of the ring %s.", node, ring.nodes());
+    }
+
+    @Override
+    public void post(Command request, StreamObserver<Ack> responseObserver) {
+        String owner = CommandTargets.taskOf(request)
+                                     .map(ring::ownerOf)
+                                     .orElse(node);
+        if (owner.equals(node)) {
+            local.post(request, responseObserver);
+            return;
+        }
+        FORWARDED.increment();
+        Futures.addCallback(transport.post(owner, request),
+                            new ForwardedAck(responseObserver),
+                            directExecutor());
+    }
+
+    /**
+     * Passes the acknowledgement of a forwarded command to the caller.
+     */
+    private static final class ForwardedAck implements FutureCallback<Ack> {
+
+        private final StreamObserver<Ack> observer;
+
+        private ForwardedAck(StreamObserver<Ack> observer) {
+            this.observer = observer;
+        }
+
+        @Override
+        public void onSuccess(@Nullable Ack ack) {
+            observer.onNext(checkNotNull(ack));
+            observer.onCompleted();
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            observer.onError(t);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.protobuf.Any;
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.spine.base.Identifier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A secondary index of the values of a string entity column.
+ *
+ * <p>The index maps the column values to the IDs of the entities in the sorted order, so that
+ * the entities with the given value, or with the values within a range, are found without
+ * scanning all the entities. The matching IDs may be obtained in the ascending or
+ * the descending order of the values. The IDs of the entities with the same value are ordered
+ * by the given comparator, so that the order of all the IDs is stable and a selection may be
+ * {@linkplain #selectAfter continued} from any of them.
+ *
+ * <p>An {@linkplain #inMemory() in-memory} index is lost when the application stops.
+ * An {@linkplain #onDisk(Path, boolean, Comparator) on-disk} index also appends each update to
+ * a {@linkplain SegmentLog segment log} and restores itself from the log when opened.
+ *
+ * @param <I>
+ *         the type of entity IDs
+ */
+public final class ColumnIndex<I> implements AutoCloseable {
+
+    /**
+     * The size of a segment file of an on-disk index, 16 MiB.
+     */
+    private static final int SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final long NO_ADDRESS = -1;
+
+    private final NavigableMap<String, NavigableSet<I>> entities = new ConcurrentSkipListMap<>();
+    private final Map<I, String> values = new ConcurrentHashMap<>();
+    private final Comparator<? super I> idOrder;
+    private final @Nullable SegmentLog log;
+
+    private ColumnIndex(Comparator<? super I> idOrder,
+                        @Nullable Path directory,
+                        boolean syncOnCommit) {
+        this.idOrder = checkNotNull(idOrder);
+        this.log = directory == null
+                   ? null
+                   : SegmentLog.open(directory, SEGMENT_SIZE, syncOnCommit, this::restore);
+    }
+
+    /**
+     * Creates an index which is kept in memory only.
+     *
+     * @param idOrder
+     *         the order of the IDs of the entities with the same value
+     */
+    public static <I> ColumnIndex<I> inMemory(Comparator<? super I> idOrder) {
+        return new ColumnIndex<>(idOrder, null, false);
+    }
+
+    /**
+     * Opens an index which is stored in the given directory.
+     *
+     * @param directory
+     *         the directory of the index files; created if it does not exist
+     * @param syncOnCommit
+     *         whether each update should be forced to the disk
+     * @param idOrder
+     *         the order of the IDs of the entities with the same value
+     */
+    public static <I> ColumnIndex<I>
+    onDisk(Path directory, boolean syncOnCommit, Comparator<? super I> idOrder) {
+        checkNotNull(directory);
+        return new ColumnIndex<>(idOrder, directory, syncOnCommit);
+    }
+
+    @SuppressWarnings("unchecked") // Only the IDs of type `I` are written to the log.
+    private void restore(long address, ByteBuffer payload) {
+        int idLength = payload.getInt();
+        ByteBuffer packedId = payload.duplicate();
+        packedId.limit(packedId.position() + idLength);
+        payload.position(payload.position() + idLength);
+        I id = (I) Identifier.unpack(parseAny(packedId));
+        byte[] value = new byte[payload.remaining()];
+        payload.get(value);
+        index(id, new String(value, UTF_8));
+    }
+
+    private static Any parseAny(ByteBuffer bytes) {
+        try {
+            return Any.parseFrom(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw newIllegalStateException(e, "Unable to parse an entry of the column index.");
+        }
+    }
+
+    /**
+     * Sets the value of the column of the entity with the given ID.
+     *
+     * <p>The previous value of the entity, if any, is dropped from the index.
+     */
+    public void put(I id, String value) {
+        checkNotNull(id);
+        checkNotNull(value);
+        long address = NO_ADDRESS;
+        synchronized (this) {
+            if (value.equals(values.get(id))) {
+                return;
+            }
+            if (log != null) {
+                address = log.append(encode(id, value));
+            }
+            index(id, value);
+        }
+        if (log != null) {
+            log.commit(address);
+        }
+    }
+
+    private void index(I id, String value) {
+        String previous = values.put(id, value);
+        if (previous != null) {
+            NavigableSet<I> previousIds = entities.get(previous);
+            if (previousIds != null) {
+                previousIds.remove(id);
+                if (previousIds.isEmpty()) {
+                    entities.remove(previous);
+                }
+            }
+        }
+        entities.computeIfAbsent(value, key -> new ConcurrentSkipListSet<>(idOrder))
+                .add(id);
+    }
+
+    private static byte[] encode(Object id, String value) {
+        byte[] packedId = Identifier.pack(id)
+                                    .toByteArray();
+        byte[] bytes = value.getBytes(UTF_8);
+        return ByteBuffer.allocate(Integer.BYTES + packedId.length + bytes.length)
+                         .putInt(packedId.length)
+                         .put(packedId)
+                         .put(bytes)
+                         .array();
+    }
+
+    /**
+     * Finds the IDs of the entities whose column values are within the given range.
+     *
+     * @param range
+     *         the range of the column values
+     * @param descending
+     *         whether the IDs should be ordered by the descending column values
+     * @param limit
+     *         the maximum number of the IDs to return, or zero for no limit
+     * @return the IDs ordered by the column values
+     */
+    public ImmutableList<I> select(Range<String> range, boolean descending, int limit) {
+        checkNotNull(range);
+        checkArgument(limit >= 0, "The limit must not be negative.");
+        Selection<I> selection = new Selection<>(limit);
+        addMatching(range, descending, selection);
+        return selection.build();
+    }
+
+    /**
+     * Finds the IDs of the entities whose column values are within the given range and which
+     * follow the given entity in the order of the selection.
+     *
+     * <p>Allows to select the IDs in portions. The next portion starts right after the last ID
+     * of the previous one, even if the index is updated in between.
+     *
+     * @param range
+     *         the range of the column values
+     * @param descending
+     *         whether the IDs should be ordered by the descending column values
+     * @param lastValue
+     *         the column value of the last entity of the previous portion
+     * @param lastId
+     *         the ID of the last entity of the previous portion
+     * @param limit
+     *         the maximum number of the IDs to return, or zero for no limit
+     * @return the IDs ordered by the column values
+     */
+    public ImmutableList<I> selectAfter(Range<String> range,
+                                        boolean descending,
+                                        String lastValue,
+                                        I lastId,
+                                        int limit) {
+        checkNotNull(range);
+        checkNotNull(lastValue);
+        checkNotNull(lastId);
+        checkArgument(limit >= 0, "The limit must not be negative.");
+        Selection<I> selection = new Selection<>(limit);
+        NavigableSet<I> sameValue = entities.get(lastValue);
+        if (range.contains(lastValue) && sameValue != null) {
+            NavigableSet<I> ordered = descending
+                                      ? sameValue.descendingSet()
+                                      : sameValue;
+            if (!selection.addAll(ordered.tailSet(lastId, false))) {
+                return selection.build();
+            }
+        }
+        Range<String> following = descending
+                                  ? Range.lessThan(lastValue)
+                                  : Range.greaterThan(lastValue);
+        if (range.isConnected(following)) {
+            addMatching(range.intersection(following), descending, selection);
+        }
+        return selection.build();
+    }
+
+    private void addMatching(Range<String> range, boolean descending, Selection<I> selection) {
+        if (range.isEmpty()) {
+            return;
+        }
+        NavigableMap<String, NavigableSet<I>> matching = entities;
+        if (range.hasLowerBound()) {
+            matching = matching.tailMap(range.lowerEndpoint(),
+                                        range.lowerBoundType() == BoundType.CLOSED);
+        }
+        if (range.hasUpperBound()) {
+            matching = matching.headMap(range.upperEndpoint(),
+                                        range.upperBoundType() == BoundType.CLOSED);
+        }
+        if (descending) {
+            matching = matching.descendingMap();
+        }
+        for (NavigableSet<I> ids : matching.values()) {
+            NavigableSet<I> ordered = descending
+                                      ? ids.descendingSet()
+                                      : ids;
+            if (!selection.addAll(ordered)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Obtains the indexed value of the column of the entity with the given ID.
+     */
+    public Optional<String> valueOf(I id) {
+        checkNotNull(id);
+        return Optional.ofNullable(values.get(id));
+    }
+
+    /**
+     * Obtains the number of the indexed entities.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public void close() {
+        if (log != null) {
+            log.close();
+        }
+    }
+
+    /**
+     * The IDs selected from the index, up to a limit.
+     */
+    private static final class Selection<I> {
+
+        private final ImmutableList.Builder<I> ids = ImmutableList.builder();
+        private final int limit;
+        private int count;
+
+        private Selection(int limit) {
+            this.limit = limit;
+        }
+
+        /**
+         * Adds the given IDs to the selection until the limit is reached.
+         *
+         * @return {@code true} if all the IDs are added, {@code false} if the limit is reached
+         */
+        private boolean addAll(Iterable<I> more) {
+            for (I id : more) {
+                if (limit > 0 && count == limit) {
+                    return false;
+                }
+                ids.add(id);
+                count++;
+            }
+            return true;
+        }
+
+        private ImmutableList<I> build() {
+            return ids.build();
+        }
+    }
+}
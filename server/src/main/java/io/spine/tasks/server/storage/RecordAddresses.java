@@ -0,0 +1,67 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of the {@linkplain SegmentLog log} addresses of the records of one aggregate.
+ *
+ * <p>The addresses are kept in the order of appending, i.e. from the oldest record to
+ * the newest one.
+ *
+ * <p>The instances are mutable and are guarded by their own monitor.
+ */
+final class RecordAddresses {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] addresses = new long[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized void add(long address) {
+        if (size == addresses.length) {
+            addresses = Arrays.copyOf(addresses, size * 2);
+        }
+        addresses[size++] = address;
+    }
+
+    /**
+     * Obtains a copy of the addresses, from the oldest to the newest.
+     */
+    synchronized long[] toArray() {
+        return Arrays.copyOf(addresses, size);
+    }
+
+    /**
+     * Drops the given number of the oldest addresses.
+     */
+    synchronized void dropOldest(int count) {
+        int remaining = size - count;
+        System.arraycopy(addresses, count, addresses, 0, remaining);
+        size = remaining;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.spine.util.Exceptions.newIllegalStateException;
+
+/**
+ * Compresses the records of a {@linkplain SegmentLog segment log} against a shared dictionary.
+ *
+ * <p>The records of one aggregate type are small and look alike. Each of them repeats
+ * the type URLs, the actor and the rest of the envelope of the other records. A single record
+ * gives a compressor too little to find such repetitions. Therefore, the codec primes
+ * the compressor with a dictionary, e.g. a sample record, so that the parts of a record which
+ * repeat the dictionary are encoded as short references to it.
+ *
+ * <p>The records are compressed with the raw Deflate format at the fastest level, through
+ * the {@code java.util.zip} implementation of the JDK. The compressors are cached per thread.
+ */
+final class RecordCodec {
+
+    /**
+     * The maximum size of the dictionary, which is the size of the Deflate window.
+     */
+    static final int MAX_DICTIONARY_SIZE = 32 * 1024;
+
+    private static final ThreadLocal<Deflater> deflaters =
+            ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED, true));
+    private static final ThreadLocal<Inflater> inflaters =
+            ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private final byte[] dictionary;
+
+    /**
+     * Creates a new codec with the given dictionary.
+     *
+     * <p>The records must be decompressed with the same dictionary as they were
+     * compressed with.
+     */
+    RecordCodec(byte[] dictionary) {
+        checkArgument(dictionary.length > 0 && dictionary.length <= MAX_DICTIONARY_SIZE,
+                      "The dictionary size must be within 1..%s bytes.", MAX_DICTIONARY_SIZE);
+        this.dictionary = dictionary.clone();
+    }
+
+    /**
+     * Obtains a copy of the dictionary of this codec.
+     */
+    byte[] dictionary() {
+        return dictionary.clone();
+    }
+
+    /**
+     * Compresses the given record.
+     */
+    byte[] compress(byte[] record) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setDictionary(dictionary);
+        deflater.setInput(record);
+        deflater.finish();
+        byte[] output = new byte[record.length + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == output.length) {
+                output = Arrays.copyOf(output, output.length * 2);
+            }
+            length += deflater.deflate(output, length, output.length - length);
+        }
+        return Arrays.copyOf(output, length);
+    }
+
+    /**
+     * Decompresses a record.
+     *
+     * @param compressed
+     *         the compressed record, from its position up to its limit
+     * @param length
+     *         the length of the record before the compression
+     */
+    byte[] decompress(ByteBuffer compressed, int length) {
+        // The extra zero byte is required by the raw Deflate decoder to detect the end.
+        byte[] input = new byte[compressed.remaining() + 1];
+        compressed.get(input, 0, input.length - 1);
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setDictionary(dictionary);
+        inflater.setInput(input);
+        byte[] record = new byte[length];
+        int read = 0;
+        try {
+            while (read < length) {
+                int inflated = inflater.inflate(record, read, length - read);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                read += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw newIllegalStateException(e, "Unable to decompress a record.");
+        }
+        if (read != length) {
+            throw newIllegalStateException(
+                    "A compressed record holds %s bytes instead of %s.", read, length
+            );
+        }
+        return record;
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import com.google.protobuf.util.Timestamps;
+import io.spine.base.Identifier;
+import io.spine.server.aggregate.AggregateEventRecord;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.entity.LifecycleFlags;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.metrics.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An {@code AggregateStorage} which appends the aggregate event records to
+ * a {@linkplain SegmentLog segment log}.
+ *
+ * <p>The storage keeps an in-memory index from an aggregate ID to the addresses of its records
+ * in the log. The index is rebuilt by scanning the log when the storage is opened.
+ *
+ * <p>The storage may also keep a size-bounded cache of the most recently used aggregate
+ * histories. A cached history holds the records of an aggregate from the newest one back to
+ * the latest snapshot, which is all that is needed to load the aggregate. The cached histories
+ * are kept up to date on each write, so loading a hot aggregate does not touch the log at all.
+ *
+ * <p>The records written within a {@link WriteBatch} are committed together when the batch ends.
+ *
+ * <p>The time of each write, including the commit, is recorded to the
+ * {@link Metrics#STORAGE_WRITE} histogram. Within a batch, the commit is deferred, so only
+ * the append is measured.
+ *
+ * <p>If {@linkplain SegmentStorageFactory.Builder#setCompression(boolean) compression} is on,
+ * the event records are compressed with a {@link RecordCodec}. The first written event record
+ * is stored in the log as the dictionary of the codec, so that the envelope of each next
+ * record is encoded as references to the envelope of the first one. The type URL of
+ * the aggregate IDs is stored in the log once, and the records refer to it by its index.
+ * The compressed and the plain records may be mixed in one log, so the compression may be
+ * turned on and off for an existing storage.
+ *
+ * <p>Truncation only drops the records from the index. The space they occupy in the log is
+ * not reclaimed. Should the truncated records be brought back into the index on a restart,
+ * they are never read, as the aggregate history is always read up to the latest snapshot.
+ *
+ * @param <I>
+ *         the type of aggregate IDs
+ */
+final class SegmentAggregateStorage<I> extends AggregateStorage<I> {
+
+    private static final byte EVENT_RECORD = 1;
+    private static final byte LIFECYCLE_FLAGS = 2;
+    private static final byte COMPRESSED_EVENT_RECORD = 3;
+    private static final byte DICTIONARY = 4;
+    private static final byte ID_TYPE = 5;
+
+    private static final LatencyHistogram WRITE_TIME = Metrics.histogram(Metrics.STORAGE_WRITE);
+
+    private final SegmentLog log;
+    private final Map<I, RecordAddresses> index = new ConcurrentHashMap<>();
+    private final Map<I, LifecycleFlags> lifecycleFlags = new ConcurrentHashMap<>();
+    private final boolean cacheEnabled;
+    private final Cache<I, ImmutableList<AggregateEventRecord>> cache;
+    private final boolean compression;
+    private final List<String> idTypes = new CopyOnWriteArrayList<>();
+    private final Object dictionaryLock = new Object();
+    private volatile @Nullable RecordCodec codec;
+
+    SegmentAggregateStorage(SegmentStorageFactory.LogSettings settings) {
+        super(false);
+        this.log = settings.open(this::restore);
+        this.compression = settings.compression();
+        this.cacheEnabled = settings.cacheSize() > 0;
+        this.cache = CacheBuilder.newBuilder()
+                                 .maximumSize(settings.cacheSize())
+                                 .recordStats()
+                                 .build();
+    }
+
+    private void restore(long address, ByteBuffer payload) {
+        byte kind = payload.get();
+        switch (kind) {
+            case EVENT_RECORD:
+                addresses(readId(payload)).add(address);
+                break;
+            case COMPRESSED_EVENT_RECORD:
+                addresses(readCompactId(payload)).add(address);
+                break;
+            case LIFECYCLE_FLAGS:
+                lifecycleFlags.put(readId(payload),
+                                   parse(payload, LifecycleFlags.parser()::parseFrom));
+                break;
+            case DICTIONARY:
+                codec = new RecordCodec(bytes(payload));
+                break;
+            case ID_TYPE:
+                idTypes.add(new String(bytes(payload), UTF_8));
+                break;
+            default:
+                throw newIllegalStateException("Unknown kind of a log record: %s.", kind);
+        }
+    }
+
+    @Override
+    protected void writeRecord(I id, AggregateEventRecord record) {
+        checkNotClosed();
+        long start = System.nanoTime();
+        byte[] payload = compression
+                         ? encodeCompressed(id, record.toByteArray())
+                         : encode(EVENT_RECORD, id, record.toByteArray());
+        RecordAddresses addresses = addresses(id);
+        long address;
+        synchronized (addresses) {
+            address = log.append(payload);
+            addresses.add(address);
+            if (cacheEnabled) {
+                cache.asMap()
+                     .computeIfPresent(id, (key, cached) -> prepend(record, cached));
+            }
+        }
+        commit(address);
+        WRITE_TIME.recordSince(start);
+    }
+
+    private void commit(long address) {
+        if (!WriteBatch.defer(log, address)) {
+            log.commit(address);
+        }
+    }
+
+    private static ImmutableList<AggregateEventRecord>
+    prepend(AggregateEventRecord record, ImmutableList<AggregateEventRecord> history) {
+        if (record.hasSnapshot()) {
+            return ImmutableList.of(record);
+        }
+        return ImmutableList.<AggregateEventRecord>builder()
+                            .add(record)
+                            .addAll(history)
+                            .build();
+    }
+
+    @Override
+    protected Iterator<AggregateEventRecord> historyBackward(AggregateReadRequest<I> request) {
+        checkNotClosed();
+        I id = request.getRecordId();
+        RecordAddresses addresses = index.get(id);
+        if (addresses == null) {
+            return ImmutableList.<AggregateEventRecord>of()
+                                .iterator();
+        }
+        if (!cacheEnabled) {
+            return new BackwardIterator(addresses.toArray());
+        }
+        ImmutableList<AggregateEventRecord> cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.iterator();
+        }
+        synchronized (addresses) {
+            ImmutableList<AggregateEventRecord> history = readToSnapshot(addresses.toArray());
+            cache.put(id, history);
+            return history.iterator();
+        }
+    }
+
+    /**
+     * Reads the records from the newest one back to the latest snapshot inclusive.
+     */
+    private ImmutableList<AggregateEventRecord> readToSnapshot(long[] history) {
+        ImmutableList.Builder<AggregateEventRecord> result = ImmutableList.builder();
+        Iterator<AggregateEventRecord> records = new BackwardIterator(history);
+        while (records.hasNext()) {
+            AggregateEventRecord record = records.next();
+            result.add(record);
+            if (record.hasSnapshot()) {
+                break;
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Obtains the statistics of the aggregate history cache.
+     */
+    CacheStats cacheStats() {
+        return cache.stats();
+    }
+
+    @Override
+    public Optional<LifecycleFlags> readLifecycleFlags(I id) {
+        checkNotClosed();
+        return Optional.ofNullable(lifecycleFlags.get(id));
+    }
+
+    @Override
+    public void writeLifecycleFlags(I id, LifecycleFlags flags) {
+        checkNotClosed();
+        long address = log.append(encode(LIFECYCLE_FLAGS, id, flags.toByteArray()));
+        lifecycleFlags.put(id, flags);
+        commit(address);
+    }
+
+    /**
+     * Iterates the IDs right over the index, without copying them, so that iterating
+     * the aggregates of a large storage takes no extra memory.
+     *
+     * <p>The iterator is weakly consistent. It may or may not see the aggregates written after
+     * it is created.
+     */
+    @Override
+    protected Iterator<I> distinctAggregateIds() {
+        checkNotClosed();
+        return Collections.unmodifiableSet(index.keySet())
+                          .iterator();
+    }
+
+    @Override
+    protected void truncate(int snapshotIndex) {
+        truncate(snapshotIndex, record -> true);
+    }
+
+    @Override
+    protected void truncate(int snapshotIndex, Timestamp date) {
+        truncate(snapshotIndex, record -> Timestamps.compare(record.getTimestamp(), date) < 0);
+    }
+
+    /**
+     * Drops the records which precede the snapshot with the given index, counting from the newest
+     * snapshot, and match the given filter.
+     */
+    private void truncate(int snapshotIndex, Predicate<AggregateEventRecord> olderThan) {
+        checkNotClosed();
+        for (RecordAddresses addresses : index.values()) {
+            long[] history = addresses.toArray();
+            int snapshots = 0;
+            for (int i = history.length - 1; i >= 0; i--) {
+                AggregateEventRecord record = readRecord(history[i]);
+                if (record.hasSnapshot() && snapshots++ == snapshotIndex) {
+                    int dropped = 0;
+                    while (dropped < i && olderThan.test(readRecord(history[dropped]))) {
+                        dropped++;
+                    }
+                    addresses.dropOldest(dropped);
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        log.close();
+    }
+
+    private RecordAddresses addresses(I id) {
+        return index.computeIfAbsent(id, key -> new RecordAddresses());
+    }
+
+    private AggregateEventRecord readRecord(long address) {
+        ByteBuffer payload = log.read(address);
+        byte kind = payload.get();
+        if (kind == COMPRESSED_EVENT_RECORD) {
+            payload.getInt();
+            int idLength = payload.getInt();
+            payload.position(payload.position() + idLength);
+            int length = payload.getInt();
+            RecordCodec codec = this.codec;
+            if (codec == null) {
+                throw newIllegalStateException("The dictionary of the log is missing.");
+            }
+            byte[] record = codec.decompress(payload, length);
+            return parse(ByteBuffer.wrap(record), AggregateEventRecord.parser()::parseFrom);
+        }
+        int idLength = payload.getInt();
+        payload.position(payload.position() + idLength);
+        return parse(payload, AggregateEventRecord.parser()::parseFrom);
+    }
+
+    /**
+     * Obtains the number of bytes the records of this storage occupy in the log.
+     */
+    long size() {
+        return log.size();
+    }
+
+    private static byte[] encode(byte kind, Object id, byte[] body) {
+        byte[] packedId = Identifier.pack(id)
+                                    .toByteArray();
+        return ByteBuffer.allocate(1 + Integer.BYTES + packedId.length + body.length)
+                         .put(kind)
+                         .putInt(packedId.length)
+                         .put(packedId)
+                         .put(body)
+                         .array();
+    }
+
+    /**
+     * Encodes a compressed event record.
+     *
+     * <p>The ID is written as the index of its type URL followed by the value of the packed ID.
+     * The record is compressed with the {@linkplain #codec(byte[]) codec} of the log.
+     */
+    private byte[] encodeCompressed(I id, byte[] record) {
+        Any packedId = Identifier.pack(id);
+        int type = idType(packedId.getTypeUrl());
+        byte[] value = packedId.getValue()
+                               .toByteArray();
+        byte[] compressed = codec(record).compress(record);
+        return ByteBuffer.allocate(1 + Integer.BYTES * 3 + value.length + compressed.length)
+                         .put(COMPRESSED_EVENT_RECORD)
+                         .putInt(type)
+                         .putInt(value.length)
+                         .put(value)
+                         .putInt(record.length)
+                         .put(compressed)
+                         .array();
+    }
+
+    /**
+     * Obtains the index of the given type URL of the IDs, storing the type URL in the log
+     * if it is new.
+     */
+    private int idType(String typeUrl) {
+        int index = idTypes.indexOf(typeUrl);
+        if (index >= 0) {
+            return index;
+        }
+        synchronized (dictionaryLock) {
+            index = idTypes.indexOf(typeUrl);
+            if (index < 0) {
+                byte[] url = typeUrl.getBytes(UTF_8);
+                log.append(ByteBuffer.allocate(1 + url.length)
+                                     .put(ID_TYPE)
+                                     .put(url)
+                                     .array());
+                idTypes.add(typeUrl);
+                index = idTypes.size() - 1;
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Obtains the codec of the log.
+     *
+     * <p>If the log has no dictionary yet, the given record becomes the dictionary and is
+     * stored in the log.
+     */
+    private RecordCodec codec(byte[] sample) {
+        RecordCodec result = codec;
+        if (result != null) {
+            return result;
+        }
+        synchronized (dictionaryLock) {
+            if (codec == null) {
+                byte[] dictionary = Arrays.copyOf(
+                        sample, Math.min(sample.length, RecordCodec.MAX_DICTIONARY_SIZE)
+                );
+                log.append(ByteBuffer.allocate(1 + dictionary.length)
+                                     .put(DICTIONARY)
+                                     .put(dictionary)
+                                     .array());
+                codec = new RecordCodec(dictionary);
+            }
+            return codec;
+        }
+    }
+
+    @SuppressWarnings("unchecked") // Only the IDs of type `I` are written to the log.
+    private I readCompactId(ByteBuffer payload) {
+        String typeUrl = idTypes.get(payload.getInt());
+        int length = payload.getInt();
+        byte[] value = new byte[length];
+        payload.get(value);
+        Any any = Any.newBuilder()
+                     .setTypeUrl(typeUrl)
+                     .setValue(ByteString.copyFrom(value))
+                     .build();
+        return (I) Identifier.unpack(any);
+    }
+
+    private static byte[] bytes(ByteBuffer payload) {
+        byte[] result = new byte[payload.remaining()];
+        payload.get(result);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked") // Only the IDs of type `I` are written to the log.
+    private I readId(ByteBuffer payload) {
+        int length = payload.getInt();
+        ByteBuffer packedId = payload.duplicate();
+        packedId.limit(packedId.position() + length);
+        payload.position(payload.position() + length);
+        Any any = parse(packedId, Any.parser()::parseFrom);
+        return (I) Identifier.unpack(any);
+    }
+
+    private static <T> T parse(ByteBuffer bytes, Parser<T> parser) {
+        try {
+            return parser.parse(bytes);
+        } catch (InvalidProtocolBufferException e) {
+            throw newIllegalStateException(e, "Unable to parse a record of the segment log.");
+        }
+    }
+
+    /**
+     * A function parsing a message from a byte buffer.
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+
+        T parse(ByteBuffer bytes) throws InvalidProtocolBufferException;
+    }
+
+    /**
+     * Reads the records of an aggregate lazily, from the newest to the oldest.
+     */
+    private final class BackwardIterator implements Iterator<AggregateEventRecord> {
+
+        private final long[] history;
+        private int next;
+
+        private BackwardIterator(long[] history) {
+            this.history = history;
+            this.next = history.length - 1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public AggregateEventRecord next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return readRecord(history[next--]);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.String.format;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An append-only log of binary records stored in a directory of memory-mapped segment files.
+ *
+ * <p>Each record is written as a frame consisting of the payload length, the CRC32 checksum of
+ * the payload and the payload itself. A segment is filled until the next frame no longer fits
+ * into it, after which a new segment is started. The zero length of a frame marks the end of
+ * the written data in a segment.
+ *
+ * <p>A record is addressed by a {@code long} value, which holds the index of the segment in its
+ * high 32 bits and the offset of the frame within the segment in the low 32 bits. Therefore,
+ * the addresses of the records grow in the order the records are appended.
+ *
+ * <p>The log performs a group commit. Writers append their frames concurrently and then
+ * {@linkplain #commit(long) wait} for the data to become durable. The first writer to acquire
+ * the flush lock forces all the data appended so far, so the writers queued behind it
+ * usually find their frames already flushed.
+ */
+final class SegmentLog implements AutoCloseable {
+
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final String SEGMENT_FORMAT = "%010d.seg";
+    private static final String SEGMENT_GLOB = "*.seg";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnCommit;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Object flushLock = new Object();
+
+    private MappedByteBuffer current;
+    private int currentIndex;
+    private volatile long written;
+    private volatile long durable;
+    private long size;
+    private boolean closed;
+
+    private SegmentLog(Path directory, int segmentSize, boolean syncOnCommit) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncOnCommit = syncOnCommit;
+    }
+
+    /**
+     * Opens the log stored in the given directory and passes each of the previously stored
+     * records to the given consumer in the order of their appending.
+     *
+     * <p>If the tail of the last segment is corrupted, e.g. by a crash during a write, the log
+     * is recovered up to the last intact frame.
+     *
+     * @param directory
+     *         the directory with the segment files; created if it does not exist
+     * @param segmentSize
+     *         the size of a single segment file in bytes
+     * @param syncOnCommit
+     *         whether a {@linkplain #commit(long) commit} should force the data to the disk
+     * @param recovery
+     *         the consumer of the address and the payload of each stored record
+     */
+    static SegmentLog open(Path directory,
+                           int segmentSize,
+                           boolean syncOnCommit,
+                           BiConsumer<Long, ByteBuffer> recovery) {
+        checkArgument(segmentSize > HEADER_SIZE, "The segment size is too small: %s.", segmentSize);
+        SegmentLog log = new SegmentLog(directory, segmentSize, syncOnCommit);
+        try {
+            Files.createDirectories(directory);
+            log.recover(recovery);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return log;
+    }
+
+    private void recover(BiConsumer<Long, ByteBuffer> recovery) throws IOException {
+        ImmutableList<Path> files = segmentFiles();
+        for (int i = 0; i < files.size(); i++) {
+            MappedByteBuffer segment = map(files.get(i));
+            segments.add(segment);
+            int end = scan(i, segment, recovery);
+            size += end;
+            current = segment;
+            currentIndex = i;
+            written = address(i, end);
+        }
+        if (current == null) {
+            startSegment(0);
+        }
+        current.position(offset(written));
+        durable = written;
+    }
+
+    private ImmutableList<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_GLOB)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return ImmutableList.copyOf(files);
+    }
+
+    /**
+     * Passes all the intact frames of the segment to the consumer.
+     *
+     * @return the offset right after the last intact frame
+     */
+    private static int scan(int index,
+                            MappedByteBuffer segment,
+                            BiConsumer<Long, ByteBuffer> recovery) {
+        ByteBuffer frames = segment.duplicate();
+        int position = 0;
+        while (position + HEADER_SIZE <= frames.capacity()) {
+            int length = frames.getInt(position);
+            int payloadStart = position + HEADER_SIZE;
+            if (length <= 0 || payloadStart + length > frames.capacity()) {
+                break;
+            }
+            int checksum = frames.getInt(position + Integer.BYTES);
+            ByteBuffer payload = slice(frames, payloadStart, length);
+            if (checksum != checksum(payload.duplicate())) {
+                break;
+            }
+            recovery.accept(address(index, position), payload);
+            position = payloadStart + length;
+        }
+        return position;
+    }
+
+    /**
+     * Appends a record to the log.
+     *
+     * <p>The record is not guaranteed to be durable until it is {@linkplain #commit(long)
+     * committed}.
+     *
+     * @return the address of the appended record
+     */
+    synchronized long append(byte[] payload) {
+        checkState(!closed, "The log `%s` is closed.", directory);
+        int frameSize = HEADER_SIZE + payload.length;
+        checkArgument(frameSize < segmentSize,
+                      "A record of %s bytes does not fit into a segment of %s bytes.",
+                      payload.length, segmentSize);
+        if (current.remaining() < frameSize) {
+            startSegment(currentIndex + 1);
+        }
+        int position = current.position();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        current.putInt(payload.length)
+               .putInt((int) crc.getValue())
+               .put(payload);
+        size += frameSize;
+        written = address(currentIndex, current.position());
+        return address(currentIndex, position);
+    }
+
+    /**
+     * Makes sure that the record at the given address and all the records appended before it
+     * are durable.
+     *
+     * <p>Does nothing if the log is configured not to sync on commit. In this case, the data is
+     * written to the disk by the operating system at its own pace.
+     */
+    void commit(long address) {
+        if (!syncOnCommit || durable > address) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (durable > address) {
+                return;
+            }
+            long target;
+            List<MappedByteBuffer> pending;
+            synchronized (this) {
+                target = written;
+                pending = new ArrayList<>(segments.subList(segment(durable), segments.size()));
+            }
+            pending.forEach(MappedByteBuffer::force);
+            durable = target;
+        }
+    }
+
+    /**
+     * Reads the payload of the record stored at the given address.
+     *
+     * <p>The returned buffer is a read-only view of the memory-mapped segment.
+     */
+    ByteBuffer read(long address) {
+        MappedByteBuffer segment;
+        synchronized (this) {
+            segment = segments.get(segment(address));
+        }
+        int position = offset(address);
+        int length = segment.getInt(position);
+        return slice(segment, position + HEADER_SIZE, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Obtains the total size of the frames in the log, in bytes.
+     *
+     * <p>The unused space at the end of the segments is not counted.
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    private void startSegment(int index) {
+        Path file = directory.resolve(format(SEGMENT_FORMAT, index));
+        try {
+            MappedByteBuffer segment = map(file);
+            if (current != null && syncOnCommit) {
+                current.force();
+            }
+            segments.add(segment);
+            current = segment;
+            currentIndex = index;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    /**
+     * Forces all the appended data to the disk and closes the log.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        segments.subList(segment(durable), segments.size())
+                .forEach(MappedByteBuffer::force);
+        durable = written;
+        closed = true;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int position, int length) {
+        ByteBuffer copy = buffer.duplicate();
+        copy.position(position);
+        copy.limit(position + length);
+        return copy.slice();
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static long address(int segment, int offset) {
+        return ((long) segment << Integer.SIZE) | offset;
+    }
+
+    private static int segment(long address) {
+        return (int) (address >>> Integer.SIZE);
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import com.google.common.cache.CacheStats;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.Aggregate;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.delivery.CatchUpStorage;
+import io.spine.server.delivery.InboxStorage;
+import io.spine.server.entity.Entity;
+import io.spine.server.projection.Projection;
+import io.spine.server.projection.ProjectionStorage;
+import io.spine.server.storage.RecordStorage;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A {@code StorageFactory} which stores the aggregate events in local append-only segment files.
+ *
+ * <p>The events of each aggregate type are written to a separate directory under the root
+ * directory of the factory. The files are accessed through memory-mapped I/O, and concurrent
+ * writes are flushed to the disk in groups.
+ *
+ * <p>Each aggregate storage keeps a size-bounded cache of the recently loaded aggregate
+ * histories. The {@linkplain #cacheStats() statistics} of the cache are available for
+ * monitoring.
+ *
+ * <p>The event records may be {@linkplain Builder#setCompression(boolean) compressed} to
+ * reduce the size of the files.
+ *
+ * <p>All other kinds of storage, such as projection and inbox storage, are kept in memory.
+ */
+public final class SegmentStorageFactory implements StorageFactory {
+
+    /**
+     * The default size of a segment file, 64 MiB.
+     */
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * The default number of aggregate histories cached by each aggregate storage.
+     */
+    private static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean syncOnCommit;
+    private final int cacheSize;
+    private final boolean compression;
+    private final StorageFactory inMemory = InMemoryStorageFactory.newInstance();
+    private final List<SegmentAggregateStorage<?>> aggregateStorages =
+            new CopyOnWriteArrayList<>();
+
+    private SegmentStorageFactory(Builder builder) {
+        this.directory = builder.directory;
+        this.segmentSize = builder.segmentSize;
+        this.syncOnCommit = builder.syncOnCommit;
+        this.cacheSize = builder.cacheSize;
+        this.compression = builder.compression;
+    }
+
+    /**
+     * Creates a new instance of {@code Builder} for {@code SegmentStorageFactory} instances.
+     */
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public <I> AggregateStorage<I>
+    createAggregateStorage(ContextSpec context,
+                           Class<? extends Aggregate<I, ?, ?>> aggregateClass) {
+        checkArgument(!context.isMultitenant(),
+                      "Segment storage does not support multitenant contexts.");
+        Path aggregateDir = directory.resolve(context.name()
+                                                     .getValue())
+                                     .resolve(aggregateClass.getName());
+        SegmentAggregateStorage<I> storage =
+                new SegmentAggregateStorage<>(new LogSettings(aggregateDir));
+        aggregateStorages.add(storage);
+        return storage;
+    }
+
+    /**
+     * Obtains the combined statistics of the aggregate history caches of all the aggregate
+     * storages created by this factory.
+     */
+    public CacheStats cacheStats() {
+        CacheStats result = new CacheStats(0, 0, 0, 0, 0, 0);
+        for (SegmentAggregateStorage<?> storage : aggregateStorages) {
+            result = result.plus(storage.cacheStats());
+        }
+        return result;
+    }
+
+    @Override
+    public <I> RecordStorage<I>
+    createRecordStorage(ContextSpec context, Class<? extends Entity<I, ?>> entityClass) {
+        return inMemory.createRecordStorage(context, entityClass);
+    }
+
+    @Override
+    public <I> ProjectionStorage<I>
+    createProjectionStorage(ContextSpec context,
+                            Class<? extends Projection<I, ?, ?>> projectionClass) {
+        return inMemory.createProjectionStorage(context, projectionClass);
+    }
+
+    @Override
+    public InboxStorage createInboxStorage(boolean multitenant) {
+        return inMemory.createInboxStorage(multitenant);
+    }
+
+    @Override
+    public CatchUpStorage createCatchUpStorage(boolean multitenant) {
+        return inMemory.createCatchUpStorage(multitenant);
+    }
+
+    @Override
+    public void close() throws Exception {
+        inMemory.close();
+    }
+
+    /**
+     * The parameters of a segment log of a single aggregate type.
+     */
+    final class LogSettings {
+
+        private final Path directory;
+
+        private LogSettings(Path directory) {
+            this.directory = directory;
+        }
+
+        /**
+         * Opens the log passing the previously stored records to the given consumer.
+         */
+        SegmentLog open(BiConsumer<Long, ByteBuffer> recovery) {
+            return SegmentLog.open(directory, segmentSize, syncOnCommit, recovery);
+        }
+
+        /**
+         * Obtains the maximum number of the aggregate histories to cache.
+         */
+        int cacheSize() {
+            return cacheSize;
+        }
+
+        /**
+         * Tells whether the event records should be compressed.
+         */
+        boolean compression() {
+            return compression;
+        }
+    }
+
+    /**
+     * A builder for the {@code SegmentStorageFactory} instances.
+     */
+    public static final class Builder {
+
+        private Path directory;
+        private int segmentSize = DEFAULT_SEGMENT_SIZE;
+        private boolean syncOnCommit = true;
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+        private boolean compression;
+
+        /**
+         * Prevents direct instantiation.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the root directory of the segment files.
+         */
+        public Builder setDirectory(Path directory) {
+            this.directory = checkNotNull(directory);
+            return this;
+        }
+
+        /**
+         * Sets the size of a single segment file in bytes.
+         *
+         * <p>A single record must fit into a segment. The default value is 64 MiB.
+         */
+        public Builder setSegmentSize(int segmentSize) {
+            checkArgument(segmentSize > 0, "The segment size must be positive.");
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets whether each commit should force the written data to the disk.
+         *
+         * <p>If {@code false}, the data is flushed by the operating system at its own pace, and
+         * the most recent events may be lost if the machine crashes. The default value
+         * is {@code true}.
+         */
+        public Builder setSyncOnCommit(boolean syncOnCommit) {
+            this.syncOnCommit = syncOnCommit;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of the aggregate histories cached by each aggregate storage.
+         *
+         * <p>Zero disables the cache. The default value is 10,000.
+         */
+        public Builder setCacheSize(int cacheSize) {
+            checkArgument(cacheSize >= 0, "The cache size must not be negative.");
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Sets whether the event records should be compressed.
+         *
+         * <p>The compressed records are encoded against a dictionary sampled from
+         * the first record of each aggregate type, which makes the repetitive parts of
+         * the records, such as the type URLs, take a few bytes. The records written with and
+         * without the compression are read alike, so the setting may be changed for
+         * the existing files. The default value is {@code false}.
+         */
+        public Builder setCompression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of {@code SegmentStorageFactory}.
+         */
+        public SegmentStorageFactory build() {
+            checkNotNull(directory, "The directory of the segment files must be set.");
+            return new SegmentStorageFactory(this);
+        }
+    }
+}
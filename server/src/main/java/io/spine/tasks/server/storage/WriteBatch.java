@@ -0,0 +1,93 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A scope in which the segment storage defers the commits of the written records.
+ *
+ * <p>Within the scope, the records written by the current thread are appended to the logs
+ * as usual, but are not committed one by one. Instead, each of the touched logs is committed
+ * once, when the scope ends. This turns a sequence of writes into a single storage write batch.
+ *
+ * <p>The writes made by other threads are committed as usual.
+ */
+public final class WriteBatch {
+
+    private static final ThreadLocal<WriteBatch> current = new ThreadLocal<>();
+
+    private final Map<SegmentLog, Long> pending = new IdentityHashMap<>();
+
+    /**
+     * Prevents direct instantiation.
+     */
+    private WriteBatch() {
+    }
+
+    /**
+     * Performs the given work committing all the records it writes as a single batch.
+     *
+     * <p>If called within another batch, the work joins the outer batch.
+     *
+     * @return the result of the work
+     */
+    public static <T> T run(Supplier<T> work) {
+        if (current.get() != null) {
+            return work.get();
+        }
+        WriteBatch batch = new WriteBatch();
+        current.set(batch);
+        try {
+            return work.get();
+        } finally {
+            current.remove();
+            batch.commit();
+        }
+    }
+
+    /**
+     * Defers the commit of the record appended to the given log, if called within a batch.
+     *
+     * @return {@code true} if the commit is deferred till the end of the batch,
+     *         {@code false} if there is no current batch and the record should be committed
+     *         right away
+     */
+    static boolean defer(SegmentLog log, long address) {
+        WriteBatch batch = current.get();
+        if (batch == null) {
+            return false;
+        }
+        batch.pending.merge(log, address, Math::max);
+        return true;
+    }
+
+    private void commit() {
+        pending.forEach(SegmentLog::commit);
+    }
+}
@@ -30,6 +30,7 @@ import io.spine.server.aggregate.Apply;
 import io.spine.server.command.Assign;
 import io.spine.tasks.Task;
 import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
 import io.spine.tasks.command.CreateTask;
 import io.spine.tasks.event.TaskCreated;
 
@@ -37,6 +38,7 @@ import io.spine.tasks.event.TaskCreated;
  * Definition of the {@code Task} aggregate.
  *
  * <p>Within this small example it only handles a single command and emits one event.
+ * The event may also be imported without the command.
  */
 public final class TaskAggregate extends Aggregate<TaskId, Task, Task.Builder> {
 
@@ -44,19 +46,31 @@ public final class TaskAggregate extends Aggregate<TaskId, Task, Task.Builder> {
         super(id);
     }
 
+    /**
+     * Handles the command to create a task.
+     *
+     * <p>The produced event carries the ID of this aggregate, which is always in the binary form,
+     * even if the command refers to the task by a legacy string ID.
+     */
     @Assign
     TaskCreated handle(CreateTask cmd) {
         TaskCreated result = TaskCreated
                 .newBuilder()
                 .setTitle(cmd.getTitle())
-                .setId(cmd.getId())
+                .setId(id())
                 .vBuild();
         return result;
     }
 
-    @Apply
+    /**
+     * Applies the event of a task creation.
+     *
+     * <p>The event may also be {@linkplain io.spine.tasks.server.bulk.TaskImport imported}
+     * to restore an exported task.
+     */
+    @Apply(allowImport = true)
     private void on(TaskCreated event) {
-        builder().setId(event.getId())
+        builder().setId(TaskIds.normalize(event.getId()))
                  .setTitle(event.getTitle());
     }
 }
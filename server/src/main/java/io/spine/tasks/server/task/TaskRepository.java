@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.task;
+
+import com.google.errorprone.annotations.OverridingMethodsMustInvokeSuper;
+import io.spine.server.aggregate.AggregateRepository;
+import io.spine.server.route.CommandRouting;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * The repository of {@link TaskAggregate}s.
+ *
+ * <p>Stores a snapshot of an aggregate next to its events each time the configured number of
+ * events is applied to the aggregate. Loading an aggregate then replays the events starting
+ * from its latest snapshot instead of the full history.
+ *
+ * <p>Routes the commands which refer to a task by a legacy string ID to the aggregate with
+ * the same ID in the binary form.
+ */
+public final class TaskRepository extends AggregateRepository<TaskId, TaskAggregate, Task> {
+
+    /**
+     * Creates a new repository.
+     *
+     * @param snapshotTrigger
+     *         the number of events after which a snapshot of an aggregate is stored
+     */
+    public TaskRepository(int snapshotTrigger) {
+        checkArgument(snapshotTrigger > 0, "The snapshot trigger must be positive.");
+        setSnapshotTrigger(snapshotTrigger);
+    }
+
+    @OverridingMethodsMustInvokeSuper
+    @Override
+    protected void setupCommandRouting(CommandRouting<TaskId> routing) {
+        super.setupCommandRouting(routing);
+        routing.route(CreateTask.class,
+                      (command, context) -> TaskIds.normalize(command.getId()));
+    }
+}
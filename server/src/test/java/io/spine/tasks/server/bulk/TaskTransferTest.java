@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.bulk;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.server.BoundedContext;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.storage.ColumnIndex;
+import io.spine.tasks.server.task.TaskRepository;
+import io.spine.tasks.server.task.TaskTitleIndexer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("Bulk transfer of `Task`s should")
+class TaskTransferTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    @DisplayName("with a `TaskFile`")
+    class FileFormat {
+
+        @Test
+        @DisplayName("read the written tasks in the same order")
+        void roundTrip() throws IOException {
+            ImmutableList<Task> tasks = tasks(1_000);
+            Path file = directory.resolve("tasks.bin");
+            write(file, tasks);
+
+            assertThat(read(file)).containsExactlyElementsIn(tasks)
+                                  .inOrder();
+        }
+
+        @Test
+        @DisplayName("read an empty file")
+        void empty() throws IOException {
+            Path file = directory.resolve("empty.bin");
+            write(file, ImmutableList.of());
+
+            assertThat(read(file)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("reject a file of another format")
+        void rejectForeign() throws IOException {
+            Path file = directory.resolve("foreign.bin");
+            Files.write(file, "Not a file of tasks".getBytes());
+
+            assertThrows(IOException.class, () -> TaskFile.newReader(file));
+        }
+    }
+
+    @Nested
+    @DisplayName("with a context")
+    class WithContext {
+
+        private ColumnIndex<TaskId> titleIndex;
+        private TaskRepository repository;
+        private BoundedContext context;
+
+        @BeforeEach
+        void createContext() {
+            titleIndex = ColumnIndex.inMemory(TaskIds.comparator());
+            repository = new TaskRepository(10);
+            context = BoundedContext
+                    .singleTenant("BulkTransferTest")
+                    .add(repository)
+                    .addEventDispatcher(new TaskTitleIndexer(titleIndex))
+                    .build();
+        }
+
+        @AfterEach
+        void closeContext() throws Exception {
+            context.close();
+        }
+
+        @Test
+        @DisplayName("import the tasks in batches and export them back")
+        void importAndExport() throws IOException {
+            ImmutableList<Task> tasks = tasks(BATCH_SIZE * 3 + 7);
+            Path imported = directory.resolve("imported.bin");
+            write(imported, tasks);
+
+            long importedCount = new TaskImport(context, BATCH_SIZE).readFrom(imported);
+            Path exported = directory.resolve("exported.bin");
+            long exportedCount = new TaskExport(repository).writeTo(exported);
+
+            assertThat(importedCount).isEqualTo(tasks.size());
+            assertThat(exportedCount).isEqualTo(tasks.size());
+            assertThat(read(exported)).containsExactlyElementsIn(tasks);
+        }
+
+        @Test
+        @DisplayName("publish the imported tasks to the subscribers")
+        void updateIndex() throws IOException {
+            ImmutableList<Task> tasks = tasks(10);
+            Path file = directory.resolve("tasks.bin");
+            write(file, tasks);
+
+            new TaskImport(context, BATCH_SIZE).readFrom(file);
+
+            for (Task task : tasks) {
+                assertThat(titleIndex.valueOf(task.getId())).hasValue(task.getTitle());
+            }
+        }
+    }
+
+    private static ImmutableList<Task> tasks(int count) {
+        ImmutableList.Builder<Task> tasks = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.newBuilder()
+                          .setId(TaskIds.generate())
+                          .setTitle("Task #" + i)
+                          .vBuild());
+        }
+        return tasks.build();
+    }
+
+    private static void write(Path file, ImmutableList<Task> tasks) throws IOException {
+        try (TaskFile.Writer writer = TaskFile.newWriter(file)) {
+            for (Task task : tasks) {
+                writer.write(task);
+            }
+        }
+    }
+
+    private static ImmutableList<Task> read(Path file) throws IOException {
+        ImmutableList.Builder<Task> tasks = ImmutableList.builder();
+        try (TaskFile.Reader reader = TaskFile.newReader(file)) {
+            for (Task task = reader.next(); task != null; task = reader.next()) {
+                tasks.add(task);
+            }
+        }
+        return tasks.build();
+    }
+}
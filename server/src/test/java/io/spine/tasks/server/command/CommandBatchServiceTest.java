@@ -0,0 +1,167 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.CommandId;
+import io.spine.tasks.batch.CommandBatch;
+import io.spine.tasks.batch.CommandBatchAck;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`CommandBatchService` should")
+class CommandBatchServiceTest {
+
+    private final FailingService delegate = new FailingService();
+    private final CommandBatchService service = new CommandBatchService(delegate);
+
+    @Test
+    @DisplayName("acknowledge a failed command with an error and the others as usual")
+    void failOneCommand() {
+        ImmutableList<Command> commands = ImmutableList.of(newCommand(),
+                                                           newCommand(),
+                                                           newCommand());
+        delegate.rejected.add(commands.get(1)
+                                      .getId());
+
+        CommandBatchAck acks = service.post(batch(commands));
+
+        assertThat(acks.getAckCount()).isEqualTo(3);
+        assertOk(acks.getAck(0), commands.get(0));
+        assertError(acks.getAck(1), commands.get(1));
+        assertThat(AdmittingCommandService.isOverload(acks.getAck(1))).isFalse();
+        assertOk(acks.getAck(2), commands.get(2));
+    }
+
+    @Test
+    @DisplayName("acknowledge the commands rejected under overload with the overload error")
+    void overload() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 1, Duration.ofSeconds(1));
+        CommandBatchService admitting =
+                new CommandBatchService(new AdmittingCommandService(delegate, limit));
+        ConcurrencyLimit.Permit busy = limit.tryAcquire()
+                                            .orElseThrow(AssertionError::new);
+        ImmutableList<Command> commands = ImmutableList.of(newCommand(), newCommand());
+
+        CommandBatchAck rejected = admitting.post(batch(commands));
+
+        assertThat(rejected.getAckCount()).isEqualTo(2);
+        for (int i = 0; i < commands.size(); i++) {
+            assertError(rejected.getAck(i), commands.get(i));
+            assertThat(AdmittingCommandService.isOverload(rejected.getAck(i))).isTrue();
+        }
+
+        busy.release();
+        CommandBatchAck admitted = admitting.post(batch(commands));
+
+        assertOk(admitted.getAck(0), commands.get(0));
+        assertOk(admitted.getAck(1), commands.get(1));
+    }
+
+    @Test
+    @DisplayName("acknowledge a command with an error if the command service throws")
+    void throwOnPost() {
+        ImmutableList<Command> commands = ImmutableList.of(newCommand(), newCommand());
+        delegate.thrown.add(commands.get(0)
+                                    .getId());
+
+        CommandBatchAck acks = service.post(batch(commands));
+
+        assertError(acks.getAck(0), commands.get(0));
+        assertOk(acks.getAck(1), commands.get(1));
+    }
+
+    private static void assertOk(Ack ack, Command command) {
+        assertThat(ack.getMessageId()).isEqualTo(Identifier.pack(command.getId()));
+        assertThat(ack.getStatus()
+                      .hasError()).isFalse();
+    }
+
+    private static void assertError(Ack ack, Command command) {
+        assertThat(ack.getMessageId()).isEqualTo(Identifier.pack(command.getId()));
+        assertThat(ack.getStatus()
+                      .hasError()).isTrue();
+    }
+
+    private static CommandBatch batch(ImmutableList<Command> commands) {
+        return CommandBatch
+                .newBuilder()
+                .addAllCommand(commands)
+                .build();
+    }
+
+    private static Command newCommand() {
+        CommandId id = CommandId
+                .newBuilder()
+                .setUuid(Identifier.newUuid())
+                .build();
+        return Command
+                .newBuilder()
+                .setId(id)
+                .build();
+    }
+
+    /**
+     * A command service which rejects or throws on the given commands and acknowledges
+     * the others.
+     */
+    private static final class FailingService extends CommandServiceImplBase {
+
+        private final Set<CommandId> rejected = new HashSet<>();
+        private final Set<CommandId> thrown = new HashSet<>();
+
+        @Override
+        public void post(Command request, StreamObserver<Ack> responseObserver) {
+            CommandId id = request.getId();
+            if (thrown.contains(id)) {
+                throw new IllegalStateException("Unable to post the command.");
+            }
+            if (rejected.contains(id)) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                return;
+            }
+            Ack ack = Ack
+                    .newBuilder()
+                    .setMessageId(Identifier.pack(id))
+                    .build();
+            responseObserver.onNext(ack);
+            responseObserver.onCompleted();
+        }
+    }
+}
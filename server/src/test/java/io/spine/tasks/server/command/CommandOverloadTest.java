@@ -0,0 +1,204 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import com.google.common.flogger.FluentLogger;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.tasks.metrics.LatencyHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.UnaryOperator;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Overloads a command service which handles the commands one by one, with and without
+ * the admission control.
+ *
+ * <p>The producers post the commands about four times faster than the service handles them.
+ * Without the admission control, the queue of the service grows for as long as the overload
+ * lasts, and so does the latency of the commands. With it, the excess commands are rejected,
+ * and the latency of the admitted commands stays around the target.
+ *
+ * <p>The test reports the measured latencies and checks only the properties which do not
+ * depend on the performance of the build machine, such as the bound of the queue.
+ */
+@DisplayName("Command service under overload should")
+class CommandOverloadTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int PRODUCERS = 8;
+    private static final long POST_INTERVAL = MILLISECONDS.toNanos(1);
+    private static final long SERVICE_TIME = MICROSECONDS.toNanos(500);
+    private static final Duration OVERLOAD = Duration.ofMillis(500);
+    private static final Duration LATENCY_TARGET = Duration.ofMillis(20);
+    private static final int MAX_LIMIT = 256;
+
+    @Test
+    @DisplayName("keep the queue and the latency bounded with the admission control")
+    void admission() throws InterruptedException {
+        ConcurrencyLimit limit = new ConcurrencyLimit(8, MAX_LIMIT, LATENCY_TARGET);
+        Outcome outcome = overload(service -> new AdmittingCommandService(service, limit));
+
+        assertThat(outcome.rejected.sum()).isGreaterThan(0L);
+        assertThat(outcome.rejected.sum()).isEqualTo(limit.rejected());
+        assertThat(outcome.failed.sum()).isEqualTo(0L);
+        assertThat(outcome.maxQueued).isAtMost(MAX_LIMIT);
+        assertThat(limit.inFlight()).isEqualTo(0);
+        log.at(Level.INFO)
+           .log("With the admission control: %s; the final limit is %d.",
+                outcome, limit.limit());
+    }
+
+    @Test
+    @DisplayName("let the queue and the latency grow without the admission control")
+    void noAdmission() throws InterruptedException {
+        Outcome outcome = overload(UnaryOperator.identity());
+
+        assertThat(outcome.rejected.sum()).isEqualTo(0L);
+        assertThat(outcome.failed.sum()).isEqualTo(0L);
+        assertThat(outcome.maxQueued).isGreaterThan(MAX_LIMIT);
+        log.at(Level.INFO)
+           .log("Without the admission control: %s.", outcome);
+    }
+
+    private static Outcome overload(UnaryOperator<CommandServiceImplBase> entrance)
+            throws InterruptedException {
+        SerialService service = new SerialService();
+        CommandServiceImplBase commandService = entrance.apply(service);
+        Outcome outcome = new Outcome();
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+        long end = System.nanoTime() + OVERLOAD.toNanos();
+        for (int i = 0; i < PRODUCERS; i++) {
+            producers.execute(() -> {
+                while (System.nanoTime() < end) {
+                    commandService.post(Command.getDefaultInstance(), new Recorder(outcome));
+                    LockSupport.parkNanos(POST_INTERVAL);
+                }
+            });
+        }
+        producers.shutdown();
+        assertThat(producers.awaitTermination(10, SECONDS)).isTrue();
+        service.executor.shutdown();
+        assertThat(service.executor.awaitTermination(1, MINUTES)).isTrue();
+        outcome.maxQueued = service.maxQueued.get();
+        return outcome;
+    }
+
+    /**
+     * A command service which handles the commands one by one, taking
+     * the {@linkplain #SERVICE_TIME same time} for each.
+     */
+    private static final class SerialService extends CommandServiceImplBase {
+
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxQueued = new AtomicInteger();
+
+        @Override
+        public void post(Command request, StreamObserver<Ack> responseObserver) {
+            maxQueued.accumulateAndGet(queued.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                LockSupport.parkNanos(SERVICE_TIME);
+                queued.decrementAndGet();
+                responseObserver.onNext(Ack.getDefaultInstance());
+                responseObserver.onCompleted();
+            });
+        }
+    }
+
+    /**
+     * Records the outcome of a single command.
+     */
+    private static final class Recorder implements StreamObserver<Ack> {
+
+        private final Outcome outcome;
+        private final long start = System.nanoTime();
+
+        private Recorder(Outcome outcome) {
+            this.outcome = outcome;
+        }
+
+        @Override
+        public void onNext(Ack value) {
+            outcome.latency.recordSince(start);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            if (AdmittingCommandService.isOverload(t)) {
+                outcome.rejected.increment();
+            } else {
+                outcome.failed.increment();
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            // The latency is recorded on the acknowledgement.
+        }
+    }
+
+    /**
+     * The results of an overload run.
+     */
+    private static final class Outcome {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private int maxQueued;
+
+        @Override
+        public String toString() {
+            LatencyHistogram.Snapshot snapshot = latency.snapshot();
+            return String.format("%d commands acknowledged with the p99 latency of %d ms, "
+                                         + "%d rejected, at most %d queued",
+                                 snapshot.count(),
+                                 NANOSECONDS.toMillis(snapshot.valueAt(99)),
+                                 rejected.sum(),
+                                 maxQueued);
+        }
+    }
+}
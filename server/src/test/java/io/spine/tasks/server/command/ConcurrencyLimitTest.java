@@ -0,0 +1,170 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ConcurrencyLimit` should")
+class ConcurrencyLimitTest {
+
+    private static final Duration TARGET = Duration.ofMillis(100);
+
+    private ManualTicker ticker;
+    private ConcurrencyLimit limit;
+
+    @BeforeEach
+    void createLimit() {
+        ticker = new ManualTicker();
+        limit = new ConcurrencyLimit(10, 20, TARGET, ticker);
+    }
+
+    @Test
+    @DisplayName("reject the commands above the limit")
+    void reject() {
+        ImmutableList<ConcurrencyLimit.Permit> permits = acquire(10);
+
+        assertThat(limit.tryAcquire().isPresent()).isFalse();
+        assertThat(limit.rejected()).isEqualTo(1);
+        assertThat(limit.inFlight()).isEqualTo(10);
+
+        permits.get(0)
+               .release();
+        assertThat(limit.tryAcquire().isPresent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("grow by about one per round of fast commands")
+    void grow() {
+        acquire(10).forEach(ConcurrencyLimit.Permit::release);
+
+        assertThat(limit.limit()).isEqualTo(10);
+        acquire(10).forEach(ConcurrencyLimit.Permit::release);
+        assertThat(limit.limit()).isEqualTo(11);
+    }
+
+    @Test
+    @DisplayName("not grow above the maximum")
+    void maximum() {
+        for (int round = 0; round < 100; round++) {
+            acquire(limit.limit()).forEach(ConcurrencyLimit.Permit::release);
+        }
+
+        assertThat(limit.limit()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("not grow while the load is light")
+    void lightLoad() {
+        for (int round = 0; round < 100; round++) {
+            acquire(2).forEach(ConcurrencyLimit.Permit::release);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("shrink once per round of slow commands")
+    void shrink() {
+        ticker.advance(Duration.ofMillis(1));
+        ImmutableList<ConcurrencyLimit.Permit> permits = acquire(10);
+        ticker.advance(TARGET.multipliedBy(2));
+        permits.forEach(ConcurrencyLimit.Permit::release);
+
+        assertThat(limit.limit()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("shrink when a command fails")
+    void failure() {
+        ticker.advance(Duration.ofMillis(1));
+        acquire(1).get(0)
+                  .fail();
+
+        assertThat(limit.limit()).isEqualTo(9);
+    }
+
+    @Test
+    @DisplayName("not go below one command")
+    void minimum() {
+        for (int round = 0; round < 100; round++) {
+            ticker.advance(Duration.ofMillis(1));
+            acquire(1).get(0)
+                      .fail();
+        }
+
+        assertThat(limit.limit()).isEqualTo(1);
+        assertThat(limit.tryAcquire().isPresent()).isTrue();
+    }
+
+    @Test
+    @DisplayName("release a permit only once")
+    void releaseOnce() {
+        ConcurrencyLimit.Permit permit = acquire(2).get(0);
+        permit.release();
+        permit.fail();
+
+        assertThat(limit.inFlight()).isEqualTo(1);
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    private ImmutableList<ConcurrencyLimit.Permit> acquire(int count) {
+        ImmutableList.Builder<ConcurrencyLimit.Permit> result = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            Optional<ConcurrencyLimit.Permit> permit = limit.tryAcquire();
+            assertThat(permit.isPresent()).isTrue();
+            result.add(permit.get());
+        }
+        return result.build();
+    }
+
+    /**
+     * A ticker which is moved forward by the test.
+     */
+    private static final class ManualTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        private void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
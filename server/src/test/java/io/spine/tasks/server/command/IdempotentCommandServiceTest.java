@@ -0,0 +1,278 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multiset;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.CommandId;
+import io.spine.protobuf.AnyPacker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`IdempotentCommandService` should")
+class IdempotentCommandServiceTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(5);
+
+    private ManualTicker ticker;
+    private RecentCommands recentCommands;
+    private CountingService delegate;
+    private IdempotentCommandService service;
+
+    @BeforeEach
+    void createService() {
+        ticker = new ManualTicker();
+        recentCommands = new RecentCommands(1_000, WINDOW, ticker);
+        delegate = new CountingService();
+        service = new IdempotentCommandService(delegate, recentCommands);
+    }
+
+    @AfterEach
+    void shutDown() {
+        delegate.executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("handle each command once in a storm of retries")
+    void retryStorm() throws Exception {
+        int threads = 8;
+        ImmutableList<Command> commands = IntStream.range(0, 100)
+                                                   .mapToObj(i -> newCommand())
+                                                   .collect(toImmutableList());
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ImmutableList.Builder<Future<ImmutableList<Ack>>> results = ImmutableList.builder();
+        for (int i = 0; i < threads; i++) {
+            results.add(clients.submit(() -> {
+                start.await();
+                ImmutableList.Builder<AckObserver> acks = ImmutableList.builder();
+                for (Command command : commands) {
+                    AckObserver ack = new AckObserver();
+                    service.post(command, ack);
+                    acks.add(ack);
+                }
+                ImmutableList.Builder<Ack> received = ImmutableList.builder();
+                for (AckObserver ack : acks.build()) {
+                    received.add(ack.ack().get(10, SECONDS));
+                }
+                return received.build();
+            }));
+        }
+        start.countDown();
+        delegate.release();
+
+        for (Future<ImmutableList<Ack>> result : results.build()) {
+            ImmutableList<Ack> acks = result.get(1, MINUTES);
+            for (int i = 0; i < commands.size(); i++) {
+                String id = commands.get(i)
+                                    .getId()
+                                    .getUuid();
+                assertThat(acks.get(i)).isSameInstanceAs(delegate.acks.get(id));
+            }
+        }
+        clients.shutdown();
+        for (Command command : commands) {
+            assertThat(delegate.posted.count(command.getId()
+                                                    .getUuid())).isEqualTo(1);
+        }
+        assertThat(recentCommands.repeats()).isEqualTo((threads - 1) * commands.size());
+    }
+
+    @Test
+    @DisplayName("handle the repeat of a failed command as a new command")
+    void retryAfterError() throws Exception {
+        Command command = newCommand();
+        delegate.fail = true;
+        delegate.release();
+        AckObserver failed = new AckObserver();
+        service.post(command, failed);
+        assertThrows(ExecutionException.class, () -> failed.ack().get(10, SECONDS));
+
+        delegate.fail = false;
+        AckObserver retried = new AckObserver();
+        service.post(command, retried);
+
+        assertThat(retried.ack().get(10, SECONDS)).isNotNull();
+        assertThat(delegate.posted.count(command.getId()
+                                                .getUuid())).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("handle a command repeated after the time window as a new command")
+    void retryAfterWindow() throws Exception {
+        Command command = newCommand();
+        delegate.release();
+        AckObserver original = new AckObserver();
+        service.post(command, original);
+        original.ack().get(10, SECONDS);
+
+        ticker.advance(WINDOW.plusSeconds(1));
+        AckObserver late = new AckObserver();
+        service.post(command, late);
+        late.ack().get(10, SECONDS);
+
+        assertThat(delegate.posted.count(command.getId()
+                                                .getUuid())).isEqualTo(2);
+        assertThat(recentCommands.repeats()).isEqualTo(0);
+        assertThat(recentCommands.evicted()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("handle a command repeated after it is evicted as a new command")
+    void retryAfterEviction() throws Exception {
+        RecentCommands single = new RecentCommands(1, WINDOW, ticker);
+        IdempotentCommandService service = new IdempotentCommandService(delegate, single);
+        Command first = newCommand();
+        Command second = newCommand();
+        delegate.release();
+
+        for (Command command : ImmutableList.of(first, second, first)) {
+            AckObserver observer = new AckObserver();
+            service.post(command, observer);
+            observer.ack().get(10, SECONDS);
+        }
+
+        assertThat(delegate.posted.count(first.getId()
+                                              .getUuid())).isEqualTo(2);
+        assertThat(single.repeats()).isEqualTo(0);
+        assertThat(single.evicted()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("pass the commands without an ID to the delegate")
+    void withoutId() throws Exception {
+        delegate.release();
+        Command command = Command.getDefaultInstance();
+        for (int i = 0; i < 3; i++) {
+            AckObserver ack = new AckObserver();
+            service.post(command, ack);
+            ack.ack().get(10, SECONDS);
+        }
+
+        assertThat(delegate.posted.count("")).isEqualTo(3);
+        assertThat(recentCommands.repeats()).isEqualTo(0);
+    }
+
+    private static Command newCommand() {
+        CommandId id = CommandId
+                .newBuilder()
+                .setUuid(Identifier.newUuid())
+                .build();
+        return Command
+                .newBuilder()
+                .setId(id)
+                .build();
+    }
+
+    /**
+     * A command service which counts the posted commands and acknowledges them asynchronously
+     * once {@linkplain #release() released}.
+     */
+    private static final class CountingService extends CommandServiceImplBase {
+
+        private final Multiset<String> posted = ConcurrentHashMultiset.create();
+        private final Map<String, Ack> acks = new ConcurrentHashMap<>();
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final ExecutorService executor = Executors.newSingleThreadExecutor();
+        private volatile boolean fail;
+
+        @Override
+        public void post(Command request, StreamObserver<Ack> responseObserver) {
+            String id = request.getId()
+                               .getUuid();
+            posted.add(id);
+            boolean failing = fail;
+            executor.execute(() -> {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                          .interrupt();
+                    return;
+                }
+                if (failing) {
+                    responseObserver.onError(new IllegalStateException("Failed: " + id));
+                    return;
+                }
+                Ack ack = Ack
+                        .newBuilder()
+                        .setMessageId(AnyPacker.pack(request.getId()))
+                        .build();
+                acks.put(id, ack);
+                responseObserver.onNext(ack);
+                responseObserver.onCompleted();
+            });
+        }
+
+        private void release() {
+            released.countDown();
+        }
+    }
+
+    /**
+     * A ticker which is moved forward by the test.
+     */
+    private static final class ManualTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+
+        private void advance(Duration duration) {
+            nanos.addAndGet(duration.toNanos());
+        }
+    }
+}
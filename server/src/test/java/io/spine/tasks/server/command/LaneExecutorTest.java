@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.command;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+@DisplayName("`LaneExecutor` should")
+class LaneExecutorTest {
+
+    private LaneExecutor lanes;
+
+    @AfterEach
+    void closeLanes() {
+        if (lanes != null) {
+            lanes.close();
+        }
+    }
+
+    @Test
+    @DisplayName("run the tasks of a lane in the order of submission")
+    void order() throws InterruptedException {
+        lanes = new LaneExecutor(4, 16, "test-lane");
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            int task = i;
+            lanes.execute(1, () -> {
+                executed.add(task);
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, SECONDS)).isTrue();
+        ImmutableList<Integer> expected = IntStream.range(0, 1_000)
+                                                   .boxed()
+                                                   .collect(toImmutableList());
+        assertThat(executed).containsExactlyElementsIn(expected)
+                            .inOrder();
+    }
+
+    @Test
+    @DisplayName("run the tasks of different lanes in parallel")
+    void parallel() throws InterruptedException {
+        lanes = new LaneExecutor(2, 16, "test-lane");
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+        for (int lane = 0; lane < 2; lane++) {
+            lanes.execute(lane, () -> {
+                bothStarted.countDown();
+                try {
+                    if (bothStarted.await(10, SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread()
+                          .interrupt();
+                }
+            });
+        }
+
+        assertThat(done.await(10, SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("keep the submitting thread waiting while the lane is full")
+    void backpressure() throws InterruptedException {
+        lanes = new LaneExecutor(1, 1, "test-lane");
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.execute(0, () -> awaitQuietly(release));
+        lanes.execute(0, () -> {});
+        Thread producer = new Thread(() -> {
+            try {
+                lanes.execute(0, () -> {});
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                      .interrupt();
+            }
+        });
+        producer.start();
+        producer.join(SECONDS.toMillis(1));
+
+        assertThat(producer.isAlive()).isTrue();
+        release.countDown();
+        producer.join(SECONDS.toMillis(10));
+        assertThat(producer.isAlive()).isFalse();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                  .interrupt();
+        }
+    }
+}
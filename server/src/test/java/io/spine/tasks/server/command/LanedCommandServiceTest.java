@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.command;
+
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`LanedCommandService` should")
+class LanedCommandServiceTest {
+
+    private final LaneExecutor lanes = new LaneExecutor(2, 16, "test-lane");
+
+    @AfterEach
+    void closeLanes() {
+        lanes.close();
+    }
+
+    @Test
+    @DisplayName("fail the command if the delegate throws on a lane")
+    void delegateThrows() throws Exception {
+        CommandServiceImplBase throwing = new CommandServiceImplBase() {
+            @Override
+            public void post(Command request, StreamObserver<Ack> responseObserver) {
+                throw new IllegalStateException("Unable to handle the command.");
+            }
+        };
+        LanedCommandService service = new LanedCommandService(throwing, lanes, id -> 0);
+        AckObserver failed = new AckObserver();
+        service.post(createTask(), failed);
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> failed.ack().get(10, SECONDS));
+        assertThat(e.getCause()).isInstanceOf(StatusRuntimeException.class);
+
+        AckObserver next = new AckObserver();
+        CommandServiceImplBase acknowledging = new CommandServiceImplBase() {
+            @Override
+            public void post(Command request, StreamObserver<Ack> responseObserver) {
+                responseObserver.onNext(Ack.getDefaultInstance());
+                responseObserver.onCompleted();
+            }
+        };
+        new LanedCommandService(acknowledging, lanes, id -> 0).post(createTask(), next);
+        assertThat(next.ack().get(10, SECONDS)).isNotNull();
+    }
+
+    private static Command createTask() {
+        CreateTask message = CreateTask
+                .newBuilder()
+                .setId(TaskIds.generate())
+                .setTitle("Task")
+                .build();
+        return Command
+                .newBuilder()
+                .setMessage(AnyPacker.pack(message))
+                .build();
+    }
+}
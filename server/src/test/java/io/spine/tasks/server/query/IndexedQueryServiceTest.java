@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.Filters.eq;
+import static io.spine.client.Filters.ge;
+import static io.spine.client.Filters.lt;
+import static io.spine.client.OrderBy.Direction.ASCENDING;
+import static io.spine.client.OrderBy.Direction.DESCENDING;
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static io.spine.tasks.server.query.TitleQueryPlan.TITLE;
+
+@DisplayName("`IndexedQueryService` should")
+class IndexedQueryServiceTest {
+
+    private IndexedTasks tasks;
+    private IndexedQueryService indexed;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new IndexedTasks();
+        indexed = new IndexedQueryService(tasks.queryService(), tasks.titleIndex());
+        tasks.create("delta");
+        tasks.create("bravo");
+        tasks.create("echo");
+        tasks.create("alpha");
+        tasks.create("bravo");
+        tasks.create("charlie");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        tasks.close();
+    }
+
+    @Test
+    @DisplayName("find the tasks by title as the plain query service does")
+    void byTitle() {
+        Query query = tasks.requests()
+                           .query()
+                           .select(Task.class)
+                           .where(eq(TITLE, "bravo"))
+                           .build();
+
+        ImmutableList<Task> expected = read(tasks.queryService(), query);
+
+        assertThat(expected).hasSize(2);
+        assertThat(read(indexed, query)).containsExactlyElementsIn(expected);
+    }
+
+    @Test
+    @DisplayName("find the tasks in a range of titles as the plain query service does")
+    void byRange() {
+        Query query = tasks.requests()
+                           .query()
+                           .select(Task.class)
+                           .where(ge(TITLE, "bravo"), lt(TITLE, "echo"))
+                           .build();
+
+        ImmutableList<Task> expected = read(tasks.queryService(), query);
+
+        assertThat(expected).hasSize(4);
+        assertThat(read(indexed, query)).containsExactlyElementsIn(expected);
+    }
+
+    @Test
+    @DisplayName("order and limit the tasks as the plain query service does")
+    void orderedAndLimited() {
+        Query ascending = tasks.requests()
+                               .query()
+                               .select(Task.class)
+                               .where(ge(TITLE, "charlie"))
+                               .orderBy(TITLE, ASCENDING)
+                               .limit(2)
+                               .build();
+        Query descending = tasks.requests()
+                                .query()
+                                .select(Task.class)
+                                .orderBy(TITLE, DESCENDING)
+                                .limit(3)
+                                .build();
+
+        assertThat(read(indexed, ascending))
+                .containsExactlyElementsIn(read(tasks.queryService(), ascending))
+                .inOrder();
+        assertThat(read(indexed, descending))
+                .containsExactlyElementsIn(read(tasks.queryService(), descending))
+                .inOrder();
+    }
+
+    @Test
+    @DisplayName("find no tasks by the disjoint filters")
+    void nothing() {
+        Query query = tasks.requests()
+                           .query()
+                           .select(Task.class)
+                           .where(lt(TITLE, "bravo"), ge(TITLE, "delta"))
+                           .build();
+
+        assertThat(read(indexed, query)).isEmpty();
+        assertThat(read(tasks.queryService(), query)).isEmpty();
+    }
+
+    private static ImmutableList<Task> read(QueryServiceImplBase service, Query query) {
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+        service.read(query, observer);
+        assertThat(observer.getError()).isNull();
+        return observer.firstResponse()
+                       .getMessageList()
+                       .stream()
+                       .map(EntityStateWithVersion::getState)
+                       .map(state -> AnyPacker.unpack(state, Task.class))
+                       .collect(toImmutableList());
+    }
+}
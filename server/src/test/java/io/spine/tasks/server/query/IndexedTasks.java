@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.query;
+
+import io.spine.client.ActorRequestFactory;
+import io.spine.core.UserId;
+import io.spine.server.BoundedContext;
+import io.spine.server.CommandService;
+import io.spine.server.QueryService;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.server.storage.ColumnIndex;
+import io.spine.tasks.server.task.TaskRepository;
+import io.spine.tasks.server.task.TaskTitleIndexer;
+
+import static io.spine.grpc.StreamObservers.noOpObserver;
+
+/**
+ * A {@code Tasks} context with the index of the titles, for the tests of the query services.
+ */
+final class IndexedTasks implements AutoCloseable {
+
+    private final ColumnIndex<TaskId> titleIndex = ColumnIndex.inMemory(TaskIds.comparator());
+    private final BoundedContext context;
+    private final CommandService commandService;
+    private final QueryService queryService;
+    private final ActorRequestFactory requests = ActorRequestFactory
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue("IndexedTasks")
+                            .build())
+            .build();
+
+    IndexedTasks() {
+        context = BoundedContext
+                .singleTenant("IndexedTasks")
+                .add(new TaskRepository(10))
+                .addEventDispatcher(new TaskTitleIndexer(titleIndex))
+                .build();
+        commandService = CommandService
+                .newBuilder()
+                .add(context)
+                .build();
+        queryService = QueryService
+                .newBuilder()
+                .add(context)
+                .build();
+    }
+
+    /**
+     * Creates a task with the given title.
+     *
+     * @return the ID of the created task
+     */
+    TaskId create(String title) {
+        TaskId id = TaskIds.generate();
+        CreateTask command = CreateTask
+                .newBuilder()
+                .setId(id)
+                .setTitle(title)
+                .vBuild();
+        commandService.post(requests.command()
+                                    .create(command), noOpObserver());
+        return id;
+    }
+
+    ColumnIndex<TaskId> titleIndex() {
+        return titleIndex;
+    }
+
+    QueryService queryService() {
+        return queryService;
+    }
+
+    ActorRequestFactory requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() throws Exception {
+        context.close();
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.ImmutableList;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.paging.TaskPage;
+import io.spine.tasks.paging.TaskPageRequest;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`TaskQueryService` should")
+class TaskQueryServiceTest {
+
+    private IndexedTasks tasks;
+    private TaskQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        tasks = new IndexedTasks();
+        service = new TaskQueryService(tasks.queryService(), tasks.titleIndex());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        tasks.close();
+    }
+
+    @Nested
+    @DisplayName("read the pages")
+    class Pages {
+
+        @Test
+        @DisplayName("in the order of the titles and IDs, if the titles are the same")
+        void sameTitles() {
+            TaskId other = tasks.create("other");
+            List<TaskId> same = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                same.add(tasks.create("same"));
+            }
+            same.sort(TaskIds.comparator());
+
+            ImmutableList<TaskId> read = readAll(2).stream()
+                                                   .map(Task::getId)
+                                                   .collect(toImmutableList());
+
+            assertThat(read).containsExactly(other, same.get(0), same.get(1), same.get(2),
+                                             same.get(3), same.get(4))
+                            .inOrder();
+        }
+
+        @Test
+        @DisplayName("without the cursor after the last page")
+        void lastPage() {
+            tasks.create("alpha");
+            tasks.create("bravo");
+            tasks.create("charlie");
+
+            TaskPage first = service.readPage(request(2, ""));
+            TaskPage last = service.readPage(request(2, first.getNextCursor()));
+
+            assertThat(titles(first.getTaskList())).containsExactly("alpha", "bravo")
+                                                   .inOrder();
+            assertThat(titles(last.getTaskList())).containsExactly("charlie");
+            assertThat(last.getNextCursor()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("after the cursor, including the tasks created between the pages")
+        void createdBetween() {
+            tasks.create("bravo");
+            tasks.create("delta");
+            tasks.create("foxtrot");
+            tasks.create("hotel");
+
+            TaskPage first = service.readPage(request(2, ""));
+            tasks.create("alpha");
+            tasks.create("echo");
+            TaskPage second = service.readPage(request(2, first.getNextCursor()));
+            TaskPage third = service.readPage(request(2, second.getNextCursor()));
+
+            assertThat(titles(first.getTaskList())).containsExactly("bravo", "delta")
+                                                   .inOrder();
+            assertThat(titles(second.getTaskList())).containsExactly("echo", "foxtrot")
+                                                    .inOrder();
+            assertThat(titles(third.getTaskList())).containsExactly("hotel");
+            assertThat(third.getNextCursor()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("of at most 1000 tasks")
+        void maxPageSize() {
+            for (int i = 0; i <= 1_000; i++) {
+                tasks.create(String.format("task %04d", i));
+            }
+
+            TaskPage page = service.readPage(request(5_000, ""));
+
+            assertThat(page.getTaskCount()).isEqualTo(1_000);
+            assertThat(page.getNextCursor()).isNotEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("reject a malformed cursor")
+    void malformedCursor() {
+        tasks.create("alpha");
+
+        assertInvalid(request(2, "not a cursor"));
+        assertInvalid(request(2, "_w"));
+    }
+
+    @Test
+    @DisplayName("stream the tasks only while the transport is ready")
+    void backpressure() {
+        tasks.create("echo");
+        tasks.create("alpha");
+        tasks.create("delta");
+        tasks.create("bravo");
+        tasks.create("charlie");
+        StreamCall call = new StreamCall();
+
+        service.stream(request(2, ""), call);
+        assertThat(call.received).isEmpty();
+
+        call.allow(3);
+        assertThat(titles(call.received)).containsExactly("alpha", "bravo", "charlie")
+                                         .inOrder();
+        assertThat(call.completed).isFalse();
+
+        call.allow(10);
+        assertThat(titles(call.received))
+                .containsExactly("alpha", "bravo", "charlie", "delta", "echo")
+                .inOrder();
+        assertThat(call.completed).isTrue();
+    }
+
+    private ImmutableList<Task> readAll(int pageSize) {
+        ImmutableList.Builder<Task> result = ImmutableList.builder();
+        String cursor = "";
+        do {
+            TaskPage page = service.readPage(request(pageSize, cursor));
+            result.addAll(page.getTaskList());
+            cursor = page.getNextCursor();
+        } while (!cursor.isEmpty());
+        return result.build();
+    }
+
+    private void assertInvalid(TaskPageRequest request) {
+        StatusRuntimeException exception =
+                assertThrows(StatusRuntimeException.class, () -> service.readPage(request));
+        assertThat(exception.getStatus()
+                            .getCode()).isEqualTo(Status.Code.INVALID_ARGUMENT);
+    }
+
+    private TaskPageRequest request(int pageSize, String cursor) {
+        return TaskPageRequest
+                .newBuilder()
+                .setQuery(tasks.requests()
+                               .query()
+                               .all(Task.class))
+                .setPageSize(pageSize)
+                .setCursor(cursor)
+                .build();
+    }
+
+    private static ImmutableList<String> titles(List<Task> tasks) {
+        return tasks.stream()
+                    .map(Task::getTitle)
+                    .collect(toImmutableList());
+    }
+
+    /**
+     * A server call which is ready to send a given number of the messages.
+     */
+    private static final class StreamCall extends ServerCallStreamObserver<Task> {
+
+        private final List<Task> received = new ArrayList<>();
+        private int credit;
+        private boolean completed;
+        private @Nullable Runnable onReady;
+
+        /**
+         * Allows the given number of the messages more and notifies the stream.
+         */
+        private void allow(int messages) {
+            credit += messages;
+            if (onReady != null) {
+                onReady.run();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return credit > 0;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReady = onReadyHandler;
+        }
+
+        @Override
+        public void onNext(Task value) {
+            assertThat(credit).isGreaterThan(0);
+            credit--;
+            received.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new AssertionError(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            // The call is never cancelled.
+        }
+
+        @Override
+        public void setCompression(String compression) {
+            // Not used by the stream.
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+            // Not used by the stream.
+        }
+
+        @Override
+        public void request(int count) {
+            // Not used by the stream.
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+            // Not used by the stream.
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.query;
+
+import com.google.common.collect.Range;
+import com.google.protobuf.StringValue;
+import io.spine.base.FieldPath;
+import io.spine.base.Identifier;
+import io.spine.client.CompositeFilter;
+import io.spine.client.Filter;
+import io.spine.client.IdFilter;
+import io.spine.client.OrderBy;
+import io.spine.client.Query;
+import io.spine.client.ResponseFormat;
+import io.spine.client.Target;
+import io.spine.client.TargetFilters;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.type.TypeUrl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static io.spine.client.CompositeFilter.CompositeOperator.ALL;
+import static io.spine.client.CompositeFilter.CompositeOperator.EITHER;
+import static io.spine.client.Filter.Operator.EQUAL;
+import static io.spine.client.Filter.Operator.GREATER_OR_EQUAL;
+import static io.spine.client.Filter.Operator.GREATER_THAN;
+import static io.spine.client.Filter.Operator.LESS_OR_EQUAL;
+import static io.spine.client.Filter.Operator.LESS_THAN;
+import static io.spine.client.OrderBy.Direction.ASCENDING;
+import static io.spine.client.OrderBy.Direction.DESCENDING;
+
+@DisplayName("`TitleQueryPlan` should")
+class TitleQueryPlanTest {
+
+    @Nested
+    @DisplayName("turn a title filter into a range")
+    class Operators {
+
+        @Test
+        @DisplayName("for `EQUAL`")
+        void equal() {
+            assertThat(rangeOf(title(EQUAL, "b"))).isEqualTo(Range.singleton("b"));
+        }
+
+        @Test
+        @DisplayName("for `GREATER_THAN`")
+        void greaterThan() {
+            assertThat(rangeOf(title(GREATER_THAN, "b"))).isEqualTo(Range.greaterThan("b"));
+        }
+
+        @Test
+        @DisplayName("for `GREATER_OR_EQUAL`")
+        void greaterOrEqual() {
+            assertThat(rangeOf(title(GREATER_OR_EQUAL, "b"))).isEqualTo(Range.atLeast("b"));
+        }
+
+        @Test
+        @DisplayName("for `LESS_THAN`")
+        void lessThan() {
+            assertThat(rangeOf(title(LESS_THAN, "b"))).isEqualTo(Range.lessThan("b"));
+        }
+
+        @Test
+        @DisplayName("for `LESS_OR_EQUAL`")
+        void lessOrEqual() {
+            assertThat(rangeOf(title(LESS_OR_EQUAL, "b"))).isEqualTo(Range.atMost("b"));
+        }
+
+        private Range<String> rangeOf(Filter filter) {
+            Query query = query(filters(composite(ALL, filter)), OrderBy.getDefaultInstance(), 0);
+            return TitleQueryPlan.of(query)
+                                 .orElseThrow(AssertionError::new)
+                                 .range();
+        }
+    }
+
+    @Test
+    @DisplayName("intersect the filters of an `ALL` composite")
+    void all() {
+        Query query = query(filters(composite(ALL,
+                                              title(GREATER_OR_EQUAL, "b"),
+                                              title(LESS_THAN, "d"))),
+                            OrderBy.getDefaultInstance(), 0);
+
+        assertThat(TitleQueryPlan.of(query)
+                                 .orElseThrow(AssertionError::new)
+                                 .range()).isEqualTo(Range.closedOpen("b", "d"));
+    }
+
+    @Test
+    @DisplayName("match nothing by the disjoint filters")
+    void disjoint() {
+        Query query = query(filters(composite(ALL,
+                                              title(LESS_THAN, "b"),
+                                              title(GREATER_THAN, "d"))),
+                            OrderBy.getDefaultInstance(), 0);
+
+        assertThat(TitleQueryPlan.of(query)
+                                 .orElseThrow(AssertionError::new)
+                                 .range()
+                                 .isEmpty()).isTrue();
+    }
+
+    @Nested
+    @DisplayName("not plan")
+    class NoPlan {
+
+        @Test
+        @DisplayName("an `EITHER` composite")
+        void either() {
+            Query query = query(filters(composite(EITHER,
+                                                  title(EQUAL, "a"),
+                                                  title(EQUAL, "b"))),
+                                OrderBy.getDefaultInstance(), 0);
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+            assertThat(TitleQueryPlan.forPaging(query)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a query by ID")
+        void byId() {
+            TargetFilters.Builder filters = TargetFilters
+                    .newBuilder()
+                    .setIdFilter(IdFilter.newBuilder()
+                                         .addId(Identifier.pack(TaskIds.generate())))
+                    .addFilter(composite(ALL, title(EQUAL, "a")));
+            Query query = query(filters, OrderBy.getDefaultInstance(), 0);
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a filter by another column")
+        void otherColumn() {
+            Filter filter = Filter
+                    .newBuilder()
+                    .setFieldPath(FieldPath.newBuilder()
+                                           .addFieldName("description"))
+                    .setValue(AnyPacker.pack(StringValue.of("a")))
+                    .setOperator(EQUAL)
+                    .build();
+            Query query = query(filters(composite(ALL, filter)), OrderBy.getDefaultInstance(), 0);
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("the ordering by another column")
+        void otherOrder() {
+            Query query = query(TargetFilters.newBuilder(), orderBy("description", ASCENDING), 0);
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a query for another type")
+        void otherType() {
+            Query query = query(filters(composite(ALL, title(EQUAL, "a"))),
+                                OrderBy.getDefaultInstance(), 0)
+                    .toBuilder()
+                    .setTarget(Target.newBuilder()
+                                     .setType(TypeUrl.of(TaskCreated.class)
+                                                     .value())
+                                     .setIncludeAll(true))
+                    .build();
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("a query for all the tasks, unless it is read page by page")
+        void allTasks() {
+            Query query = query(TargetFilters.newBuilder(), OrderBy.getDefaultInstance(), 0);
+
+            assertThat(TitleQueryPlan.of(query)).isEmpty();
+            assertThat(TitleQueryPlan.forPaging(query)
+                                     .orElseThrow(AssertionError::new)
+                                     .range()).isEqualTo(Range.all());
+        }
+    }
+
+    @Test
+    @DisplayName("keep the ordering by title and the limit")
+    void orderAndLimit() {
+        Query query = query(TargetFilters.newBuilder(), orderBy(TitleQueryPlan.TITLE, DESCENDING),
+                            5);
+
+        TitleQueryPlan plan = TitleQueryPlan.of(query)
+                                            .orElseThrow(AssertionError::new);
+
+        assertThat(plan.ordered()).isTrue();
+        assertThat(plan.descending()).isTrue();
+        assertThat(plan.limit()).isEqualTo(5);
+        assertThat(plan.range()).isEqualTo(Range.all());
+    }
+
+    @Test
+    @DisplayName("leave an unordered filtered query unordered and unlimited")
+    void unordered() {
+        Query query = query(filters(composite(ALL, title(EQUAL, "a"))),
+                            OrderBy.getDefaultInstance(), 0);
+
+        TitleQueryPlan plan = TitleQueryPlan.of(query)
+                                            .orElseThrow(AssertionError::new);
+
+        assertThat(plan.ordered()).isFalse();
+        assertThat(plan.descending()).isFalse();
+        assertThat(plan.limit()).isEqualTo(0);
+    }
+
+    private static Filter title(Filter.Operator operator, String value) {
+        return Filter.newBuilder()
+                     .setFieldPath(FieldPath.newBuilder()
+                                            .addFieldName(TitleQueryPlan.TITLE))
+                     .setValue(AnyPacker.pack(StringValue.of(value)))
+                     .setOperator(operator)
+                     .build();
+    }
+
+    private static CompositeFilter composite(CompositeFilter.CompositeOperator operator,
+                                             Filter... filters) {
+        CompositeFilter.Builder result = CompositeFilter.newBuilder()
+                                                        .setOperator(operator);
+        for (Filter filter : filters) {
+            result.addFilter(filter);
+        }
+        return result.build();
+    }
+
+    private static TargetFilters.Builder filters(CompositeFilter composite) {
+        return TargetFilters.newBuilder()
+                            .addFilter(composite);
+    }
+
+    private static OrderBy orderBy(String column, OrderBy.Direction direction) {
+        return OrderBy.newBuilder()
+                      .setColumn(column)
+                      .setDirection(direction)
+                      .build();
+    }
+
+    private static Query query(TargetFilters.Builder filters, OrderBy orderBy, int limit) {
+        Target target = Target
+                .newBuilder()
+                .setType(TypeUrl.of(Task.class)
+                                .value())
+                .setFilters(filters)
+                .build();
+        ResponseFormat format = ResponseFormat
+                .newBuilder()
+                .setOrderBy(orderBy)
+                .setLimit(limit)
+                .build();
+        return Query.newBuilder()
+                    .setTarget(target)
+                    .setFormat(format)
+                    .build();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableMultiset.toImmutableMultiset;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.function.Function.identity;
+
+@DisplayName("`HashRing` should")
+class HashRingTest {
+
+    private static final int TASKS = 40_000;
+
+    private final ImmutableList<TaskId> tasks = IntStream.range(0, TASKS)
+                                                         .mapToObj(i -> TaskIds.generate())
+                                                         .collect(toImmutableList());
+
+    @Test
+    @DisplayName("split the tasks between the nodes evenly")
+    void balance() {
+        HashRing ring = HashRing.of(ImmutableList.of("a", "b", "c", "d"));
+        ImmutableMultiset<String> shares = tasks.stream()
+                                                .map(ring::ownerOf)
+                                                .collect(toImmutableMultiset());
+        for (String node : ring.nodes()) {
+            assertThat((double) shares.count(node)).isWithin(TASKS * 0.05)
+                                                   .of(TASKS / 4.0);
+        }
+    }
+
+    @Test
+    @DisplayName("move only the tasks of the new node when a node joins")
+    void stability() {
+        HashRing three = HashRing.of(ImmutableList.of("a", "b", "c"));
+        HashRing four = HashRing.of(ImmutableList.of("a", "b", "c", "d"));
+        ImmutableMap<TaskId, String> before = owners(three);
+        ImmutableMap<TaskId, String> after = owners(four);
+
+        int moved = 0;
+        for (TaskId id : tasks) {
+            String owner = after.get(id);
+            if (!before.get(id)
+                       .equals(owner)) {
+                assertThat(owner).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat((double) moved).isWithin(TASKS * 0.05)
+                                  .of(TASKS / 4.0);
+    }
+
+    @Test
+    @DisplayName("assign a legacy ID to the owner of its binary form")
+    @SuppressWarnings("deprecation") // Creating a legacy ID.
+    void legacyId() {
+        HashRing ring = HashRing.of(ImmutableList.of("a", "b", "c"));
+        TaskId binary = TaskIds.generate();
+        TaskId legacy = TaskId.newBuilder()
+                              .setUuid(TaskIds.toUuid(binary)
+                                              .toString())
+                              .build();
+
+        assertThat(ring.ownerOf(legacy)).isEqualTo(ring.ownerOf(binary));
+    }
+
+    private ImmutableMap<TaskId, String> owners(HashRing ring) {
+        return tasks.stream()
+                    .collect(toImmutableMap(identity(), ring::ownerOf));
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.shard;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.ManagedChannel;
+import io.grpc.netty.NettyChannelBuilder;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.grpc.CommandServiceGrpc;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceFutureStub;
+import io.spine.client.grpc.QueryServiceGrpc;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.server.ServerApp;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMultiset.toImmutableMultiset;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.spine.base.Identifier.newUuid;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Measures the command throughput of a sharded cluster of 1, 2 and 4 nodes.
+ *
+ * <p>Each node is a separate {@link ServerApp} process listening to a loopback port.
+ * The commands are sent to the nodes in turns, so most of them are forwarded to their owners,
+ * as it happens behind a load balancer.
+ *
+ * <p>The test reports the measured rates and the speedup over a single node, and checks that
+ * each task is created exactly on the node owning it. It does not check the speedup itself,
+ * as it depends on the number of cores of the build machine.
+ */
+@DisplayName("Sharded cluster should")
+class ShardScalingTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int COMMANDS = 10_000;
+    private static final int MAX_IN_FLIGHT = 512;
+    private static final long STARTUP_TIMEOUT_MILLIS = SECONDS.toMillis(60);
+
+    private final ActorRequestFactory requests = ActorRequestFactory
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue(newUuid())
+                            .build())
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("create each task on its owner and report the scaling of throughput")
+    void scale() throws Exception {
+        double single = measure(1);
+        double two = measure(2);
+        double four = measure(4);
+        log.at(Level.INFO)
+           .log("Speedup over a single node: %.2fx with 2 nodes, %.2fx with 4 nodes.",
+                two / single, four / single);
+    }
+
+    private double measure(int nodes) throws Exception {
+        ImmutableMap<String, InetSocketAddress> cluster = cluster(nodes);
+        List<Process> processes = new ArrayList<>();
+        List<ManagedChannel> channels = new ArrayList<>();
+        try {
+            for (String node : cluster.keySet()) {
+                processes.add(start(node, cluster));
+            }
+            for (InetSocketAddress address : cluster.values()) {
+                awaitListening(address);
+                channels.add(NettyChannelBuilder.forAddress(address)
+                                                .usePlaintext()
+                                                .build());
+            }
+            ImmutableList<TaskId> ids = IntStream.range(0, COMMANDS)
+                                                 .mapToObj(i -> TaskIds.generate())
+                                                 .collect(toImmutableList());
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            post(ids, channels);
+            long elapsed = stopwatch.elapsed(NANOSECONDS);
+            assertOwned(ids, cluster, channels);
+
+            double commandsPerSecond = COMMANDS * (double) SECONDS.toNanos(1) / elapsed;
+            log.at(Level.INFO)
+               .log("A cluster of %d node(s) has accepted %.0f commands per second.",
+                    nodes, commandsPerSecond);
+            return commandsPerSecond;
+        } finally {
+            channels.forEach(ManagedChannel::shutdownNow);
+            for (Process process : processes) {
+                process.destroy();
+                process.waitFor(10, SECONDS);
+            }
+        }
+    }
+
+    private void post(ImmutableList<TaskId> ids, List<ManagedChannel> channels) throws Exception {
+        ImmutableList<CommandServiceFutureStub> stubs =
+                channels.stream()
+                        .map(CommandServiceGrpc::newFutureStub)
+                        .collect(toImmutableList());
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        List<ListenableFuture<Ack>> acks = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            inFlight.acquire();
+            ListenableFuture<Ack> ack = stubs.get(i % stubs.size())
+                                             .post(createTask(ids.get(i)));
+            ack.addListener(inFlight::release, directExecutor());
+            acks.add(ack);
+        }
+        for (Ack ack : Futures.allAsList(acks)
+                              .get(1, MINUTES)) {
+            assertThat(ack.getStatus()
+                          .hasOk()).isTrue();
+        }
+    }
+
+    /**
+     * Checks that each node holds exactly the tasks the ring assigns to it.
+     */
+    private void assertOwned(ImmutableList<TaskId> ids,
+                             ImmutableMap<String, InetSocketAddress> cluster,
+                             List<ManagedChannel> channels) throws InterruptedException {
+        HashRing ring = HashRing.of(cluster.keySet());
+        ImmutableMultiset<String> expected = ids.stream()
+                                                .map(ring::ownerOf)
+                                                .collect(toImmutableMultiset());
+        ImmutableList<String> nodes = cluster.keySet()
+                                             .asList();
+        for (int i = 0; i < nodes.size(); i++) {
+            int expectedCount = expected.count(nodes.get(i));
+            int actual = awaitTaskCount(channels.get(i), expectedCount);
+            assertThat(actual).isEqualTo(expectedCount);
+        }
+    }
+
+    private int awaitTaskCount(ManagedChannel channel, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SECONDS.toMillis(30);
+        int count;
+        do {
+            count = QueryServiceGrpc.newBlockingStub(channel)
+                                    .read(requests.query()
+                                                  .all(Task.class))
+                                    .getMessageCount();
+            if (count >= expected) {
+                break;
+            }
+            MILLISECONDS.sleep(100);
+        } while (System.currentTimeMillis() < deadline);
+        return count;
+    }
+
+    private Command createTask(TaskId id) {
+        CreateTask message = CreateTask
+                .newBuilder()
+                .setId(id)
+                .setTitle("Task " + TaskIds.toUuid(id))
+                .vBuild();
+        return requests.command()
+                       .create(message);
+    }
+
+    private static ImmutableMap<String, InetSocketAddress> cluster(int nodes) throws IOException {
+        ImmutableMap.Builder<String, InetSocketAddress> result = ImmutableMap.builder();
+        for (int i = 0; i < nodes; i++) {
+            result.put("node-" + i, new InetSocketAddress("127.0.0.1", freePort()));
+        }
+        return result.build();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private Process start(String node, ImmutableMap<String, InetSocketAddress> cluster)
+            throws IOException {
+        String members = cluster.entrySet()
+                                .stream()
+                                .map(entry -> entry.getKey() + '=' + hostAndPort(entry.getValue()))
+                                .collect(joining(","));
+        InetSocketAddress address = cluster.get(node);
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java")
+                           .toString();
+        File output = directory.resolve(node + ".log")
+                               .toFile();
+        return new ProcessBuilder(
+                java,
+                "-cp", System.getProperty("java.class.path"),
+                "-Dtasks.server.host=" + address.getHostString(),
+                "-Dtasks.server.port=" + address.getPort(),
+                "-Dtasks.server.metrics-port=0",
+                "-Dtasks.server.cluster=" + members,
+                "-Dtasks.server.node=" + node,
+                ServerApp.class.getName())
+                .redirectErrorStream(true)
+                .redirectOutput(output)
+                .start();
+    }
+
+    private static String hostAndPort(InetSocketAddress address) {
+        return address.getHostString() + ':' + address.getPort();
+    }
+
+    private static void awaitListening(InetSocketAddress address) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + STARTUP_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            try (Socket ignored = new Socket(address.getHostString(), address.getPort())) {
+                return;
+            } catch (IOException e) {
+                MILLISECONDS.sleep(100);
+            }
+        }
+        throw new AssertionError("The node at " + address + " has not started.");
+    }
+}
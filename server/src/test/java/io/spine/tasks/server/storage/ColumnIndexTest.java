@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`ColumnIndex` should")
+class ColumnIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("select the IDs within a range in the order of the values")
+    void selectRange() {
+        ColumnIndex<TaskId> index = ColumnIndex.inMemory(TaskIds.comparator());
+        TaskId apples = put(index, "Buy apples");
+        TaskId bread = put(index, "Buy bread");
+        TaskId cheese = put(index, "Buy cheese");
+        put(index, "Wash the car");
+
+        assertThat(index.select(Range.closedOpen("Buy", "Buz"), false, 0))
+                .containsExactly(apples, bread, cheese)
+                .inOrder();
+        assertThat(index.select(Range.atMost("Buy cheese"), true, 2))
+                .containsExactly(cheese, bread)
+                .inOrder();
+        assertThat(index.select(Range.singleton("Buy bread"), false, 0))
+                .containsExactly(bread);
+    }
+
+    @Test
+    @DisplayName("continue a selection after the given entity")
+    void continueSelection() {
+        ColumnIndex<TaskId> index = ColumnIndex.inMemory(TaskIds.comparator());
+        for (int i = 0; i < 5; i++) {
+            put(index, "Same title");
+            put(index, "Title #" + i);
+        }
+        Range<String> all = Range.all();
+        ImmutableList<TaskId> expected = index.select(all, false, 0);
+        ImmutableList.Builder<TaskId> paged = ImmutableList.builder();
+        ImmutableList<TaskId> page = index.select(all, false, 3);
+        while (!page.isEmpty()) {
+            paged.addAll(page);
+            TaskId last = page.get(page.size() - 1);
+            String lastTitle = index.valueOf(last)
+                                    .orElseThrow(IllegalStateException::new);
+            page = index.selectAfter(all, false, lastTitle, last, 3);
+        }
+        assertThat(paged.build())
+                .containsExactlyElementsIn(expected)
+                .inOrder();
+    }
+
+    @Test
+    @DisplayName("replace the previous value of an entity")
+    void replaceValue() {
+        ColumnIndex<TaskId> index = ColumnIndex.inMemory(TaskIds.comparator());
+        TaskId id = put(index, "Draft");
+        index.put(id, "Final");
+
+        assertThat(index.select(Range.singleton("Draft"), false, 0)).isEmpty();
+        assertThat(index.select(Range.singleton("Final"), false, 0)).containsExactly(id);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("restore the on-disk index after reopening")
+    void restoreOnDisk() {
+        TaskId first;
+        TaskId second;
+        try (ColumnIndex<TaskId> index = openOnDisk()) {
+            first = put(index, "First");
+            second = put(index, "Second");
+            index.put(first, "Third");
+        }
+        try (ColumnIndex<TaskId> index = openOnDisk()) {
+            assertThat(index.select(Range.all(), false, 0))
+                    .containsExactly(second, first)
+                    .inOrder();
+        }
+    }
+
+    private ColumnIndex<TaskId> openOnDisk() {
+        return ColumnIndex.onDisk(directory, true, TaskIds.comparator());
+    }
+
+    private static TaskId put(ColumnIndex<TaskId> index, String title) {
+        TaskId id = TaskIds.generate();
+        index.put(id, title);
+        return id;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.storage;
+
+import com.google.common.cache.CacheStats;
+import io.spine.base.Time;
+import io.spine.core.Version;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.aggregate.Snapshot;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.task.TaskAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.protobuf.AnyPacker.pack;
+import static io.spine.tasks.server.storage.SegmentStorageFactoryTest.historyOf;
+
+@DisplayName("`SegmentAggregateStorage` should")
+class SegmentAggregateStorageTest {
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Tasks");
+    private static final int READ_BATCH = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("load the same history from the cache as replayed from the log")
+    void cacheHistory() throws Exception {
+        TaskId id = TaskIds.generate();
+        AggregateHistory cachedOnRead;
+        AggregateHistory cachedOnWrite;
+        CacheStats stats;
+        try (SegmentStorageFactory factory = newFactory(16)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(id, historyOf(id, "Draft", "Review"));
+            storage.write(id, historyOf(id, "Publish").toBuilder()
+                                                      .setSnapshot(snapshot(id, "Review"))
+                                                      .build());
+            AggregateHistory firstRead = read(storage, id);
+            cachedOnRead = read(storage, id);
+            storage.write(id, historyOf(id, "Archive"));
+            cachedOnWrite = read(storage, id);
+            stats = factory.cacheStats();
+            storage.close();
+            assertThat(cachedOnRead).isEqualTo(firstRead);
+        }
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(2);
+
+        try (SegmentStorageFactory factory = newFactory(0)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            AggregateHistory replayed = read(storage, id);
+            storage.close();
+            assertThat(cachedOnWrite).isEqualTo(replayed);
+            assertThat(replayed.getSnapshot()
+                               .getState()).isEqualTo(pack(task(id, "Review")));
+        }
+    }
+
+    @Test
+    @DisplayName("evict the least recently used histories")
+    void evictHistories() throws Exception {
+        try (SegmentStorageFactory factory = newFactory(2)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            for (int i = 0; i < 3; i++) {
+                TaskId id = TaskIds.generate();
+                storage.write(id, historyOf(id, "Task #" + i));
+                read(storage, id);
+            }
+            storage.close();
+            assertThat(factory.cacheStats()
+                              .evictionCount()).isEqualTo(1);
+        }
+    }
+
+    private SegmentStorageFactory newFactory(int cacheSize) {
+        return SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(directory)
+                .setCacheSize(cacheSize)
+                .build();
+    }
+
+    private static AggregateStorage<TaskId> newStorage(SegmentStorageFactory factory) {
+        return factory.createAggregateStorage(CONTEXT, TaskAggregate.class);
+    }
+
+    private static AggregateHistory read(AggregateStorage<TaskId> storage, TaskId id) {
+        return storage.read(new AggregateReadRequest<>(id, READ_BATCH))
+                      .orElseThrow(IllegalStateException::new);
+    }
+
+    private static Snapshot snapshot(TaskId id, String title) {
+        Version version = Version
+                .newBuilder()
+                .setNumber(2)
+                .setTimestamp(Time.currentTime())
+                .build();
+        return Snapshot
+                .newBuilder()
+                .setState(pack(task(id, title)))
+                .setVersion(version)
+                .setTimestamp(Time.currentTime())
+                .build();
+    }
+
+    private static Task task(TaskId id, String title) {
+        return Task
+                .newBuilder()
+                .setId(id)
+                .setTitle(title)
+                .vBuild();
+    }
+}
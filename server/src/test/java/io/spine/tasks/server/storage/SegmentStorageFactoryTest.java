@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.Any;
+import io.spine.base.Identifier;
+import io.spine.core.Event;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.entity.LifecycleFlags;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.event.TaskCreated;
+import io.spine.tasks.server.task.TaskAggregate;
+import io.spine.testing.server.TestEventFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+@DisplayName("`SegmentStorageFactory` should")
+class SegmentStorageFactoryTest {
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Tasks");
+    private static final int READ_BATCH = 100;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("restore aggregate events after a restart")
+    void restoreEvents() throws Exception {
+        TaskId first = TaskIds.generate();
+        TaskId second = TaskIds.generate();
+        AggregateHistory firstHistory = historyOf(first, "Buy milk", "Buy more milk");
+        AggregateHistory secondHistory = historyOf(second, "Call mom");
+
+        try (SegmentStorageFactory factory = newFactory(1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(first, firstHistory);
+            storage.write(second, secondHistory);
+            storage.close();
+        }
+
+        try (SegmentStorageFactory factory = newFactory(1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            assertThat(read(storage, first)).isEqualTo(firstHistory);
+            assertThat(read(storage, second)).isEqualTo(secondHistory);
+            assertThat(ImmutableList.copyOf(storage.index()))
+                    .containsExactly(first, second);
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("restore lifecycle flags after a restart")
+    void restoreFlags() throws Exception {
+        TaskId id = TaskIds.generate();
+        LifecycleFlags archived = LifecycleFlags
+                .newBuilder()
+                .setArchived(true)
+                .build();
+        try (SegmentStorageFactory factory = newFactory(1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(id, historyOf(id, "Archive me"));
+            storage.writeLifecycleFlags(id, archived);
+            storage.close();
+        }
+        try (SegmentStorageFactory factory = newFactory(1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            assertThat(storage.readLifecycleFlags(id)).hasValue(archived);
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("recover up to the last intact record if the log tail is corrupted")
+    void recoverCorruptedTail() throws Exception {
+        TaskId intact = TaskIds.generate();
+        TaskId corrupted = TaskIds.generate();
+        AggregateHistory intactHistory = historyOf(intact, "Survive a crash");
+        try (SegmentStorageFactory factory = newFactory(64 * 1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(intact, intactHistory);
+            storage.write(corrupted, historyOf(corrupted, "Get lost in a crash"));
+            storage.close();
+        }
+        corruptSecondRecord();
+
+        try (SegmentStorageFactory factory = newFactory(64 * 1024)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            assertThat(read(storage, intact)).isEqualTo(intactHistory);
+            assertThat(storage.read(new AggregateReadRequest<>(corrupted, READ_BATCH)))
+                    .isEmpty();
+            storage.close();
+        }
+    }
+
+    /**
+     * Overwrites a few bytes in the payload of the second frame of the segment, as if
+     * the process crashed while writing it.
+     */
+    private void corruptSecondRecord() throws IOException {
+        int headerSize = Integer.BYTES * 2;
+        try (FileChannel channel = FileChannel.open(singleSegment(), READ, WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            channel.read(header, 0);
+            int secondFrame = headerSize + header.getInt(0);
+            ByteBuffer garbage = ByteBuffer.wrap(new byte[]{1, 2, 3, 4});
+            channel.write(garbage, secondFrame + headerSize + 1);
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(path -> path.toString()
+                                            .endsWith(".seg"))
+                        .findFirst()
+                        .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    private SegmentStorageFactory newFactory(int segmentSize) {
+        return SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(directory)
+                .setSegmentSize(segmentSize)
+                .build();
+    }
+
+    private static AggregateStorage<TaskId> newStorage(SegmentStorageFactory factory) {
+        return factory.createAggregateStorage(CONTEXT, TaskAggregate.class);
+    }
+
+    private static AggregateHistory read(AggregateStorage<TaskId> storage, TaskId id) {
+        Optional<AggregateHistory> history =
+                storage.read(new AggregateReadRequest<>(id, READ_BATCH));
+        assertThat(history).isPresent();
+        return history.get();
+    }
+
+    static AggregateHistory historyOf(TaskId id, String... titles) {
+        Any producer = Identifier.pack(id);
+        TestEventFactory events =
+                TestEventFactory.newInstance(producer, SegmentStorageFactoryTest.class);
+        AggregateHistory.Builder history = AggregateHistory.newBuilder();
+        for (String title : titles) {
+            TaskCreated message = TaskCreated
+                    .newBuilder()
+                    .setId(id)
+                    .setTitle(title)
+                    .vBuild();
+            Event event = events.createEvent(message);
+            history.addEvent(event);
+        }
+        return history.build();
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.storage;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.Any;
+import io.spine.protobuf.AnyPacker;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateReadRequest;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.task.TaskAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tasks.server.storage.SegmentStorageFactoryTest.historyOf;
+
+@DisplayName("`SegmentAggregateStorage` with compression should")
+class StorageCompressionTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Tasks");
+    private static final int READ_BATCH = 100;
+    private static final int TASKS = 5_000;
+    private static final ImmutableList<String> TITLES = ImmutableList.of(
+            "Buy milk", "Call mom", "Review the pull request", "Water the plants"
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("restore compressed events after a restart")
+    void restoreCompressed() throws Exception {
+        TaskId first = TaskIds.generate();
+        TaskId second = TaskIds.generate();
+        AggregateHistory firstHistory = historyOf(first, "Buy milk", "Buy more milk");
+        AggregateHistory secondHistory = historyOf(second, "Buy milk");
+
+        try (SegmentStorageFactory factory = newFactory(directory, true)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(first, firstHistory);
+            storage.write(second, secondHistory);
+            storage.close();
+        }
+
+        try (SegmentStorageFactory factory = newFactory(directory, true)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            assertThat(read(storage, first)).isEqualTo(firstHistory);
+            assertThat(read(storage, second)).isEqualTo(secondHistory);
+            assertThat(ImmutableList.copyOf(storage.index()))
+                    .containsExactly(first, second);
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("read plain and compressed events from the same log")
+    void mixPlainAndCompressed() throws Exception {
+        TaskId plain = TaskIds.generate();
+        TaskId compressed = TaskIds.generate();
+        AggregateHistory plainHistory = historyOf(plain, "Written as is");
+        AggregateHistory compressedHistory = historyOf(compressed, "Written compressed");
+
+        try (SegmentStorageFactory factory = newFactory(directory, false)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(plain, plainHistory);
+            storage.close();
+        }
+        try (SegmentStorageFactory factory = newFactory(directory, true)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            storage.write(compressed, compressedHistory);
+            storage.close();
+        }
+
+        try (SegmentStorageFactory factory = newFactory(directory, false)) {
+            AggregateStorage<TaskId> storage = newStorage(factory);
+            assertThat(read(storage, plain)).isEqualTo(plainHistory);
+            assertThat(read(storage, compressed)).isEqualTo(compressedHistory);
+            storage.close();
+        }
+    }
+
+    @Test
+    @DisplayName("store the events in fewer bytes")
+    void fewerBytes() throws Exception {
+        ImmutableList<AggregateHistory> histories = histories();
+        long plain = measure("plain", directory.resolve("plain"), false, histories);
+        long compressed = measure("compressed", directory.resolve("compressed"), true, histories);
+
+        log.at(Level.INFO)
+           .log("Compressed events take %.1f%% of the plain ones.",
+                compressed * 100.0 / plain);
+        assertThat(compressed).isLessThan(plain);
+    }
+
+    private static long measure(String name,
+                                Path directory,
+                                boolean compression,
+                                ImmutableList<AggregateHistory> histories) throws Exception {
+        try (SegmentStorageFactory factory = newFactory(directory, compression)) {
+            SegmentAggregateStorage<TaskId> storage =
+                    (SegmentAggregateStorage<TaskId>) newStorage(factory);
+            for (AggregateHistory history : histories) {
+                Any producer = history.getEvent(0)
+                                      .getContext()
+                                      .getProducerId();
+                TaskId id = AnyPacker.unpack(producer, TaskId.class);
+                storage.write(id, history);
+            }
+            long size = storage.size();
+            storage.close();
+            log.at(Level.INFO)
+               .log("The `%s` storage takes %.1f bytes per event.",
+                    name, (double) size / histories.size());
+            return size;
+        }
+    }
+
+    private static ImmutableList<AggregateHistory> histories() {
+        ImmutableList.Builder<AggregateHistory> histories = ImmutableList.builder();
+        for (int i = 0; i < TASKS; i++) {
+            TaskId id = TaskIds.generate();
+            histories.add(historyOf(id, TITLES.get(i % TITLES.size())));
+        }
+        return histories.build();
+    }
+
+    private static SegmentStorageFactory newFactory(Path directory, boolean compression) {
+        return SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(directory)
+                .setSyncOnCommit(false)
+                .setCompression(compression)
+                .build();
+    }
+
+    private static AggregateStorage<TaskId> newStorage(SegmentStorageFactory factory) {
+        return factory.createAggregateStorage(CONTEXT, TaskAggregate.class);
+    }
+
+    private static AggregateHistory read(AggregateStorage<TaskId> storage, TaskId id) {
+        return storage.read(new AggregateReadRequest<>(id, READ_BATCH))
+                      .orElseThrow(IllegalStateException::new);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.server.storage;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.Any;
+import io.spine.protobuf.AnyPacker;
+import io.spine.server.ContextSpec;
+import io.spine.server.aggregate.AggregateHistory;
+import io.spine.server.aggregate.AggregateStorage;
+import io.spine.server.storage.StorageFactory;
+import io.spine.server.storage.memory.InMemoryStorageFactory;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.server.task.TaskAggregate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares the write throughput of the segment storage to the in-memory storage.
+ *
+ * <p>The test reports the measured rates and only checks that all the events are stored,
+ * so that it does not depend on the performance of the build machine.
+ */
+@DisplayName("Aggregate storage throughput should")
+class StorageThroughputTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final ContextSpec CONTEXT = ContextSpec.singleTenant("Tasks");
+    private static final int WRITERS = 4;
+    private static final int TASKS_PER_WRITER = 2_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("be measured for segment and in-memory storage")
+    void compare() throws Exception {
+        ImmutableList<AggregateHistory> histories = histories();
+        double inMemory = measure("in-memory", InMemoryStorageFactory.newInstance(), histories);
+        SegmentStorageFactory segments = SegmentStorageFactory
+                .newBuilder()
+                .setDirectory(directory)
+                .build();
+        double segmentFiles = measure("segment files", segments, histories);
+        log.at(Level.INFO)
+           .log("Segment storage reaches %.1f%% of the in-memory throughput.",
+                segmentFiles / inMemory * 100);
+    }
+
+    private static double measure(String name,
+                                  StorageFactory factory,
+                                  ImmutableList<AggregateHistory> histories) throws Exception {
+        AggregateStorage<TaskId> storage =
+                factory.createAggregateStorage(CONTEXT, TaskAggregate.class);
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        ImmutableList.Builder<Future<?>> writes = ImmutableList.builder();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            ImmutableList<AggregateHistory> portion = histories.subList(
+                    writer * TASKS_PER_WRITER, (writer + 1) * TASKS_PER_WRITER
+            );
+            writes.add(executor.submit(() -> portion.forEach(
+                    history -> storage.write(idOf(history), history))));
+        }
+        for (Future<?> write : writes.build()) {
+            write.get();
+        }
+        long elapsed = stopwatch.elapsed(NANOSECONDS);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, SECONDS)).isTrue();
+        assertThat(ImmutableList.copyOf(storage.index())).hasSize(histories.size());
+        storage.close();
+        factory.close();
+
+        double eventsPerSecond = histories.size() * (double) SECONDS.toNanos(1) / elapsed;
+        log.at(Level.INFO)
+           .log("Storage `%s` has written %.0f events per second.", name, eventsPerSecond);
+        return eventsPerSecond;
+    }
+
+    private static ImmutableList<AggregateHistory> histories() {
+        ImmutableList.Builder<AggregateHistory> histories = ImmutableList.builder();
+        for (int i = 0; i < WRITERS * TASKS_PER_WRITER; i++) {
+            TaskId id = TaskIds.generate();
+            histories.add(SegmentStorageFactoryTest.historyOf(id, "Task #" + i));
+        }
+        return histories.build();
+    }
+
+    private static TaskId idOf(AggregateHistory history) {
+        Any producer = history.getEvent(0)
+                              .getContext()
+                              .getProducerId();
+        return AnyPacker.unpack(producer, TaskId.class);
+    }
+}
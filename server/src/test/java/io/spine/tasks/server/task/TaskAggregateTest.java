@@ -29,6 +29,7 @@ package io.spine.tasks.server.task;
 import io.spine.server.BoundedContextBuilder;
 import io.spine.tasks.Task;
 import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
 import io.spine.tasks.command.CreateTask;
 import io.spine.tasks.event.TaskCreated;
 import io.spine.testing.server.blackbox.ContextAwareTest;
@@ -40,11 +41,13 @@ import org.junit.jupiter.api.Test;
 @DisplayName("`TaskAggregate` should")
 class TaskAggregateTest extends ContextAwareTest {
 
+    private static final int SNAPSHOT_TRIGGER = 100;
+
     @Override
     protected BoundedContextBuilder contextBuilder() {
         return BoundedContextBuilder
                 .assumingTests()
-                .add(TaskAggregate.class);
+                .add(new TaskRepository(SNAPSHOT_TRIGGER));
     }
 
     @Nested
@@ -52,7 +55,7 @@ class TaskAggregateTest extends ContextAwareTest {
     class TaskCreation {
 
         private static final String taskTitle = "Learn Domain-driven Design.";
-        private final TaskId taskId = TaskId.generate();
+        private final TaskId taskId = TaskIds.generate();
 
         @BeforeEach
         void createTask() {
@@ -86,4 +89,56 @@ class TaskAggregateTest extends ContextAwareTest {
             context().assertState(taskId, expected);
         }
     }
+
+    @Test
+    @DisplayName("route a command with a legacy ID to the aggregate with the binary ID")
+    @SuppressWarnings("deprecation") // Creating the legacy form.
+    void routeLegacyId() {
+        TaskId taskId = TaskIds.generate();
+        TaskId legacyId = TaskId
+                .newBuilder()
+                .setUuid(TaskIds.toUuid(taskId)
+                                .toString())
+                .build();
+        String title = "Keep the old links working.";
+        CreateTask command = CreateTask
+                .newBuilder()
+                .setId(legacyId)
+                .setTitle(title)
+                .vBuild();
+        context().receivesCommand(command);
+
+        TaskCreated expectedEvent = TaskCreated
+                .newBuilder()
+                .setId(taskId)
+                .setTitle(title)
+                .vBuild();
+        context().assertEvent(expectedEvent);
+        Task expected = Task
+                .newBuilder()
+                .setId(taskId)
+                .setTitle(title)
+                .vBuild();
+        context().assertState(taskId, expected);
+    }
+
+    @Test
+    @DisplayName("import a `Task` from the `TaskCreated` event")
+    void importTask() {
+        TaskId taskId = TaskIds.generate();
+        String title = "Restore from backup.";
+        TaskCreated event = TaskCreated
+                .newBuilder()
+                .setId(taskId)
+                .setTitle(title)
+                .vBuild();
+        context().importsEvent(event);
+
+        Task expected = Task
+                .newBuilder()
+                .setId(taskId)
+                .setTitle(title)
+                .vBuild();
+        context().assertState(taskId, expected);
+    }
 }
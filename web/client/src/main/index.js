@@ -67,6 +67,7 @@ class TaskController {
      * @param title the title of the new task
      */
     createTask(title) {
+        // The server converts the string UUID into the binary form of `TaskId`.
         const id = new TaskId();
         id.setUuid(uuid.v4());
         const cmd = new CreateTask();
@@ -105,8 +106,28 @@ class TaskController {
     }
 
     static _render(task) {
-        return "<a id='" + task.getId().getUuid() + "'><li class='task'>" +
-            task.getTitle() + "</li></a>";
+        const id = TaskController._uuidOf(task.getId());
+        return "<a id='" + id + "'><li class='task'>" + task.getTitle() + "</li></a>";
+    }
+
+    /**
+     * Formats the task ID as a canonical UUID string, the same way the server does.
+     */
+    static _uuidOf(id) {
+        const legacy = id.getUuid();
+        if (legacy) {
+            return legacy.toLowerCase();
+        }
+        const hex = TaskController._hex(id.getMsb()) + TaskController._hex(id.getLsb());
+        return [hex.slice(0, 8), hex.slice(8, 12), hex.slice(12, 16),
+                hex.slice(16, 20), hex.slice(20)].join('-');
+    }
+
+    /**
+     * Formats a 64-bit half of the UUID, received as a decimal string, as 16 hex digits.
+     */
+    static _hex(half) {
+        return BigInt.asUintN(64, BigInt(half)).toString(16).padStart(16, '0');
     }
 }
 
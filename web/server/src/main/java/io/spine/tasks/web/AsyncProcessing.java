@@ -0,0 +1,480 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.spine.tasks.server.metrics.Metrics;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.lang.String.format;
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+
+/**
+ * Processes the servlet requests asynchronously, so that the container threads are not held
+ * while the {@code Tasks} services and Firebase are called.
+ *
+ * <p>A request is processed as follows:
+ * <ol>
+ *     <li>The container thread checks the limit of the requests in flight. If the limit is
+ *         reached, the request is rejected with {@code 503 Service Unavailable} and
+ *         the {@value #RETRY_AFTER} header right away.
+ *     <li>The request body is read with a non-blocking {@link ReadListener}, so a slow client
+ *         does not hold a container thread either. The body buffer grows as the bytes arrive,
+ *         and the {@code Content-Length} only sizes it up to {@value #MAX_PREALLOCATED_BODY}
+ *         bytes. A body larger than the limit is rejected with
+ *         {@code 413 Payload Too Large}, whether it is declared by {@code Content-Length} or
+ *         found out while reading.
+ *     <li>Once the body is read, the {@link Handler} is run by a thread of the bounded pool of
+ *         this instance. The handler works with a {@linkplain BufferedRequest copy} of
+ *         the request body and a {@linkplain BufferedResponse buffered} response.
+ *     <li>The buffered response is copied to the container response, and the request is
+ *         completed.
+ * </ol>
+ *
+ * <p>A request which is not completed within the timeout is answered with
+ * {@code 503 Service Unavailable}. The Spine services do not support cancellation, so
+ * the handler of such a request runs to the end, but its response is discarded. The request
+ * is counted as in flight until its handler ends, so the limit bounds the work actually done by
+ * the pool, not only the open connections.
+ */
+final class AsyncProcessing {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    /**
+     * The name of the system property holding the number of the threads which run
+     * the handlers.
+     */
+    private static final String THREADS_PROPERTY = "tasks.web.async.threads";
+
+    /**
+     * The name of the system property holding the maximum number of the requests in flight.
+     */
+    private static final String IN_FLIGHT_PROPERTY = "tasks.web.async.in-flight";
+
+    /**
+     * The name of the system property holding the request timeout in milliseconds.
+     */
+    private static final String TIMEOUT_PROPERTY = "tasks.web.async.timeout";
+
+    /**
+     * The name of the system property holding the maximum size of a request body in bytes.
+     */
+    private static final String MAX_BODY_PROPERTY = "tasks.web.async.max-body";
+
+    private static final int DEFAULT_THREADS = 32;
+    private static final int DEFAULT_IN_FLIGHT = 512;
+    private static final long DEFAULT_TIMEOUT = 30_000;
+    private static final int DEFAULT_MAX_BODY = 4 * 1024 * 1024;
+
+    /**
+     * The number of seconds after which a rejected client may retry.
+     */
+    private static final String RETRY_AFTER = "Retry-After";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private static final int READ_CHUNK_SIZE = 8 * 1024;
+
+    /**
+     * The maximum number of bytes allocated for a body before they arrive.
+     */
+    private static final int MAX_PREALLOCATED_BODY = 64 * 1024;
+
+    private static @Nullable AsyncProcessing instance = null;
+
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final long timeoutMillis;
+    private final int maxBodySize;
+    private final LongAdder rejected;
+    private final LongAdder timedOut;
+
+    private AsyncProcessing(ExecutorService executor,
+                            int maxInFlight,
+                            Duration timeout,
+                            int maxBodySize,
+                            LongAdder rejected,
+                            LongAdder timedOut) {
+        checkArgument(maxInFlight > 0, "The in-flight limit must be positive.");
+        checkArgument(!timeout.isNegative() && !timeout.isZero(),
+                      "The timeout must be positive.");
+        checkArgument(maxBodySize >= 0, "The maximum body size must not be negative.");
+        this.executor = checkNotNull(executor);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxBodySize = maxBodySize;
+        this.rejected = rejected;
+        this.timedOut = timedOut;
+    }
+
+    /**
+     * Creates a new instance which runs the handlers on the given executor and accepts
+     * the request bodies of the default maximum size.
+     *
+     * @param executor
+     *         the executor of the handlers
+     * @param maxInFlight
+     *         the maximum number of the requests processed at the same time
+     * @param timeout
+     *         the time in which a request must be completed
+     */
+    static AsyncProcessing create(ExecutorService executor, int maxInFlight, Duration timeout) {
+        return create(executor, maxInFlight, timeout, DEFAULT_MAX_BODY);
+    }
+
+    /**
+     * Creates a new instance which runs the handlers on the given executor.
+     *
+     * @param executor
+     *         the executor of the handlers
+     * @param maxInFlight
+     *         the maximum number of the requests processed at the same time
+     * @param timeout
+     *         the time in which a request must be completed
+     * @param maxBodySize
+     *         the maximum size of a request body in bytes
+     */
+    static AsyncProcessing create(ExecutorService executor,
+                                  int maxInFlight,
+                                  Duration timeout,
+                                  int maxBodySize) {
+        return new AsyncProcessing(executor, maxInFlight, timeout, maxBodySize,
+                                   new LongAdder(), new LongAdder());
+    }
+
+    /**
+     * Obtains the instance shared by the servlets of the {@code Tasks} context.
+     *
+     * <p>The instance is configured by the {@value #THREADS_PROPERTY},
+     * {@value #IN_FLIGHT_PROPERTY}, {@value #TIMEOUT_PROPERTY} and {@value #MAX_BODY_PROPERTY}
+     * system properties.
+     */
+    static synchronized AsyncProcessing instance() {
+        if (instance == null) {
+            instance = createInstance();
+        }
+        return instance;
+    }
+
+    private static AsyncProcessing createInstance() {
+        int threads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                threads,
+                new ThreadFactoryBuilder().setNameFormat("tasks-web-%d")
+                                          .setDaemon(true)
+                                          .build()
+        );
+        int maxInFlight = Integer.getInteger(IN_FLIGHT_PROPERTY, DEFAULT_IN_FLIGHT);
+        Duration timeout = Duration.ofMillis(Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT));
+        int maxBodySize = Integer.getInteger(MAX_BODY_PROPERTY, DEFAULT_MAX_BODY);
+        AsyncProcessing result = new AsyncProcessing(
+                executor, maxInFlight, timeout, maxBodySize,
+                Metrics.counter("tasks_web_rejected"), Metrics.counter("tasks_web_timeouts")
+        );
+        Metrics.gauge("tasks_web_in_flight", result::inFlight);
+        return result;
+    }
+
+    /**
+     * Processes the request asynchronously.
+     *
+     * <p>The container servlet and all the filters on the way of the request must support
+     * the asynchronous processing.
+     */
+    void process(HttpServletRequest request, HttpServletResponse response, Handler handler)
+            throws IOException {
+        if (request.getContentLengthLong() > maxBodySize) {
+            response.sendError(SC_REQUEST_ENTITY_TOO_LARGE, tooLargeMessage());
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            rejected.increment();
+            reject(response, "Too many requests in flight.");
+            return;
+        }
+        Exchange exchange = null;
+        try {
+            AsyncContext context = request.startAsync(request, response);
+            context.setTimeout(timeoutMillis);
+            exchange = new Exchange(context, request, response, handler);
+            context.addListener(exchange);
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(exchange);
+        } catch (IOException | RuntimeException e) {
+            if (exchange == null) {
+                inFlight.release();
+            } else {
+                exchange.abandon();
+            }
+            throw e;
+        }
+    }
+
+    private String tooLargeMessage() {
+        return format("The request body exceeds %d bytes.", maxBodySize);
+    }
+
+    /**
+     * Responds with {@code 503 Service Unavailable} and the {@value #RETRY_AFTER} header, which
+     * tell the client to retry the request later.
+     */
+    static void reject(HttpServletResponse response, String message) throws IOException {
+        response.setHeader(RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.sendError(SC_SERVICE_UNAVAILABLE, message);
+    }
+
+    /**
+     * Obtains the number of the requests in flight.
+     */
+    int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Obtains the number of the requests rejected because of the in-flight limit.
+     */
+    long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Obtains the number of the requests which were not completed in time.
+     */
+    long timedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Handles a request synchronously.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        /**
+         * Handles the request and writes the result to the response.
+         */
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    /**
+     * A single request processed asynchronously.
+     *
+     * <p>The request may be completed either by its handler or by the timeout, whichever comes
+     * first. The in-flight permit is released once: when the handler ends or, if the handler
+     * has never been started, when the request ends.
+     */
+    private final class Exchange implements ReadListener, AsyncListener {
+
+        private final AsyncContext context;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final Handler handler;
+        private final RequestBody body;
+        private final byte[] chunk = new byte[READ_CHUNK_SIZE];
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Exchange(AsyncContext context,
+                         HttpServletRequest request,
+                         HttpServletResponse response,
+                         Handler handler) {
+            this.context = context;
+            this.request = request;
+            this.response = response;
+            this.handler = handler;
+            int declaredSize = Math.max(request.getContentLength(), 0);
+            this.body = new RequestBody(Math.min(declaredSize, MAX_PREALLOCATED_BODY));
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            ServletInputStream input = request.getInputStream();
+            while (input.isReady()) {
+                int read = input.read(chunk);
+                if (read < 0) {
+                    return;
+                }
+                if (body.size() + read > maxBodySize) {
+                    rejectTooLarge();
+                    return;
+                }
+                body.write(chunk, 0, read);
+            }
+        }
+
+        /**
+         * Rejects the request which body turned out to exceed the limit.
+         */
+        private void rejectTooLarge() {
+            abandon();
+            if (completed.compareAndSet(false, true)) {
+                respond(SC_REQUEST_ENTITY_TOO_LARGE, tooLargeMessage());
+            }
+        }
+
+        @Override
+        public void onAllDataRead() {
+            if (!dispatched.compareAndSet(false, true)) {
+                return;
+            }
+            BufferedRequest bufferedRequest = body.toRequest(request);
+            try {
+                executor.execute(() -> handle(bufferedRequest));
+            } catch (RejectedExecutionException e) {
+                inFlight.release();
+                fail(SC_SERVICE_UNAVAILABLE, e);
+            }
+        }
+
+        private void handle(BufferedRequest bufferedRequest) {
+            BufferedResponse bufferedResponse = new BufferedResponse(response);
+            try {
+                handler.handle(bufferedRequest, bufferedResponse);
+            } catch (IOException | RuntimeException e) {
+                fail(SC_INTERNAL_SERVER_ERROR, e);
+                return;
+            } finally {
+                inFlight.release();
+            }
+            if (completed.compareAndSet(false, true)) {
+                try {
+                    bufferedResponse.copyTo(response);
+                } catch (IOException e) {
+                    log.at(Level.FINE)
+                       .withCause(e)
+                       .log("Unable to write the response.");
+                } finally {
+                    context.complete();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            abandon();
+            fail(SC_INTERNAL_SERVER_ERROR, t);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            timedOut.increment();
+            abandon();
+            if (completed.compareAndSet(false, true)) {
+                respond(SC_SERVICE_UNAVAILABLE, "The request has timed out.");
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            abandon();
+            completed.set(true);
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            abandon();
+            completed.set(true);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted.
+        }
+
+        /**
+         * Prevents the handler from being started and releases the in-flight permit, unless
+         * the handler has already been started.
+         */
+        private void abandon() {
+            if (dispatched.compareAndSet(false, true)) {
+                inFlight.release();
+            }
+        }
+
+        private void fail(int status, Throwable cause) {
+            log.at(Level.WARNING)
+               .withCause(cause)
+               .log("Unable to process the request to `%s`.", request.getRequestURI());
+            if (completed.compareAndSet(false, true)) {
+                respond(status, cause.getMessage());
+            }
+        }
+
+        private void respond(int status, @Nullable String message) {
+            try {
+                response.sendError(status, message);
+            } catch (IOException | IllegalStateException e) {
+                log.at(Level.FINE)
+                   .withCause(e)
+                   .log("Unable to send the error response.");
+            } finally {
+                context.complete();
+            }
+        }
+    }
+
+    /**
+     * The body of a request read so far.
+     */
+    private static final class RequestBody extends ByteArrayOutputStream {
+
+        private RequestBody(int expectedSize) {
+            super(expectedSize);
+        }
+
+        /**
+         * Creates a request with this body, without copying the read bytes.
+         */
+        private BufferedRequest toRequest(HttpServletRequest request) {
+            return new BufferedRequest(request, buf, count);
+        }
+    }
+}
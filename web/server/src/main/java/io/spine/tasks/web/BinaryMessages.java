@@ -0,0 +1,209 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.Parser;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Function;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+
+/**
+ * Reads and writes the messages of the servlets in the binary Protobuf encoding.
+ *
+ * <p>A request is binary if its content type is {@value #CONTENT_TYPE}, or
+ * {@value #LEGACY_CONTENT_TYPE} with the {@code Content-Transfer-Encoding: binary} header.
+ * The Spine web client posts the messages as Base64 text with
+ * the {@value #LEGACY_CONTENT_TYPE} content type, so such requests without the header are
+ * left to the Spine servlets.
+ *
+ * <p>The request body is read from the input stream straight into a byte buffer and parsed
+ * from it. The response is serialized into the same buffer and written to the output stream.
+ * No strings or intermediate streams are created on the way. The body of
+ * a {@linkplain BufferedRequest buffered request} is already in memory, so it is parsed
+ * right from the bytes of the request.
+ *
+ * <p>The buffers are pooled per thread. A buffer grows to fit the largest message handled by
+ * its thread up to {@linkplain #MAX_POOLED_SIZE a limit}. Larger messages use one-off
+ * buffers. The parsed messages never refer to the buffer, so it may be reused right away.
+ * The {@code Content-Length} of a request only sizes the buffer up to the same limit. Beyond
+ * it, the buffer grows as the bytes arrive, so a client cannot make the server allocate more
+ * than it actually sends.
+ */
+final class BinaryMessages {
+
+    /**
+     * The content type of the binary Protobuf messages.
+     */
+    static final String CONTENT_TYPE = "application/protobuf";
+
+    /**
+     * The content type used for the Protobuf messages before {@link #CONTENT_TYPE} was
+     * registered.
+     */
+    private static final String LEGACY_CONTENT_TYPE = "application/x-protobuf";
+
+    private static final String TRANSFER_ENCODING = "Content-Transfer-Encoding";
+    private static final String BINARY = "binary";
+
+    private static final int INITIAL_SIZE = 8 * 1024;
+    private static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<byte[]> buffers =
+            ThreadLocal.withInitial(() -> new byte[INITIAL_SIZE]);
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private BinaryMessages() {
+    }
+
+    /**
+     * Tells whether the request body is a binary Protobuf message.
+     */
+    static boolean isBinary(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        if (contentType == null) {
+            return false;
+        }
+        String mediaType = contentType.split(";", 2)[0].trim();
+        if (CONTENT_TYPE.equalsIgnoreCase(mediaType)) {
+            return true;
+        }
+        return LEGACY_CONTENT_TYPE.equalsIgnoreCase(mediaType)
+                && BINARY.equalsIgnoreCase(request.getHeader(TRANSFER_ENCODING));
+    }
+
+    /**
+     * Parses the binary request, passes it to the handler and writes the result as a binary
+     * response.
+     *
+     * <p>Responds with {@code 400 Bad Request} if the request cannot be parsed.
+     */
+    static <T extends Message, R extends Message>
+    void serve(HttpServletRequest request,
+               HttpServletResponse response,
+               Parser<T> parser,
+               Function<T, R> handler) throws IOException {
+        T message;
+        try {
+            message = request instanceof BufferedRequest
+                      ? ((BufferedRequest) request).parse(parser)
+                      : read(request.getInputStream(), request.getContentLength(), parser);
+        } catch (InvalidProtocolBufferException e) {
+            response.sendError(SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        R result = handler.apply(message);
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(result.getSerializedSize());
+        write(result, response.getOutputStream());
+    }
+
+    /**
+     * Reads a message from the stream until its end.
+     *
+     * @param input
+     *         the stream to read
+     * @param expectedLength
+     *         the expected number of bytes, or a negative value if unknown; the value is
+     *         only trusted up to {@link #MAX_POOLED_SIZE}
+     * @param parser
+     *         the parser of the message
+     */
+    static <T extends Message> T read(InputStream input, int expectedLength, Parser<T> parser)
+            throws IOException {
+        int initialSize = Math.min(Math.max(expectedLength, 0), MAX_POOLED_SIZE);
+        byte[] buffer = buffer(initialSize);
+        int length = 0;
+        while (true) {
+            if (length == buffer.length) {
+                int next = input.read();
+                if (next < 0) {
+                    break;
+                }
+                buffer = grow(buffer);
+                buffer[length] = (byte) next;
+                length++;
+            }
+            int read = input.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return parser.parseFrom(buffer, 0, length);
+    }
+
+    /**
+     * Writes the message to the stream.
+     */
+    static void write(Message message, OutputStream output) throws IOException {
+        int size = message.getSerializedSize();
+        byte[] buffer = buffer(size);
+        CodedOutputStream coded = CodedOutputStream.newInstance(buffer, 0, size);
+        message.writeTo(coded);
+        coded.checkNoSpaceLeft();
+        output.write(buffer, 0, size);
+    }
+
+    /**
+     * Obtains the buffer of this thread, if it is large enough, or a new one.
+     */
+    private static byte[] buffer(int minSize) {
+        byte[] pooled = buffers.get();
+        if (pooled.length >= minSize) {
+            return pooled;
+        }
+        return allocate(minSize);
+    }
+
+    private static byte[] grow(byte[] buffer) {
+        byte[] result = allocate(buffer.length * 2);
+        System.arraycopy(buffer, 0, result, 0, buffer.length);
+        return result;
+    }
+
+    /**
+     * Allocates a buffer of the next power of two size and pools it, unless it is too large.
+     */
+    private static byte[] allocate(int minSize) {
+        int size = Integer.highestOneBit(Math.max(minSize - 1, 1)) << 1;
+        byte[] result = new byte[size > 0 ? size : minSize];
+        if (result.length <= MAX_POOLED_SIZE) {
+            buffers.set(result);
+        }
+        return result;
+    }
+}
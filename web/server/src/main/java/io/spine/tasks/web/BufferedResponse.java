@@ -0,0 +1,279 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Collection;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+/**
+ * A response which is collected in memory and {@linkplain #copyTo(HttpServletResponse) copied}
+ * to the actual response when complete.
+ *
+ * <p>Lets a synchronous servlet code respond to a request processed
+ * {@linkplain AsyncProcessing asynchronously} without touching the actual response, which may
+ * be completed by a timeout in the meantime.
+ */
+final class BufferedResponse extends HttpServletResponseWrapper {
+
+    private static final String CHARSET_PARAMETER = "charset=";
+
+    private final ListMultimap<String, String> headers = LinkedListMultimap.create();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private int status = SC_OK;
+    private boolean error;
+    private @Nullable String errorMessage;
+    private @Nullable String contentType;
+    private @Nullable String characterEncoding;
+    private @Nullable ServletOutputStream outputStream;
+    private @Nullable PrintWriter writer;
+
+    BufferedResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public void sendError(int status, @Nullable String message) {
+        this.status = status;
+        this.error = true;
+        this.errorMessage = message;
+    }
+
+    @Override
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    @Override
+    public @Nullable String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String characterEncoding) {
+        this.characterEncoding = characterEncoding;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        if (characterEncoding != null) {
+            return characterEncoding;
+        }
+        if (contentType != null) {
+            int charset = contentType.toLowerCase()
+                                     .indexOf(CHARSET_PARAMETER);
+            if (charset >= 0) {
+                return contentType.substring(charset + CHARSET_PARAMETER.length())
+                                  .split(";", 2)[0]
+                                  .trim();
+            }
+        }
+        return ISO_8859_1.name();
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // The length is set on copying.
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        // The length is set on copying.
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        headers.replaceValues(name, ImmutableList.of(value));
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, String.valueOf(value));
+    }
+
+    @Override
+    public boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public @Nullable String getHeader(String name) {
+        return headers.get(name)
+                      .stream()
+                      .findFirst()
+                      .orElse(null);
+    }
+
+    @Override
+    public Collection<String> getHeaders(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return headers.keySet();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new BodyStream(body);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            Charset charset = Charset.forName(getCharacterEncoding());
+            characterEncoding = charset.name();
+            writer = new PrintWriter(new OutputStreamWriter(body, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    @Override
+    public void resetBuffer() {
+        flushBuffer();
+        body.reset();
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        error = false;
+        errorMessage = null;
+        contentType = null;
+    }
+
+    /**
+     * Writes the collected status, headers and body to the given response.
+     */
+    void copyTo(HttpServletResponse response) throws IOException {
+        headers.forEach(response::addHeader);
+        if (error) {
+            response.sendError(status, errorMessage);
+            return;
+        }
+        response.setStatus(status);
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        if (characterEncoding != null) {
+            response.setCharacterEncoding(characterEncoding);
+        }
+        flushBuffer();
+        response.setContentLength(body.size());
+        body.writeTo(response.getOutputStream());
+    }
+
+    /**
+     * A stream writing to the in-memory body.
+     */
+    private static final class BodyStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream body;
+
+        private BodyStream(ByteArrayOutputStream body) {
+            super();
+            this.body = body;
+        }
+
+        @Override
+        public void write(int b) {
+            body.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            body.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("The response is written to memory.");
+        }
+    }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.Any;
+import com.google.protobuf.FieldMask;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.EntityStateUpdate;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionUpdate;
+import io.spine.client.Topic;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.core.UserId;
+import io.spine.grpc.MemoizingObserver;
+import io.spine.protobuf.AnyPacker;
+import io.spine.server.SubscriptionService;
+import io.spine.tasks.Task;
+import io.spine.type.TypeUrl;
+import io.spine.web.firebase.query.FirebaseQueryResponse;
+import io.spine.web.query.QueryBridge;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.spine.grpc.StreamObservers.memoizingObserver;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A query bridge which serves the repeated {@code Task} queries from the Firebase nodes
+ * written for the previous equal queries.
+ *
+ * <p>The queries are cached by their {@linkplain RequestKeys keys}, which only keep the target,
+ * the field mask and the format of the query. So, the same queries sent by different clients
+ * share the same cache entry.
+ *
+ * <p>Along with a cached query, the bridge keeps the IDs of the tasks in its result, read with
+ * a separate query for the IDs only. The bridge subscribes to the updates of the
+ * {@code Task}s. When a task is updated, e.g. by a {@code TaskCreated} event, only the cached
+ * queries which either have the task in their results or may select the new state of
+ * the task are invalidated. So, creating a task invalidates only the queries which may
+ * select it. The filters which cannot be evaluated against the task are considered matching.
+ *
+ * <p>The cached queries are indexed by the IDs of the tasks in their results and in their ID
+ * filters. An update checks the filters of only those queries which may select any task,
+ * and the updates of different tasks do not wait for each other.
+ *
+ * <p>If the subscription to the updates fails or completes, the cache can no longer be kept
+ * up to date. The bridge then clears and disables the cache, and passes all the queries to
+ * the delegate.
+ *
+ * <p>The entries also expire after a fixed time and the number of entries is bounded.
+ * The {@linkplain #stats() statistics} of the cache, including the hit ratio, are available
+ * for monitoring.
+ *
+ * <p>The queries for the types other than {@code Task} are not cached.
+ */
+final class CachingQueryBridge implements QueryBridge<FirebaseQueryResponse> {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final String TASK_TYPE = TypeUrl.of(Task.class)
+                                                   .value();
+    private static final FieldMask ID_ONLY = FieldMask.newBuilder()
+                                                      .addPaths("id")
+                                                      .build();
+
+    private final QueryBridge<FirebaseQueryResponse> delegate;
+    private final QueryServiceImplBase queryService;
+    private final Cache<Query, Entry> responses;
+
+    /**
+     * The cached queries by the IDs of the tasks in their results and ID filters.
+     */
+    private final Map<Any, Set<Entry>> byTask = new ConcurrentHashMap<>();
+
+    /**
+     * The cached queries which may select any task, i.e. the ones without ID filters.
+     */
+    private final Set<Entry> anyTask = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Makes the updates of the tasks exclusive with adding the entries to the cache, so that
+     * an entry read before an update is not cached after it.
+     *
+     * <p>The updates share the lock with each other.
+     */
+    private final ReadWriteLock updateLock = new ReentrantReadWriteLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Tells whether the updates of the tasks are no longer delivered, so the queries are
+     * not cached.
+     */
+    private volatile boolean disabled;
+
+    private CachingQueryBridge(QueryBridge<FirebaseQueryResponse> delegate,
+                               QueryServiceImplBase queryService,
+                               int maximumSize,
+                               Duration ttl) {
+        this.delegate = delegate;
+        this.queryService = queryService;
+        this.responses = CacheBuilder.newBuilder()
+                                     .maximumSize(maximumSize)
+                                     .expireAfterWrite(ttl.toNanos(), NANOSECONDS)
+                                     .recordStats()
+                                     .removalListener(this::unindex)
+                                     .build();
+    }
+
+    /**
+     * Creates a new bridge which caches the responses of the given bridge.
+     *
+     * @param delegate
+     *         the bridge which executes the queries and writes their results to Firebase
+     * @param queryService
+     *         the service which reads the IDs of the tasks in the query results
+     * @param subscriptionService
+     *         the service which delivers the updates of the tasks
+     * @param maximumSize
+     *         the maximum number of the cached queries
+     * @param ttl
+     *         the time after which a cached query expires
+     */
+    static CachingQueryBridge create(QueryBridge<FirebaseQueryResponse> delegate,
+                                     QueryServiceImplBase queryService,
+                                     SubscriptionService subscriptionService,
+                                     int maximumSize,
+                                     Duration ttl) {
+        checkNotNull(subscriptionService);
+        CachingQueryBridge bridge = create(delegate, queryService, maximumSize, ttl);
+        bridge.subscribe(subscriptionService);
+        return bridge;
+    }
+
+    /**
+     * Creates a new bridge which is not subscribed to the updates of the tasks.
+     *
+     * <p>The updates are passed to the bridge through {@link #onUpdate(Any, Task)} or
+     * the {@linkplain #updateObserver() update observer}.
+     */
+    static CachingQueryBridge create(QueryBridge<FirebaseQueryResponse> delegate,
+                                     QueryServiceImplBase queryService,
+                                     int maximumSize,
+                                     Duration ttl) {
+        checkNotNull(delegate);
+        checkNotNull(queryService);
+        checkArgument(maximumSize > 0, "The cache size must be positive.");
+        checkArgument(!ttl.isNegative() && !ttl.isZero(), "The TTL must be positive.");
+        return new CachingQueryBridge(delegate, queryService, maximumSize, ttl);
+    }
+
+    private void subscribe(SubscriptionService subscriptionService) {
+        UserId actor = UserId.newBuilder()
+                             .setValue(CachingQueryBridge.class.getSimpleName())
+                             .build();
+        Topic topic = ActorRequestFactory.newBuilder()
+                                         .setActor(actor)
+                                         .build()
+                                         .topic()
+                                         .allOf(Task.class);
+        subscriptionService.subscribe(topic, new StreamObserver<Subscription>() {
+            @Override
+            public void onNext(Subscription subscription) {
+                subscriptionService.activate(subscription, updateObserver());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.at(Level.SEVERE)
+                   .withCause(t)
+                   .log("Unable to subscribe to the task updates. The query cache is disabled.");
+                disable();
+            }
+
+            @Override
+            public void onCompleted() {
+                // Nothing to do.
+            }
+        });
+    }
+
+    @Override
+    public FirebaseQueryResponse send(Query query) {
+        if (disabled || !TASK_TYPE.equals(query.getTarget()
+                                               .getType())) {
+            return delegate.send(query);
+        }
+        Query key = RequestKeys.of(query);
+        Entry cached = responses.getIfPresent(key);
+        if (cached != null) {
+            return cached.response;
+        }
+        long observedGeneration = generation.get();
+        FirebaseQueryResponse response = delegate.send(query);
+        ImmutableSet<Any> ids = resultIds(query);
+        if (ids == null) {
+            return response;
+        }
+        Entry entry = new Entry(key, response, ids);
+        Lock lock = updateLock.writeLock();
+        lock.lock();
+        try {
+            if (!disabled && generation.get() == observedGeneration) {
+                responses.put(key, entry);
+                index(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return response;
+    }
+
+    /**
+     * Reads the IDs of the tasks selected by the query.
+     *
+     * @return the IDs, or {@code null} if the query has failed
+     */
+    private @Nullable ImmutableSet<Any> resultIds(Query query) {
+        Query idQuery = query.toBuilder()
+                             .setFormat(query.getFormat()
+                                             .toBuilder()
+                                             .setFieldMask(ID_ONLY))
+                             .build();
+        MemoizingObserver<QueryResponse> observer = memoizingObserver();
+        queryService.read(idQuery, observer);
+        if (observer.getError() != null || observer.responses().isEmpty()) {
+            return null;
+        }
+        return observer.firstResponse()
+                       .getMessageList()
+                       .stream()
+                       .map(EntityStateWithVersion::getState)
+                       .map(state -> AnyPacker.unpack(state, Task.class)
+                                              .getId())
+                       .map(id -> RequestKeys.normalizeId(Identifier.pack(id)))
+                       .collect(toImmutableSet());
+    }
+
+    private void index(Entry entry) {
+        if (entry.requestedIds.isEmpty()) {
+            anyTask.add(entry);
+        }
+        for (Any id : entry.indexedIds()) {
+            byTask.compute(id, (key, entries) -> {
+                Set<Entry> result = entries == null
+                                    ? ConcurrentHashMap.newKeySet()
+                                    : entries;
+                result.add(entry);
+                return result;
+            });
+        }
+    }
+
+    private void unindex(RemovalNotification<Query, Entry> removal) {
+        Entry entry = removal.getValue();
+        if (entry == null) {
+            return;
+        }
+        anyTask.remove(entry);
+        for (Any id : entry.indexedIds()) {
+            byTask.computeIfPresent(id, (key, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    /**
+     * Invalidates the cached queries which have the updated task in their results or may
+     * select its new state.
+     *
+     * @param id
+     *         the packed ID of the task
+     * @param state
+     *         the new state of the task, or {@code null} if the task no longer exists
+     */
+    void onUpdate(Any id, @Nullable Task state) {
+        Lock lock = updateLock.readLock();
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            Set<Entry> withTask = byTask.get(id);
+            if (withTask != null) {
+                withTask.forEach(this::invalidate);
+            }
+            if (state != null) {
+                for (Entry entry : anyTask) {
+                    if (QueryMatcher.mayMatch(entry.query, id, state)) {
+                        invalidate(entry);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Clears the cache and stops caching the queries, since the updates of the tasks are
+     * no longer delivered.
+     */
+    private void disable() {
+        Lock lock = updateLock.readLock();
+        lock.lock();
+        try {
+            disabled = true;
+            generation.incrementAndGet();
+            responses.invalidateAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tells whether the cache is disabled after the subscription to the updates has stopped.
+     */
+    boolean disabled() {
+        return disabled;
+    }
+
+    /**
+     * Creates an observer which passes the updates of the tasks to the cache.
+     *
+     * <p>When the observed stream fails or completes, the cache is disabled.
+     */
+    StreamObserver<SubscriptionUpdate> updateObserver() {
+        return new UpdateObserver();
+    }
+
+    private void invalidate(Entry entry) {
+        if (responses.asMap()
+                     .remove(entry.query, entry)) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Obtains the statistics of the cache, including the hit ratio.
+     */
+    CacheStats stats() {
+        return responses.stats();
+    }
+
+    /**
+     * Obtains the number of the queries invalidated by the updates of the tasks.
+     */
+    long invalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * A cached query along with the IDs of the tasks it refers to.
+     *
+     * <p>The entries are compared by identity, so that an entry is never confused with
+     * a newer entry of the same query.
+     */
+    private static final class Entry {
+
+        private final Query query;
+        private final FirebaseQueryResponse response;
+        private final ImmutableSet<Any> resultIds;
+        private final ImmutableSet<Any> requestedIds;
+
+        private Entry(Query query, FirebaseQueryResponse response, ImmutableSet<Any> resultIds) {
+            this.query = query;
+            this.response = response;
+            this.resultIds = resultIds;
+            this.requestedIds = ImmutableSet.copyOf(query.getTarget()
+                                                         .getFilters()
+                                                         .getIdFilter()
+                                                         .getIdList());
+        }
+
+        /**
+         * Obtains the IDs of the tasks whose updates may change the result of the query.
+         */
+        private ImmutableSet<Any> indexedIds() {
+            return ImmutableSet.<Any>builder()
+                               .addAll(resultIds)
+                               .addAll(requestedIds)
+                               .build();
+        }
+    }
+
+    /**
+     * Passes the updates of the tasks to the cache.
+     */
+    private final class UpdateObserver implements StreamObserver<SubscriptionUpdate> {
+
+        @Override
+        public void onNext(SubscriptionUpdate update) {
+            for (EntityStateUpdate entity : update.getEntityUpdates()
+                                                  .getUpdateList()) {
+                Any id = RequestKeys.normalizeId(entity.getId());
+                Task state = entity.hasState()
+                             ? AnyPacker.unpack(entity.getState(), Task.class)
+                             : null;
+                onUpdate(id, state);
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            log.at(Level.WARNING)
+               .withCause(t)
+               .log("The subscription to the task updates failed. The query cache is disabled.");
+            disable();
+        }
+
+        @Override
+        public void onCompleted() {
+            log.at(Level.WARNING)
+               .log("The subscription to the task updates completed. The query cache is disabled.");
+            disable();
+        }
+    }
+}
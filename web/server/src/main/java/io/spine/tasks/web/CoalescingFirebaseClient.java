@@ -0,0 +1,381 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.firebase.database.ChildEventListener;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.metrics.Metrics;
+import io.spine.web.firebase.FirebaseClient;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.NodeValue;
+import io.spine.web.firebase.StoredJson;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.logging.Level;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@code FirebaseClient} which coalesces the updates of the database nodes into batches.
+ *
+ * <p>The updates are not written right away. Instead, they are collected for a short time
+ * window, and then written with a single multi-path update. If a child node is updated
+ * several times within the window, only its latest value is written.
+ *
+ * <p>The client also remembers the last written value of each child node. If a node is
+ * updated again, only its changed fields are written instead of the whole value.
+ *
+ * <p>The pending updates are written before any other operation of the client, so the reads,
+ * creations and deletions observe all the preceding updates.
+ *
+ * <p>If a batch cannot be written, its updates are put back to the pending ones, unless
+ * the same nodes have been updated since, and are written in full with the next batch.
+ *
+ * <p>The sizes of the batches and the delivery latency are collected in
+ * the {@linkplain #stats() statistics}. The delivery latency and the time of the writes are
+ * also recorded to the {@link Metrics}.
+ */
+final class CoalescingFirebaseClient implements FirebaseClient {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMillis(20);
+    private static final int DEFAULT_MAX_BATCH_SIZE = 500;
+    private static final int DEFAULT_WRITTEN_CACHE_SIZE = 100_000;
+
+    private static final LatencyHistogram SUBSCRIPTION_LAG =
+            Metrics.histogram(Metrics.SUBSCRIPTION_LAG);
+    private static final LatencyHistogram FIREBASE_WRITE =
+            Metrics.histogram(Metrics.FIREBASE_WRITE);
+
+    /**
+     * The path of the root of the database, at which the multi-path updates are written.
+     */
+    private static final NodePath ROOT = NodePath.getDefaultInstance();
+
+    private final FirebaseClient delegate;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+    private final Cache<String, JsonObject> written;
+    private final CoalescingStats stats = new CoalescingStats();
+
+    /**
+     * Guards the pending updates.
+     */
+    private final Object pendingLock = new Object();
+
+    /**
+     * Makes the batches written one at a time, in the order of their collection.
+     */
+    private final Object writeLock = new Object();
+
+    private Map<String, JsonElement> pending = new LinkedHashMap<>();
+    private long firstPendingNanos;
+    private @Nullable ScheduledFuture<?> scheduledFlush;
+
+    private CoalescingFirebaseClient(Builder builder) {
+        this.delegate = builder.delegate;
+        this.windowNanos = builder.window.toNanos();
+        this.maxBatchSize = builder.maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("firebase-coalescing-%d")
+                                          .setDaemon(true)
+                                          .build()
+        );
+        this.written = CacheBuilder.newBuilder()
+                                   .maximumSize(builder.writtenCacheSize)
+                                   .build();
+    }
+
+    /**
+     * Creates a new builder of a client which writes to the given client.
+     */
+    static Builder newBuilder(FirebaseClient delegate) {
+        return new Builder(delegate);
+    }
+
+    @Override
+    public Optional<StoredJson> fetchNode(NodePath nodePath) {
+        flush();
+        return delegate.fetchNode(nodePath);
+    }
+
+    @Override
+    public void subscribeTo(NodePath nodePath, ChildEventListener listener) {
+        delegate.subscribeTo(nodePath, listener);
+    }
+
+    @Override
+    public void create(NodePath nodePath, NodeValue value) {
+        flush();
+        long start = System.nanoTime();
+        delegate.create(nodePath, value);
+        FIREBASE_WRITE.recordSince(start);
+        forgetWritten(nodePath);
+    }
+
+    @Override
+    public void update(NodePath nodePath, NodeValue value) {
+        JsonObject children = value.underlyingJson();
+        boolean full;
+        synchronized (pendingLock) {
+            if (pending.isEmpty()) {
+                firstPendingNanos = System.nanoTime();
+                scheduledFlush = scheduler.schedule(this::scheduledFlush, windowNanos, NANOSECONDS);
+            }
+            for (Map.Entry<String, JsonElement> child : children.entrySet()) {
+                String childPath = childPath(nodePath.getValue(), child.getKey());
+                JsonElement replaced = pending.put(childPath, child.getValue());
+                stats.recordUpdate(replaced != null);
+            }
+            full = pending.size() >= maxBatchSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    @Override
+    public void delete(NodePath nodePath) {
+        flush();
+        long start = System.nanoTime();
+        delegate.delete(nodePath);
+        FIREBASE_WRITE.recordSince(start);
+        forgetWritten(nodePath);
+    }
+
+    /**
+     * Writes all the pending updates.
+     */
+    void flush() {
+        synchronized (writeLock) {
+            Map<String, JsonElement> batch;
+            long since;
+            synchronized (pendingLock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                since = firstPendingNanos;
+                pending = new LinkedHashMap<>();
+                if (scheduledFlush != null) {
+                    scheduledFlush.cancel(false);
+                    scheduledFlush = null;
+                }
+            }
+            write(batch, since);
+        }
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.at(Level.WARNING)
+               .withCause(e)
+               .log("Unable to write a batch of updates to Firebase.");
+        }
+    }
+
+    private void write(Map<String, JsonElement> batch, long since) {
+        NodeValue delta = NodeValue.empty();
+        JsonObject deltaJson = delta.underlyingJson();
+        Map<String, JsonObject> newlyWritten = new HashMap<>(batch.size());
+        for (Map.Entry<String, JsonElement> update : batch.entrySet()) {
+            String path = update.getKey();
+            JsonElement value = update.getValue();
+            addDelta(deltaJson, path, value);
+            if (value.isJsonObject()) {
+                newlyWritten.put(path, value.getAsJsonObject()
+                                            .deepCopy());
+            }
+        }
+        if (deltaJson.size() > 0) {
+            long start = System.nanoTime();
+            try {
+                delegate.update(ROOT, delta);
+            } catch (RuntimeException e) {
+                batch.keySet()
+                     .forEach(written::invalidate);
+                restore(batch, since);
+                throw e;
+            }
+            FIREBASE_WRITE.recordSince(start);
+        }
+        batch.keySet()
+             .forEach(written::invalidate);
+        written.putAll(newlyWritten);
+        long latency = System.nanoTime() - since;
+        stats.recordBatch(batch.size(), deltaJson.size(), latency);
+        SUBSCRIPTION_LAG.record(latency);
+    }
+
+    /**
+     * Puts the updates of a batch which has not been written back to the pending updates.
+     *
+     * <p>The updates collected after the batch are newer, so they take precedence over
+     * the updates of the batch to the same nodes.
+     */
+    private void restore(Map<String, JsonElement> batch, long since) {
+        synchronized (pendingLock) {
+            Map<String, JsonElement> restored = new LinkedHashMap<>(batch);
+            restored.putAll(pending);
+            pending = restored;
+            firstPendingNanos = since;
+            if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::scheduledFlush, windowNanos, NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Adds the changes of the node at the given path to the multi-path update.
+     *
+     * <p>If the previous value of the node is known, only the changed fields are added.
+     * The removed fields are added with the {@code null} value, which deletes them.
+     */
+    private void addDelta(JsonObject delta, String path, JsonElement value) {
+        JsonObject previous = written.getIfPresent(path);
+        if (previous == null || !value.isJsonObject()) {
+            delta.add(path, value);
+            return;
+        }
+        JsonObject current = value.getAsJsonObject();
+        for (Map.Entry<String, JsonElement> field : current.entrySet()) {
+            if (!field.getValue()
+                      .equals(previous.get(field.getKey()))) {
+                delta.add(childPath(path, field.getKey()), field.getValue());
+            }
+        }
+        for (String field : previous.keySet()) {
+            if (!current.has(field)) {
+                delta.add(childPath(path, field), JsonNull.INSTANCE);
+            }
+        }
+    }
+
+    /**
+     * Drops the remembered values of the node at the given path and all its children, since
+     * they are overwritten.
+     */
+    private void forgetWritten(NodePath nodePath) {
+        String path = nodePath.getValue();
+        String children = path + '/';
+        written.asMap()
+               .keySet()
+               .removeIf(key -> key.equals(path) || key.startsWith(children));
+    }
+
+    private static String childPath(String parent, String child) {
+        return parent.isEmpty()
+               ? child
+               : parent + '/' + child;
+    }
+
+    /**
+     * Obtains the statistics of the written batches.
+     */
+    CoalescingStats stats() {
+        return stats;
+    }
+
+    /**
+     * A builder for the {@code CoalescingFirebaseClient} instances.
+     */
+    static final class Builder {
+
+        private final FirebaseClient delegate;
+        private Duration window = DEFAULT_WINDOW;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private int writtenCacheSize = DEFAULT_WRITTEN_CACHE_SIZE;
+
+        private Builder(FirebaseClient delegate) {
+            this.delegate = checkNotNull(delegate);
+        }
+
+        /**
+         * Sets the time for which the updates are collected before they are written.
+         *
+         * <p>The default value is 20 milliseconds.
+         */
+        Builder setWindow(Duration window) {
+            checkNotNull(window);
+            checkArgument(!window.isNegative() && !window.isZero(),
+                          "The coalescing window must be positive.");
+            this.window = window;
+            return this;
+        }
+
+        /**
+         * Sets the number of the updated nodes after which the batch is written without
+         * waiting for the end of the window.
+         *
+         * <p>The default value is 500.
+         */
+        Builder setMaxBatchSize(int maxBatchSize) {
+            checkArgument(maxBatchSize > 0, "The maximum batch size must be positive.");
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of the nodes whose last written values are remembered to write only
+         * the changes of their next updates.
+         *
+         * <p>The default value is 100,000.
+         */
+        Builder setWrittenCacheSize(int writtenCacheSize) {
+            checkArgument(writtenCacheSize >= 0, "The cache size must not be negative.");
+            this.writtenCacheSize = writtenCacheSize;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of {@code CoalescingFirebaseClient}.
+         */
+        CoalescingFirebaseClient build() {
+            return new CoalescingFirebaseClient(this);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * The statistics of the updates written by a {@link CoalescingFirebaseClient}.
+ *
+ * <p>Counts the received updates of the database nodes and the written batches. For
+ * the batches, tracks the number of the updated nodes and the number of the written paths,
+ * which may be less than the number of the nodes if only some fields of the nodes are changed.
+ *
+ * <p>The latency of a batch is the time from the first update of the batch to the moment
+ * the batch is written.
+ */
+final class CoalescingStats {
+
+    private long updates;
+    private long collapsedUpdates;
+    private long batches;
+    private long batchedNodes;
+    private long writtenPaths;
+    private int maxBatchSize;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    synchronized void recordUpdate(boolean collapsed) {
+        updates++;
+        if (collapsed) {
+            collapsedUpdates++;
+        }
+    }
+
+    synchronized void recordBatch(int nodes, int paths, long latencyNanos) {
+        batches++;
+        batchedNodes += nodes;
+        writtenPaths += paths;
+        maxBatchSize = Math.max(maxBatchSize, nodes);
+        totalLatencyNanos += latencyNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+    }
+
+    /**
+     * Obtains the number of the received updates of the database nodes.
+     */
+    synchronized long updates() {
+        return updates;
+    }
+
+    /**
+     * Obtains the number of the updates replaced by a later update of the same node before
+     * they were written.
+     */
+    synchronized long collapsedUpdates() {
+        return collapsedUpdates;
+    }
+
+    /**
+     * Obtains the number of the written batches.
+     */
+    synchronized long batches() {
+        return batches;
+    }
+
+    /**
+     * Obtains the number of the paths written in all the batches.
+     */
+    synchronized long writtenPaths() {
+        return writtenPaths;
+    }
+
+    /**
+     * Obtains the largest number of the nodes updated in a single batch.
+     */
+    synchronized int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Obtains the mean number of the nodes updated in a batch.
+     */
+    synchronized double meanBatchSize() {
+        return batches == 0 ? 0 : (double) batchedNodes / batches;
+    }
+
+    /**
+     * Obtains the mean latency of a batch in milliseconds.
+     */
+    synchronized double meanLatencyMillis() {
+        return batches == 0 ? 0 : toMillis(totalLatencyNanos) / batches;
+    }
+
+    /**
+     * Obtains the maximum latency of a batch in milliseconds.
+     */
+    synchronized double maxLatencyMillis() {
+        return toMillis(maxLatencyNanos);
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "CoalescingStats{updates=%d, collapsedUpdates=%d, batches=%d, writtenPaths=%d,"
+                        + " meanBatchSize=%.1f, maxBatchSize=%d,"
+                        + " meanLatencyMillis=%.2f, maxLatencyMillis=%.2f}",
+                updates, collapsedUpdates, batches, writtenPaths,
+                meanBatchSize(), maxBatchSize, meanLatencyMillis(), maxLatencyMillis());
+    }
+}
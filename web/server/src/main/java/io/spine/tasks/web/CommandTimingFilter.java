@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.metrics.Metrics;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.annotation.WebFilter;
+import java.io.IOException;
+
+/**
+ * A {@link Filter} which records the time of accepting the commands posted to the web server.
+ *
+ * <p>The time is recorded to the {@link Metrics#COMMAND_ACCEPTANCE} histogram, the same one
+ * which holds the time of the commands accepted by the gRPC server.
+ *
+ * <p>If the request is {@linkplain AsyncProcessing processed asynchronously}, the time is
+ * recorded when the processing ends rather than when the filter chain returns.
+ */
+@WebFilter(urlPatterns = {"/command", "/command/batch"}, asyncSupported = true)
+public final class CommandTimingFilter implements Filter {
+
+    private static final LatencyHistogram ACCEPTANCE_TIME =
+            Metrics.histogram(Metrics.COMMAND_ACCEPTANCE);
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+        // Nothing to initialize.
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext()
+                       .addListener(new RecordOnEnd(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                ACCEPTANCE_TIME.recordSince(start);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to release.
+    }
+
+    /**
+     * Records the time of an asynchronously processed request when the processing ends.
+     */
+    private static final class RecordOnEnd implements AsyncListener {
+
+        private final long start;
+
+        private RecordOnEnd(long start) {
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            ACCEPTANCE_TIME.recordSince(start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // Recorded on completion.
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // Recorded on completion.
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted.
+        }
+    }
+}
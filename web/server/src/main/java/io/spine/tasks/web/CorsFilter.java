@@ -33,6 +33,10 @@ import javax.servlet.annotation.WebFilter;
 /**
  * A {@link javax.servlet.Filter} which appends the CORS headers to the HTTP responses.
  */
-@WebFilter(filterName = AllowAnyOriginFilter.NAME, urlPatterns = AllowAnyOriginFilter.ANY_URL)
+@WebFilter(
+        filterName = AllowAnyOriginFilter.NAME,
+        urlPatterns = AllowAnyOriginFilter.ANY_URL,
+        asyncSupported = true
+)
 public final class CorsFilter extends AllowAnyOriginFilter {
 }
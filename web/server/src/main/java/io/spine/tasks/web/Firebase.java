@@ -43,7 +43,14 @@ import java.util.Date;
 /**
  * A factory of Firebase Realtime Database clients.
  *
- * <p>Connects to a database emulator started at port {@code 5000}.
+ * <p>By default, connects to a database emulator started at port {@code 5000}. Another URL of
+ * the database may be set by the {@value #URL_PROPERTY} system property.
+ *
+ * <p>If the {@value #CLIENT_PROPERTY} system property is {@value #LOCAL_CLIENT}, the database is
+ * {@linkplain LocalFirebaseClient kept in memory} instead, so that the web server runs without
+ * the emulator. The latency of such a database is set in milliseconds by
+ * the {@value #LOCAL_LATENCY_PROPERTY} and {@value #LOCAL_JITTER_PROPERTY} system properties,
+ * and the share of the failed operations by the {@value #LOCAL_FAILURE_RATE_PROPERTY} one.
  *
  * <p>Supplies fake credentials to Firebase RDB, as the {@code firebase-server} emulator used
  * does not support authentication anyway.
@@ -52,16 +59,56 @@ import java.util.Date;
  * <a href="https://github.com/urish/firebase-server">unofficial</a> one. It is simple in its
  * installation and provides REST API, sufficient for a quick start application.
  *
+ * <p>The updates of the subscriptions are {@linkplain CoalescingFirebaseClient coalesced} into
+ * batches, which are collected for the number of milliseconds set by
+ * the {@value #COALESCING_WINDOW_PROPERTY} system property, 20 by default.
+ *
  * <p>In production projects, a real Firebase RDB instance should be configured.
  */
 final class Firebase {
 
-    private static final Url EMULATOR_URL = Url
-            .newBuilder()
-            .setSpec("http://127.0.0.1:5000/")
-            .vBuild();
+    private static final String EMULATOR_URL = "http://127.0.0.1:5000/";
+
+    /**
+     * The system property which sets the URL of the database.
+     */
+    private static final String URL_PROPERTY = "tasks.firebase.url";
+
+    /**
+     * The system property which selects the kind of the client.
+     */
+    private static final String CLIENT_PROPERTY = "tasks.firebase.client";
+
+    /**
+     * The value of the {@value #CLIENT_PROPERTY} property which selects the in-memory database.
+     */
+    private static final String LOCAL_CLIENT = "local";
+
+    /**
+     * The system property which sets the latency of the in-memory database in milliseconds.
+     */
+    private static final String LOCAL_LATENCY_PROPERTY = "tasks.firebase.local.latency";
 
-    private static final FirebaseClient client = createClient();
+    /**
+     * The system property which sets the maximum random addition to the latency of
+     * the in-memory database in milliseconds.
+     */
+    private static final String LOCAL_JITTER_PROPERTY = "tasks.firebase.local.jitter";
+
+    /**
+     * The system property which sets the probability of an operation of the in-memory database
+     * to fail.
+     */
+    private static final String LOCAL_FAILURE_RATE_PROPERTY = "tasks.firebase.local.failure-rate";
+
+    /**
+     * The system property which sets the coalescing window of the updates in milliseconds.
+     */
+    private static final String COALESCING_WINDOW_PROPERTY = "tasks.firebase.coalescing.window";
+
+    private static final long DEFAULT_COALESCING_WINDOW = 20;
+
+    private static final CoalescingFirebaseClient client = createClient();
 
     /**
      * Prevents the utility class instantiation.
@@ -73,10 +120,33 @@ final class Firebase {
         return client;
     }
 
-    private static FirebaseClient createClient() {
-        FirebaseDatabase database = emulatorDatabase();
-        FirebaseClient client = FirebaseClientFactory.remoteClient(database);
-        return client;
+    /**
+     * Obtains the statistics of the batches of the updates written by the client.
+     */
+    static CoalescingStats coalescingStats() {
+        return client.stats();
+    }
+
+    private static CoalescingFirebaseClient createClient() {
+        FirebaseClient remote = LOCAL_CLIENT.equals(System.getProperty(CLIENT_PROPERTY))
+                                ? localClient()
+                                : FirebaseClientFactory.remoteClient(emulatorDatabase());
+        long window = Long.getLong(COALESCING_WINDOW_PROPERTY, DEFAULT_COALESCING_WINDOW);
+        return CoalescingFirebaseClient
+                .newBuilder(remote)
+                .setWindow(Duration.ofMillis(window))
+                .build();
+    }
+
+    private static LocalFirebaseClient localClient() {
+        double failureRate =
+                Double.parseDouble(System.getProperty(LOCAL_FAILURE_RATE_PROPERTY, "0"));
+        return LocalFirebaseClient
+                .newBuilder()
+                .setLatency(Duration.ofMillis(Long.getLong(LOCAL_LATENCY_PROPERTY, 0)))
+                .setJitter(Duration.ofMillis(Long.getLong(LOCAL_JITTER_PROPERTY, 0)))
+                .setFailureRate(failureRate)
+                .build();
     }
 
     /**
@@ -88,10 +158,13 @@ final class Firebase {
         GoogleCredentials credentials = GoogleCredentials.newBuilder()
                                                          .setAccessToken(token)
                                                          .build();
+        Url url = Url.newBuilder()
+                     .setSpec(System.getProperty(URL_PROPERTY, EMULATOR_URL))
+                     .vBuild();
         FirebaseOptions options =
                 FirebaseOptions.builder()
                                .setCredentials(credentials)
-                               .setDatabaseUrl(EMULATOR_URL.getSpec())
+                               .setDatabaseUrl(url.getSpec())
                                .build();
         FirebaseApp app = FirebaseApp.initializeApp(options);
         return FirebaseDatabase.getInstance(app);
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableList;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A table of the leases which expire unless renewed in time.
+ *
+ * <p>The leases are tracked by a hashed timer wheel. The time is split into ticks, and each
+ * lease is kept in the slot of the wheel which corresponds to the tick of its deadline.
+ * Collecting the expired leases only visits the slots of the ticks passed since the previous
+ * collection, so the leases which are renewed in time are not scanned.
+ *
+ * <p>Renewing a lease only moves its deadline. The lease stays in its slot until the slot is
+ * visited, and then it is moved to the slot of the new deadline. Therefore, a lease renewed
+ * many times within a lease period is moved at most once per period.
+ *
+ * <p>A lease is considered expired once the tick of its deadline is over, so it may outlive
+ * its deadline by up to one tick, which is a {@value #TICKS_PER_LEASE}th part of the lease.
+ * The wheel spans two lease periods, so a new deadline never falls into the slot being
+ * visited.
+ *
+ * <p>The time is passed to the methods explicitly, as {@link System#nanoTime()} readings.
+ *
+ * @param <K>
+ *         the type of the keys of the leases
+ */
+final class LeaseTable<K> {
+
+    private static final int TICKS_PER_LEASE = 256;
+    private static final int WHEEL_SIZE = TICKS_PER_LEASE * 2;
+
+    private final long leaseNanos;
+    private final long tickNanos;
+    private final Map<K, Lease<K>> leases = new HashMap<>();
+    private final ArrayDeque<Lease<K>>[] wheel;
+    private long lastTick;
+    private boolean started;
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic arrays cannot be created directly.
+    LeaseTable(Duration lease) {
+        checkArgument(!lease.isNegative() && !lease.isZero(), "The lease must be positive.");
+        this.leaseNanos = lease.toNanos();
+        this.tickNanos = Math.max(1, leaseNanos / TICKS_PER_LEASE);
+        this.wheel = new ArrayDeque[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Starts or renews the lease of the key, so that it expires after the lease time
+     * from now.
+     */
+    synchronized void renew(K key, long now) {
+        checkNotNull(key);
+        start(now);
+        long deadline = now + leaseNanos;
+        Lease<K> lease = leases.get(key);
+        if (lease == null) {
+            lease = new Lease<>(key, deadline);
+            leases.put(key, lease);
+            schedule(lease);
+        } else {
+            lease.deadline = deadline;
+        }
+    }
+
+    /**
+     * Ends the lease of the key.
+     *
+     * @return {@code true} if the lease was active, {@code false} otherwise
+     */
+    synchronized boolean remove(K key) {
+        Lease<K> lease = leases.remove(key);
+        if (lease == null) {
+            return false;
+        }
+        lease.removed = true;
+        return true;
+    }
+
+    /**
+     * Tells whether the key has an active lease.
+     */
+    synchronized boolean contains(K key) {
+        return leases.containsKey(key);
+    }
+
+    /**
+     * Removes the leases expired by now.
+     *
+     * @return the keys of the expired leases
+     */
+    synchronized ImmutableList<K> expire(long now) {
+        start(now);
+        long currentTick = tickOf(now);
+        if (currentTick <= lastTick + 1) {
+            return ImmutableList.of();
+        }
+        long cutoff = currentTick * tickNanos;
+        long first = Math.max(lastTick + 1, currentTick - WHEEL_SIZE);
+        ImmutableList.Builder<K> expired = ImmutableList.builder();
+        for (long tick = first; tick < currentTick; tick++) {
+            int slot = slotOf(tick);
+            ArrayDeque<Lease<K>> due = wheel[slot];
+            wheel[slot] = new ArrayDeque<>();
+            for (Lease<K> lease : due) {
+                if (lease.removed) {
+                    continue;
+                }
+                if (lease.deadline < cutoff) {
+                    leases.remove(lease.key);
+                    expired.add(lease.key);
+                } else {
+                    schedule(lease);
+                }
+            }
+        }
+        lastTick = currentTick - 1;
+        return expired.build();
+    }
+
+    /**
+     * Obtains the number of the active leases.
+     */
+    synchronized int size() {
+        return leases.size();
+    }
+
+    private void start(long now) {
+        if (!started) {
+            started = true;
+            lastTick = tickOf(now) - 1;
+        }
+    }
+
+    private void schedule(Lease<K> lease) {
+        wheel[slotOf(tickOf(lease.deadline))].add(lease);
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos, tickNanos);
+    }
+
+    private static int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) WHEEL_SIZE);
+    }
+
+    /**
+     * A lease of a key.
+     */
+    private static final class Lease<K> {
+
+        private final K key;
+        private long deadline;
+        private boolean removed;
+
+        private Lease(K key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.firebase.database.ChildEventListener;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.spine.web.firebase.FirebaseClient;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.NodeValue;
+import io.spine.web.firebase.StoredJson;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.util.Exceptions.newIllegalStateException;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A {@code FirebaseClient} which keeps the database in the memory of the process.
+ *
+ * <p>Stands in for the Firebase Realtime Database when the web server is run or benchmarked
+ * without the emulator. The nodes are stored as a JSON tree, and the writes follow the rules of
+ * the Firebase REST API: a {@linkplain #create creation} replaces the node, an
+ * {@linkplain #update update} sets each of the given children, which may be paths, and
+ * the {@code null} values remove the nodes.
+ *
+ * <p>Each operation may be delayed and may fail, in order to see how the latency and the errors
+ * of the database affect the server. The delay is the {@linkplain Builder#setLatency latency}
+ * plus a random {@linkplain Builder#setJitter jitter}. The random values are produced from
+ * a {@linkplain Builder#setSeed seed}, so that the runs are repeatable.
+ *
+ * <p>The client keeps a {@linkplain #writes() record} of the latest writes.
+ *
+ * <p>The child events are not delivered to the {@linkplain #subscribeTo subscribed} listeners,
+ * since the Firebase SDK does not allow to create the data snapshots outside of it.
+ */
+final class LocalFirebaseClient implements FirebaseClient {
+
+    private static final int DEFAULT_RECORD_LIMIT = 10_000;
+    private static final long DEFAULT_SEED = 42;
+
+    private static final Splitter PATH_SPLITTER = Splitter.on('/')
+                                                          .omitEmptyStrings();
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double failureRate;
+    private final Random random;
+    private final int recordLimit;
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * The root of the stored JSON tree.
+     *
+     * <p>Guarded by itself, along with the {@linkplain #writes record of the writes}.
+     */
+    private final JsonObject root = new JsonObject();
+    private final Deque<Write> writes = new ArrayDeque<>();
+    private long writeCount;
+
+    private LocalFirebaseClient(Builder builder) {
+        this.latencyNanos = builder.latency.toNanos();
+        this.jitterNanos = builder.jitter.toNanos();
+        this.failureRate = builder.failureRate;
+        this.random = new Random(builder.seed);
+        this.recordLimit = builder.recordLimit;
+    }
+
+    /**
+     * Creates a new instance of {@code Builder} for {@code LocalFirebaseClient} instances.
+     */
+    static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public Optional<StoredJson> fetchNode(NodePath nodePath) {
+        simulateRemoteCall(Operation.FETCH, nodePath);
+        synchronized (root) {
+            JsonElement node = find(segments(nodePath.getValue()));
+            if (node == null) {
+                return Optional.empty();
+            }
+            return Optional.of(StoredJson.from(node.toString()));
+        }
+    }
+
+    @Override
+    public void subscribeTo(NodePath nodePath, ChildEventListener listener) {
+        checkNotNull(listener);
+        simulateRemoteCall(Operation.SUBSCRIBE, nodePath);
+    }
+
+    @Override
+    public void create(NodePath nodePath, NodeValue value) {
+        simulateRemoteCall(Operation.CREATE, nodePath);
+        JsonObject json = value.underlyingJson();
+        synchronized (root) {
+            set(segments(nodePath.getValue()), json);
+            record(Operation.CREATE, nodePath, json);
+        }
+    }
+
+    @Override
+    public void update(NodePath nodePath, NodeValue value) {
+        simulateRemoteCall(Operation.UPDATE, nodePath);
+        JsonObject json = value.underlyingJson();
+        List<String> parent = segments(nodePath.getValue());
+        synchronized (root) {
+            for (Map.Entry<String, JsonElement> child : json.entrySet()) {
+                List<String> path = ImmutableList.<String>builder()
+                                                 .addAll(parent)
+                                                 .addAll(segments(child.getKey()))
+                                                 .build();
+                set(path, child.getValue());
+            }
+            record(Operation.UPDATE, nodePath, json);
+        }
+    }
+
+    @Override
+    public void delete(NodePath nodePath) {
+        simulateRemoteCall(Operation.DELETE, nodePath);
+        synchronized (root) {
+            set(segments(nodePath.getValue()), JsonNull.INSTANCE);
+            record(Operation.DELETE, nodePath, JsonNull.INSTANCE);
+        }
+    }
+
+    /**
+     * Waits for the configured latency and fails the call with the configured probability.
+     */
+    private void simulateRemoteCall(Operation operation, NodePath nodePath) {
+        checkNotNull(nodePath);
+        long delay = latencyNanos;
+        boolean fail;
+        synchronized (random) {
+            if (jitterNanos > 0) {
+                delay += (long) (random.nextDouble() * jitterNanos);
+            }
+            fail = failureRate > 0 && random.nextDouble() < failureRate;
+        }
+        if (delay > 0) {
+            Uninterruptibles.sleepUninterruptibly(delay, NANOSECONDS);
+        }
+        if (fail) {
+            failures.increment();
+            throw newIllegalStateException("Injected failure of `%s` at `%s`.",
+                                           operation, nodePath.getValue());
+        }
+    }
+
+    private @Nullable JsonElement find(List<String> path) {
+        JsonElement node = root;
+        for (String segment : path) {
+            if (!node.isJsonObject()) {
+                return null;
+            }
+            node = node.getAsJsonObject()
+                       .get(segment);
+            if (node == null) {
+                return null;
+            }
+        }
+        boolean empty = node.isJsonNull()
+                || node.isJsonObject() && node.getAsJsonObject()
+                                              .size() == 0;
+        return empty ? null : node;
+    }
+
+    /**
+     * Sets the value of the node at the given path, or removes the node if the value is
+     * {@code null}.
+     *
+     * <p>The missing parent nodes are created. The parent nodes left empty after a removal are
+     * removed too, as Firebase does not store empty nodes.
+     */
+    private void set(List<String> path, JsonElement value) {
+        boolean remove = value.isJsonNull();
+        if (path.isEmpty()) {
+            new ArrayList<>(root.keySet()).forEach(root::remove);
+            if (!remove && value.isJsonObject()) {
+                value.getAsJsonObject()
+                     .entrySet()
+                     .forEach(child -> root.add(child.getKey(), child.getValue()
+                                                                     .deepCopy()));
+            }
+            return;
+        }
+        Deque<JsonObject> parents = new ArrayDeque<>();
+        JsonObject parent = root;
+        for (String segment : path.subList(0, path.size() - 1)) {
+            parents.push(parent);
+            JsonElement child = parent.get(segment);
+            if (child == null || !child.isJsonObject()) {
+                if (remove) {
+                    return;
+                }
+                child = new JsonObject();
+                parent.add(segment, child);
+            }
+            parent = child.getAsJsonObject();
+        }
+        String name = path.get(path.size() - 1);
+        if (!remove) {
+            parent.add(name, value.deepCopy());
+            return;
+        }
+        parent.remove(name);
+        for (int i = path.size() - 2; i >= 0 && parent.size() == 0; i--) {
+            JsonObject grandParent = parents.pop();
+            grandParent.remove(path.get(i));
+            parent = grandParent;
+        }
+    }
+
+    private void record(Operation operation, NodePath nodePath, JsonElement value) {
+        writeCount++;
+        if (recordLimit == 0) {
+            return;
+        }
+        if (writes.size() == recordLimit) {
+            writes.removeFirst();
+        }
+        writes.addLast(new Write(operation, nodePath.getValue(), value.deepCopy()));
+    }
+
+    private static List<String> segments(String path) {
+        return PATH_SPLITTER.splitToList(path);
+    }
+
+    /**
+     * Obtains the latest writes, from the oldest to the newest.
+     *
+     * <p>At most the {@linkplain Builder#setRecordLimit configured number} of writes is kept.
+     */
+    ImmutableList<Write> writes() {
+        synchronized (root) {
+            return ImmutableList.copyOf(writes);
+        }
+    }
+
+    /**
+     * Obtains the total number of the writes, including the ones no longer kept in
+     * the {@linkplain #writes() record}.
+     */
+    long writeCount() {
+        synchronized (root) {
+            return writeCount;
+        }
+    }
+
+    /**
+     * Obtains the number of the operations failed on purpose.
+     */
+    long failures() {
+        return failures.sum();
+    }
+
+    /**
+     * An operation of the client.
+     */
+    enum Operation {
+        FETCH,
+        SUBSCRIBE,
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * A write received by the client.
+     */
+    static final class Write {
+
+        private final Operation operation;
+        private final String path;
+        private final JsonElement value;
+
+        private Write(Operation operation, String path, JsonElement value) {
+            this.operation = operation;
+            this.path = path;
+            this.value = value;
+        }
+
+        /**
+         * Obtains the kind of the write.
+         */
+        Operation operation() {
+            return operation;
+        }
+
+        /**
+         * Obtains the path of the written node.
+         */
+        String path() {
+            return path;
+        }
+
+        /**
+         * Obtains a copy of the written value.
+         *
+         * <p>For a deletion, it is the JSON {@code null}.
+         */
+        JsonElement value() {
+            return value.deepCopy();
+        }
+    }
+
+    /**
+     * A builder for the {@code LocalFirebaseClient} instances.
+     */
+    static final class Builder {
+
+        private Duration latency = Duration.ZERO;
+        private Duration jitter = Duration.ZERO;
+        private double failureRate;
+        private long seed = DEFAULT_SEED;
+        private int recordLimit = DEFAULT_RECORD_LIMIT;
+
+        /**
+         * Prevents direct instantiation.
+         */
+        private Builder() {
+        }
+
+        /**
+         * Sets the time each operation takes at the least.
+         *
+         * <p>The default value is zero.
+         */
+        Builder setLatency(Duration latency) {
+            checkNotNull(latency);
+            checkArgument(!latency.isNegative(), "The latency must not be negative.");
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum random time added to the latency of each operation.
+         *
+         * <p>The default value is zero.
+         */
+        Builder setJitter(Duration jitter) {
+            checkNotNull(jitter);
+            checkArgument(!jitter.isNegative(), "The jitter must not be negative.");
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Sets the probability of an operation to fail with an {@code IllegalStateException}.
+         *
+         * <p>The default value is zero.
+         */
+        Builder setFailureRate(double failureRate) {
+            checkArgument(failureRate >= 0 && failureRate <= 1,
+                          "The failure rate must be within [0, 1].");
+            this.failureRate = failureRate;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random jitter and failures.
+         */
+        Builder setSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of the latest writes to keep in the record.
+         *
+         * <p>Zero turns the record off. The default value is 10,000.
+         */
+        Builder setRecordLimit(int recordLimit) {
+            checkArgument(recordLimit >= 0, "The record limit must not be negative.");
+            this.recordLimit = recordLimit;
+            return this;
+        }
+
+        /**
+         * Creates a new instance of {@code LocalFirebaseClient}.
+         */
+        LocalFirebaseClient build() {
+            return new LocalFirebaseClient(this);
+        }
+    }
+}
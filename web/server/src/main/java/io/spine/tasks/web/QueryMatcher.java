@@ -0,0 +1,205 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.BoolValue;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DoubleValue;
+import com.google.protobuf.FloatValue;
+import com.google.protobuf.Int32Value;
+import com.google.protobuf.Int64Value;
+import com.google.protobuf.Message;
+import com.google.protobuf.StringValue;
+import com.google.protobuf.UInt32Value;
+import com.google.protobuf.UInt64Value;
+import io.spine.client.CompositeFilter;
+import io.spine.client.Filter;
+import io.spine.client.Query;
+import io.spine.client.Target;
+import io.spine.protobuf.AnyPacker;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.spine.client.CompositeFilter.CompositeOperator.EITHER;
+
+/**
+ * Tells whether an entity may be selected by a query.
+ *
+ * <p>The filters of the query are evaluated against the state of the entity. The filters which
+ * cannot be evaluated, e.g. the ones comparing the values of unsupported types, are considered
+ * matching, so that the answer errs on the side of a match.
+ */
+final class QueryMatcher {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private QueryMatcher() {
+    }
+
+    /**
+     * Tells whether the entity with the given ID and state may be selected by the query.
+     *
+     * @param query
+     *         the query
+     * @param id
+     *         the packed ID of the entity
+     * @param state
+     *         the state of the entity, or {@code null} if the state is unknown, in which case
+     *         only the IDs are checked
+     */
+    static boolean mayMatch(Query query, Any id, @Nullable Message state) {
+        Target target = query.getTarget();
+        if (target.getIncludeAll()) {
+            return true;
+        }
+        List<Any> ids = target.getFilters()
+                              .getIdFilter()
+                              .getIdList();
+        if (!ids.isEmpty() && !ids.contains(id)) {
+            return false;
+        }
+        if (state == null) {
+            return true;
+        }
+        for (CompositeFilter composite : target.getFilters()
+                                               .getFilterList()) {
+            if (!mayMatch(composite, state)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean mayMatch(CompositeFilter composite, Message state) {
+        boolean either = composite.getOperator() == EITHER;
+        for (Filter filter : composite.getFilterList()) {
+            boolean matches = mayMatch(filter, state);
+            if (either && matches) {
+                return true;
+            }
+            if (!either && !matches) {
+                return false;
+            }
+        }
+        return !either || composite.getFilterCount() == 0;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // The values are compared if of the same type.
+    private static boolean mayMatch(Filter filter, Message state) {
+        Optional<Object> actual = fieldValue(state, filter.getFieldPath()
+                                                          .getFieldNameList());
+        Optional<Object> expected = unwrap(filter.getValue());
+        if (!actual.isPresent() || !expected.isPresent()) {
+            return true;
+        }
+        Object actualValue = actual.get();
+        Object expectedValue = expected.get();
+        if (!(actualValue instanceof Comparable)
+                || actualValue.getClass() != expectedValue.getClass()) {
+            return true;
+        }
+        int comparison = ((Comparable) actualValue).compareTo(expectedValue);
+        switch (filter.getOperator()) {
+            case EQUAL:
+                return comparison == 0;
+            case GREATER_THAN:
+                return comparison > 0;
+            case GREATER_OR_EQUAL:
+                return comparison >= 0;
+            case LESS_THAN:
+                return comparison < 0;
+            case LESS_OR_EQUAL:
+                return comparison <= 0;
+            default:
+                return true;
+        }
+    }
+
+    private static Optional<Object> fieldValue(Message state, List<String> path) {
+        Message message = state;
+        Object value = null;
+        for (int i = 0; i < path.size(); i++) {
+            Descriptor type = message.getDescriptorForType();
+            FieldDescriptor field = type.findFieldByName(path.get(i));
+            if (field == null || field.isRepeated()) {
+                return Optional.empty();
+            }
+            value = message.getField(field);
+            boolean last = i == path.size() - 1;
+            if (!last) {
+                if (!(value instanceof Message)) {
+                    return Optional.empty();
+                }
+                message = (Message) value;
+            }
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * Unpacks the value of a filter if it is of a supported wrapper type.
+     */
+    private static Optional<Object> unwrap(Any value) {
+        if (value.is(StringValue.class)) {
+            return Optional.of(AnyPacker.unpack(value, StringValue.class)
+                                        .getValue());
+        }
+        if (value.is(Int32Value.class)) {
+            return Optional.of(AnyPacker.unpack(value, Int32Value.class)
+                                        .getValue());
+        }
+        if (value.is(UInt32Value.class)) {
+            return Optional.of(AnyPacker.unpack(value, UInt32Value.class)
+                                        .getValue());
+        }
+        if (value.is(Int64Value.class)) {
+            return Optional.of(AnyPacker.unpack(value, Int64Value.class)
+                                        .getValue());
+        }
+        if (value.is(UInt64Value.class)) {
+            return Optional.of(AnyPacker.unpack(value, UInt64Value.class)
+                                        .getValue());
+        }
+        if (value.is(FloatValue.class)) {
+            return Optional.of(AnyPacker.unpack(value, FloatValue.class)
+                                        .getValue());
+        }
+        if (value.is(DoubleValue.class)) {
+            return Optional.of(AnyPacker.unpack(value, DoubleValue.class)
+                                        .getValue());
+        }
+        if (value.is(BoolValue.class)) {
+            return Optional.of(AnyPacker.unpack(value, BoolValue.class)
+                                        .getValue());
+        }
+        return Optional.empty();
+    }
+}
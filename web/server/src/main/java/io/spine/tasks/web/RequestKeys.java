@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.FieldMask;
+import com.google.protobuf.Message;
+import io.spine.base.Identifier;
+import io.spine.client.CompositeFilter;
+import io.spine.client.IdFilter;
+import io.spine.client.Query;
+import io.spine.client.ResponseFormat;
+import io.spine.client.Target;
+import io.spine.client.TargetFilters;
+import io.spine.client.Topic;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Converts the queries and the topics into the keys which are equal for all the equal
+ * requests.
+ *
+ * <p>A key drops the ID and the actor context of the request, sorts the filters and the field
+ * mask paths, and converts the task IDs to the binary form. So, the same requests sent by
+ * different clients have the same key.
+ */
+final class RequestKeys {
+
+    private static final Comparator<Message> BY_BYTES =
+            Comparator.comparing(Message::toByteString,
+                                 ByteString.unsignedLexicographicalComparator());
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private RequestKeys() {
+    }
+
+    /**
+     * Obtains the key of the query.
+     */
+    static Query of(Query query) {
+        ResponseFormat format = query.getFormat();
+        return Query.newBuilder()
+                    .setTarget(normalize(query.getTarget()))
+                    .setFormat(format.toBuilder()
+                                     .setFieldMask(normalize(format.getFieldMask())))
+                    .build();
+    }
+
+    /**
+     * Obtains the key of the topic.
+     */
+    static Topic of(Topic topic) {
+        return Topic.newBuilder()
+                    .setTarget(normalize(topic.getTarget()))
+                    .setFieldMask(normalize(topic.getFieldMask()))
+                    .build();
+    }
+
+    private static Target normalize(Target target) {
+        Target.Builder result = Target.newBuilder()
+                                      .setType(target.getType());
+        if (target.getIncludeAll()) {
+            return result.setIncludeAll(true)
+                         .build();
+        }
+        TargetFilters filters = target.getFilters();
+        List<Any> ids = filters.getIdFilter()
+                               .getIdList()
+                               .stream()
+                               .map(RequestKeys::normalizeId)
+                               .sorted(BY_BYTES)
+                               .collect(toImmutableList());
+        List<CompositeFilter> composites = filters.getFilterList()
+                                                  .stream()
+                                                  .map(RequestKeys::normalize)
+                                                  .sorted(BY_BYTES)
+                                                  .collect(toImmutableList());
+        return result.setFilters(TargetFilters.newBuilder()
+                                              .setIdFilter(IdFilter.newBuilder()
+                                                                   .addAllId(ids))
+                                              .addAllFilter(composites))
+                     .build();
+    }
+
+    private static CompositeFilter normalize(CompositeFilter composite) {
+        return composite.toBuilder()
+                        .clearFilter()
+                        .addAllFilter(composite.getFilterList()
+                                               .stream()
+                                               .sorted(BY_BYTES)
+                                               .collect(toImmutableList()))
+                        .build();
+    }
+
+    private static FieldMask normalize(FieldMask fieldMask) {
+        return FieldMask.newBuilder()
+                        .addAllPaths(fieldMask.getPathsList()
+                                              .stream()
+                                              .sorted()
+                                              .collect(toImmutableList()))
+                        .build();
+    }
+
+    /**
+     * Converts the packed task ID to the binary form.
+     *
+     * <p>The IDs of other types are returned as is.
+     */
+    static Any normalizeId(Any id) {
+        if (!id.is(TaskId.class)) {
+            return id;
+        }
+        TaskId taskId = AnyPacker.unpack(id, TaskId.class);
+        return Identifier.pack(TaskIds.normalize(taskId));
+    }
+}
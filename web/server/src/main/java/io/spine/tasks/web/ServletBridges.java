@@ -26,34 +26,126 @@
 
 package io.spine.tasks.web;
 
+import io.spine.core.Response;
 import io.spine.tasks.server.TasksContext;
+import io.spine.tasks.server.metrics.Metrics;
 import io.spine.web.firebase.query.FirebaseQueryBridge;
+import io.spine.web.firebase.query.FirebaseQueryResponse;
+import io.spine.web.firebase.subscription.FirebaseSubscription;
 import io.spine.web.firebase.subscription.FirebaseSubscriptionBridge;
+import io.spine.web.query.QueryBridge;
+import io.spine.web.subscription.SubscriptionBridge;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.time.Duration;
 
 /**
  * A factory of the bridges between the servlet API and the {@code Tasks} context.
  */
 final class ServletBridges {
 
+    /**
+     * The name of the system property holding the maximum number of the cached queries.
+     *
+     * <p>Zero disables the query cache.
+     */
+    private static final String CACHE_SIZE_PROPERTY = "tasks.query.cache.size";
+
+    /**
+     * The name of the system property holding the time in seconds after which a cached query
+     * expires.
+     */
+    private static final String CACHE_TTL_PROPERTY = "tasks.query.cache.ttl";
+
+    /**
+     * The name of the system property which turns the sharing of the subscriptions to
+     * the same topic on or off.
+     */
+    private static final String SHARING_PROPERTY = "tasks.subscription.sharing";
+
+    /**
+     * The name of the system property holding the time in seconds after the last keep-up
+     * in which a subscriber of a shared subscription is considered gone.
+     */
+    private static final String LEASE_PROPERTY = "tasks.subscription.lease";
+
+    private static final int DEFAULT_CACHE_SIZE = 1_000;
+    private static final long DEFAULT_CACHE_TTL = 60;
+    private static final long DEFAULT_LEASE = 300;
+
+    private static @Nullable QueryBridge<FirebaseQueryResponse> query = null;
+    private static @Nullable SubscriptionBridge<FirebaseSubscription, Response, Response>
+            subscription = null;
+
     /**
      * Prevents the utility class instantiation.
      */
     private ServletBridges() {
     }
 
-    static FirebaseSubscriptionBridge subscription() {
-        return FirebaseSubscriptionBridge
+    /**
+     * Obtains the subscription bridge shared by all the subscription servlets.
+     *
+     * <p>Unless disabled, the subscriptions to the same topic are
+     * {@linkplain SharedSubscriptionBridge served} by a single subscription.
+     */
+    static synchronized SubscriptionBridge<FirebaseSubscription, Response, Response>
+    subscription() {
+        if (subscription == null) {
+            subscription = createSubscriptionBridge();
+        }
+        return subscription;
+    }
+
+    private static SubscriptionBridge<FirebaseSubscription, Response, Response>
+    createSubscriptionBridge() {
+        FirebaseSubscriptionBridge bridge = FirebaseSubscriptionBridge
                 .newBuilder()
                 .setFirebaseClient(Firebase.client())
                 .setSubscriptionService(TasksContext.subscriptionService())
                 .build();
+        boolean sharing = Boolean.parseBoolean(System.getProperty(SHARING_PROPERTY, "true"));
+        if (!sharing) {
+            return bridge;
+        }
+        Duration lease = Duration.ofSeconds(Long.getLong(LEASE_PROPERTY, DEFAULT_LEASE));
+        SharedSubscriptionBridge shared = SharedSubscriptionBridge.create(bridge, lease);
+        Metrics.gauge("tasks_subscription_topics", shared::topics);
+        Metrics.gauge("tasks_subscription_subscribers", shared::subscribers);
+        Metrics.gauge("tasks_subscription_shared", shared::sharedSubscriptions);
+        return shared;
+    }
+
+    /**
+     * Obtains the query bridge shared by all the query servlets.
+     *
+     * <p>Unless disabled, the bridge caches the results of the {@code Task} queries.
+     */
+    static synchronized QueryBridge<FirebaseQueryResponse> query() {
+        if (query == null) {
+            query = createQueryBridge();
+        }
+        return query;
     }
 
-    static FirebaseQueryBridge query() {
-        return FirebaseQueryBridge
+    private static QueryBridge<FirebaseQueryResponse> createQueryBridge() {
+        FirebaseQueryBridge bridge = FirebaseQueryBridge
                 .newBuilder()
                 .setFirebaseClient(Firebase.client())
                 .setQueryService(TasksContext.queryService())
                 .build();
+        int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE);
+        if (cacheSize == 0) {
+            return bridge;
+        }
+        Duration ttl = Duration.ofSeconds(Long.getLong(CACHE_TTL_PROPERTY, DEFAULT_CACHE_TTL));
+        CachingQueryBridge cache = CachingQueryBridge.create(
+                bridge, TasksContext.queryService(), TasksContext.subscriptionService(),
+                cacheSize, ttl
+        );
+        Metrics.gauge("tasks_query_cache_hit_ratio", () -> cache.stats()
+                                                                 .hitRate());
+        Metrics.gauge("tasks_query_cache_invalidations", cache::invalidations);
+        return cache;
     }
 }
@@ -0,0 +1,304 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import io.spine.base.Error;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionId;
+import io.spine.client.Topic;
+import io.spine.core.Response;
+import io.spine.core.Responses;
+import io.spine.core.Status;
+import io.spine.web.firebase.subscription.FirebaseSubscription;
+import io.spine.web.subscription.SubscriptionBridge;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.spine.base.Identifier.newUuid;
+import static java.lang.String.format;
+
+/**
+ * A subscription bridge which serves all the subscriptions to the same topic by a single
+ * subscription of the delegate bridge.
+ *
+ * <p>The topics are compared by their {@linkplain RequestKeys keys}, which only keep
+ * the target and the field mask of the topic. The first subscriber of a topic creates
+ * the shared subscription. The next ones receive the same Firebase node to listen to, along
+ * with their own {@code Subscription} used to keep up and to cancel it. Therefore, each update
+ * is matched against the topic, converted to JSON and written to Firebase once, regardless of
+ * the number of subscribers. Firebase then delivers the update to all the browsers listening
+ * to the node.
+ *
+ * <p>The shared subscription is kept up by the delegate at most once in
+ * a {@linkplain #KEEP_UP_PERIOD_SHARE fraction} of the lease, however many subscribers keep it
+ * up. It is cancelled when the last of its subscribers cancels their subscription or stops
+ * keeping it up for longer than the lease.
+ *
+ * <p>The leases of the subscribers are tracked by a {@link LeaseTable}, so finding the expired
+ * ones does not require scanning all the subscribers. Keeping up an expired subscription
+ * results in an error, so that the client subscribes again.
+ *
+ * <p>The subscriptions of the delegate are made and cancelled outside of the updates of
+ * the topic map, so a slow delegate does not stall the subscribers of the other topics.
+ * The subscribers which join a topic while its shared subscription is being made wait for
+ * the result. If the delegate fails to subscribe, all of them receive the error, and the next
+ * subscriber of the topic tries again.
+ *
+ * <p>The subscriptions not made by this bridge are passed to the delegate as is.
+ */
+final class SharedSubscriptionBridge
+        implements SubscriptionBridge<FirebaseSubscription, Response, Response> {
+
+    /**
+     * The share of the lease after which the shared subscription is kept up again.
+     */
+    private static final int KEEP_UP_PERIOD_SHARE = 4;
+
+    /**
+     * The prefix of the IDs of the subscriptions made by this bridge.
+     */
+    private static final String ID_PREFIX = "shared-";
+
+    private final SubscriptionBridge<FirebaseSubscription, Response, Response> delegate;
+    private final long leaseNanos;
+    private final Map<Topic, SharedTopic> topics = new ConcurrentHashMap<>();
+    private final Map<SubscriptionId, Topic> subscribers = new ConcurrentHashMap<>();
+    private final LeaseTable<SubscriptionId> leases;
+    private final LongAdder sharedSubscriptions = new LongAdder();
+
+    private SharedSubscriptionBridge(
+            SubscriptionBridge<FirebaseSubscription, Response, Response> delegate,
+            Duration lease) {
+        this.delegate = delegate;
+        this.leaseNanos = lease.toNanos();
+        this.leases = new LeaseTable<>(lease);
+    }
+
+    /**
+     * Creates a new bridge.
+     *
+     * @param delegate
+     *         the bridge which serves the shared subscriptions
+     * @param lease
+     *         the time after the last keep-up in which a subscriber is considered gone
+     */
+    static SharedSubscriptionBridge create(
+            SubscriptionBridge<FirebaseSubscription, Response, Response> delegate,
+            Duration lease) {
+        checkNotNull(delegate);
+        checkArgument(!lease.isNegative() && !lease.isZero(), "The lease must be positive.");
+        return new SharedSubscriptionBridge(delegate, lease);
+    }
+
+    @Override
+    public FirebaseSubscription subscribe(Topic topic) {
+        Topic key = RequestKeys.of(topic);
+        SharedTopic created = new SharedTopic();
+        SharedTopic shared = topics.compute(key, (k, existing) -> {
+            SharedTopic result = existing == null ? created : existing;
+            result.subscribers++;
+            return result;
+        });
+        if (shared == created) {
+            subscribeShared(topic, key, shared);
+        } else {
+            sharedSubscriptions.increment();
+        }
+        FirebaseSubscription subscription = Futures.getUnchecked(shared.subscription);
+        SubscriptionId id = SubscriptionId
+                .newBuilder()
+                .setValue(ID_PREFIX + newUuid())
+                .build();
+        long now = System.nanoTime();
+        subscribers.put(id, key);
+        leases.renew(id, now);
+        dropExpired(now);
+        Subscription own = Subscription
+                .newBuilder()
+                .setId(id)
+                .setTopic(topic)
+                .build();
+        return subscription
+                .toBuilder()
+                .setSubscription(own)
+                .build();
+    }
+
+    /**
+     * Makes the shared subscription of the delegate to the topic.
+     *
+     * <p>If the delegate fails, the topic is removed, so that the next subscriber makes
+     * a new attempt.
+     */
+    private void subscribeShared(Topic topic, Topic key, SharedTopic shared) {
+        try {
+            shared.subscription.set(delegate.subscribe(topic));
+        } catch (RuntimeException e) {
+            topics.remove(key, shared);
+            shared.subscription.setException(e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Response keepUp(Subscription subscription) {
+        SubscriptionId id = subscription.getId();
+        if (!isShared(id)) {
+            return delegate.keepUp(subscription);
+        }
+        Topic key = subscribers.get(id);
+        if (key == null) {
+            return inactive(id);
+        }
+        long now = System.nanoTime();
+        leases.renew(id, now);
+        SharedTopic shared = topics.get(key);
+        if (shared != null && now - shared.keptUp > leaseNanos / KEEP_UP_PERIOD_SHARE) {
+            shared.keptUp = now;
+            delegate.keepUp(shared.subscription());
+        }
+        dropExpired(now);
+        return Responses.ok();
+    }
+
+    @Override
+    public Response cancel(Subscription subscription) {
+        SubscriptionId id = subscription.getId();
+        if (!isShared(id)) {
+            return delegate.cancel(subscription);
+        }
+        Topic key = subscribers.remove(id);
+        if (key != null) {
+            leases.remove(id);
+            leave(key);
+        }
+        return Responses.ok();
+    }
+
+    private static boolean isShared(SubscriptionId id) {
+        return id.getValue()
+                 .startsWith(ID_PREFIX);
+    }
+
+    private static Response inactive(SubscriptionId id) {
+        Error error = Error
+                .newBuilder()
+                .setType(SharedSubscriptionBridge.class.getName())
+                .setMessage(format("The subscription `%s` is not active.", id.getValue()))
+                .build();
+        return Response
+                .newBuilder()
+                .setStatus(Status.newBuilder()
+                                 .setError(error))
+                .build();
+    }
+
+    /**
+     * Removes a subscriber from the topic, and cancels the shared subscription if it was
+     * the last one.
+     *
+     * <p>The topic of a subscriber stays in the map till its last subscriber leaves it.
+     */
+    private void leave(Topic key) {
+        SharedTopic shared = topics.get(key);
+        if (shared == null) {
+            return;
+        }
+        SharedTopic remaining = topics.computeIfPresent(key, (k, current) -> {
+            current.subscribers--;
+            return current.subscribers > 0 ? current : null;
+        });
+        if (remaining == null) {
+            delegate.cancel(shared.subscription());
+        }
+    }
+
+    /**
+     * Drops the subscribers which have not kept up their subscriptions for longer than
+     * the lease.
+     */
+    private void dropExpired(long now) {
+        for (SubscriptionId id : leases.expire(now)) {
+            Topic key = subscribers.remove(id);
+            if (key != null) {
+                leave(key);
+            }
+        }
+    }
+
+    /**
+     * Obtains the number of the distinct topics subscribed to.
+     */
+    int topics() {
+        return topics.size();
+    }
+
+    /**
+     * Obtains the number of the subscribers of all the topics.
+     */
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * Obtains the number of the subscriptions served by an already existing shared
+     * subscription.
+     */
+    long sharedSubscriptions() {
+        return sharedSubscriptions.sum();
+    }
+
+    /**
+     * A subscription of the delegate bridge shared by the subscribers of a topic.
+     *
+     * <p>The subscription is completed by the first subscriber of the topic. The number of
+     * the subscribers is only modified while the entry of the topic is being computed.
+     */
+    private static final class SharedTopic {
+
+        private final SettableFuture<FirebaseSubscription> subscription = SettableFuture.create();
+        private int subscribers;
+        private volatile long keptUp = System.nanoTime();
+
+        /**
+         * Obtains the subscription of the delegate.
+         *
+         * <p>May only be called by the subscribers which have already received
+         * the subscription.
+         */
+        private Subscription subscription() {
+            return Futures.getDone(subscription)
+                          .getSubscription();
+        }
+    }
+}
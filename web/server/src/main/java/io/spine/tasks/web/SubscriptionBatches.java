@@ -0,0 +1,68 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import io.spine.client.Subscription;
+import io.spine.core.Response;
+import io.spine.tasks.subscription.SubscriptionBatch;
+import io.spine.tasks.subscription.SubscriptionBatchOutcome;
+
+import java.util.function.Function;
+
+/**
+ * Processes the {@link SubscriptionBatch}es received by the bulk subscription servlets.
+ */
+final class SubscriptionBatches {
+
+    /**
+     * Prevents the utility class instantiation.
+     */
+    private SubscriptionBatches() {
+    }
+
+    /**
+     * Applies the operation to each subscription of the batch.
+     *
+     * <p>The subscriptions for which the operation responds with an error are reported as
+     * inactive.
+     */
+    static SubscriptionBatchOutcome process(SubscriptionBatch batch,
+                                            Function<Subscription, Response> operation) {
+        SubscriptionBatchOutcome.Builder outcome = SubscriptionBatchOutcome.newBuilder();
+        int succeeded = 0;
+        for (Subscription subscription : batch.getSubscriptionList()) {
+            Response response = operation.apply(subscription);
+            if (response.getStatus()
+                        .hasError()) {
+                outcome.addInactive(subscription.getId());
+            } else {
+                succeeded++;
+            }
+        }
+        return outcome.setSucceeded(succeeded)
+                      .build();
+    }
+}
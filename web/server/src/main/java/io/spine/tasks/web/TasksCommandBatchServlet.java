@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import io.spine.tasks.batch.CommandBatch;
+import io.spine.tasks.batch.CommandBatchAck;
+import io.spine.tasks.server.TasksContext;
+import io.spine.tasks.server.command.AdmittingCommandService;
+import io.spine.tasks.server.command.CommandBatchService;
+import io.spine.web.MessageServlet;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * {@code Tasks} context command batch servlet.
+ *
+ * <p>Handles the {@link CommandBatch}es {@code POST}ed by the client by dispatching them to
+ * the {@link CommandBatchService}. Responds with the acknowledgements of all the commands of
+ * the batch.
+ *
+ * <p>If the context is overloaded and rejects some of the commands, the batch is rejected with
+ * {@code 503 Service Unavailable} and the {@code Retry-After} header, so that the client retries
+ * it later. The repeats of the admitted commands are answered with their original
+ * acknowledgements, unless the deduplication of the commands is turned off.
+ *
+ * <p>Also accepts the requests in the {@linkplain BinaryMessages binary Protobuf} encoding,
+ * and responds to them in the same encoding.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
+ * @see TasksCommandServlet
+ */
+@SuppressWarnings("serial") // Java serialization is not supported.
+@WebServlet(value = "/command/batch", asyncSupported = true)
+public final class TasksCommandBatchServlet extends MessageServlet<CommandBatch, CommandBatchAck> {
+
+    private final CommandBatchService batchService = TasksContext.commandBatchService();
+
+    @Override
+    protected CommandBatchAck handle(CommandBatch batch) {
+        CommandBatchAck acks = batchService.post(batch);
+        boolean overloaded = acks.getAckList()
+                                 .stream()
+                                 .anyMatch(AdmittingCommandService::isOverload);
+        if (overloaded) {
+            throw new OverloadedException();
+        }
+        return acks;
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, this::serve);
+    }
+
+    private void serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            if (BinaryMessages.isBinary(req)) {
+                BinaryMessages.serve(req, resp, CommandBatch.parser(), this::handle);
+            } else {
+                super.doPost(req, resp);
+            }
+        } catch (OverloadedException e) {
+            AsyncProcessing.reject(resp, e.getMessage());
+        }
+    }
+
+    /**
+     * Signals that some of the commands of a batch were rejected by the overloaded context.
+     */
+    private static final class OverloadedException extends RuntimeException {
+
+        private static final long serialVersionUID = 0L;
+
+        private OverloadedException() {
+            super(AdmittingCommandService.overloadError()
+                                         .getMessage());
+        }
+    }
+}
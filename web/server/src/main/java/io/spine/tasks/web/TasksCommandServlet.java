@@ -26,25 +26,72 @@
 
 package io.spine.tasks.web;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.spine.client.grpc.CommandServiceGrpc.CommandServiceImplBase;
+import io.spine.core.Ack;
+import io.spine.core.Command;
 import io.spine.tasks.server.TasksContext;
-import io.spine.web.command.CommandServlet;
+import io.spine.tasks.server.command.AckObserver;
+import io.spine.tasks.server.command.AdmittingCommandService;
+import io.spine.web.MessageServlet;
 
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * {@code Tasks} context command servlet.
  *
  * <p>Handles the commands {@code POST}ed by the client by dispatching them to
- * the {@link io.spine.server.CommandService}.
+ * the {@linkplain TasksContext#idempotentCommandService() idempotent} command service. So,
+ * a client which repeats a command after a timeout receives the acknowledgement of
+ * the original command, and the command is not handled twice.
  *
- * @see CommandServlet
+ * <p>If the context is overloaded, a command is rejected with {@code 503 Service Unavailable}
+ * and the {@code Retry-After} header, so that the client retries it later.
+ *
+ * <p>Also accepts the requests in the {@linkplain BinaryMessages binary Protobuf} encoding,
+ * and responds to them in the same encoding.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
+ * @see TasksCommandBatchServlet
  * @see ServletBridges
  */
 @SuppressWarnings("serial") // Java serialization is not supported.
-@WebServlet("/command")
-public final class TasksCommandServlet extends CommandServlet {
+@WebServlet(value = "/command", asyncSupported = true)
+public final class TasksCommandServlet extends MessageServlet<Command, Ack> {
+
+    private final CommandServiceImplBase commandService = TasksContext.idempotentCommandService();
+
+    @Override
+    protected Ack handle(Command command) {
+        AckObserver observer = new AckObserver();
+        commandService.post(command, observer);
+        return Futures.getUnchecked(observer.ack());
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, this::serve);
+    }
 
-    public TasksCommandServlet() {
-        super(TasksContext.commandService());
+    private void serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try {
+            if (BinaryMessages.isBinary(req)) {
+                BinaryMessages.serve(req, resp, Command.parser(), this::handle);
+            } else {
+                super.doPost(req, resp);
+            }
+        } catch (UncheckedExecutionException e) {
+            if (!AdmittingCommandService.isOverload(e.getCause())) {
+                throw e;
+            }
+            AsyncProcessing.reject(resp, e.getCause()
+                                          .getMessage());
+        }
     }
 }
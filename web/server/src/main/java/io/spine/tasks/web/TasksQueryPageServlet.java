@@ -0,0 +1,80 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import io.spine.tasks.paging.TaskPage;
+import io.spine.tasks.paging.TaskPageRequest;
+import io.spine.tasks.server.TasksContext;
+import io.spine.tasks.server.query.TaskQueryService;
+import io.spine.web.MessageServlet;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * {@code Tasks} context paged query servlet.
+ *
+ * <p>Handles the {@link TaskPageRequest}s {@code POST}ed by the client by reading the requested
+ * page through the {@link TaskQueryService}. Responds with the tasks of the page and
+ * the cursor of the next page.
+ *
+ * <p>Unlike the {@linkplain TasksQueryServlet query servlet}, which responds with all
+ * the matching tasks at once, lets the client read a large number of tasks in portions.
+ *
+ * <p>Also accepts the requests in the {@linkplain BinaryMessages binary Protobuf} encoding,
+ * and responds to them in the same encoding.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
+ * @see TasksQueryServlet
+ */
+@SuppressWarnings("serial") // Java serialization is not supported.
+@WebServlet(value = "/query/page", asyncSupported = true)
+public final class TasksQueryPageServlet extends MessageServlet<TaskPageRequest, TaskPage> {
+
+    private final TaskQueryService queryService = TasksContext.taskQueryService();
+
+    @Override
+    protected TaskPage handle(TaskPageRequest request) {
+        return queryService.readPage(request);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, this::serve);
+    }
+
+    private void serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (BinaryMessages.isBinary(req)) {
+            BinaryMessages.serve(req, resp, TaskPageRequest.parser(), this::handle);
+        } else {
+            super.doPost(req, resp);
+        }
+    }
+}
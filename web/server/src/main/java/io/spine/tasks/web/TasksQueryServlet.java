@@ -26,10 +26,14 @@
 
 package io.spine.tasks.web;
 
+import io.spine.client.Query;
 import io.spine.web.firebase.query.FirebaseQueryResponse;
 import io.spine.web.query.QueryServlet;
 
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * {@code Tasks} context query servlet.
@@ -37,14 +41,33 @@ import javax.servlet.annotation.WebServlet;
  * <p>Handles the queries {@code POST}ed by the client by dispatching them to
  * the {@link io.spine.web.firebase.query.FirebaseQueryBridge}.
  *
+ * <p>Also accepts the requests in the {@linkplain BinaryMessages binary Protobuf} encoding,
+ * and responds to them in the same encoding.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
  * @see QueryServlet
  * @see ServletBridges
  */
 @SuppressWarnings("serial") // Java serialization is not supported.
-@WebServlet("/query")
+@WebServlet(value = "/query", asyncSupported = true)
 public final class TasksQueryServlet extends QueryServlet<FirebaseQueryResponse> {
 
     public TasksQueryServlet() {
         super(ServletBridges.query());
     }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, this::serve);
+    }
+
+    private void serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (BinaryMessages.isBinary(req)) {
+            BinaryMessages.serve(req, resp, Query.parser(), this::handle);
+        } else {
+            super.doPost(req, resp);
+        }
+    }
 }
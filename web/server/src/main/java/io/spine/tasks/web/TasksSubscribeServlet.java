@@ -26,10 +26,14 @@
 
 package io.spine.tasks.web;
 
+import io.spine.client.Topic;
 import io.spine.web.firebase.subscription.FirebaseSubscription;
 import io.spine.web.subscription.servlet.SubscribeServlet;
 
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * {@code Tasks} context {@code /subscribe} servlet.
@@ -37,14 +41,33 @@ import javax.servlet.annotation.WebServlet;
  * <p>This is a part of the system's subscription web API. Handles the subscriptions created by
  * the client via the {@link io.spine.web.firebase.subscription.FirebaseSubscriptionBridge}.
  *
+ * <p>Also accepts the requests in the {@linkplain BinaryMessages binary Protobuf} encoding,
+ * and responds to them in the same encoding.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
  * @see SubscribeServlet
  * @see ServletBridges
  */
 @SuppressWarnings("serial") // Java serialization is not supported.
-@WebServlet("/subscription/create")
+@WebServlet(value = "/subscription/create", asyncSupported = true)
 public final class TasksSubscribeServlet extends SubscribeServlet<FirebaseSubscription> {
 
     public TasksSubscribeServlet() {
         super(ServletBridges.subscription());
     }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, this::serve);
+    }
+
+    private void serve(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        if (BinaryMessages.isBinary(req)) {
+            BinaryMessages.serve(req, resp, Topic.parser(), this::handle);
+        } else {
+            super.doPost(req, resp);
+        }
+    }
 }
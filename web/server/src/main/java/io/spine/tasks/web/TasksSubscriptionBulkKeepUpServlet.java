@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import io.spine.tasks.subscription.SubscriptionBatch;
+import io.spine.tasks.subscription.SubscriptionBatchOutcome;
+import io.spine.web.MessageServlet;
+
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * {@code Tasks} context {@code /subscription/keep-up-all} servlet.
+ *
+ * <p>Keeps up all the subscriptions of a {@link SubscriptionBatch}, so that a client with many
+ * subscriptions sends a single request per keep-up interval instead of a request per
+ * subscription. Responds with the subscriptions which are no longer active.
+ *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
+ * @see TasksSubscriptionKeepUpServlet
+ */
+@SuppressWarnings("serial") // Java serialization is not supported.
+@WebServlet(value = "/subscription/keep-up-all", asyncSupported = true)
+public final class TasksSubscriptionBulkKeepUpServlet
+        extends MessageServlet<SubscriptionBatch, SubscriptionBatchOutcome> {
+
+    @Override
+    protected SubscriptionBatchOutcome handle(SubscriptionBatch batch) {
+        return SubscriptionBatches.process(batch, ServletBridges.subscription()::keepUp);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, super::doPost);
+    }
+}
@@ -30,6 +30,9 @@ import io.spine.core.Response;
 import io.spine.web.subscription.servlet.SubscriptionCancelServlet;
 
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * {@code Tasks} context {@code /subscription/cancel} servlet.
@@ -37,14 +40,22 @@ import javax.servlet.annotation.WebServlet;
  * <p>This is a part of the system's subscription web API. Handles the subscription cancelling
  * requests via the {@link io.spine.web.firebase.subscription.FirebaseSubscriptionBridge}.
  *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
  * @see SubscriptionCancelServlet
  * @see ServletBridges
  */
 @SuppressWarnings("serial") // Java serialization is not supported.
-@WebServlet("/subscription/cancel")
+@WebServlet(value = "/subscription/cancel", asyncSupported = true)
 public final class TasksSubscriptionCancelServlet extends SubscriptionCancelServlet<Response> {
 
     public TasksSubscriptionCancelServlet() {
         super(ServletBridges.subscription());
     }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, super::doPost);
+    }
 }
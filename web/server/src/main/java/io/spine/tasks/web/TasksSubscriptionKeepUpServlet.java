@@ -30,6 +30,9 @@ import io.spine.core.Response;
 import io.spine.web.subscription.servlet.SubscriptionKeepUpServlet;
 
 import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 
 /**
  * {@code Tasks} context {@code /subscription/keep-up} servlet.
@@ -37,14 +40,22 @@ import javax.servlet.annotation.WebServlet;
  * <p>This is a part of the system's subscription web API. Handles the subscription keep-up
  * requests via the {@link io.spine.web.firebase.subscription.FirebaseSubscriptionBridge}.
  *
+ * <p>The requests are {@linkplain AsyncProcessing processed asynchronously}.
+ *
  * @see SubscriptionKeepUpServlet
  * @see ServletBridges
  */
 @SuppressWarnings("serial") // Java serialization is not supported.
-@WebServlet("/subscription/keep-up")
+@WebServlet(value = "/subscription/keep-up", asyncSupported = true)
 public final class TasksSubscriptionKeepUpServlet extends SubscriptionKeepUpServlet<Response> {
 
     public TasksSubscriptionKeepUpServlet() {
         super(ServletBridges.subscription());
     }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AsyncProcessing.instance()
+                       .process(req, resp, super::doPost);
+    }
 }
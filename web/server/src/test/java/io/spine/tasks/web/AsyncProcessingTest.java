@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.servlet.http.HttpServletResponse.SC_CREATED;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static javax.servlet.http.HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+
+@DisplayName("`AsyncProcessing` should")
+class AsyncProcessingTest {
+
+    private static final int CONTAINER_THREADS = 8;
+    private static final String PATH = "/echo";
+
+    private final ExecutorService handlers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        handlers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("respond with the response of the handler")
+    void respond() throws Exception {
+        AsyncProcessing processing = AsyncProcessing.create(handlers, 10, Duration.ofSeconds(10));
+        release.countDown();
+        try (TestServletContainer container = start(processing)) {
+            TestServletContainer.Response response = container.post(PATH, "Hello, async!");
+
+            assertThat(response.status()).isEqualTo(SC_CREATED);
+            assertThat(response.body()).isEqualTo("Hello, async!");
+            assertThat(processing.inFlight()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @DisplayName("reject the requests over the in-flight limit")
+    void reject() throws Exception {
+        AsyncProcessing processing = AsyncProcessing.create(handlers, 1, Duration.ofSeconds(10));
+        try (TestServletContainer container = start(processing)) {
+            ExecutorService client = Executors.newSingleThreadExecutor();
+            Future<TestServletContainer.Response> first =
+                    client.submit(() -> container.post(PATH, "first"));
+            while (processing.inFlight() == 0) {
+                Uninterruptibles.sleepUninterruptibly(1, MILLISECONDS);
+            }
+            TestServletContainer.Response second = container.post(PATH, "second");
+            release.countDown();
+
+            assertThat(second.status()).isEqualTo(SC_SERVICE_UNAVAILABLE);
+            assertThat(second.retryAfter()).isNotNull();
+            assertThat(processing.rejected()).isEqualTo(1);
+            assertThat(first.get(10, SECONDS)
+                            .status()).isEqualTo(SC_CREATED);
+            client.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("respond to the requests which are not handled in time")
+    void timeOut() throws Exception {
+        AsyncProcessing processing =
+                AsyncProcessing.create(handlers, 10, Duration.ofMillis(100));
+        try (TestServletContainer container = start(processing)) {
+            TestServletContainer.Response response = container.post(PATH, "late");
+
+            assertThat(response.status()).isEqualTo(SC_SERVICE_UNAVAILABLE);
+            assertThat(processing.timedOut()).isEqualTo(1);
+            assertThat(processing.inFlight()).isEqualTo(1);
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("keep the response status of a request without a body")
+    void emptyBody() throws Exception {
+        AsyncProcessing processing = AsyncProcessing.create(handlers, 10, Duration.ofSeconds(10));
+        release.countDown();
+        try (TestServletContainer container = start(processing)) {
+            TestServletContainer.Response response = container.post(PATH, "");
+
+            assertThat(response.status()).isEqualTo(SC_OK);
+            assertThat(response.body()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("reject a body declared larger than the limit")
+    void declaredTooLarge() throws Exception {
+        AsyncProcessing processing =
+                AsyncProcessing.create(handlers, 10, Duration.ofSeconds(10), 16);
+        release.countDown();
+        try (TestServletContainer container = start(processing)) {
+            TestServletContainer.Response response =
+                    container.post(PATH, "A body longer than the limit.");
+
+            assertThat(response.status()).isEqualTo(SC_REQUEST_ENTITY_TOO_LARGE);
+            assertThat(processing.inFlight()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @DisplayName("reject a body which turns out larger than the limit while being read")
+    void readTooLarge() throws Exception {
+        AsyncProcessing processing =
+                AsyncProcessing.create(handlers, 10, Duration.ofSeconds(10), 16);
+        release.countDown();
+        try (TestServletContainer container = start(processing)) {
+            TestServletContainer.Response response =
+                    container.postChunked(PATH, "A body sent in chunks, longer than the limit.");
+
+            assertThat(response.status()).isEqualTo(SC_REQUEST_ENTITY_TOO_LARGE);
+            assertThat(processing.inFlight()).isEqualTo(0);
+
+            TestServletContainer.Response small = container.postChunked(PATH, "Short.");
+            assertThat(small.status()).isEqualTo(SC_CREATED);
+            assertThat(small.body()).isEqualTo("Short.");
+        }
+    }
+
+    private TestServletContainer start(AsyncProcessing processing) throws Exception {
+        return TestServletContainer.start(
+                CONTAINER_THREADS, ImmutableMap.of(PATH, new EchoServlet(processing, release))
+        );
+    }
+
+    /**
+     * Echoes the request body once the latch is released.
+     *
+     * <p>Responds with {@code 201 Created} to the requests with a body, and with {@code 200 OK}
+     * to the empty ones.
+     */
+    @SuppressWarnings("serial") // Java serialization is not supported.
+    private static final class EchoServlet extends HttpServlet {
+
+        private final AsyncProcessing processing;
+        private final CountDownLatch release;
+
+        private EchoServlet(AsyncProcessing processing, CountDownLatch release) {
+            super();
+            this.processing = processing;
+            this.release = release;
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            processing.process(req, resp, this::echo);
+        }
+
+        private void echo(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            Uninterruptibles.awaitUninterruptibly(release);
+            String body = CharStreams.toString(req.getReader());
+            if (!body.isEmpty()) {
+                resp.setStatus(SC_CREATED);
+            }
+            resp.setContentType("text/plain; charset=utf-8");
+            resp.getWriter()
+                .write(body);
+        }
+    }
+}
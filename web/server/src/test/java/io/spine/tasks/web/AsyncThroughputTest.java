@@ -0,0 +1,212 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.Uninterruptibles;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+/**
+ * Compares the throughput of the synchronous and the {@linkplain AsyncProcessing asynchronous}
+ * request processing with the same total number of threads.
+ *
+ * <p>Half of the clients call a slow endpoint, which stands for a command or a query waiting
+ * for Firebase. The other half call a fast one, which stands for the cheap requests, such as
+ * the cached queries and the metrics.
+ *
+ * <p>With the synchronous processing, the slow requests take up all the container threads,
+ * and the fast requests wait in the queue behind them. With the asynchronous processing, the slow
+ * requests wait for the threads of the handler pool, while the container threads keep serving
+ * the fast requests.
+ *
+ * <p>The test reports the measured rates and only checks that the asynchronous processing
+ * completes more requests in total, which holds on any machine by a wide margin.
+ */
+@DisplayName("Asynchronous request processing should")
+class AsyncThroughputTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int TOTAL_THREADS = 16;
+    private static final int CLIENTS_PER_ENDPOINT = 16;
+    private static final long SLOW_REQUEST_MILLIS = 50;
+    private static final Duration DURATION = Duration.ofSeconds(3);
+
+    private static final String SLOW = "/slow";
+    private static final String FAST = "/fast";
+
+    @Test
+    @DisplayName("complete more requests than the synchronous one with the same threads")
+    void compare() throws Exception {
+        Throughput sync = measure("synchronous", null);
+        ExecutorService handlers = Executors.newFixedThreadPool(TOTAL_THREADS / 2);
+        AsyncProcessing processing = AsyncProcessing.create(
+                handlers, CLIENTS_PER_ENDPOINT * 2, Duration.ofSeconds(10)
+        );
+        Throughput async = measure("asynchronous", processing);
+        handlers.shutdown();
+
+        assertThat(async.errors.sum()).isEqualTo(0);
+        assertThat(async.total()).isGreaterThan(sync.total());
+    }
+
+    /**
+     * Runs the clients against a container and reports the number of completed requests.
+     *
+     * @param processing
+     *         the asynchronous processing of the slow requests, or {@code null} if they are
+     *         processed synchronously by the container threads
+     */
+    private static Throughput measure(String name, @Nullable AsyncProcessing processing)
+            throws Exception {
+        int containerThreads = processing == null ? TOTAL_THREADS : TOTAL_THREADS / 2;
+        Throughput result = new Throughput();
+        ImmutableMap<String, HttpServlet> servlets = ImmutableMap.of(
+                SLOW, new SlowServlet(processing),
+                FAST, new FastServlet()
+        );
+        try (TestServletContainer container =
+                     TestServletContainer.start(containerThreads, servlets)) {
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS_PER_ENDPOINT * 2);
+            long end = System.nanoTime() + DURATION.toNanos();
+            for (int i = 0; i < CLIENTS_PER_ENDPOINT; i++) {
+                clients.execute(() -> call(container, SLOW, end, result.slow, result.errors));
+                clients.execute(() -> call(container, FAST, end, result.fast, result.errors));
+            }
+            clients.shutdown();
+            assertThat(clients.awaitTermination(DURATION.getSeconds() + 30, SECONDS)).isTrue();
+        }
+        double seconds = DURATION.toMillis() / 1000.0;
+        log.at(Level.INFO)
+           .log("The %s processing has served %.0f slow and %.0f fast requests per second, " +
+                        "%d requests have failed.",
+                name, result.slow.sum() / seconds, result.fast.sum() / seconds,
+                result.errors.sum());
+        return result;
+    }
+
+    private static void call(TestServletContainer container,
+                             String path,
+                             long end,
+                             LongAdder completed,
+                             LongAdder errors) {
+        while (System.nanoTime() < end) {
+            try {
+                int status = container.post(path, path)
+                                      .status();
+                if (status == SC_OK) {
+                    completed.increment();
+                } else {
+                    errors.increment();
+                }
+            } catch (IOException e) {
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * The numbers of the completed and the failed requests.
+     */
+    private static final class Throughput {
+
+        private final LongAdder slow = new LongAdder();
+        private final LongAdder fast = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private long total() {
+            return slow.sum() + fast.sum();
+        }
+    }
+
+    /**
+     * Responds after blocking the handling thread for {@link #SLOW_REQUEST_MILLIS}.
+     */
+    @SuppressWarnings("serial") // Java serialization is not supported.
+    private static final class SlowServlet extends HttpServlet {
+
+        private final @Nullable AsyncProcessing processing;
+
+        private SlowServlet(@Nullable AsyncProcessing processing) {
+            super();
+            this.processing = processing;
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            if (processing == null) {
+                respond(req, resp);
+            } else {
+                processing.process(req, resp, SlowServlet::respond);
+            }
+        }
+
+        private static void respond(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            Uninterruptibles.sleepUninterruptibly(SLOW_REQUEST_MILLIS, MILLISECONDS);
+            FastServlet.respond(req, resp);
+        }
+    }
+
+    /**
+     * Responds right away.
+     */
+    @SuppressWarnings("serial") // Java serialization is not supported.
+    private static final class FastServlet extends HttpServlet {
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            respond(req, resp);
+        }
+
+        private static void respond(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            resp.setContentType("text/plain");
+            resp.getWriter()
+                .write(req.getRequestURI());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.web;
+
+import com.google.common.base.Strings;
+import com.google.protobuf.StringValue;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`BinaryMessages` should")
+class BinaryMessagesTest {
+
+    @Test
+    @DisplayName("read a message which exactly fills the buffer")
+    void exactFit() throws IOException {
+        StringValue message = StringValue.of(Strings.repeat("a", 8 * 1024 - 3));
+        assertThat(message.getSerializedSize()).isEqualTo(8 * 1024);
+
+        StringValue read = BinaryMessages.read(new ByteArrayInputStream(message.toByteArray()),
+                                               -1, StringValue.parser());
+
+        assertThat(read).isEqualTo(message);
+    }
+
+    @Test
+    @DisplayName("not trust the declared length of the body")
+    void hugeLength() throws IOException {
+        StringValue message = StringValue.of("Short");
+
+        StringValue read = BinaryMessages.read(new ByteArrayInputStream(message.toByteArray()),
+                                               Integer.MAX_VALUE, StringValue.parser());
+
+        assertThat(read).isEqualTo(message);
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.Any;
+import io.grpc.stub.StreamObserver;
+import io.spine.base.Identifier;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.EntityStateWithVersion;
+import io.spine.client.Query;
+import io.spine.client.QueryResponse;
+import io.spine.client.grpc.QueryServiceGrpc.QueryServiceImplBase;
+import io.spine.core.UserId;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.web.firebase.query.FirebaseQueryResponse;
+import io.spine.web.query.QueryBridge;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.Filters.eq;
+
+@DisplayName("`CachingQueryBridge` should")
+class CachingQueryBridgeTest {
+
+    private static final ActorRequestFactory requests = ActorRequestFactory
+            .newBuilder()
+            .setActor(UserId.newBuilder()
+                            .setValue("CachingQueryBridgeTest")
+                            .build())
+            .build();
+
+    private final TaskStore tasks = new TaskStore();
+    private final CountingBridge delegate = new CountingBridge();
+    private final CachingQueryBridge bridge =
+            CachingQueryBridge.create(delegate, tasks, 100, Duration.ofHours(1));
+
+    @Test
+    @DisplayName("keep a filtered query when a task it does not select is created")
+    void keepOnOtherCreation() {
+        update(TaskIds.generate(), "Buy milk");
+        Query query = titled("Buy milk");
+        bridge.send(query);
+
+        update(TaskIds.generate(), "Walk the dog");
+        bridge.send(query);
+
+        assertThat(delegate.sent).isEqualTo(1);
+        assertThat(bridge.invalidations()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("invalidate a filtered query when a task it selects is created")
+    void invalidateOnMatchingCreation() {
+        Query query = titled("Buy milk");
+        bridge.send(query);
+
+        update(TaskIds.generate(), "Buy milk");
+        bridge.send(query);
+
+        assertThat(delegate.sent).isEqualTo(2);
+        assertThat(bridge.invalidations()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("invalidate a query when a task in its result no longer matches it")
+    void invalidateOnLeaving() {
+        TaskId id = TaskIds.generate();
+        update(id, "Buy milk");
+        Query query = titled("Buy milk");
+        bridge.send(query);
+
+        update(id, "Buy bread");
+        bridge.send(query);
+
+        assertThat(delegate.sent).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("invalidate a query by ID only on the updates of its tasks")
+    void byId() {
+        TaskId id = TaskIds.generate();
+        update(id, "Buy milk");
+        Query query = requests.query()
+                              .byIds(Task.class, ImmutableSet.of(id));
+        bridge.send(query);
+
+        update(TaskIds.generate(), "Buy milk");
+        bridge.send(query);
+        assertThat(delegate.sent).isEqualTo(1);
+
+        update(id, "Buy bread");
+        bridge.send(query);
+        assertThat(delegate.sent).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("stop caching the queries when the update stream fails")
+    void disableOnFailure() {
+        update(TaskIds.generate(), "Buy milk");
+        Query query = titled("Buy milk");
+        bridge.send(query);
+
+        bridge.updateObserver()
+              .onError(new IllegalStateException("The subscription is lost."));
+        bridge.send(query);
+        bridge.send(query);
+
+        assertThat(bridge.disabled()).isTrue();
+        assertThat(delegate.sent).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("stop caching the queries when the update stream completes")
+    void disableOnCompletion() {
+        Query query = titled("Buy milk");
+        bridge.updateObserver()
+              .onCompleted();
+
+        bridge.send(query);
+        bridge.send(query);
+
+        assertThat(bridge.disabled()).isTrue();
+        assertThat(delegate.sent).isEqualTo(2);
+        assertThat(bridge.stats()
+                         .hitCount()).isEqualTo(0);
+    }
+
+    private void update(TaskId id, String title) {
+        Task task = Task.newBuilder()
+                        .setId(id)
+                        .setTitle(title)
+                        .build();
+        Any packedId = RequestKeys.normalizeId(Identifier.pack(id));
+        tasks.put(packedId, task);
+        bridge.onUpdate(packedId, task);
+    }
+
+    private static Query titled(String title) {
+        return requests.query()
+                       .select(Task.class)
+                       .where(eq("title", title))
+                       .build();
+    }
+
+    /**
+     * A query service which selects the stored tasks by the filters of the query.
+     */
+    private static final class TaskStore extends QueryServiceImplBase {
+
+        private final Map<Any, Task> tasks = new LinkedHashMap<>();
+
+        private void put(Any id, Task task) {
+            tasks.put(id, task);
+        }
+
+        @Override
+        public void read(Query request, StreamObserver<QueryResponse> responseObserver) {
+            QueryResponse.Builder response = QueryResponse.newBuilder();
+            tasks.forEach((id, task) -> {
+                if (QueryMatcher.mayMatch(RequestKeys.of(request), id, task)) {
+                    response.addMessage(EntityStateWithVersion.newBuilder()
+                                                              .setState(AnyPacker.pack(task)));
+                }
+            });
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    /**
+     * A query bridge which counts the queries it is sent.
+     */
+    private static final class CountingBridge implements QueryBridge<FirebaseQueryResponse> {
+
+        private int sent;
+
+        @Override
+        public FirebaseQueryResponse send(Query query) {
+            sent++;
+            return FirebaseQueryResponse.getDefaultInstance();
+        }
+    }
+}
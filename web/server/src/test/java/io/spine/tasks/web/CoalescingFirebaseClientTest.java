@@ -0,0 +1,233 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.firebase.database.ChildEventListener;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.spine.web.firebase.FirebaseClient;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.NodeValue;
+import io.spine.web.firebase.StoredJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.base.Identifier.newUuid;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`CoalescingFirebaseClient` should")
+class CoalescingFirebaseClientTest {
+
+    private static final NodePath SUBSCRIPTION = path("subscriptions/tasks");
+    private static final Duration LONG_WINDOW = Duration.ofHours(1);
+
+    private final RecordingClient remote = new RecordingClient();
+
+    @Test
+    @DisplayName("write the updates of a window as a single multi-path update")
+    void coalesce() {
+        CoalescingFirebaseClient client = newClient(100);
+        client.update(SUBSCRIPTION, task("first", "Draft"));
+        client.update(SUBSCRIPTION, task("second", "Buy milk"));
+        client.update(SUBSCRIPTION, task("first", "Final"));
+        assertThat(remote.updates).isEmpty();
+
+        client.flush();
+
+        JsonObject expected = new JsonObject();
+        expected.add("subscriptions/tasks/first", fields("Final"));
+        expected.add("subscriptions/tasks/second", fields("Buy milk"));
+        assertThat(remote.updates).containsExactly(expected);
+        assertThat(client.stats()
+                         .collapsedUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("write only the changed fields of a known node")
+    void writeDelta() {
+        CoalescingFirebaseClient client = newClient(100);
+        client.update(SUBSCRIPTION, task("first", "Draft"));
+        client.flush();
+        JsonObject changed = fields("Final");
+        changed.remove("done");
+        NodeValue update = NodeValue.empty();
+        update.underlyingJson()
+              .add("first", changed);
+        client.update(SUBSCRIPTION, update);
+        client.flush();
+
+        JsonObject expected = new JsonObject();
+        expected.addProperty("subscriptions/tasks/first/title", "Final");
+        expected.add("subscriptions/tasks/first/done", JsonNull.INSTANCE);
+        assertThat(remote.updates.get(1)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("write the pending updates before creating a node")
+    void flushBeforeCreate() {
+        CoalescingFirebaseClient client = newClient(100);
+        client.update(SUBSCRIPTION, task("first", "Draft"));
+        client.create(path("queries/1"), NodeValue.empty());
+
+        assertThat(remote.operations).containsExactly("update", "create")
+                                     .inOrder();
+    }
+
+    @Test
+    @DisplayName("write a full batch without waiting for the end of the window")
+    void writeFullBatch() {
+        CoalescingFirebaseClient client = newClient(2);
+        client.update(SUBSCRIPTION, task("first", "Draft"));
+        assertThat(remote.updates).isEmpty();
+        client.update(SUBSCRIPTION, task("second", "Draft"));
+
+        assertThat(remote.updates).hasSize(1);
+        assertThat(client.stats()
+                         .maxBatchSize()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("write the updates of a failed batch in full with the next batch")
+    void retryFailedBatch() {
+        CoalescingFirebaseClient client = newClient(100);
+        client.update(SUBSCRIPTION, task("first", "Draft"));
+        client.flush();
+        client.update(SUBSCRIPTION, task("first", "Final"));
+        client.update(SUBSCRIPTION, task("second", "Buy milk"));
+        remote.failNextUpdate = true;
+        assertThrows(IllegalStateException.class, client::flush);
+        client.update(SUBSCRIPTION, task("second", "Buy bread"));
+
+        client.flush();
+
+        JsonObject expected = new JsonObject();
+        expected.add("subscriptions/tasks/first", fields("Final"));
+        expected.add("subscriptions/tasks/second", fields("Buy bread"));
+        assertThat(remote.updates.get(1)).isEqualTo(expected);
+    }
+
+    @Nested
+    @DisplayName("with the Firebase emulator")
+    @EnabledIfSystemProperty(named = "tasks.firebase.emulator", matches = "true")
+    class Emulator {
+
+        @Test
+        @DisplayName("store the coalesced updates")
+        void store() {
+            FirebaseClient client = Firebase.client();
+            NodePath node = path("coalescing-test/" + newUuid());
+            client.update(node, task("first", "Draft"));
+            client.update(node, task("first", "Final"));
+            client.update(node, task("second", "Buy milk"));
+
+            StoredJson stored = client.fetchNode(node)
+                                      .orElseThrow(IllegalStateException::new);
+            JsonObject expected = new JsonObject();
+            expected.add("first", fields("Final"));
+            expected.add("second", fields("Buy milk"));
+            assertThat(stored.asJsonObject()).isEqualTo(expected);
+            client.delete(node);
+        }
+    }
+
+    private CoalescingFirebaseClient newClient(int maxBatchSize) {
+        return CoalescingFirebaseClient
+                .newBuilder(remote)
+                .setWindow(LONG_WINDOW)
+                .setMaxBatchSize(maxBatchSize)
+                .build();
+    }
+
+    private static NodePath path(String value) {
+        return NodePath.newBuilder()
+                       .setValue(value)
+                       .build();
+    }
+
+    private static NodeValue task(String key, String title) {
+        NodeValue value = NodeValue.empty();
+        value.underlyingJson()
+             .add(key, fields(title));
+        return value;
+    }
+
+    private static JsonObject fields(String title) {
+        JsonObject fields = new JsonObject();
+        fields.addProperty("title", title);
+        fields.addProperty("done", false);
+        return fields;
+    }
+
+    /**
+     * A {@code FirebaseClient} which records the writes instead of performing them.
+     */
+    private static final class RecordingClient implements FirebaseClient {
+
+        private final List<JsonObject> updates = new ArrayList<>();
+        private final List<String> operations = new ArrayList<>();
+        private boolean failNextUpdate;
+
+        @Override
+        public Optional<StoredJson> fetchNode(NodePath nodePath) {
+            operations.add("fetch");
+            return Optional.empty();
+        }
+
+        @Override
+        public void subscribeTo(NodePath nodePath, ChildEventListener listener) {
+            operations.add("subscribe");
+        }
+
+        @Override
+        public void create(NodePath nodePath, NodeValue value) {
+            operations.add("create");
+        }
+
+        @Override
+        public void update(NodePath nodePath, NodeValue value) {
+            operations.add("update");
+            if (failNextUpdate) {
+                failNextUpdate = false;
+                throw new IllegalStateException("The update has failed.");
+            }
+            updates.add(value.underlyingJson()
+                             .deepCopy());
+        }
+
+        @Override
+        public void delete(NodePath nodePath) {
+            operations.add("delete");
+        }
+    }
+}
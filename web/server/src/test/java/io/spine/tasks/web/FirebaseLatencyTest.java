@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.flogger.FluentLogger;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Query;
+import io.spine.client.Subscription;
+import io.spine.client.Topic;
+import io.spine.core.Command;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.metrics.LatencyHistogram;
+import io.spine.tasks.server.TasksContext;
+import io.spine.web.firebase.query.FirebaseQueryBridge;
+import io.spine.web.firebase.query.FirebaseQueryResponse;
+import io.spine.web.firebase.subscription.FirebaseSubscriptionBridge;
+import io.spine.web.query.QueryBridge;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+/**
+ * Measures how the latency of Firebase propagates to the latency of the web server.
+ *
+ * <p>The database is {@linkplain LocalFirebaseClient kept in memory} with a fixed latency, so
+ * that the results do not depend on the network and the emulator. The test reports
+ * the measured percentiles and only checks that the latency of the database is not hidden,
+ * since each query and each update is written to the database.
+ */
+@DisplayName("Firebase latency should")
+class FirebaseLatencyTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final Duration[] DATABASE_LATENCIES = {
+            Duration.ZERO, Duration.ofMillis(5), Duration.ofMillis(20)
+    };
+    private static final int REQUESTS = 100;
+    private static final long UPDATE_TIMEOUT = SECONDS.toNanos(10);
+    private static final String PATH = "/query";
+
+    private final ActorRequestFactory requests = requests();
+
+    @Test
+    @DisplayName("add to the latency of the query servlet")
+    void query() throws Exception {
+        for (Duration latency : DATABASE_LATENCIES) {
+            LocalFirebaseClient firebase = LocalFirebaseClient.newBuilder()
+                                                              .setLatency(latency)
+                                                              .setRecordLimit(0)
+                                                              .build();
+            FirebaseQueryBridge bridge = FirebaseQueryBridge
+                    .newBuilder()
+                    .setFirebaseClient(firebase)
+                    .setQueryService(TasksContext.queryService())
+                    .build();
+            ExecutorService handlers = Executors.newFixedThreadPool(4);
+            AsyncProcessing processing = AsyncProcessing.create(handlers, 16,
+                                                                Duration.ofSeconds(10));
+            LatencyHistogram servlet = new LatencyHistogram();
+            byte[] query = requests.query()
+                                   .all(Task.class)
+                                   .toByteArray();
+            try (TestServletContainer container = TestServletContainer.start(
+                    8, ImmutableMap.of(PATH, new QueryServlet(bridge, processing)))) {
+                for (int i = 0; i < REQUESTS; i++) {
+                    long start = System.nanoTime();
+                    int status = container.post(PATH, query, BinaryMessages.CONTENT_TYPE)
+                                          .status();
+                    servlet.recordSince(start);
+                    assertThat(status).isEqualTo(SC_OK);
+                }
+            }
+            handlers.shutdown();
+            report("query servlet", latency, servlet);
+            assertThat(firebase.writeCount()).isAtLeast(REQUESTS);
+            assertThat(servlet.snapshot()
+                              .valueAt(50)).isAtLeast(latency.toNanos());
+        }
+    }
+
+    @Test
+    @DisplayName("add to the delivery time of the subscription updates")
+    void subscription() throws InterruptedException {
+        for (Duration latency : DATABASE_LATENCIES) {
+            LocalFirebaseClient firebase = LocalFirebaseClient.newBuilder()
+                                                              .setLatency(latency)
+                                                              .setRecordLimit(0)
+                                                              .build();
+            FirebaseSubscriptionBridge bridge = FirebaseSubscriptionBridge
+                    .newBuilder()
+                    .setFirebaseClient(firebase)
+                    .setSubscriptionService(TasksContext.subscriptionService())
+                    .build();
+            Topic topic = requests.topic()
+                                  .allOf(Task.class);
+            Subscription subscription = bridge.subscribe(topic)
+                                              .getSubscription();
+            LatencyHistogram delivery = new LatencyHistogram();
+            for (int i = 0; i < REQUESTS; i++) {
+                long writes = firebase.writeCount();
+                long start = System.nanoTime();
+                TasksContext.commandService()
+                            .post(createTask(i), noOpObserver());
+                awaitWrite(firebase, writes);
+                delivery.recordSince(start);
+            }
+            bridge.cancel(subscription);
+            report("subscription update", latency, delivery);
+            assertThat(delivery.snapshot()
+                               .valueAt(50)).isAtLeast(latency.toNanos());
+        }
+    }
+
+    private static void awaitWrite(LocalFirebaseClient firebase, long writesBefore)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + UPDATE_TIMEOUT;
+        while (firebase.writeCount() == writesBefore) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private Command createTask(int index) {
+        CreateTask createTask = CreateTask
+                .newBuilder()
+                .setId(TaskIds.generate())
+                .setTitle("Measure the latency #" + index)
+                .vBuild();
+        return requests.command()
+                       .create(createTask);
+    }
+
+    private static void report(String name, Duration latency, LatencyHistogram histogram) {
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        log.at(Level.INFO)
+           .log("With the Firebase latency of %d ms, the %s latency is %.2f ms at p50, " +
+                        "%.2f ms at p99 and %.2f ms at most.",
+                latency.toMillis(), name,
+                millis(snapshot.valueAt(50)), millis(snapshot.valueAt(99)),
+                millis(snapshot.max()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) MILLISECONDS.toNanos(1);
+    }
+
+    private static ActorRequestFactory requests() {
+        UserId actor = UserId.newBuilder()
+                             .setValue("Latency meter")
+                             .build();
+        return ActorRequestFactory.newBuilder()
+                                  .setActor(actor)
+                                  .build();
+    }
+
+    /**
+     * Serves the binary queries through the given bridge.
+     */
+    @SuppressWarnings("serial") // Java serialization is not supported.
+    private static final class QueryServlet extends HttpServlet {
+
+        private final QueryBridge<FirebaseQueryResponse> bridge;
+        private final AsyncProcessing processing;
+
+        private QueryServlet(QueryBridge<FirebaseQueryResponse> bridge,
+                             AsyncProcessing processing) {
+            super();
+            this.bridge = bridge;
+            this.processing = processing;
+        }
+
+        @Override
+        protected void doPost(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+            processing.process(req, resp, (request, response) -> BinaryMessages.serve(
+                    request, response, Query.parser(), bridge::send
+            ));
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+@DisplayName("`LeaseTable` should")
+class LeaseTableTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final long LEASE_NANOS = LEASE.toNanos();
+
+    private final LeaseTable<String> table = new LeaseTable<>(LEASE);
+
+    @Test
+    @DisplayName("expire a lease which is not renewed in time")
+    void expire() {
+        table.renew("first", 0);
+
+        assertThat(table.expire(LEASE_NANOS - 1)).isEmpty();
+        assertThat(table.expire(LEASE_NANOS * 2)).containsExactly("first");
+        assertThat(table.contains("first")).isFalse();
+    }
+
+    @Test
+    @DisplayName("keep a renewed lease")
+    void renew() {
+        table.renew("first", 0);
+        table.renew("first", LEASE_NANOS / 2);
+
+        assertThat(table.expire(LEASE_NANOS + 1)).isEmpty();
+        assertThat(table.expire(LEASE_NANOS * 2)).containsExactly("first");
+    }
+
+    @Test
+    @DisplayName("not expire a removed lease")
+    void remove() {
+        table.renew("first", 0);
+
+        assertThat(table.remove("first")).isTrue();
+        assertThat(table.remove("first")).isFalse();
+        assertThat(table.expire(LEASE_NANOS * 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("expire exactly the leases of 50k subscriptions which stop keeping up")
+    void manySubscriptions() {
+        int subscriptions = 50_000;
+        for (int i = 0; i < subscriptions; i++) {
+            table.renew(i, 0);
+        }
+        Set<Integer> expired = new HashSet<>();
+        long step = LEASE_NANOS / 10;
+        for (long now = step; now <= LEASE_NANOS * 3; now += step) {
+            if (now % (LEASE_NANOS / 2) == 0) {
+                for (int i = 0; i < subscriptions; i += 2) {
+                    table.renew(i, now);
+                }
+            }
+            ImmutableList<Integer> expiredNow = table.expire(now);
+            for (Integer key : expiredNow) {
+                assertThat(expired.add(key)).isTrue();
+                assertThat(key % 2).isEqualTo(1);
+            }
+        }
+        assertThat(expired).hasSize(subscriptions / 2);
+        assertThat(table.size()).isEqualTo(subscriptions / 2);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.NodeValue;
+import io.spine.web.firebase.StoredJson;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.tasks.web.LocalFirebaseClient.Operation.CREATE;
+import static io.spine.tasks.web.LocalFirebaseClient.Operation.DELETE;
+import static io.spine.tasks.web.LocalFirebaseClient.Operation.UPDATE;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`LocalFirebaseClient` should")
+class LocalFirebaseClientTest {
+
+    private static final NodePath QUERY = path("queries/first");
+    private static final NodePath ROOT = NodePath.getDefaultInstance();
+
+    @Test
+    @DisplayName("store the created nodes")
+    void create() {
+        LocalFirebaseClient client = LocalFirebaseClient.newBuilder()
+                                                        .build();
+        client.create(QUERY, task("first", "Draft"));
+
+        StoredJson stored = client.fetchNode(QUERY)
+                                  .orElseThrow(IllegalStateException::new);
+        assertThat(stored.asJsonObject()).isEqualTo(task("first", "Draft").underlyingJson());
+        assertThat(client.fetchNode(path("queries/second"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("apply the multi-path updates and remove the `null` nodes")
+    void update() {
+        LocalFirebaseClient client = LocalFirebaseClient.newBuilder()
+                                                        .build();
+        client.create(QUERY, task("first", "Draft"));
+        NodeValue update = NodeValue.empty();
+        update.underlyingJson()
+              .addProperty("subscriptions/tasks/first/title", "Final");
+        update.underlyingJson()
+              .add("queries/first/first", JsonNull.INSTANCE);
+        client.update(ROOT, update);
+
+        assertThat(client.fetchNode(path("queries"))).isEmpty();
+        StoredJson task = client.fetchNode(path("subscriptions/tasks/first"))
+                                .orElseThrow(IllegalStateException::new);
+        JsonObject expected = new JsonObject();
+        expected.addProperty("title", "Final");
+        assertThat(task.asJsonObject()).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("record the writes")
+    void recordWrites() {
+        LocalFirebaseClient client = LocalFirebaseClient.newBuilder()
+                                                        .setRecordLimit(2)
+                                                        .build();
+        client.create(QUERY, task("first", "Draft"));
+        client.update(QUERY, task("first", "Final"));
+        client.delete(QUERY);
+
+        assertThat(client.writeCount()).isEqualTo(3);
+        assertThat(client.writes()).hasSize(2);
+        LocalFirebaseClient.Write update = client.writes()
+                                                 .get(0);
+        assertThat(update.operation()).isEqualTo(UPDATE);
+        assertThat(update.path()).isEqualTo(QUERY.getValue());
+        assertThat(update.value()).isEqualTo(task("first", "Final").underlyingJson());
+        assertThat(client.writes()
+                         .get(1)
+                         .operation()).isEqualTo(DELETE);
+        assertThat(client.fetchNode(QUERY)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("fail the operations at the configured rate")
+    void fail() {
+        LocalFirebaseClient client = LocalFirebaseClient.newBuilder()
+                                                        .setFailureRate(1)
+                                                        .build();
+        assertThrows(IllegalStateException.class,
+                     () -> client.create(QUERY, task("first", "Draft")));
+
+        assertThat(client.failures()).isEqualTo(1);
+        assertThat(client.writeCount()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("delay the operations by the configured latency")
+    void delay() {
+        Duration latency = Duration.ofMillis(20);
+        LocalFirebaseClient client = LocalFirebaseClient.newBuilder()
+                                                        .setLatency(latency)
+                                                        .build();
+        long start = System.nanoTime();
+        client.create(QUERY, task("first", "Draft"));
+
+        assertThat(System.nanoTime() - start).isAtLeast(latency.toNanos());
+        assertThat(client.writes()
+                         .get(0)
+                         .operation()).isEqualTo(CREATE);
+    }
+
+    private static NodePath path(String value) {
+        return NodePath.newBuilder()
+                       .setValue(value)
+                       .build();
+    }
+
+    private static NodeValue task(String key, String title) {
+        NodeValue value = NodeValue.empty();
+        JsonObject fields = new JsonObject();
+        fields.addProperty("title", title);
+        fields.addProperty("done", false);
+        value.underlyingJson()
+             .add(key, fields);
+        return value;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.StringValue;
+import io.spine.base.FieldPath;
+import io.spine.base.Identifier;
+import io.spine.client.CompositeFilter;
+import io.spine.client.Filter;
+import io.spine.client.IdFilter;
+import io.spine.client.Query;
+import io.spine.client.Target;
+import io.spine.client.TargetFilters;
+import io.spine.protobuf.AnyPacker;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskId;
+import io.spine.tasks.TaskIds;
+import io.spine.type.TypeUrl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.client.CompositeFilter.CompositeOperator.ALL;
+import static io.spine.client.CompositeFilter.CompositeOperator.EITHER;
+import static io.spine.client.Filter.Operator.EQUAL;
+import static io.spine.client.Filter.Operator.GREATER_THAN;
+
+@DisplayName("`QueryMatcher` should")
+class QueryMatcherTest {
+
+    private final TaskId id = TaskIds.generate();
+    private final Any packedId = Identifier.pack(id);
+
+    @Test
+    @DisplayName("match any entity by a query for all entities")
+    void includeAll() {
+        Query query = query(Target.newBuilder()
+                                  .setIncludeAll(true));
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Buy milk"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("match only the entities with the requested IDs")
+    void byId() {
+        Query query = query(filters(TargetFilters.newBuilder()
+                                                 .setIdFilter(IdFilter.newBuilder()
+                                                                      .addId(packedId))));
+        Any otherId = Identifier.pack(TaskIds.generate());
+
+        assertThat(QueryMatcher.mayMatch(query, packedId, null)).isTrue();
+        assertThat(QueryMatcher.mayMatch(query, otherId, null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("evaluate the conjunctions of the column filters")
+    void all() {
+        Query query = query(filters(TargetFilters.newBuilder()
+                                                 .addFilter(composite(ALL,
+                                                                      title(EQUAL, "Buy milk")))));
+
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Buy milk"))).isTrue();
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Sell milk"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("evaluate the disjunctions of the column filters")
+    void either() {
+        CompositeFilter either = composite(EITHER,
+                                           title(EQUAL, "Buy milk"),
+                                           title(GREATER_THAN, "X"));
+        Query query = query(filters(TargetFilters.newBuilder()
+                                                 .addFilter(either)));
+
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Buy milk"))).isTrue();
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Zebra"))).isTrue();
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Sell milk"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("consider the filters of unsupported values matching")
+    void unsupported() {
+        Filter filter = Filter.newBuilder()
+                              .setFieldPath(FieldPath.newBuilder()
+                                                     .addFieldName("title"))
+                              .setValue(AnyPacker.pack(TaskIds.generate()))
+                              .setOperator(EQUAL)
+                              .build();
+        Query query = query(filters(TargetFilters.newBuilder()
+                                                 .addFilter(composite(ALL, filter))));
+
+        assertThat(QueryMatcher.mayMatch(query, packedId, task("Buy milk"))).isTrue();
+    }
+
+    private Task task(String title) {
+        return Task.newBuilder()
+                   .setId(id)
+                   .setTitle(title)
+                   .build();
+    }
+
+    private static Filter title(Filter.Operator operator, String value) {
+        return Filter.newBuilder()
+                     .setFieldPath(FieldPath.newBuilder()
+                                            .addFieldName("title"))
+                     .setValue(AnyPacker.pack(StringValue.of(value)))
+                     .setOperator(operator)
+                     .build();
+    }
+
+    private static CompositeFilter composite(CompositeFilter.CompositeOperator operator,
+                                             Filter... filters) {
+        CompositeFilter.Builder result = CompositeFilter.newBuilder()
+                                                        .setOperator(operator);
+        for (Filter filter : filters) {
+            result.addFilter(filter);
+        }
+        return result.build();
+    }
+
+    private static Target.Builder filters(TargetFilters.Builder filters) {
+        return Target.newBuilder()
+                     .setFilters(filters);
+    }
+
+    private static Query query(Target.Builder target) {
+        return Query.newBuilder()
+                    .setTarget(target.setType(TypeUrl.of(Task.class)
+                                                     .value()))
+                    .build();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.Empty;
+import io.spine.base.Identifier;
+import io.spine.client.ActorRequestFactory;
+import io.spine.core.Ack;
+import io.spine.core.Command;
+import io.spine.core.Status;
+import io.spine.core.UserId;
+import io.spine.json.Json;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Compares the memory allocated on handling a command request in the JSON and in the binary
+ * Protobuf encoding.
+ *
+ * <p>Each request is read from a byte stream, as a servlet container provides it, parsed,
+ * and answered with an acknowledgement written to a stream. The handling of the command
+ * itself is left out, as it does not depend on the encoding.
+ *
+ * <p>The test reports the allocated bytes per request and only checks that the binary
+ * encoding allocates less, so that it does not depend on the JVM details.
+ */
+@DisplayName("Request handling should")
+class RequestAllocationTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int WARM_UP = 10_000;
+    private static final int REQUESTS = 10_000;
+
+    private final Command command = newCommand();
+    private final Ack ack = Ack
+            .newBuilder()
+            .setMessageId(Identifier.pack(command.getId()))
+            .setStatus(Status.newBuilder()
+                             .setOk(Empty.getDefaultInstance()))
+            .build();
+
+    @Test
+    @DisplayName("allocate less memory per request in the binary encoding")
+    void compare() throws IOException {
+        byte[] json = Json.toCompactJson(command)
+                          .getBytes(UTF_8);
+        byte[] binary = command.toByteArray();
+        measure(WARM_UP, json, this::handleJson);
+        measure(WARM_UP, binary, this::handleBinary);
+
+        long jsonBytes = measure(REQUESTS, json, this::handleJson);
+        long binaryBytes = measure(REQUESTS, binary, this::handleBinary);
+
+        log.at(Level.INFO)
+           .log("A JSON request allocates %d bytes, a binary one allocates %d bytes.",
+                jsonBytes, binaryBytes);
+        assertThat(binaryBytes).isLessThan(jsonBytes);
+    }
+
+    /**
+     * Handles the requests and obtains the average number of bytes allocated per request.
+     */
+    private static long measure(int requests, byte[] body, Handler handler) throws IOException {
+        InputStream[] inputs = new InputStream[requests];
+        for (int i = 0; i < requests; i++) {
+            inputs[i] = new ByteArrayInputStream(body);
+        }
+        OutputStream output = ByteStreams.nullOutputStream();
+        long before = allocatedBytes();
+        for (InputStream input : inputs) {
+            handler.handle(input, output);
+        }
+        return (allocatedBytes() - before) / requests;
+    }
+
+    private void handleJson(InputStream input, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, UTF_8));
+        String body = reader.lines()
+                            .collect(joining());
+        Command parsed = Json.fromJson(body, Command.class);
+        assertThat(parsed.getId()).isEqualTo(command.getId());
+        output.write(Json.toCompactJson(ack)
+                         .getBytes(UTF_8));
+    }
+
+    private void handleBinary(InputStream input, OutputStream output) throws IOException {
+        Command parsed = BinaryMessages.read(input, -1, Command.parser());
+        assertThat(parsed.getId()).isEqualTo(command.getId());
+        BinaryMessages.write(ack, output);
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread()
+                                                     .getId());
+    }
+
+    private static Command newCommand() {
+        UserId actor = UserId.newBuilder()
+                             .setValue("Alice")
+                             .build();
+        CreateTask createTask = CreateTask
+                .newBuilder()
+                .setId(TaskIds.generate())
+                .setTitle("Measure the allocations")
+                .vBuild();
+        return ActorRequestFactory.newBuilder()
+                                  .setActor(actor)
+                                  .build()
+                                  .command()
+                                  .create(createTask);
+    }
+
+    /**
+     * Handles a request read from the input and writes the response to the output.
+     */
+    @FunctionalInterface
+    private interface Handler {
+
+        void handle(InputStream input, OutputStream output) throws IOException;
+    }
+}
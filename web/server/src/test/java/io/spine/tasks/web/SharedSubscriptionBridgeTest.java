@@ -0,0 +1,289 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.collect.ImmutableSet;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Subscription;
+import io.spine.client.SubscriptionId;
+import io.spine.client.Topic;
+import io.spine.core.Response;
+import io.spine.core.Responses;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskIds;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.subscription.FirebaseSubscription;
+import io.spine.web.subscription.SubscriptionBridge;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.Uninterruptibles.awaitUninterruptibly;
+import static io.spine.base.Identifier.newUuid;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("`SharedSubscriptionBridge` should")
+class SharedSubscriptionBridgeTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final RecordingBridge delegate = new RecordingBridge();
+    private final SharedSubscriptionBridge bridge = SharedSubscriptionBridge.create(delegate,
+                                                                                   LEASE);
+
+    @Test
+    @DisplayName("serve the subscriptions to the same topic by a single subscription")
+    void share() {
+        FirebaseSubscription first = bridge.subscribe(allTasks("Alice"));
+        FirebaseSubscription second = bridge.subscribe(allTasks("Bob"));
+
+        assertThat(delegate.subscribed).hasSize(1);
+        assertThat(second.getNodePath()).isEqualTo(first.getNodePath());
+        assertThat(second.getSubscription()
+                         .getId()).isNotEqualTo(first.getSubscription()
+                                                     .getId());
+        assertThat(bridge.topics()).isEqualTo(1);
+        assertThat(bridge.subscribers()).isEqualTo(2);
+        assertThat(bridge.sharedSubscriptions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("subscribe to the different topics separately")
+    void separateTopics() {
+        FirebaseSubscription all = bridge.subscribe(allTasks("Alice"));
+        FirebaseSubscription one = bridge.subscribe(oneTask("Alice"));
+
+        assertThat(delegate.subscribed).hasSize(2);
+        assertThat(one.getNodePath()).isNotEqualTo(all.getNodePath());
+    }
+
+    @Test
+    @DisplayName("cancel the shared subscription when the last subscriber leaves")
+    void cancelLast() {
+        FirebaseSubscription first = bridge.subscribe(allTasks("Alice"));
+        FirebaseSubscription second = bridge.subscribe(allTasks("Bob"));
+
+        bridge.cancel(first.getSubscription());
+        assertThat(delegate.cancelled).isEmpty();
+
+        bridge.cancel(second.getSubscription());
+        assertThat(delegate.cancelled).containsExactly(delegate.subscribed.get(0));
+        assertThat(bridge.topics()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("keep up the shared subscription once for many subscribers")
+    void keepUpOnce() {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            subscriptions.add(bridge.subscribe(allTasks("User #" + i))
+                                    .getSubscription());
+        }
+        subscriptions.forEach(bridge::keepUp);
+
+        assertThat(delegate.keptUp).isEmpty();
+    }
+
+    @Test
+    @DisplayName("drop the subscribers which stop keeping up")
+    void dropExpired() throws InterruptedException {
+        SharedSubscriptionBridge bridge = SharedSubscriptionBridge.create(delegate,
+                                                                          Duration.ofMillis(10));
+        FirebaseSubscription gone = bridge.subscribe(allTasks("Alice"));
+        FirebaseSubscription active = bridge.subscribe(oneTask("Bob"));
+        Thread.sleep(20);
+
+        bridge.keepUp(active.getSubscription());
+
+        assertThat(bridge.subscribers()).isEqualTo(1);
+        assertThat(delegate.cancelled).hasSize(1);
+        assertThat(delegate.cancelled.get(0)
+                                     .getTopic()).isEqualTo(gone.getSubscription()
+                                                                .getTopic());
+    }
+
+    @Test
+    @DisplayName("report an error on keeping up an expired subscription")
+    void keepUpExpired() throws InterruptedException {
+        SharedSubscriptionBridge bridge = SharedSubscriptionBridge.create(delegate,
+                                                                          Duration.ofMillis(10));
+        FirebaseSubscription gone = bridge.subscribe(allTasks("Alice"));
+        Thread.sleep(20);
+        bridge.subscribe(oneTask("Bob"));
+
+        Response response = bridge.keepUp(gone.getSubscription());
+
+        assertThat(response.getStatus()
+                           .hasError()).isTrue();
+        assertThat(delegate.keptUp).isEmpty();
+    }
+
+    @Test
+    @DisplayName("serve other topics while the delegate is subscribing to a topic")
+    void subscribeConcurrently() throws Exception {
+        CountDownLatch gate = new CountDownLatch(1);
+        delegate.gate = gate;
+        ExecutorService subscribers = Executors.newFixedThreadPool(2);
+        Future<FirebaseSubscription> first = subscribers.submit(
+                () -> bridge.subscribe(allTasks("Alice")));
+        Future<FirebaseSubscription> second = subscribers.submit(
+                () -> bridge.subscribe(allTasks("Bob")));
+        delegate.waiting.await(10, SECONDS);
+
+        delegate.gate = null;
+        FirebaseSubscription other = bridge.subscribe(oneTask("Alice"));
+        assertThat(other.getNodePath()).isNotNull();
+        assertThat(first.isDone()).isFalse();
+
+        gate.countDown();
+        assertThat(second.get(10, SECONDS)
+                         .getNodePath()).isEqualTo(first.get(10, SECONDS)
+                                                        .getNodePath());
+        subscribers.shutdown();
+        assertThat(delegate.subscribed).hasSize(2);
+        assertThat(bridge.subscribers()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("subscribe again after the delegate fails")
+    void retryFailed() {
+        delegate.failNext = true;
+        assertThrows(IllegalStateException.class, () -> bridge.subscribe(allTasks("Alice")));
+        assertThat(bridge.topics()).isEqualTo(0);
+
+        FirebaseSubscription retried = bridge.subscribe(allTasks("Alice"));
+
+        assertThat(delegate.subscribed).hasSize(1);
+        assertThat(retried.getSubscription()
+                          .getTopic()).isEqualTo(delegate.subscribed.get(0)
+                                                                    .getTopic());
+        assertThat(bridge.topics()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("pass the unknown subscriptions to the delegate")
+    void passUnknown() {
+        Subscription unknown = Subscription
+                .newBuilder()
+                .setId(SubscriptionId.newBuilder()
+                                     .setValue(newUuid()))
+                .build();
+        bridge.keepUp(unknown);
+        bridge.cancel(unknown);
+
+        assertThat(delegate.keptUp).containsExactly(unknown);
+        assertThat(delegate.cancelled).containsExactly(unknown);
+    }
+
+    private static Topic allTasks(String user) {
+        return requests(user).topic()
+                             .allOf(Task.class);
+    }
+
+    private static Topic oneTask(String user) {
+        return requests(user).topic()
+                             .someOf(Task.class, ImmutableSet.of(TaskIds.generate()));
+    }
+
+    private static ActorRequestFactory requests(String user) {
+        UserId actor = UserId.newBuilder()
+                             .setValue(user)
+                             .build();
+        return ActorRequestFactory.newBuilder()
+                                  .setActor(actor)
+                                  .build();
+    }
+
+    /**
+     * A subscription bridge which records the requests instead of serving them.
+     *
+     * <p>May be set to fail the next subscription, or to hold the subscriptions till a gate
+     * is opened.
+     */
+    private static final class RecordingBridge
+            implements SubscriptionBridge<FirebaseSubscription, Response, Response> {
+
+        private final List<Subscription> subscribed = Collections.synchronizedList(
+                new ArrayList<>());
+        private final List<Subscription> keptUp = new ArrayList<>();
+        private final List<Subscription> cancelled = new ArrayList<>();
+        private final CountDownLatch waiting = new CountDownLatch(1);
+        private volatile boolean failNext;
+        private volatile @Nullable CountDownLatch gate;
+
+        @Override
+        public FirebaseSubscription subscribe(Topic topic) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Unable to subscribe.");
+            }
+            CountDownLatch currentGate = gate;
+            if (currentGate != null) {
+                waiting.countDown();
+                awaitUninterruptibly(currentGate);
+            }
+            Subscription subscription = Subscription
+                    .newBuilder()
+                    .setId(SubscriptionId.newBuilder()
+                                         .setValue(newUuid()))
+                    .setTopic(topic)
+                    .build();
+            subscribed.add(subscription);
+            NodePath node = NodePath.newBuilder()
+                                    .setValue("subscriptions/" + newUuid())
+                                    .build();
+            return FirebaseSubscription
+                    .newBuilder()
+                    .setSubscription(subscription)
+                    .setNodePath(node)
+                    .build();
+        }
+
+        @Override
+        public Response keepUp(Subscription subscription) {
+            keptUp.add(subscription);
+            return Responses.ok();
+        }
+
+        @Override
+        public Response cancel(Subscription subscription) {
+            cancelled.add(subscription);
+            return Responses.ok();
+        }
+    }
+}
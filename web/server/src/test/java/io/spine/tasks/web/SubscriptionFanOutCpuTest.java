@@ -0,0 +1,197 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.firebase.database.ChildEventListener;
+import io.spine.client.ActorRequestFactory;
+import io.spine.client.Subscription;
+import io.spine.client.Topic;
+import io.spine.core.Command;
+import io.spine.core.Response;
+import io.spine.core.UserId;
+import io.spine.tasks.Task;
+import io.spine.tasks.TaskIds;
+import io.spine.tasks.command.CreateTask;
+import io.spine.tasks.server.TasksContext;
+import io.spine.web.firebase.FirebaseClient;
+import io.spine.web.firebase.NodePath;
+import io.spine.web.firebase.NodeValue;
+import io.spine.web.firebase.StoredJson;
+import io.spine.web.firebase.subscription.FirebaseSubscription;
+import io.spine.web.firebase.subscription.FirebaseSubscriptionBridge;
+import io.spine.web.subscription.SubscriptionBridge;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spine.grpc.StreamObservers.noOpObserver;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Compares the CPU time spent on delivering the {@code Task} updates to many subscribers
+ * of the same topic with and without sharing the subscriptions.
+ *
+ * <p>The updates are written to a {@code FirebaseClient} which only counts them. The test
+ * reports the CPU time of the process and only checks the number of the writes, so that
+ * it does not depend on the performance of the build machine.
+ */
+@DisplayName("Subscription fan-out should")
+class SubscriptionFanOutCpuTest {
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int SUBSCRIBERS = 10_000;
+    private static final int COMMANDS = 20;
+    private static final long TIMEOUT = SECONDS.toNanos(60);
+
+    @Test
+    @DisplayName("be measured with and without sharing the subscriptions at 10k subscribers")
+    void compare() throws InterruptedException {
+        CountingClient firebase = new CountingClient();
+        FirebaseSubscriptionBridge direct = FirebaseSubscriptionBridge
+                .newBuilder()
+                .setFirebaseClient(firebase)
+                .setSubscriptionService(TasksContext.subscriptionService())
+                .build();
+        long directCpu = measure("separate subscriptions", direct, firebase,
+                                 (long) SUBSCRIBERS * COMMANDS);
+        long directWrites = firebase.writes.sumThenReset();
+
+        SharedSubscriptionBridge shared =
+                SharedSubscriptionBridge.create(direct, Duration.ofMinutes(5));
+        long sharedCpu = measure("shared subscriptions", shared, firebase, COMMANDS);
+        long sharedWrites = firebase.writes.sumThenReset();
+
+        assertThat(shared.topics()).isEqualTo(0);
+        assertThat(sharedWrites).isLessThan(directWrites);
+        log.at(Level.INFO)
+           .log("Sharing the subscriptions takes %.1f%% of the CPU time.",
+                sharedCpu * 100.0 / directCpu);
+    }
+
+    /**
+     * Subscribes the given number of the clients to all the tasks, posts the commands, waits
+     * for the expected number of the writes and cancels the subscriptions.
+     *
+     * @return the CPU time of the process spent after subscribing, in nanoseconds
+     */
+    private static long measure(String name,
+                                SubscriptionBridge<FirebaseSubscription, Response, Response> bridge,
+                                CountingClient firebase,
+                                long expectedWrites) throws InterruptedException {
+        List<Subscription> subscriptions = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            Topic topic = requests("Subscriber #" + i).topic()
+                                                      .allOf(Task.class);
+            subscriptions.add(bridge.subscribe(topic)
+                                    .getSubscription());
+        }
+        firebase.writes.reset();
+        long startCpu = processCpuTime();
+        ActorRequestFactory requests = requests("Author");
+        for (int i = 0; i < COMMANDS; i++) {
+            CreateTask createTask = CreateTask
+                    .newBuilder()
+                    .setId(TaskIds.generate())
+                    .setTitle("Fan me out #" + i)
+                    .vBuild();
+            Command command = requests.command()
+                                      .create(createTask);
+            TasksContext.commandService()
+                        .post(command, noOpObserver());
+        }
+        long deadline = System.nanoTime() + TIMEOUT;
+        while (firebase.writes.sum() < expectedWrites && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long cpu = processCpuTime() - startCpu;
+        assertThat(firebase.writes.sum()).isAtLeast(expectedWrites);
+        subscriptions.forEach(bridge::cancel);
+        log.at(Level.INFO)
+           .log("Delivering %d updates to %d subscribers through %s took %d ms of CPU time.",
+                COMMANDS, SUBSCRIBERS, name, NANOSECONDS.toMillis(cpu));
+        return cpu;
+    }
+
+    private static long processCpuTime() {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean)
+                        ManagementFactory.getOperatingSystemMXBean();
+        return os.getProcessCpuTime();
+    }
+
+    private static ActorRequestFactory requests(String user) {
+        UserId actor = UserId.newBuilder()
+                             .setValue(user)
+                             .build();
+        return ActorRequestFactory.newBuilder()
+                                  .setActor(actor)
+                                  .build();
+    }
+
+    /**
+     * A {@code FirebaseClient} which counts the writes instead of performing them.
+     */
+    private static final class CountingClient implements FirebaseClient {
+
+        private final LongAdder writes = new LongAdder();
+
+        @Override
+        public Optional<StoredJson> fetchNode(NodePath nodePath) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void subscribeTo(NodePath nodePath, ChildEventListener listener) {
+            // Nothing to subscribe to.
+        }
+
+        @Override
+        public void create(NodePath nodePath, NodeValue value) {
+            writes.increment();
+        }
+
+        @Override
+        public void update(NodePath nodePath, NodeValue value) {
+            writes.increment();
+        }
+
+        @Override
+        public void delete(NodePath nodePath) {
+            // Nothing to delete.
+        }
+    }
+}
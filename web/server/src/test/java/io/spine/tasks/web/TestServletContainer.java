@@ -0,0 +1,174 @@
+/*
+ * Copyright 2022, TeamDev. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Redistribution and use in source and/or binary forms, with or without
+ * modification, must retain the above copyright notice and the following
+ * disclaimer.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT
+ * OWNER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL,
+ * SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ * LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE,
+ * DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY
+ * THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package io.spine.tasks.web;
+
+import com.google.common.io.ByteStreams;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import javax.servlet.http.HttpServlet;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An embedded Jetty container serving the given servlets on a random local port.
+ */
+final class TestServletContainer implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 16;
+
+    private final Server server;
+    private final ServerConnector connector;
+
+    private TestServletContainer(Server server, ServerConnector connector) {
+        this.server = server;
+        this.connector = connector;
+    }
+
+    /**
+     * Starts a container with the given number of threads serving the given servlets.
+     *
+     * <p>One of the threads accepts the connections and one more handles the I/O events,
+     * the rest handle the requests.
+     *
+     * @param threads
+     *         the number of the container threads
+     * @param servlets
+     *         the servlets by their paths
+     */
+    static TestServletContainer start(int threads, Map<String, HttpServlet> servlets)
+            throws Exception {
+        Server server = new Server(new QueuedThreadPool(threads, threads));
+        ServerConnector connector = new ServerConnector(server, 1, 1);
+        connector.setHost("127.0.0.1");
+        connector.setPort(0);
+        server.addConnector(connector);
+        ServletContextHandler context = new ServletContextHandler();
+        servlets.forEach((path, servlet) -> {
+            ServletHolder holder = new ServletHolder(servlet);
+            holder.setAsyncSupported(true);
+            context.addServlet(holder, path);
+        });
+        server.setHandler(context);
+        server.start();
+        return new TestServletContainer(server, connector);
+    }
+
+    /**
+     * Posts the given text to the servlet at the given path.
+     */
+    Response post(String path, String body) throws IOException {
+        return post(path, body.getBytes(UTF_8), "text/plain; charset=utf-8");
+    }
+
+    /**
+     * Posts the given text to the servlet at the given path in chunks, without
+     * the {@code Content-Length} header.
+     */
+    Response postChunked(String path, String body) throws IOException {
+        return post(path, body.getBytes(UTF_8), "text/plain; charset=utf-8", true);
+    }
+
+    /**
+     * Posts the given body of the given content type to the servlet at the given path.
+     */
+    Response post(String path, byte[] body, String contentType) throws IOException {
+        return post(path, body, contentType, false);
+    }
+
+    private Response post(String path, byte[] body, String contentType, boolean chunked)
+            throws IOException {
+        URL url = new URL("http", "127.0.0.1", connector.getLocalPort(), path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        if (chunked) {
+            connection.setChunkedStreamingMode(CHUNK_SIZE);
+        }
+        connection.setRequestProperty("Content-Type", contentType);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        int status = connection.getResponseCode();
+        InputStream input = status < HttpURLConnection.HTTP_BAD_REQUEST
+                            ? connection.getInputStream()
+                            : connection.getErrorStream();
+        byte[] responseBody = new byte[0];
+        if (input != null) {
+            try (InputStream stream = input) {
+                responseBody = ByteStreams.toByteArray(stream);
+            }
+        }
+        return new Response(status, responseBody, connection.getHeaderField("Retry-After"));
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+
+    /**
+     * A response of the container.
+     */
+    static final class Response {
+
+        private final int status;
+        private final byte[] body;
+        private final @Nullable String retryAfter;
+
+        private Response(int status, byte[] body, @Nullable String retryAfter) {
+            this.status = status;
+            this.body = body;
+            this.retryAfter = retryAfter;
+        }
+
+        int status() {
+            return status;
+        }
+
+        String body() {
+            return new String(body, UTF_8);
+        }
+
+        byte[] bytes() {
+            return body.clone();
+        }
+
+        @Nullable String retryAfter() {
+            return retryAfter;
+        }
+    }
+}